@@ -0,0 +1,316 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.common.manager;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.util.StringProcessor;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Content addressed file store. Each distinct file is kept once (named by its
+ * SHA-256) and the named files the application uses (Eg. media/{id}) are hard
+ * links to it, so existing paths keep working and sharing a file (copies,
+ * snapshots) only adds a link. The link count is the reference count; a blob
+ * with no other links is removed by collectGarbage().
+ *
+ * Stored files must never be written in place (they may be shared); replace
+ * them by storing new content over the name.
+ *
+ * When links aren't supported (Eg. the target is on another file system) the
+ * content is copied instead. Copies are remembered (until a restart) so they
+ * aren't hashed again on every cleanup.
+ *
+ * @author dshurtleff
+ */
+public class BlobStore
+{
+
+	private static final Logger LOG = Logger.getLogger(BlobStore.class.getName());
+
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final String TEMP_PREFIX = "upload-";
+	private static final String LINK_SUFFIX = ".link";
+	private static final long TEMP_MAX_AGE = TimeUnit.DAYS.toMillis(1);
+	private static final int BUFFER_SIZE = 8192;
+
+	private final File directory;
+	private final Set<Path> copies = ConcurrentHashMap.newKeySet();
+
+	//linking shares the lock; removing a blob takes it exclusively
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	public BlobStore(File directory)
+	{
+		this.directory = directory;
+	}
+
+	/**
+	 * Saves the content under the target name (replacing the target). Content
+	 * already in the store is linked instead of being kept again.
+	 *
+	 * @param in (closed by the caller)
+	 * @param target
+	 * @return content hash
+	 * @throws IOException
+	 */
+	public String store(InputStream in, Path target) throws IOException
+	{
+		Path tempFile = directory.toPath().resolve(TEMP_PREFIX + UUID.randomUUID().toString());
+		String hash;
+		try {
+			MessageDigest digest = newDigest();
+			try (InputStream digestIn = new DigestInputStream(in, digest)) {
+				Files.copy(digestIn, tempFile);
+			}
+			hash = StringProcessor.getHexFromBytes(digest.digest());
+
+			lock.readLock().lock();
+			try {
+				Path blob = pathToBlob(hash);
+				if (Files.exists(blob) == false) {
+					Files.createDirectories(blob.getParent());
+					try {
+						Files.move(tempFile, blob);
+					} catch (FileAlreadyExistsException ex) {
+						//stored by another upload meanwhile
+					}
+				}
+				link(blob, target);
+			} finally {
+				lock.readLock().unlock();
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+		return hash;
+	}
+
+	/**
+	 * Saves a copy of a file that is not in the store (Eg. in an import
+	 * archive)
+	 *
+	 * @param source
+	 * @param target
+	 * @return content hash
+	 * @throws IOException
+	 */
+	public String store(Path source, Path target) throws IOException
+	{
+		try (InputStream in = Files.newInputStream(source)) {
+			return store(in, target);
+		}
+	}
+
+	/**
+	 * Makes the target the same content as a stored file without copying it.
+	 *
+	 * @param source a file saved through the store (files that predate the
+	 * store are added to it first)
+	 * @param target
+	 * @throws IOException
+	 */
+	public void share(Path source, Path target) throws IOException
+	{
+		if (linkCount(source) == 1 && copies.contains(source) == false) {
+			adopt(source);
+		}
+		lock.readLock().lock();
+		try {
+			link(source, target);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds a file saved outside the store; if the content is already stored
+	 * the file is replaced with a link to it.
+	 *
+	 * @param file
+	 * @return content hash
+	 * @throws IOException
+	 */
+	public String adopt(Path file) throws IOException
+	{
+		MessageDigest digest = newDigest();
+		try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+			byte buffer[] = new byte[BUFFER_SIZE];
+			while (in.read(buffer) != -1) {
+				//just hashing
+			}
+		}
+		String hash = StringProcessor.getHexFromBytes(digest.digest());
+
+		lock.readLock().lock();
+		try {
+			Path blob = pathToBlob(hash);
+			if (Files.exists(blob)) {
+				if (Files.isSameFile(blob, file) == false) {
+					link(blob, file);
+				}
+			} else {
+				Files.createDirectories(blob.getParent());
+				link(file, blob);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return hash;
+	}
+
+	private void link(Path existing, Path target) throws IOException
+	{
+		//link beside the target and rename over it so readers never see a partial file
+		Path tempLink = target.resolveSibling(target.getFileName().toString() + "." + UUID.randomUUID().toString() + LINK_SUFFIX);
+		try {
+			boolean copied = false;
+			try {
+				Files.createLink(tempLink, existing);
+			} catch (NoSuchFileException | FileAlreadyExistsException ex) {
+				throw ex;
+			} catch (UnsupportedOperationException | FileSystemException ex) {
+				LOG.log(Level.FINE, MessageFormat.format("Unable to link {0}; copying instead.", target), ex);
+				Files.copy(existing, tempLink);
+				copied = true;
+			}
+			Files.move(tempLink, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			if (copied) {
+				copies.add(target);
+			} else {
+				copies.remove(target);
+			}
+		} finally {
+			Files.deleteIfExists(tempLink);
+		}
+	}
+
+	/**
+	 * @param file
+	 * @return true if the file was saved as a copy because it couldn't be
+	 * linked (so adopting it again won't help)
+	 */
+	public boolean isCopy(Path file)
+	{
+		return copies.contains(file);
+	}
+
+	public Path pathToBlob(String hash)
+	{
+		return directory.toPath().resolve(hash.substring(0, 2)).resolve(hash);
+	}
+
+	/**
+	 * @param hash
+	 * @return number of names using the content; -1 if the file system
+	 * doesn't report link counts
+	 */
+	public int referenceCount(String hash)
+	{
+		Path blob = pathToBlob(hash);
+		if (Files.exists(blob) == false) {
+			return 0;
+		}
+		int links = linkCount(blob);
+		return links < 0 ? links : links - 1;
+	}
+
+	private int linkCount(Path path)
+	{
+		try {
+			return (Integer) Files.getAttribute(path, "unix:nlink");
+		} catch (UnsupportedOperationException | IllegalArgumentException | IOException ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Removes blobs that no file links to anymore and abandoned uploads
+	 *
+	 * @return blobs removed
+	 */
+	public long collectGarbage()
+	{
+		copies.removeIf(copy -> Files.exists(copy) == false);
+
+		long removed = 0;
+		File fanOutDirs[] = directory.listFiles();
+		if (fanOutDirs == null) {
+			return removed;
+		}
+
+		for (File fanOutDir : fanOutDirs) {
+			if (fanOutDir.isDirectory() == false) {
+				if (fanOutDir.getName().startsWith(TEMP_PREFIX)
+						&& System.currentTimeMillis() - fanOutDir.lastModified() > TEMP_MAX_AGE) {
+					fanOutDir.delete();
+				}
+				continue;
+			}
+
+			try (DirectoryStream<Path> blobs = Files.newDirectoryStream(fanOutDir.toPath())) {
+				for (Path blob : blobs) {
+					if (linkCount(blob) < 0) {
+						LOG.log(Level.WARNING, "File system does not report link counts; unable to remove unused blobs.");
+						return removed;
+					}
+
+					lock.writeLock().lock();
+					try {
+						if (linkCount(blob) == 1) {
+							Files.delete(blob);
+							removed++;
+						}
+					} finally {
+						lock.writeLock().unlock();
+					}
+				}
+			} catch (IOException ex) {
+				LOG.log(Level.WARNING, MessageFormat.format("Unable to clean up blob directory: {0}", fanOutDir), ex);
+			}
+		}
+		return removed;
+	}
+
+	private MessageDigest newDigest()
+	{
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new OpenStorefrontRuntimeException("Hash Format not available", "Coding issue", ex);
+		}
+	}
+
+}
@@ -66,11 +66,17 @@ public class FileSystemManager
 	public static final String PLUGIN_UNINSTALLED_DIR = MAIN_PERM_DIR + "/plugins/uninstalled";
 	public static final String PLUGIN_FAILED_DIR = MAIN_PERM_DIR + "/plugins/failed";
 	public static final String DB_DIR = MAIN_DIR + "/db";
+	public static final String SEARCH_INDEX_DIR = MAIN_DIR + "/searchindex";
+	public static final String MEDIA_DERIVATIVE_DIR = MAIN_TEMP_DIR + "/mediaderivative";
+	public static final String BLOB_DIR = MAIN_PERM_DIR + "/blob";
+	public static final String MAIL_OUTBOX_DIR = MAIN_PERM_DIR + "/mailoutbox";
 
 	private static AtomicBoolean started = new AtomicBoolean(false);
 
 	private static final int BUFFER_SIZE = 8192;
 
+	private static BlobStore blobStore;
+
 	public static File getDir(String directory)
 	{
 		File dir = new File(directory);
@@ -126,6 +132,20 @@ public class FileSystemManager
 		return configFile;
 	}
 
+	/**
+	 * Gets the content addressed store that media, resource and attachment
+	 * files are saved through
+	 *
+	 * @return store
+	 */
+	public static synchronized BlobStore getBlobStore()
+	{
+		if (blobStore == null) {
+			blobStore = new BlobStore(getDir(BLOB_DIR));
+		}
+		return blobStore;
+	}
+
 	/**
 	 * Gets a resource from the application war
 	 *
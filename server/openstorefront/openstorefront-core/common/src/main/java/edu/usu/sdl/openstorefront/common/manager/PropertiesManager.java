@@ -59,20 +59,30 @@ public class PropertiesManager
 	public static final String KEY_EXTERNAL_HOST_URL = "external.host.url";
 	public static final String KEY_MAX_ERROR_TICKETS = "errorticket.max";
 	public static final String KEY_SEARCH_SERVER = "search.server";
+	public static final String KEY_SEARCH_HANDLER_THREADS = "search.handler.threads";
+	public static final String KEY_SEARCH_REINDEX_DEBOUNCE = "search.reindex.debounce.millis";
+	public static final String KEY_SEARCH_REINDEX_MAX_WAIT = "search.reindex.maxwait.millis";
+	public static final String KEY_SEARCH_REINDEX_BATCH_SIZE = "search.reindex.batch.size";
+	public static final String KEY_SEARCH_REINDEX_INTERVAL = "search.reindex.interval.millis";
 	public static final String KEY_SOLR_URL = "solr.server.url";
 	public static final String KEY_SOLR_USE_XML = "solr.server.usexml";
 	public static final String KEY_ELASTIC_HOST = "elastic.server.host";
 	public static final String KEY_ELASTIC_PORT = "elastic.server.port";
+	public static final String KEY_LUCENE_INDEX_DIR = "lucene.index.dir";
 	public static final String KEY_MAX_AGE_TRACKING_RECORDS = "trackingrecords.max.age.days";
 	public static final String KEY_EXTERNAL_USER_MANAGER = "external.usermanager";
 	public static final String KEY_EXTERNAL_SYNC_ACTIVATE = "external.sync.activate";
 	public static final String KEY_DBLOG_MAX_RECORD = "dblog.maxrecords";
 	public static final String KEY_DBLOG_ON = "dblog.on";
 	public static final String KEY_DBLOG_LOG_SECURITY = "dblog.logSecurityFilter";
+	public static final String KEY_DBLOG_QUEUE_SIZE = "dblog.queue.size";
+	public static final String KEY_DBLOG_OVERFLOW_POLICY = "dblog.queue.overflowPolicy";
+	public static final String KEY_DBLOG_FLUSH_INTERVAL = "dblog.flush.interval.millis";
 	public static final String KEY_ALLOW_JIRA_FEEDBACK = "jirafeedback.show";
 	public static final String KEY_FILE_HISTORY_KEEP_DAYS = "filehistory.max.days";
 	public static final String KEY_NOTIFICATION_MAX_DAYS = "notification.max.days";
 	public static final String TEMPORARY_MEDIA_KEEP_DAYS = "temporary.media.keep.days";
+	public static final String KEY_MEDIA_DERIVATIVE_CACHE_MB = "media.derivative.cache.mb";
 	public static final String KEY_TEST_EMAIL = "test.email";
 	public static final String KEY_SYSTEM_ARCHIVE_MAX_PROCESSMINTUES = "system.archive.maxprocessminutes";
 
@@ -115,6 +125,10 @@ public class PropertiesManager
 	public static final String KEY_MAIL_FROM_ADDRESS = "mail.from.address";
 	public static final String KEY_MAIL_REPLY_NAME = "mail.reply.name";
 	public static final String KEY_MAIL_REPLY_ADDRESS = "mail.reply.address";
+	public static final String KEY_MAIL_SENDER_THREADS = "mail.sender.threads";
+	public static final String KEY_MAIL_RETRY_MAX = "mail.retry.max";
+	public static final String KEY_MAIL_RETRY_BASE = "mail.retry.base.seconds";
+	public static final String KEY_MAIL_OUTBOX_KEEP_DAYS = "mail.outbox.keep.days";
 	public static final String KEY_MESSAGE_KEEP_DAYS = "message.archive.days";
 	public static final String KEY_MESSAGE_MIN_QUEUE_MINUTES = "message.queue.minmintues";
 	public static final String KEY_MESSAGE_MAX_RETRIES = "message.maxretires";
@@ -122,9 +136,20 @@ public class PropertiesManager
 
 	public static final String KEY_APPLICATION_TITLE = "app.title";
 	public static final String KEY_MAX_TASK_POOL_SIZE = "task.pool.size";
+	public static final String KEY_TASK_POOL_CATEGORY_SIZE = "task.pool.{0}.size";
+	public static final String KEY_TASK_POOL_CATEGORY_QUEUE = "task.pool.{0}.queue";
+	public static final String KEY_TASK_POOL_CATEGORY_BACKLOG = "task.pool.{0}.backlog";
 	public static final String KEY_MAX_TASK_COMPLETE_EXPIRE = "task.complete.expireminutes";
 	public static final String KEY_MAX_TASK_ERROR_EXPIRE = "task.error.expireminutes";
 
+	public static final String KEY_TRACKING_QUEUE_SIZE = "tracking.queue.size";
+	public static final String KEY_TRACKING_FLUSH_SIZE = "tracking.flush.size";
+	public static final String KEY_TRACKING_FLUSH_INTERVAL = "tracking.flush.interval.millis";
+	public static final String KEY_STATISTIC_FLUSH_INTERVAL = "statistic.flush.interval.millis";
+	public static final String KEY_IMPORT_PROGRESS_FLUSH_RECORDS = "import.progress.flush.records";
+	public static final String KEY_IMPORT_PROGRESS_FLUSH_INTERVAL = "import.progress.flush.interval.millis";
+	public static final String KEY_IMPORT_PARALLELISM = "import.parallelism.{0}";
+
 	public static final String KEY_LDAP_MANAGER_URL = "ldapmanager.url";
 	public static final String KEY_LDAP_MANAGER_USER_DN_TEMPLATE = "ldapmanager.userDnTemplate";
 	public static final String KEY_LDAP_MANAGER_AUTHM = "ldapmanager.authenticationMechanism";
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.common.manager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.junit.After;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class BlobStoreTest
+{
+
+	private Path root;
+	private Path names;
+	private BlobStore blobStore;
+
+	@Before
+	public void setup() throws IOException
+	{
+		root = Files.createTempDirectory("blobstore");
+		names = Files.createDirectories(root.resolve("media"));
+		blobStore = new BlobStore(Files.createDirectories(root.resolve("blob")).toFile());
+	}
+
+	@After
+	public void tearDown() throws IOException
+	{
+		try (Stream<Path> paths = Files.walk(root)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	private String store(String content, String name) throws IOException
+	{
+		return blobStore.store(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), names.resolve(name));
+	}
+
+	@Test
+	public void testDeduplicate() throws IOException
+	{
+		String hash = store("logo", "a");
+		assertEquals(hash, store("logo", "b"));
+		assertArrayEquals("logo".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(names.resolve("b")));
+		assumeTrue(blobStore.referenceCount(hash) >= 0);
+
+		assertEquals(2, blobStore.referenceCount(hash));
+		assertTrue(Files.isSameFile(names.resolve("a"), names.resolve("b")));
+
+		//replacing a name leaves the other one alone
+		String newHash = store("banner", "a");
+		assertEquals(1, blobStore.referenceCount(hash));
+		assertEquals(1, blobStore.referenceCount(newHash));
+		assertArrayEquals("logo".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(names.resolve("b")));
+	}
+
+	@Test
+	public void testShareAndAdopt() throws IOException
+	{
+		Path legacy = names.resolve("legacy");
+		Files.write(legacy, "resource".getBytes(StandardCharsets.UTF_8));
+		Path copy = names.resolve("copy");
+		blobStore.share(legacy, copy);
+		assertArrayEquals("resource".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(copy));
+
+		String hash = store("resource", "upload");
+		assumeTrue(blobStore.referenceCount(hash) >= 0);
+		assertEquals(3, blobStore.referenceCount(hash));
+
+		Path duplicate = names.resolve("duplicate");
+		Files.write(duplicate, "resource".getBytes(StandardCharsets.UTF_8));
+		assertEquals(hash, blobStore.adopt(duplicate));
+		assertEquals(4, blobStore.referenceCount(hash));
+	}
+
+	@Test
+	public void testCollectGarbage() throws IOException
+	{
+		String hash = store("media", "a");
+		store("media", "b");
+		assumeTrue(blobStore.referenceCount(hash) >= 0);
+
+		Files.delete(names.resolve("a"));
+		assertEquals(0, blobStore.collectGarbage());
+		assertTrue(Files.exists(blobStore.pathToBlob(hash)));
+
+		Files.delete(names.resolve("b"));
+		assertEquals(1, blobStore.collectGarbage());
+		assertFalse(Files.exists(blobStore.pathToBlob(hash)));
+		assertEquals(0, blobStore.referenceCount(hash));
+	}
+
+	@Test
+	public void testLinkTempName() throws IOException
+	{
+		//a file using the old fixed temp name is left alone and no temp links remain
+		Path other = names.resolve("a.link");
+		Files.write(other, "other".getBytes(StandardCharsets.UTF_8));
+		String hash = store("logo", "a");
+		assumeTrue(blobStore.referenceCount(hash) >= 0);
+
+		assertEquals(1, blobStore.referenceCount(hash));
+		assertArrayEquals("other".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(other));
+		try (Stream<Path> files = Files.list(names)) {
+			assertEquals(2, files.count());
+		}
+		assertFalse(blobStore.isCopy(names.resolve("a")));
+	}
+
+}
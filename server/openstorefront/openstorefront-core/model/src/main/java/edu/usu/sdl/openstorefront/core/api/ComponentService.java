@@ -55,7 +55,9 @@ import edu.usu.sdl.openstorefront.core.view.RequiredForComponent;
 import edu.usu.sdl.openstorefront.core.view.statistic.ComponentRecordStatistic;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -198,6 +200,14 @@ public interface ComponentService
 	 */
 	public ComponentSensitivityModel getComponentSensitivity(String componentId);
 
+	/**
+	 * Gets the data sensitivity for a set of components (Resolved together)
+	 *
+	 * @param componentIds
+	 * @return componentId to sensitivityModel
+	 */
+	public Map<String, ComponentSensitivityModel> getComponentSensitivities(Collection<String> componentIds);
+
 	/**
 	 * Return the whole list of components. (the short view) Just Active and
 	 * Approved components
@@ -392,6 +402,14 @@ public interface ComponentService
 	@ServiceInterceptor(TransactionInterceptor.class)
 	public void saveComponentTracking(ComponentTracking tracking);
 
+	/**
+	 * Adds a new tracking record. The record is queued and written in the
+	 * background (it may be dropped if the tracking queue is full).
+	 *
+	 * @param tracking
+	 */
+	public void addComponentTracking(ComponentTracking tracking);
+
 	/**
 	 * This will save the component (skipping duplication checking)
 	 *
@@ -409,6 +427,17 @@ public interface ComponentService
 	 */
 	public ComponentAll getFullComponent(String componentId);
 
+	/**
+	 * Get the full component entities for a set of components. This loads
+	 * each sub-entity type with a single query for the whole set (Use for
+	 * exports and other bulk operations). Components that are not found or
+	 * are restricted are skipped.
+	 *
+	 * @param componentIds
+	 * @return full components in the order of the ids passed
+	 */
+	public List<ComponentAll> getFullComponents(Collection<String> componentIds);
+
 	/**
 	 * This save the full component; this meant for use in the importer. It will
 	 * generate id and fill in missing data where possible. This will try to
@@ -446,7 +475,9 @@ public interface ComponentService
 	public void submitChangeRequest(String componentId);
 
 	/**
-	 * This will handle syncing all the component of the list.
+	 * This will handle syncing all the component of the list. The list is
+	 * saved in one transaction (managed by the service so the version
+	 * snapshots are only written once it commits).
 	 *
 	 * @param components
 	 * @param options
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.api;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Identity map for the current request (or job). Reads of the same record
+ * within a request return the same object instead of going back to the
+ * database. It's bound to the thread between begin() and end(); with no
+ * active request reads go straight to the loader.
+ *
+ * Cached values are shared by every caller in the request, so cache values
+ * that aren't changed (Eg. a record id rather than the record itself).
+ *
+ * Writes to a class drop the cached entries for that class.
+ *
+ * @author dshurtleff
+ */
+public class RequestCache
+{
+
+	private static final ThreadLocal<RequestCache> CURRENT = new ThreadLocal<>();
+
+	//caches "not found" as well
+	private static final Object NULL_VALUE = new Object();
+
+	private final Map<CacheKey, Object> entries = new HashMap<>();
+	private long hits;
+	private long misses;
+
+	private RequestCache()
+	{
+	}
+
+	/**
+	 * Starts a cache for the current thread
+	 *
+	 * @return true if started; false if one was already active (the caller
+	 * that started it should end it)
+	 */
+	public static boolean begin()
+	{
+		if (CURRENT.get() != null) {
+			return false;
+		}
+		CURRENT.set(new RequestCache());
+		return true;
+	}
+
+	/**
+	 * Ends the cache for the current thread
+	 *
+	 * @return the ended cache (for the stats) or null if none was active
+	 */
+	public static RequestCache end()
+	{
+		RequestCache requestCache = CURRENT.get();
+		CURRENT.remove();
+		return requestCache;
+	}
+
+	/**
+	 * @return active cache or null
+	 */
+	public static RequestCache current()
+	{
+		return CURRENT.get();
+	}
+
+	/**
+	 * Gets the value from the cache or loads it
+	 *
+	 * @param <T>
+	 * @param region the record class (used for invalidation)
+	 * @param name what is being read (keeps different reads of the same record
+	 * apart)
+	 * @param key
+	 * @param loader
+	 * @return value (may be null)
+	 */
+	public static <T> T get(Class<?> region, String name, Object key, Supplier<T> loader)
+	{
+		RequestCache requestCache = CURRENT.get();
+		if (requestCache == null || key == null) {
+			return loader.get();
+		}
+		return requestCache.lookup(region, name, key, loader);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T lookup(Class<?> region, String name, Object key, Supplier<T> loader)
+	{
+		CacheKey cacheKey = new CacheKey(region, name, key);
+		Object value = entries.get(cacheKey);
+		if (value != null) {
+			hits++;
+			return value == NULL_VALUE ? null : (T) value;
+		}
+		misses++;
+
+		//the loader may use the cache as well so don't hold an iterator/compute here
+		T loaded = loader.get();
+		entries.put(cacheKey, loaded != null ? loaded : NULL_VALUE);
+		return loaded;
+	}
+
+	/**
+	 * Drops cached entries for the class (and its super classes)
+	 *
+	 * @param recordClass
+	 */
+	public static void invalidate(Class<?> recordClass)
+	{
+		RequestCache requestCache = CURRENT.get();
+		if (requestCache != null && recordClass != null) {
+			requestCache.entries.keySet().removeIf(cacheKey -> cacheKey.region.isAssignableFrom(recordClass));
+		}
+	}
+
+	/**
+	 * Drops all cached entries
+	 */
+	public static void invalidateAll()
+	{
+		RequestCache requestCache = CURRENT.get();
+		if (requestCache != null) {
+			requestCache.entries.clear();
+		}
+	}
+
+	public long getHits()
+	{
+		return hits;
+	}
+
+	public long getMisses()
+	{
+		return misses;
+	}
+
+	public int size()
+	{
+		return entries.size();
+	}
+
+	private static class CacheKey
+	{
+
+		private final Class<?> region;
+		private final String name;
+		private final Object key;
+
+		public CacheKey(Class<?> region, String name, Object key)
+		{
+			this.region = region;
+			this.name = name;
+			this.key = key;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(region, name, key);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			CacheKey other = (CacheKey) obj;
+			return region.equals(other.region)
+					&& Objects.equals(name, other.name)
+					&& Objects.equals(key, other.key);
+		}
+
+	}
+
+}
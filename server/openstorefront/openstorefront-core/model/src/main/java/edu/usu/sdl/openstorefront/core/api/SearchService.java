@@ -25,6 +25,7 @@ import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchWrapper;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.core.view.SearchQuery;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -77,6 +78,22 @@ public interface SearchService
 	 */
 	public void indexComponents(List<Component> components);
 
+	/**
+	 * Marks the components as needing to be reindexed. The index is updated
+	 * in the background (repeated ids are merged).
+	 *
+	 * @param componentIds
+	 */
+	public void indexComponentsById(Collection<String> componentIds);
+
+	/**
+	 * Waits for any queued index updates to be written
+	 *
+	 * @param timeoutMillis
+	 * @return true if the queue was emptied
+	 */
+	public boolean flushIndexQueue(long timeoutMillis);
+
 	/**
 	 * Removes a search index
 	 *
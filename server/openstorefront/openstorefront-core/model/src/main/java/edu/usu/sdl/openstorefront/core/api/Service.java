@@ -87,6 +87,14 @@ public interface Service
 	 */
 	public PersistenceService getNewPersistenceService();
 
+	/**
+	 * This gets a new service proxy with its own service instances
+	 * (Transactions isolation for long running work Eg. imports)
+	 *
+	 * @return
+	 */
+	public Service getNewServiceProxy();
+
 	/**
 	 * Handles Reporting
 	 *
@@ -234,6 +234,14 @@ public interface SystemService
 	 */
 	public void addLogRecord(DBLogRecord logRecord);
 
+	/**
+	 * Inserts log records in one transaction
+	 *
+	 * @param logRecords
+	 */
+	@ServiceInterceptor(TransactionInterceptor.class)
+	public void addLogRecords(List<DBLogRecord> logRecords);
+
 	/**
 	 * This enforces max log records kept in the DB.
 	 */
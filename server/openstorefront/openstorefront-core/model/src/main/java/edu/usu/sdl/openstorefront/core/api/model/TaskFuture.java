@@ -34,18 +34,19 @@ public class TaskFuture
 
 	private transient Future future;
 	private Date submitedDts;
-	private Date completedDts;
+	private volatile Date completedDts;
 	private String taskName;
 	private String details;
 	private String taskId;
 	private boolean allowMultiple;
 	private boolean queueable;
-	private String error;
+	private volatile String error;
 	private String createUser;
-	private TaskStatus status = TaskStatus.QUEUED;
+	private volatile TaskStatus status = TaskStatus.QUEUED;
 	private AsyncTaskCallback callback;
 	private Map<String, Object> taskData = new HashMap<>();
 	private Date expireDts;
+	private String category;
 
 	public TaskFuture()
 	{
@@ -260,4 +261,14 @@ public class TaskFuture
 		this.details = details;
 	}
 
+	public String getCategory()
+	{
+		return category;
+	}
+
+	public void setCategory(String category)
+	{
+		this.category = category;
+	}
+
 }
@@ -31,6 +31,23 @@ public class TaskRequest
 
 	public static final String DATAKEY_REPORT_ID = "REPORTID";
 
+	/**
+	 * Each category runs on its own pool so bulk work can't starve
+	 * interactive work.
+	 */
+	public static final String CATEGORY_GENERAL = "GENERAL";
+	public static final String CATEGORY_REPORT = "REPORT";
+	public static final String CATEGORY_IMPORT = "IMPORT";
+	public static final String CATEGORY_INDEX = "INDEX";
+	public static final String CATEGORY_BULK = "BULK";
+
+	/**
+	 * Lower runs first within a category
+	 */
+	public static final int PRIORITY_HIGH = 1;
+	public static final int PRIORITY_NORMAL = 5;
+	public static final int PRIORITY_LOW = 10;
+
 	private String name;
 	private String details;
 	private boolean allowMultiple;
@@ -38,6 +55,8 @@ public class TaskRequest
 	private Callable task;
 	private AsyncTaskCallback callback;
 	private Map<String, Object> taskData = new HashMap<>();
+	private String category = CATEGORY_GENERAL;
+	private int priority = PRIORITY_NORMAL;
 
 	public TaskRequest()
 	{
@@ -119,4 +138,30 @@ public class TaskRequest
 		this.details = details;
 	}
 
+	public String getCategory()
+	{
+		return category;
+	}
+
+	/**
+	 * @param category pool to run on (See CATEGORY_*); defaults to general
+	 */
+	public void setCategory(String category)
+	{
+		this.category = category;
+	}
+
+	public int getPriority()
+	{
+		return priority;
+	}
+
+	/**
+	 * @param priority See PRIORITY_*; lower runs first
+	 */
+	public void setPriority(int priority)
+	{
+		this.priority = priority;
+	}
+
 }
@@ -0,0 +1,439 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.api.query;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.util.ReflectionUtil;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.beanutils.PropertyUtils;
+
+/**
+ * Compiled query-by-example plan for an example class.
+ *
+ * The property accessors are resolved once per class. The generated clause
+ * and parameter names are then cached per example "shape" (which properties
+ * are set, the nested complex types and the statement options) so repeated
+ * queries only need to read the values off the example.
+ *
+ * @author dshurtleff
+ */
+public class ExampleQueryPlan
+{
+
+	public static final String PARAM_NAME_SEPARATOR = "1";
+
+	private static final ConcurrentMap<Class<?>, ExampleQueryPlan> PLANS = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<Class<?>, Boolean> COMPLEX_TYPES = new ConcurrentHashMap<>();
+	private static final Object NESTED_END = new Object();
+
+	private final Class<?> exampleClass;
+	private final PropertyAccessor[] accessors;
+	private final ConcurrentMap<ShapeKey, CompiledClause> clauses = new ConcurrentHashMap<>();
+	private final ConcurrentMap<ShapeKey, String> nameClauses = new ConcurrentHashMap<>();
+
+	private ExampleQueryPlan(Class<?> exampleClass)
+	{
+		this.exampleClass = exampleClass;
+
+		List<PropertyAccessor> accessorList = new ArrayList<>();
+		for (PropertyDescriptor descriptor : PropertyUtils.getPropertyDescriptors(exampleClass)) {
+			Method readMethod = PropertyUtils.getReadMethod(descriptor);
+			if (readMethod != null && "class".equalsIgnoreCase(descriptor.getName()) == false) {
+				accessorList.add(new PropertyAccessor(descriptor.getName(), readMethod));
+			}
+		}
+		accessorList.sort(Comparator.comparing(PropertyAccessor::getName));
+		accessors = accessorList.toArray(new PropertyAccessor[accessorList.size()]);
+	}
+
+	/**
+	 * Gets the (cached) plan for a class
+	 *
+	 * @param exampleClass
+	 * @return
+	 */
+	public static ExampleQueryPlan getPlan(Class<?> exampleClass)
+	{
+		Objects.requireNonNull(exampleClass, "Example class is required");
+		return PLANS.computeIfAbsent(exampleClass, ExampleQueryPlan::new);
+	}
+
+	/**
+	 * Clears all compiled plans
+	 */
+	public static void clearCache()
+	{
+		PLANS.clear();
+	}
+
+	/**
+	 * Generates the condition clause and parameters for the example using
+	 * the default options.
+	 *
+	 * @param example
+	 * @return
+	 */
+	public static ExampleStatement whereClause(Object example)
+	{
+		return whereClause(example, new GenerateStatementOptionBuilder().build(), null);
+	}
+
+	/**
+	 * Generates the condition clause and the matching parameters for the
+	 * example
+	 *
+	 * @param example (null produces an empty clause)
+	 * @param statementOption
+	 * @param fieldOptions (optional) options keyed by property name
+	 * @return
+	 */
+	public static ExampleStatement whereClause(Object example, GenerateStatementOption statementOption, Map<String, GenerateStatementOption> fieldOptions)
+	{
+		if (example == null) {
+			return new ExampleStatement("", new HashMap<>());
+		}
+		Objects.requireNonNull(statementOption, "Statement option is required");
+		return getPlan(example.getClass()).compileWhere(example, statementOption, fieldOptions);
+	}
+
+	/**
+	 * Generates the comma separated list of set property names (Used for
+	 * order by and group by)
+	 *
+	 * @param example
+	 * @return
+	 */
+	public static String exampleNames(Object example)
+	{
+		if (example == null) {
+			return "";
+		}
+		return getPlan(example.getClass()).compileNames(example);
+	}
+
+	private ExampleStatement compileWhere(Object example, GenerateStatementOption statementOption, Map<String, GenerateStatementOption> fieldOptions)
+	{
+		List<Object> shape = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+		collect(example, shape, values);
+
+		ShapeKey shapeKey = new ShapeKey(shape.toArray(), new OptionKey(statementOption), OptionKey.fromMap(fieldOptions));
+		CompiledClause compiled = clauses.get(shapeKey);
+		if (compiled == null) {
+			List<String> parameterNames = new ArrayList<>();
+			String clause = generateClause(example, new ComplexFieldStack(), statementOption, fieldOptions, parameterNames);
+			compiled = new CompiledClause(clause, parameterNames.toArray(new String[parameterNames.size()]));
+			CompiledClause existing = clauses.putIfAbsent(shapeKey, compiled);
+			if (existing != null) {
+				compiled = existing;
+			}
+		}
+
+		Map<String, Object> parameters = new HashMap<>();
+		for (int i = 0; i < compiled.parameterNames.length; i++) {
+			if (compiled.parameterNames[i] != null) {
+				parameters.put(compiled.parameterNames[i], values.get(i));
+			}
+		}
+		return new ExampleStatement(compiled.clause, parameters);
+	}
+
+	private String compileNames(Object example)
+	{
+		List<Object> shape = new ArrayList<>();
+		collect(example, shape, new ArrayList<>());
+
+		ShapeKey shapeKey = new ShapeKey(shape.toArray(), null, Collections.emptyMap());
+		String names = nameClauses.get(shapeKey);
+		if (names == null) {
+			names = generateNames(example, new ComplexFieldStack());
+			String existing = nameClauses.putIfAbsent(shapeKey, names);
+			if (existing != null) {
+				names = existing;
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Walks the set properties capturing the shape and the leaf values in
+	 * generation order.
+	 */
+	private void collect(Object example, List<Object> shape, List<Object> values)
+	{
+		for (int i = 0; i < accessors.length; i++) {
+			Object value = accessors[i].get(example);
+			if (value != null) {
+				shape.add(i);
+				if (isComplex(value.getClass())) {
+					shape.add(value.getClass());
+					getPlan(value.getClass()).collect(value, shape, values);
+					shape.add(NESTED_END);
+				} else {
+					values.add(value);
+				}
+			}
+		}
+	}
+
+	private String generateClause(Object example, ComplexFieldStack complexFieldStack, GenerateStatementOption statementOption, Map<String, GenerateStatementOption> fieldOptions, List<String> parameterNames)
+	{
+		StringBuilder where = new StringBuilder();
+
+		boolean addAnd = false;
+		for (PropertyAccessor accessor : accessors) {
+			Object value = accessor.get(example);
+			if (value != null) {
+				GenerateStatementOption fieldOperation = statementOption;
+				if (fieldOptions != null && fieldOptions.containsKey(accessor.getName())) {
+					fieldOperation = fieldOptions.get(accessor.getName());
+				}
+
+				if (addAnd) {
+					where.append(fieldOperation.getCondition());
+				} else {
+					addAnd = true;
+					where.append(" ");
+				}
+
+				if (isComplex(value.getClass())) {
+					complexFieldStack.getFieldStack().push(accessor.getName());
+					where.append(getPlan(value.getClass()).generateClause(value, complexFieldStack, statementOption, fieldOptions, parameterNames));
+					complexFieldStack.getFieldStack().pop();
+				} else {
+					String fieldName = complexFieldStack.getQueryFieldName() + accessor.getName() + fieldOperation.getMethod();
+					String fieldParamName = complexFieldStack.getQueryFieldName() + accessor.getName();
+					where.append(fieldName)
+							.append(" ").append(fieldOperation.getOperation());
+
+					if (GenerateStatementOption.OPERATION_NULL.equals(fieldOperation.getOperation())
+							|| GenerateStatementOption.OPERATION_NOT_NULL.equals(fieldOperation.getOperation())) {
+						parameterNames.add(null);
+					} else {
+						String parameterName = fieldParamName.replace(".", PARAM_NAME_SEPARATOR) + fieldOperation.getParameterSuffix();
+						where.append(" :").append(parameterName);
+						parameterNames.add(parameterName);
+					}
+				}
+			}
+		}
+		return where.toString();
+	}
+
+	private String generateNames(Object example, ComplexFieldStack complexFieldStack)
+	{
+		StringBuilder names = new StringBuilder();
+
+		boolean addComma = false;
+		for (PropertyAccessor accessor : accessors) {
+			Object value = accessor.get(example);
+			if (value != null) {
+				if (addComma) {
+					names.append(",");
+				} else {
+					addComma = true;
+					names.append(" ");
+				}
+
+				if (isComplex(value.getClass())) {
+					complexFieldStack.getFieldStack().push(accessor.getName());
+					names.append(getPlan(value.getClass()).generateNames(value, complexFieldStack));
+					complexFieldStack.getFieldStack().pop();
+				} else {
+					names.append(complexFieldStack.getQueryFieldName()).append(accessor.getName());
+				}
+			}
+		}
+		return names.toString();
+	}
+
+	private static boolean isComplex(Class<?> valueClass)
+	{
+		return COMPLEX_TYPES.computeIfAbsent(valueClass, ReflectionUtil::isComplexClass);
+	}
+
+	public Class<?> getExampleClass()
+	{
+		return exampleClass;
+	}
+
+	/**
+	 * @return number of distinct compiled shapes (where and name clauses)
+	 */
+	public int getCompiledShapeCount()
+	{
+		return clauses.size() + nameClauses.size();
+	}
+
+	private static class PropertyAccessor
+	{
+
+		private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+		private final String name;
+		private final MethodHandle getter;
+
+		public PropertyAccessor(String name, Method readMethod)
+		{
+			this.name = name;
+			try {
+				readMethod.setAccessible(true);
+				this.getter = MethodHandles.lookup().unreflect(readMethod).asType(GETTER_TYPE);
+			} catch (IllegalAccessException | SecurityException ex) {
+				throw new OpenStorefrontRuntimeException("Unable to access property: " + name, "Check the example class: " + readMethod.getDeclaringClass().getName(), ex);
+			}
+		}
+
+		public Object get(Object example)
+		{
+			try {
+				return getter.invokeExact(example);
+			} catch (Throwable ex) {
+				throw new OpenStorefrontRuntimeException("Unable to read property: " + name, ex);
+			}
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+	}
+
+	private static class CompiledClause
+	{
+
+		private final String clause;
+		private final String[] parameterNames;
+
+		public CompiledClause(String clause, String[] parameterNames)
+		{
+			this.clause = clause;
+			this.parameterNames = parameterNames;
+		}
+
+	}
+
+	/**
+	 * Value copy of a statement option (the options are mutable)
+	 */
+	private static class OptionKey
+	{
+
+		private final String operation;
+		private final String condition;
+		private final String parameterSuffix;
+		private final String method;
+
+		public OptionKey(GenerateStatementOption option)
+		{
+			this.operation = option.getOperation();
+			this.condition = option.getCondition();
+			this.parameterSuffix = option.getParameterSuffix();
+			this.method = option.getMethod();
+		}
+
+		public static Map<String, OptionKey> fromMap(Map<String, GenerateStatementOption> fieldOptions)
+		{
+			if (fieldOptions == null || fieldOptions.isEmpty()) {
+				return Collections.emptyMap();
+			}
+			Map<String, OptionKey> keys = new HashMap<>();
+			fieldOptions.forEach((field, option) -> {
+				keys.put(field, new OptionKey(option));
+			});
+			return keys;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(operation, condition, parameterSuffix, method);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			final OptionKey other = (OptionKey) obj;
+			return Objects.equals(operation, other.operation)
+					&& Objects.equals(condition, other.condition)
+					&& Objects.equals(parameterSuffix, other.parameterSuffix)
+					&& Objects.equals(method, other.method);
+		}
+
+	}
+
+	private static class ShapeKey
+	{
+
+		private final Object[] shape;
+		private final OptionKey statementOption;
+		private final Map<String, OptionKey> fieldOptions;
+		private final int hash;
+
+		public ShapeKey(Object[] shape, OptionKey statementOption, Map<String, OptionKey> fieldOptions)
+		{
+			this.shape = shape;
+			this.statementOption = statementOption;
+			this.fieldOptions = fieldOptions;
+			this.hash = Objects.hash(Arrays.hashCode(shape), statementOption, fieldOptions);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			final ShapeKey other = (ShapeKey) obj;
+			return hash == other.hash
+					&& Arrays.equals(shape, other.shape)
+					&& Objects.equals(statementOption, other.statementOption)
+					&& Objects.equals(fieldOptions, other.fieldOptions);
+		}
+
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.api.query;
+
+import java.util.Map;
+
+/**
+ * Generated clause and the parameter values for one example
+ *
+ * @author dshurtleff
+ */
+public class ExampleStatement
+{
+
+	private final String clause;
+	private final Map<String, Object> parameters;
+
+	public ExampleStatement(String clause, Map<String, Object> parameters)
+	{
+		this.clause = clause;
+		this.parameters = parameters;
+	}
+
+	public String getClause()
+	{
+		return clause;
+	}
+
+	public Map<String, Object> getParameters()
+	{
+		return parameters;
+	}
+
+}
@@ -40,6 +40,9 @@ public class AsyncTask
 	private Boolean allowMultiple;
 	private String error;
 	private TaskStatus status;
+	private String category;
+	private Integer priority;
+	private String deferredCall;
 
 	public AsyncTask()
 	{
@@ -57,6 +60,7 @@ public class AsyncTask
 		taskFuture.setTaskId(getTaskId());
 		taskFuture.setTaskName(getTaskName());
 		taskFuture.setDetails(getDetails());
+		taskFuture.setCategory(getCategory());
 		return taskFuture;
 	}
 
@@ -140,4 +144,38 @@ public class AsyncTask
 		this.details = details;
 	}
 
+	public String getCategory()
+	{
+		return category;
+	}
+
+	public void setCategory(String category)
+	{
+		this.category = category;
+	}
+
+	public Integer getPriority()
+	{
+		return priority;
+	}
+
+	public void setPriority(Integer priority)
+	{
+		this.priority = priority;
+	}
+
+	public String getDeferredCall()
+	{
+		return deferredCall;
+	}
+
+	/**
+	 * @param deferredCall the service call of a task waiting in a pool's
+	 * backlog (null when the task can't be run again after a restart)
+	 */
+	public void setDeferredCall(String deferredCall)
+	{
+		this.deferredCall = deferredCall;
+	}
+
 }
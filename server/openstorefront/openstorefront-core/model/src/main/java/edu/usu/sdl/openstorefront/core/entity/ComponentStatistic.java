@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.entity;
+
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.core.annotation.APIDescription;
+import edu.usu.sdl.openstorefront.core.annotation.PK;
+import java.util.Date;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Holds counts of component tracking events. There is one all-time record
+ * per component (statisticDate is null) and one record per component per day.
+ *
+ * @author dshurtleff
+ */
+@APIDescription("Counts of component tracking events")
+public class ComponentStatistic
+		extends BaseEntity<ComponentStatistic>
+{
+
+	@PK
+	@NotNull
+	private String componentStatisticId;
+
+	@NotNull
+	private String componentId;
+
+	@APIDescription("Day the counts are for; null for the all-time counts")
+	private Date statisticDate;
+
+	@NotNull
+	private Long views;
+
+	@NotNull
+	private Long resourceClicks;
+
+	private Date updateDts;
+
+	public ComponentStatistic()
+	{
+	}
+
+	/**
+	 * @param componentId
+	 * @param dayKey (yyyyMMdd) or null for the all-time record
+	 * @return the record id
+	 */
+	public static String toStatisticId(String componentId, String dayKey)
+	{
+		if (dayKey == null) {
+			return componentId;
+		}
+		return componentId + OpenStorefrontConstant.GENERAL_KEY_SEPARATOR + dayKey;
+	}
+
+	public String getComponentStatisticId()
+	{
+		return componentStatisticId;
+	}
+
+	public void setComponentStatisticId(String componentStatisticId)
+	{
+		this.componentStatisticId = componentStatisticId;
+	}
+
+	public String getComponentId()
+	{
+		return componentId;
+	}
+
+	public void setComponentId(String componentId)
+	{
+		this.componentId = componentId;
+	}
+
+	public Date getStatisticDate()
+	{
+		return statisticDate;
+	}
+
+	public void setStatisticDate(Date statisticDate)
+	{
+		this.statisticDate = statisticDate;
+	}
+
+	public Long getViews()
+	{
+		return views;
+	}
+
+	public void setViews(Long views)
+	{
+		this.views = views;
+	}
+
+	public Long getResourceClicks()
+	{
+		return resourceClicks;
+	}
+
+	public void setResourceClicks(Long resourceClicks)
+	{
+		this.resourceClicks = resourceClicks;
+	}
+
+	public Date getUpdateDts()
+	{
+		return updateDts;
+	}
+
+	public void setUpdateDts(Date updateDts)
+	{
+		this.updateDts = updateDts;
+	}
+
+}
@@ -76,6 +76,22 @@ public class ComponentVersionHistory
 		return path;
 	}
 
+	/**
+	 * Directory holding the snapshot's media and resources (linked to the
+	 * stored files)
+	 *
+	 * @return path or null if no id is set
+	 */
+	public Path pathToFileDirectory()
+	{
+		Path path = null;
+		if (StringUtils.isNotBlank(getVersionHistoryId())) {
+			File pathDir = FileSystemManager.getDir(FileSystemManager.COMPONENT_VERSION_DIR);
+			path = Paths.get(pathDir.getPath() + "/" + getVersionHistoryId());
+		}
+		return path;
+	}
+
 	public String getVersionHistoryId()
 	{
 		return versionHistoryId;
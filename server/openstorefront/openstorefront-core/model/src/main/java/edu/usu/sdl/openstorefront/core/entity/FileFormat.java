@@ -45,11 +45,17 @@ public class FileFormat
 
 	public static final String CHECKLIST_QUESTIONS_STANDARD = "CHKQ_STANDARD";
 
+	public static final int PARALLELISM_SEQUENTIAL = 1;
+	public static final int PARALLELISM_PER_CORE = 0;
+
 	private String fileType;
 	private String parserClass;
 	private String fileRequirements;
 	private boolean supportsDataMap;
 
+	//threads parsing records (mapped records don't depend on each other); set per format with import.parallelism.{code}
+	private int parallelism = PARALLELISM_SEQUENTIAL;
+
 	public FileFormat()
 	{
 	}
@@ -213,4 +219,14 @@ public class FileFormat
 		this.supportsDataMap = supportsDataMap;
 	}
 
+	public int getParallelism()
+	{
+		return parallelism;
+	}
+
+	public void setParallelism(int parallelism)
+	{
+		this.parallelism = parallelism;
+	}
+
 }
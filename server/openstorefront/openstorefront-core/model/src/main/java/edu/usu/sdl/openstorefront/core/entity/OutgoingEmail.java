@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.entity;
+
+import edu.usu.sdl.openstorefront.core.annotation.APIDescription;
+import edu.usu.sdl.openstorefront.core.annotation.PK;
+import java.util.Date;
+
+/**
+ *
+ * @author dshurtleff
+ */
+@APIDescription("Email waiting in the outbox and its delivery result; the message itself is spooled on disk")
+public class OutgoingEmail
+		extends StandardEntity<OutgoingEmail>
+{
+
+	public static final String STATUS_QUEUED = "QUEUED";
+	public static final String STATUS_RETRY = "RETRY";
+	public static final String STATUS_SENT = "SENT";
+	public static final String STATUS_FAILED = "FAILED";
+
+	@PK(generated = true)
+	private String emailId;
+
+	private String subject;
+
+	@APIDescription("Comma separated recipient addresses")
+	private String recipients;
+
+	@APIDescription("QUEUED, RETRY, SENT or FAILED")
+	private String deliveryStatus;
+	private Integer attempts;
+	private Date nextAttemptDts;
+	private Date sentDts;
+	private String lastError;
+
+	public OutgoingEmail()
+	{
+	}
+
+	public String getEmailId()
+	{
+		return emailId;
+	}
+
+	public void setEmailId(String emailId)
+	{
+		this.emailId = emailId;
+	}
+
+	public String getSubject()
+	{
+		return subject;
+	}
+
+	public void setSubject(String subject)
+	{
+		this.subject = subject;
+	}
+
+	public String getRecipients()
+	{
+		return recipients;
+	}
+
+	public void setRecipients(String recipients)
+	{
+		this.recipients = recipients;
+	}
+
+	public String getDeliveryStatus()
+	{
+		return deliveryStatus;
+	}
+
+	public void setDeliveryStatus(String deliveryStatus)
+	{
+		this.deliveryStatus = deliveryStatus;
+	}
+
+	public Integer getAttempts()
+	{
+		return attempts;
+	}
+
+	public void setAttempts(Integer attempts)
+	{
+		this.attempts = attempts;
+	}
+
+	public Date getNextAttemptDts()
+	{
+		return nextAttemptDts;
+	}
+
+	public void setNextAttemptDts(Date nextAttemptDts)
+	{
+		this.nextAttemptDts = nextAttemptDts;
+	}
+
+	public Date getSentDts()
+	{
+		return sentDts;
+	}
+
+	public void setSentDts(Date sentDts)
+	{
+		this.sentDts = sentDts;
+	}
+
+	public String getLastError()
+	{
+		return lastError;
+	}
+
+	public void setLastError(String lastError)
+	{
+		this.lastError = lastError;
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.filter;
+
+import edu.usu.sdl.openstorefront.core.entity.SecurityRole;
+import edu.usu.sdl.openstorefront.security.UserContext;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The data restrictions of a user resolved once from the user's roles. This
+ * is immutable so it can be shared across threads while filtering.
+ *
+ * @author dshurtleff
+ */
+public class DataRestrictionPredicate
+{
+
+	private final Set<String> dataSources;
+	private final Set<String> dataSensitivities;
+	private final boolean allowUnspecifiedDataSource;
+	private final boolean allowUnspecifiedDataSensitivity;
+
+	//bumped when any role's data security is saved or a role is removed
+	private static final AtomicLong roleDataVersion = new AtomicLong();
+
+	//what this was built from; used to detect role changes
+	private final List<SecurityRole> sourceRoles;
+	private final int sourceRoleCount;
+	private final long sourceRoleDataVersion;
+
+	public DataRestrictionPredicate(UserContext userContext)
+	{
+		dataSources = Collections.unmodifiableSet(userContext.dataSources());
+		dataSensitivities = Collections.unmodifiableSet(userContext.dataSensitivity());
+		allowUnspecifiedDataSource = userContext.allowUnspecifiedDataSources();
+		allowUnspecifiedDataSensitivity = userContext.allowUnspecifiedDataSensitivty();
+		sourceRoles = userContext.getRoles();
+		sourceRoleCount = sourceRoles != null ? sourceRoles.size() : 0;
+		sourceRoleDataVersion = roleDataVersion.get();
+	}
+
+	/**
+	 * Marks every existing predicate as out of date (Call after saving or
+	 * removing a security role)
+	 */
+	public static void roleDataChanged()
+	{
+		roleDataVersion.incrementAndGet();
+	}
+
+	/**
+	 * @return true if a role was saved or removed after this was built
+	 */
+	public boolean isRoleDataChanged()
+	{
+		return sourceRoleDataVersion != roleDataVersion.get();
+	}
+
+	/**
+	 * @param roles
+	 * @return true if the predicate was not built from these roles (or the
+	 * role data has changed since)
+	 */
+	public boolean isStale(List<SecurityRole> roles)
+	{
+		int roleCount = roles != null ? roles.size() : 0;
+		return sourceRoles != roles || sourceRoleCount != roleCount || isRoleDataChanged();
+	}
+
+	public boolean allowDataSource(String dataSource)
+	{
+		if (dataSource == null) {
+			return allowUnspecifiedDataSource;
+		}
+		return dataSources.contains(dataSource);
+	}
+
+	public boolean allowDataSensitivity(String dataSensitivity)
+	{
+		if (dataSensitivity == null) {
+			return allowUnspecifiedDataSensitivity;
+		}
+		return dataSensitivities.contains(dataSensitivity);
+	}
+
+	/**
+	 * Checks both the data source and the sensitivity
+	 *
+	 * @param dataSource
+	 * @param dataSensitivity
+	 * @return true if the user can see the record
+	 */
+	public boolean allow(String dataSource, String dataSensitivity)
+	{
+		return allowDataSource(dataSource) && allowDataSensitivity(dataSensitivity);
+	}
+
+	/**
+	 * @param componentSensitivityModel (null is not allowed)
+	 * @return true if the user can see the component
+	 */
+	public boolean allowComponent(ComponentSensitivityModel componentSensitivityModel)
+	{
+		if (componentSensitivityModel == null) {
+			return false;
+		}
+		return allow(componentSensitivityModel.getDataSource(), componentSensitivityModel.getDataSensitivity());
+	}
+
+	public Set<String> getDataSources()
+	{
+		return dataSources;
+	}
+
+	public Set<String> getDataSensitivities()
+	{
+		return dataSensitivities;
+	}
+
+	public boolean isAllowUnspecifiedDataSource()
+	{
+		return allowUnspecifiedDataSource;
+	}
+
+	public boolean isAllowUnspecifiedDataSensitivity()
+	{
+		return allowUnspecifiedDataSensitivity;
+	}
+
+}
@@ -24,11 +24,16 @@ import edu.usu.sdl.openstorefront.security.SecurityUtil;
 import edu.usu.sdl.openstorefront.security.UserContext;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * This apply filtering rules (based on current user) to the data
@@ -43,6 +48,9 @@ public class FilterEngine
 	public static final String FIELD_DATA_SOURCE = "dataSource";
 	public static final String FIELD_DATA_SENSITIVITY = "dataSensitivity";
 
+	//lists at least this size are filtered on a parallel stream
+	private static final int PARALLEL_FILTER_THRESHOLD = 10000;
+
 	/**
 	 * remove the records if user has data restrictions
 	 *
@@ -60,6 +68,9 @@ public class FilterEngine
 	/**
 	 * Remove the records if user has data restrictions
 	 *
+	 * The user restrictions are resolved once for the list and parent
+	 * component restrictions are resolved in bulk.
+	 *
 	 * @param <T>
 	 * @param dataItems
 	 * @param checkParentComponent
@@ -68,8 +79,36 @@ public class FilterEngine
 	public static <T extends StandardEntity> List<T> filter(List<T> dataItems, boolean checkParentComponent)
 	{
 		if (isFilterable(dataItems)) {
-			dataItems = dataItems.stream()
-					.filter(data -> filter(data, checkParentComponent) != null)
+			DataRestrictionPredicate predicate = SecurityUtil.getUserContext().dataRestrictionPredicate();
+
+			Set<String> parentComponentIds = new HashSet<>();
+			for (T data : dataItems) {
+				if (data instanceof ComponentRelationship) {
+					ComponentRelationship componentRelationship = (ComponentRelationship) data;
+					parentComponentIds.add(componentRelationship.getComponentId());
+					parentComponentIds.add(componentRelationship.getRelatedComponentId());
+				} else if (checkParentComponent
+						&& data instanceof BaseComponent
+						&& (data instanceof Component) == false) {
+					parentComponentIds.add(((BaseComponent) data).getComponentId());
+				}
+			}
+			parentComponentIds.remove(null);
+
+			Map<String, ComponentSensitivityModel> sensitivityMap = new HashMap<>();
+			if (parentComponentIds.isEmpty() == false) {
+				sensitivityMap = ServiceProxyFactory.getServiceProxy().getComponentService().getComponentSensitivities(parentComponentIds);
+			}
+			final Map<String, ComponentSensitivityModel> parentSensitivity = sensitivityMap;
+
+			Stream<T> dataStream;
+			if (dataItems.size() >= PARALLEL_FILTER_THRESHOLD) {
+				dataStream = dataItems.parallelStream();
+			} else {
+				dataStream = dataItems.stream();
+			}
+			dataItems = dataStream
+					.filter(data -> data != null && keep(predicate, data, checkParentComponent, parentSensitivity::get))
 					.collect(Collectors.toList());
 		}
 		return dataItems;
@@ -104,80 +143,10 @@ public class FilterEngine
 			return data;
 		}
 		if (isFilterable(data)) {
-
-			UserContext userContext = SecurityUtil.getUserContext();
-
-			Set<String> acceptedDataSources = userContext.dataSources();
-			Set<String> acceptedDataSensitivity = userContext.dataSensitivity();
-
-			if (data instanceof Component) {
-
-				boolean keepSource = false;
-				Component component = (Component) data;
-				if (component.getDataSource() == null && userContext.allowUnspecifiedDataSources()) {
-					keepSource = true;
-				} else if (acceptedDataSources.contains(component.getDataSource())) {
-					keepSource = true;
-				}
-
-				if (keepSource) {
-					if (component.getDataSensitivity() == null && userContext.allowUnspecifiedDataSensitivty()) {
-						returnValue = data;
-					} else if (acceptedDataSensitivity.contains(component.getDataSensitivity())) {
-						returnValue = data;
-					}
-				}
-
-			} else if (data instanceof ComponentRelationship) {
-				//look at both sides of relationship
-				ComponentRelationship componentRelationship = (ComponentRelationship) data;
-
-				boolean keepData = false;
-				keepData = keepComponent(acceptedDataSources, acceptedDataSensitivity, userContext, componentRelationship.getComponentId());
-
-				//check target
-				if (keepData) {
-					keepData = keepComponent(acceptedDataSources, acceptedDataSensitivity, userContext, componentRelationship.getRelatedComponentId());
-				}
-
-				//check itself
-				if (keepData) {
-					StandardEntity standardEntity = (StandardEntity) data;
-					if (standardEntity.getDataSensitivity() == null && userContext.allowUnspecifiedDataSensitivty()) {
-						returnValue = data;
-					} else if (acceptedDataSensitivity.contains(standardEntity.getDataSensitivity())) {
-						returnValue = data;
-					}
-				}
-			} else if (data instanceof BaseComponent) {
-
-				boolean keepData = false;
-				if (checkParentComponent) {
-					//if base component - check component data restrictions
-					BaseComponent baseComponent = (BaseComponent) data;
-					keepData = keepComponent(acceptedDataSources, acceptedDataSensitivity, userContext, baseComponent.getComponentId());
-				} else {
-					keepData = true;
-				}
-
-				if (keepData) {
-					StandardEntity standardEntity = (StandardEntity) data;
-					if (standardEntity.getDataSensitivity() == null && userContext.allowUnspecifiedDataSensitivty()) {
-						returnValue = data;
-					} else if (acceptedDataSensitivity.contains(standardEntity.getDataSensitivity())) {
-						returnValue = data;
-					}
-				}
-			} else {
-
-				StandardEntity standardEntity = (StandardEntity) data;
-				if (standardEntity.getDataSensitivity() == null && userContext.allowUnspecifiedDataSensitivty()) {
-					returnValue = data;
-				} else if (acceptedDataSensitivity.contains(standardEntity.getDataSensitivity())) {
-					returnValue = data;
-				}
+			DataRestrictionPredicate predicate = SecurityUtil.getUserContext().dataRestrictionPredicate();
+			if (keep(predicate, data, checkParentComponent, componentId -> ServiceProxyFactory.getServiceProxy().getComponentService().getComponentSensitivity(componentId))) {
+				returnValue = data;
 			}
-
 		} else {
 			//if it's not filterable just return the source data as it can't be filtered.
 			returnValue = data;
@@ -185,33 +154,38 @@ public class FilterEngine
 		return returnValue;
 	}
 
-	private static boolean keepComponent(Set<String> acceptedDataSources, Set<String> acceptedDataSensitivity, UserContext userContext, String componentId)
+	private static boolean keep(DataRestrictionPredicate predicate, StandardEntity data, boolean checkParentComponent, Function<String, ComponentSensitivityModel> parentSensitivity)
 	{
-		boolean keepData = false;
-
-		ComponentSensitivityModel componentSensitivityModel = ServiceProxyFactory.getServiceProxy().getComponentService().getComponentSensitivity(componentId);
-		if (componentSensitivityModel != null) {
-			boolean keepSource = false;
-			if ((componentSensitivityModel.getDataSource() == null && userContext.allowUnspecifiedDataSources())) {
-				keepSource = true;
-			} else if (acceptedDataSources.contains(componentSensitivityModel.getDataSource())) {
-				keepSource = true;
-			}
-
-			if (keepSource) {
-				if (componentSensitivityModel.getDataSensitivity() == null && userContext.allowUnspecifiedDataSensitivty()) {
-					keepData = true;
-				} else if (acceptedDataSensitivity.contains(componentSensitivityModel.getDataSensitivity())) {
-					keepData = true;
-				}
-			}
+		boolean keepData;
+		if (data instanceof Component) {
+			Component component = (Component) data;
+			keepData = predicate.allow(component.getDataSource(), component.getDataSensitivity());
+		} else if (data instanceof ComponentRelationship) {
+			//look at both sides of relationship
+			ComponentRelationship componentRelationship = (ComponentRelationship) data;
+			keepData = keepComponent(predicate, parentSensitivity, componentRelationship.getComponentId())
+					&& keepComponent(predicate, parentSensitivity, componentRelationship.getRelatedComponentId())
+					&& predicate.allowDataSensitivity(data.getDataSensitivity());
+		} else if (data instanceof BaseComponent && checkParentComponent) {
+			//if base component - check component data restrictions
+			BaseComponent baseComponent = (BaseComponent) data;
+			keepData = keepComponent(predicate, parentSensitivity, baseComponent.getComponentId())
+					&& predicate.allowDataSensitivity(data.getDataSensitivity());
 		} else {
-			LOG.log(Level.WARNING, MessageFormat.format("Unable to find component - during filtering. Filtering data out. Component Id: {0}", componentId));
+			keepData = predicate.allowDataSensitivity(data.getDataSensitivity());
 		}
-
 		return keepData;
 	}
 
+	private static boolean keepComponent(DataRestrictionPredicate predicate, Function<String, ComponentSensitivityModel> parentSensitivity, String componentId)
+	{
+		ComponentSensitivityModel componentSensitivityModel = parentSensitivity.apply(componentId);
+		if (componentSensitivityModel == null) {
+			LOG.log(Level.WARNING, MessageFormat.format("Unable to find component - during filtering. Filtering data out. Component Id: {0}", componentId));
+		}
+		return predicate.allowComponent(componentSensitivityModel);
+	}
+
 	/**
 	 * Data is filterable if the following conditions are met: _Not Null _User
 	 * is Logged in _Is a Standard Entity
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.model.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts of the values of one field across all of the search matches (not
+ * just the returned page)
+ *
+ * @author dshurtleff
+ */
+public class ResultFacet
+{
+
+	public static final String FIELD_COMPONENT_TYPE = "componentType";
+	public static final String FIELD_ORGANIZATION = "organization";
+	public static final String FIELD_TAGS = "tags";
+	public static final String FIELD_ATTRIBUTES = "attributes";
+
+	/**
+	 * Fields that can be faceted
+	 */
+	public static final List<String> FIELDS = Collections.unmodifiableList(Arrays.asList(
+			FIELD_COMPONENT_TYPE,
+			FIELD_ORGANIZATION,
+			FIELD_TAGS,
+			FIELD_ATTRIBUTES
+	));
+
+	/**
+	 * Attribute values are "type:code"
+	 */
+	public static final String ATTRIBUTE_SEPARATOR = ":";
+
+	private String field;
+	private List<ResultFacetValue> values = new ArrayList<>();
+
+	public ResultFacet()
+	{
+	}
+
+	public ResultFacet(String field)
+	{
+		this.field = field;
+	}
+
+	public static String attributeValue(String attributeType, String attributeCode)
+	{
+		return attributeType + ATTRIBUTE_SEPARATOR + attributeCode;
+	}
+
+	public String getField()
+	{
+		return field;
+	}
+
+	public void setField(String field)
+	{
+		this.field = field;
+	}
+
+	public List<ResultFacetValue> getValues()
+	{
+		return values;
+	}
+
+	public void setValues(List<ResultFacetValue> values)
+	{
+		this.values = values;
+	}
+
+}
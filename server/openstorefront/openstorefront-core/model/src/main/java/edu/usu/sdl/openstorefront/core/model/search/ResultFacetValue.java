@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.model.search;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ResultFacetValue
+{
+
+	private String value;
+	private long count;
+
+	public ResultFacetValue()
+	{
+	}
+
+	public ResultFacetValue(String value, long count)
+	{
+		this.value = value;
+		this.count = count;
+	}
+
+	public String getValue()
+	{
+		return value;
+	}
+
+	public void setValue(String value)
+	{
+		this.value = value;
+	}
+
+	public long getCount()
+	{
+		return count;
+	}
+
+	public void setCount(long count)
+	{
+		this.count = count;
+	}
+
+}
@@ -20,6 +20,7 @@ import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
 import edu.usu.sdl.openstorefront.validation.EnumLookup;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -66,6 +67,30 @@ public class SearchOperation
 			return results;
 		}
 
+		/**
+		 * Same as the list version but on encoded id sets; inputs are not
+		 * modified.
+		 *
+		 * @param setA
+		 * @param setB
+		 * @return merged set
+		 */
+		public BitSet apply(BitSet setA, BitSet setB)
+		{
+			BitSet results;
+			if (this == AND) {
+				results = (BitSet) setA.clone();
+				results.and(setB);
+			} else if (this == OR) {
+				results = (BitSet) setA.clone();
+				results.or(setB);
+			} else {
+				results = (BitSet) setB.clone();
+				results.andNot(setA);
+			}
+			return results;
+		}
+
 		@Override
 		public boolean vaildValue(String value)
 		{
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.sort;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Builds comparators on a bean property. The property is resolved once per
+ * class (and cached) and values are compared by type (Date, Number, String)
+ * rather than through string conversion.
+ *
+ * Ordering rules: nulls are first (ascending), numeric strings compare as
+ * numbers and other strings compare ignoring case.
+ *
+ * @author dshurtleff
+ */
+public class ComparatorFactory
+{
+
+	private static final Logger LOG = Logger.getLogger(ComparatorFactory.class.getName());
+
+	private static final Map<Class<?>, Map<String, Function<Object, Object>>> EXTRACTORS = new ConcurrentHashMap<>();
+
+	//marks a property that doesn't exist on the class; those compare as equal
+	private static final Object NO_VALUE = new Object();
+	private static final Function<Object, Object> MISSING_PROPERTY = bean -> NO_VALUE;
+
+	private ComparatorFactory()
+	{
+	}
+
+	/**
+	 * Creates a null-safe comparator on the property
+	 *
+	 * @param <T>
+	 * @param sortDirection (OpenStorefrontConstant.SORT_DESCENDING reverses)
+	 * @param sortField property name (nested paths are supported)
+	 * @return comparator
+	 */
+	public static <T> Comparator<T> build(String sortDirection, String sortField)
+	{
+		Comparator<T> comparator = new PropertyComparator<>(sortField);
+		if (OpenStorefrontConstant.SORT_DESCENDING.equals(sortDirection)) {
+			comparator = comparator.reversed();
+		}
+		return comparator;
+	}
+
+	/**
+	 * Compares two values by type
+	 *
+	 * @param value1
+	 * @param value2
+	 * @return compare result (null is less than non-null)
+	 */
+	public static int compareValues(Object value1, Object value2)
+	{
+		if (value1 != null && value2 == null) {
+			return 1;
+		} else if (value1 == null && value2 != null) {
+			return -1;
+		} else if (value1 == null) {
+			return 0;
+		}
+
+		if (value1 instanceof String && value2 instanceof String) {
+			return compareStrings((String) value1, (String) value2);
+		} else if (value1 instanceof Date && value2 instanceof Date) {
+			return Long.compare(((Date) value1).getTime(), ((Date) value2).getTime());
+		} else if (value1 instanceof Number && value2 instanceof Number) {
+			return compareNumbers((Number) value1, (Number) value2);
+		}
+		return compareStrings(value1.toString(), value2.toString());
+	}
+
+	private static int compareStrings(String value1, String value2)
+	{
+		if (StringUtils.isNotBlank(value1)
+				&& StringUtils.isNotBlank(value2)
+				&& StringUtils.isNumeric(value1)
+				&& StringUtils.isNumeric(value2)) {
+			return compareDigits(value1, value2);
+		}
+		return value1.compareToIgnoreCase(value2);
+	}
+
+	/**
+	 * Compares unsigned digit strings of any length without parsing
+	 */
+	private static int compareDigits(String value1, String value2)
+	{
+		int start1 = skipLeadingZeros(value1);
+		int start2 = skipLeadingZeros(value2);
+		int length1 = value1.length() - start1;
+		int length2 = value2.length() - start2;
+		if (length1 != length2) {
+			return Integer.compare(length1, length2);
+		}
+		for (int i = 0; i < length1; i++) {
+			int digit1 = Character.digit(value1.charAt(start1 + i), 10);
+			int digit2 = Character.digit(value2.charAt(start2 + i), 10);
+			if (digit1 != digit2) {
+				return Integer.compare(digit1, digit2);
+			}
+		}
+		return 0;
+	}
+
+	private static int skipLeadingZeros(String value)
+	{
+		int start = 0;
+		while (start < value.length() - 1 && Character.digit(value.charAt(start), 10) == 0) {
+			start++;
+		}
+		return start;
+	}
+
+	private static int compareNumbers(Number value1, Number value2)
+	{
+		if (isWholeNumber(value1) && isWholeNumber(value2)) {
+			return Long.compare(value1.longValue(), value2.longValue());
+		} else if (isFloatingNumber(value1) && isFloatingNumber(value2)) {
+			return Double.compare(value1.doubleValue(), value2.doubleValue());
+		} else if (value1 instanceof BigDecimal && value2 instanceof BigDecimal) {
+			return ((BigDecimal) value1).compareTo((BigDecimal) value2);
+		} else if (isNotFinite(value1) || isNotFinite(value2)) {
+			//NaN and infinity have no BigDecimal form; NaN sorts last like Double.compare
+			return Double.compare(value1.doubleValue(), value2.doubleValue());
+		}
+		return new BigDecimal(value1.toString()).compareTo(new BigDecimal(value2.toString()));
+	}
+
+	private static boolean isNotFinite(Number value)
+	{
+		return isFloatingNumber(value)
+				&& (Double.isNaN(value.doubleValue()) || Double.isInfinite(value.doubleValue()));
+	}
+
+	private static boolean isWholeNumber(Number value)
+	{
+		return value instanceof Integer
+				|| value instanceof Long
+				|| value instanceof Short
+				|| value instanceof Byte;
+	}
+
+	private static boolean isFloatingNumber(Number value)
+	{
+		return value instanceof Double
+				|| value instanceof Float;
+	}
+
+	/**
+	 * Gets the (cached) value extractor for the property on the class
+	 *
+	 * @param beanClass
+	 * @param property
+	 * @return extractor (never null)
+	 */
+	static Function<Object, Object> getExtractor(Class<?> beanClass, String property)
+	{
+		return EXTRACTORS.computeIfAbsent(beanClass, key -> new ConcurrentHashMap<>())
+				.computeIfAbsent(property, key -> resolveExtractor(beanClass, key));
+	}
+
+	/**
+	 * Drops the resolved properties (Mainly for testing)
+	 */
+	public static void clearCache()
+	{
+		EXTRACTORS.clear();
+	}
+
+	private static Function<Object, Object> resolveExtractor(Class<?> beanClass, String property)
+	{
+		if (StringUtils.isBlank(property)) {
+			return MISSING_PROPERTY;
+		}
+
+		if (StringUtils.containsAny(property, '.', '[', '(')) {
+			//nested path; let bean utils resolve it
+			return bean -> {
+				try {
+					return PropertyUtils.getNestedProperty(bean, property);
+				} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException | IllegalArgumentException ex) {
+					LOG.log(Level.FINER, MessageFormat.format("Sort field doesn''t exist: {0}", property));
+					return NO_VALUE;
+				}
+			};
+		}
+
+		for (PropertyDescriptor descriptor : PropertyUtils.getPropertyDescriptors(beanClass)) {
+			if (descriptor.getName().equals(property) && descriptor.getReadMethod() != null) {
+				try {
+					Method readMethod = descriptor.getReadMethod();
+					readMethod.setAccessible(true);
+					MethodHandle getter = MethodHandles.lookup()
+							.unreflect(readMethod)
+							.asType(MethodType.methodType(Object.class, Object.class));
+					return bean -> {
+						try {
+							return getter.invokeExact(bean);
+						} catch (RuntimeException | Error ex) {
+							throw ex;
+						} catch (Throwable ex) {
+							throw new OpenStorefrontRuntimeException("Unable to read sort field: " + property, ex);
+						}
+					};
+				} catch (IllegalAccessException | RuntimeException ex) {
+					LOG.log(Level.FINER, MessageFormat.format("Sort field is not accessible: {0}", property), ex);
+				}
+			}
+		}
+		LOG.log(Level.FINER, MessageFormat.format("Sort field doesn''t exist: {0} on {1}", property, beanClass.getName()));
+		return MISSING_PROPERTY;
+	}
+
+	private static class PropertyComparator<T>
+			implements Comparator<T>
+	{
+
+		private final String property;
+		private volatile ResolvedProperty resolved;
+
+		public PropertyComparator(String property)
+		{
+			this.property = property;
+		}
+
+		@Override
+		public int compare(T obj1, T obj2)
+		{
+			if (obj1 != null && obj2 == null) {
+				return 1;
+			} else if (obj1 == null && obj2 != null) {
+				return -1;
+			} else if (obj1 == null || property == null) {
+				return 0;
+			}
+
+			Object value1 = extractor(obj1).apply(obj1);
+			Object value2 = extractor(obj2).apply(obj2);
+			if (value1 == NO_VALUE || value2 == NO_VALUE) {
+				return 0;
+			}
+			return compareValues(value1, value2);
+		}
+
+		private Function<Object, Object> extractor(Object bean)
+		{
+			ResolvedProperty current = resolved;
+			if (current == null || current.beanClass != bean.getClass()) {
+				current = new ResolvedProperty(bean.getClass(), getExtractor(bean.getClass(), property));
+				resolved = current;
+			}
+			return current.extractor;
+		}
+
+	}
+
+	private static class ResolvedProperty
+	{
+
+		private final Class<?> beanClass;
+		private final Function<Object, Object> extractor;
+
+		public ResolvedProperty(Class<?> beanClass, Function<Object, Object> extractor)
+		{
+			this.beanClass = beanClass;
+			this.extractor = extractor;
+		}
+
+	}
+
+}
@@ -18,9 +18,13 @@ package edu.usu.sdl.openstorefront.core.spi.parser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.common.util.StringProcessor;
 import edu.usu.sdl.openstorefront.core.api.Service;
 import edu.usu.sdl.openstorefront.core.api.ServiceProxyFactory;
+import edu.usu.sdl.openstorefront.core.entity.FileFormat;
+import edu.usu.sdl.openstorefront.core.entity.FileDataMapField;
 import edu.usu.sdl.openstorefront.core.entity.FileHistoryError;
 import edu.usu.sdl.openstorefront.core.entity.FileHistoryErrorType;
 import edu.usu.sdl.openstorefront.core.model.FileHistoryAll;
@@ -36,7 +40,10 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.file.Path;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -51,7 +58,17 @@ public abstract class AbstractParser<T>
 
 	protected FileHistoryAll fileHistoryAll;
 	protected int currentRecordNumber;
-	protected Service service = ServiceProxyFactory.getServiceProxy();
+	//own service instances so the import's transactions don't collide with other imports
+	protected Service service = ServiceProxyFactory.getServiceProxy().getNewServiceProxy();
+	protected ImportProgressTracker progressTracker;
+
+	protected int parallelism = FileFormat.PARALLELISM_SEQUENTIAL;
+
+	//record numbers of the records in the storage bucket (for error reporting)
+	private List<Integer> storageRecordNumbers = new ArrayList<>();
+
+	//set on worker copies (parallel mode); parsed records are handed back to the committer instead of stored
+	List<Object> workerRecords;
 
 	public AbstractParser()
 	{
@@ -69,6 +86,7 @@ public abstract class AbstractParser<T>
 	public void processData(FileHistoryAll fileHistoryAll)
 	{
 		this.fileHistoryAll = fileHistoryAll;
+		progressTracker = createProgressTracker();
 
 		LOG.log(Level.INFO, MessageFormat.format("Processing: {0}", fileHistoryAll.getFileHistory().getOriginalFilename()));
 
@@ -77,6 +95,7 @@ public abstract class AbstractParser<T>
 		Path path = fileHistoryAll.getFileHistory().pathToFileName();
 		if (path != null) {
 			try (GenericReader reader = getReader(new FileInputStream(path.toFile()))) {
+				setMappedFields(reader);
 				reader.preProcess();
 
 				LOG.log(Level.FINEST, "Read Records");
@@ -84,31 +103,23 @@ public abstract class AbstractParser<T>
 					fileHistoryAll.getFileHistory().setNumberRecords(reader.getTotalRecords());
 				}
 
-				Object record = reader.nextRecord();
-				while (record != null) {
-					currentRecordNumber = reader.getCurrentRecordNumber();
-					try {
-
-						Object parsed = parseRecord(record);
-
-						if (parsed != null) {
-							if (validateRecord(parsed)) {
-								addRecordToStorage(parsed);
-							}
-						}
-					} catch (Exception e) {
-						StringWriter stringWriter = new StringWriter();
-						PrintWriter printWriter = new PrintWriter(stringWriter);
-						e.printStackTrace(printWriter);
-						fileHistoryAll.addError(FileHistoryErrorType.PARSE, "Unable to parse record.  Trace: <br> " + stringWriter.toString(), currentRecordNumber);
+				int workers = getWorkerCount();
+				if (workers > 1) {
+					LOG.log(Level.FINE, MessageFormat.format("Parsing records with {0} workers", workers));
+					new ParallelRecordPipeline(this, workers).process(reader);
+				} else {
+					Object record = reader.nextRecord();
+					while (record != null) {
+						currentRecordNumber = reader.getCurrentRecordNumber();
+						handleRecord(record);
+						recordProcessed();
+
+						record = reader.nextRecord();
 					}
-					fileHistoryAll.getFileHistory().setRecordsProcessed(currentRecordNumber);
-					updateFileHistoryStats();
-
-					record = reader.nextRecord();
 				}
 				//flush any remaining records
 				flushRecordsToStorage();
+				progressTracker.flush();
 
 				LOG.log(Level.FINEST, "Finish Up");
 				finishProcessing();
@@ -135,6 +146,77 @@ public abstract class AbstractParser<T>
 		}
 	}
 
+	/**
+	 * Parses, validates and adds the record to storage
+	 *
+	 * @param record
+	 */
+	void handleRecord(Object record)
+	{
+		try {
+			Object parsed = parseRecord(record);
+
+			if (parsed != null) {
+				if (validateRecord(parsed)) {
+					addRecordToStorage(parsed);
+				}
+			}
+		} catch (Exception e) {
+			StringWriter stringWriter = new StringWriter();
+			PrintWriter printWriter = new PrintWriter(stringWriter);
+			e.printStackTrace(printWriter);
+			fileHistoryAll.addError(FileHistoryErrorType.PARSE, "Unable to parse record.  Trace: <br> " + stringWriter.toString(), currentRecordNumber);
+		}
+	}
+
+	/**
+	 * Takes the results a worker produced for a record (parallel mode)
+	 *
+	 * @param recordNumber
+	 * @param records parsed and validated records
+	 * @param errors
+	 */
+	void commitRecord(int recordNumber, List<Object> records, List<FileHistoryError> errors)
+	{
+		currentRecordNumber = recordNumber;
+		fileHistoryAll.getErrors().addAll(errors);
+		for (Object record : records) {
+			addRecordToStorage(record);
+		}
+		recordProcessed();
+	}
+
+	private void recordProcessed()
+	{
+		fileHistoryAll.getFileHistory().setRecordsProcessed(currentRecordNumber);
+		progressTracker.recordProcessed();
+	}
+
+	private int getWorkerCount()
+	{
+		if (parallelism == FileFormat.PARALLELISM_PER_CORE) {
+			return Runtime.getRuntime().availableProcessors();
+		}
+		return parallelism;
+	}
+
+	/**
+	 * Creates the copy of the parser a worker uses in parallel mode; each
+	 * worker parses with its own copy so parser state isn't shared between
+	 * threads. Parsers without a public no-arg constructor need to override
+	 * this.
+	 *
+	 * @return new parser
+	 */
+	protected AbstractParser<T> createWorkerParser()
+	{
+		try {
+			return getClass().newInstance();
+		} catch (InstantiationException | IllegalAccessException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to create a parser for the import workers.", "The parser needs a public no-arg constructor or it should override createWorkerParser()", ex);
+		}
+	}
+
 	protected <T> void addMultipleRecords(List<T> records)
 	{
 		for (T record : records) {
@@ -150,6 +232,7 @@ public abstract class AbstractParser<T>
 
 		StringBuilder output = new StringBuilder();
 		try (GenericReader reader = getReader(input)) {
+			setMappedFields(reader);
 			reader.preProcess();
 
 			Object record = reader.nextRecord();
@@ -189,11 +272,38 @@ public abstract class AbstractParser<T>
 		service.getImportService().updateImportProgress(fileHistoryAll);
 	}
 
+	/**
+	 * Progress is saved after a number of records or an interval rather than
+	 * for every record.
+	 *
+	 * @return tracker
+	 */
+	protected ImportProgressTracker createProgressTracker()
+	{
+		int flushRecords = Convert.toInteger(PropertiesManager.getValue(PropertiesManager.KEY_IMPORT_PROGRESS_FLUSH_RECORDS, Integer.toString(ImportProgressTracker.DEFAULT_FLUSH_RECORDS)));
+		long flushInterval = Convert.toLong(PropertiesManager.getValue(PropertiesManager.KEY_IMPORT_PROGRESS_FLUSH_INTERVAL, Long.toString(ImportProgressTracker.DEFAULT_FLUSH_INTERVAL)));
+		return new ImportProgressTracker(flushRecords, flushInterval, this::updateFileHistoryStats);
+	}
+
 	protected GenericReader getReader(InputStream in)
 	{
 		return new TextReader(in);
 	}
 
+	private void setMappedFields(GenericReader reader)
+	{
+		if (reader instanceof MappableReader
+				&& fileHistoryAll.getDataMapModel() != null
+				&& fileHistoryAll.getDataMapModel().getFileDataMap() != null
+				&& fileHistoryAll.getDataMapModel().getFileDataMap().getDataMapFields() != null) {
+			Set<String> mappedFields = new HashSet<>();
+			for (FileDataMapField dataMapField : fileHistoryAll.getDataMapModel().getFileDataMap().getDataMapFields()) {
+				mappedFields.add(dataMapField.getField());
+			}
+			((MappableReader) reader).setMappedFields(mappedFields);
+		}
+	}
+
 	/**
 	 * Get the mappable reader for field extraction
 	 *
@@ -231,11 +341,16 @@ public abstract class AbstractParser<T>
 
 	protected <T> void addRecordToStorage(T record)
 	{
+		if (workerRecords != null) {
+			workerRecords.add(record);
+			return;
+		}
+
 		getStorageBucket().add(record);
+		storageRecordNumbers.add(currentRecordNumber);
 
 		if (getStorageBucket().size() > getMaxBucketSize()) {
 			flushRecordsToStorage();
-			getStorageBucket().clear();
 		}
 	}
 
@@ -243,22 +358,70 @@ public abstract class AbstractParser<T>
 
 	protected abstract int getMaxBucketSize();
 
+	/**
+	 * Stores the bucket (as one batch) and empties it. A batch that fails is
+	 * recorded as an error on each of its records.
+	 */
 	protected void flushRecordsToStorage()
 	{
 		if (getStorageBucket().isEmpty() == false) {
-			performStorage();
+			int errorsBefore = fileHistoryAll.getErrors().size();
+			try {
+				performStorage();
+			} catch (Exception e) {
+				for (int i = 0; i < getStorageBucket().size(); i++) {
+					addStorageError(i, e);
+				}
+			}
+			int failed = fileHistoryAll.getErrors().size() - errorsBefore;
+
 			if (fileHistoryAll.getFileHistory().getRecordsStored() == null) {
 				fileHistoryAll.getFileHistory().setRecordsStored(0);
 			}
-			fileHistoryAll.getFileHistory().setRecordsStored(fileHistoryAll.getFileHistory().getRecordsStored() + getStorageBucket().size());
-			updateFileHistoryStats();
+			fileHistoryAll.getFileHistory().setRecordsStored(fileHistoryAll.getFileHistory().getRecordsStored() + getStorageBucket().size() - failed);
+			getStorageBucket().clear();
+			storageRecordNumbers.clear();
+			if (progressTracker != null) {
+				progressTracker.update();
+			}
 		}
 	}
 
+	/**
+	 * Records a failure to store a record in the bucket
+	 *
+	 * @param bucketIndex
+	 * @param e
+	 */
+	protected void addStorageError(int bucketIndex, Exception e)
+	{
+		StringWriter stringWriter = new StringWriter();
+		PrintWriter printWriter = new PrintWriter(stringWriter);
+		e.printStackTrace(printWriter);
+
+		Integer recordNumber = bucketIndex < storageRecordNumbers.size() ? storageRecordNumbers.get(bucketIndex) : null;
+		fileHistoryAll.addError(FileHistoryErrorType.SYSTEM, "Unable to store record.  Trace: <br> " + stringWriter.toString(), recordNumber);
+	}
+
+	/**
+	 * Stores all of the records in the storage bucket; failures should be
+	 * reported with addStorageError or thrown to fail the whole bucket.
+	 */
 	protected abstract void performStorage();
 
 	protected void finishProcessing()
 	{
 	}
 
+	/**
+	 * Number of threads that parse records; FileFormat.PARALLELISM_PER_CORE
+	 * for one per processor. Records are still stored in the file's order.
+	 *
+	 * @param parallelism
+	 */
+	public void setParallelism(int parallelism)
+	{
+		this.parallelism = parallelism;
+	}
+
 }
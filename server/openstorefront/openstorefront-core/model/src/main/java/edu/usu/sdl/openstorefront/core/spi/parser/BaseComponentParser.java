@@ -40,6 +40,7 @@ import edu.usu.sdl.openstorefront.core.model.ComponentAll;
 import edu.usu.sdl.openstorefront.validation.CleanKeySanitizer;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -192,10 +193,23 @@ public abstract class BaseComponentParser
 	@Override
 	protected void performStorage()
 	{
-		if (fileHistoryAll.getFileHistory().getFileHistoryOption() == null) {
-			service.getComponentService().importComponents(componentsAll, new FileHistoryOption());
-		} else {
-			service.getComponentService().importComponents(componentsAll, fileHistoryAll.getFileHistory().getFileHistoryOption());
+		FileHistoryOption options = fileHistoryAll.getFileHistory().getFileHistoryOption();
+		if (options == null) {
+			options = new FileHistoryOption();
+		}
+
+		//the bucket is saved in one transaction; if it's rolled back, save each so only the bad records fail
+		try {
+			service.getComponentService().importComponents(componentsAll, options);
+		} catch (Exception e) {
+			LOG.log(Level.WARNING, MessageFormat.format("Unable to store the batch of {0} component(s); storing them individually.", componentsAll.size()), e);
+			for (int i = 0; i < componentsAll.size(); i++) {
+				try {
+					service.getComponentService().importComponents(Arrays.asList(componentsAll.get(i)), options);
+				} catch (Exception recordException) {
+					addStorageError(i, recordException);
+				}
+			}
 		}
 	}
 
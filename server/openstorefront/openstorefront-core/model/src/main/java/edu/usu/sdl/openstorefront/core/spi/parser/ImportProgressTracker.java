@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser;
+
+/**
+ * Limits how often import progress is saved. The counters are kept on the
+ * file history in memory; the flusher saves them after a number of records or
+ * when the interval has passed (whichever comes first).
+ *
+ * @author dshurtleff
+ */
+public class ImportProgressTracker
+{
+
+	public static final int DEFAULT_FLUSH_RECORDS = 500;
+	public static final long DEFAULT_FLUSH_INTERVAL = 2000;
+
+	private final int flushRecords;
+	private final long flushInterval;
+	private final Runnable flusher;
+
+	private int pendingRecords;
+	private long lastFlush = System.currentTimeMillis();
+	private int flushCount;
+
+	/**
+	 * @param flushRecords records between flushes (0 or less to only use the
+	 * interval)
+	 * @param flushInterval max millis between flushes (0 or less to only use
+	 * the record count)
+	 * @param flusher saves the progress
+	 */
+	public ImportProgressTracker(int flushRecords, long flushInterval, Runnable flusher)
+	{
+		this.flushRecords = flushRecords;
+		this.flushInterval = flushInterval;
+		this.flusher = flusher;
+	}
+
+	/**
+	 * Counts a processed record; saves progress if it's due.
+	 */
+	public void recordProcessed()
+	{
+		pendingRecords++;
+		if (flushRecords > 0 && pendingRecords >= flushRecords) {
+			flush();
+		} else {
+			update();
+		}
+	}
+
+	/**
+	 * Saves progress if the interval has passed (Eg. after a bucket is stored)
+	 */
+	public void update()
+	{
+		if (flushInterval > 0 && System.currentTimeMillis() - lastFlush >= flushInterval) {
+			flush();
+		}
+	}
+
+	/**
+	 * Saves progress now
+	 */
+	public void flush()
+	{
+		flusher.run();
+		pendingRecords = 0;
+		lastFlush = System.currentTimeMillis();
+		flushCount++;
+	}
+
+	public int getFlushCount()
+	{
+		return flushCount;
+	}
+
+}
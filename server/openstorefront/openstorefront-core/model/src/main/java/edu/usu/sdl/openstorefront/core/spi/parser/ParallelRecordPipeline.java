@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser;
+
+import edu.usu.sdl.openstorefront.core.entity.FileHistoryError;
+import edu.usu.sdl.openstorefront.core.model.FileHistoryAll;
+import edu.usu.sdl.openstorefront.core.spi.parser.reader.GenericReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parses records on several threads. A reader thread feeds the workers
+ * through a bounded queue of pending results (kept in file order); the
+ * calling thread commits each result in that order so storage, duplicate
+ * checks and error reporting match a sequential import.
+ *
+ * Each worker parses with its own copy of the parser and file history errors,
+ * so parsers only need to be free of state that carries between records.
+ *
+ * @author dshurtleff
+ */
+class ParallelRecordPipeline
+{
+
+	private static final int PENDING_PER_WORKER = 4;
+	private static final Future<ParsedRecord> END_OF_RECORDS = CompletableFuture.completedFuture(null);
+
+	private final AbstractParser<?> parser;
+	private final int workers;
+
+	private volatile boolean stopped;
+
+	public ParallelRecordPipeline(AbstractParser<?> parser, int workers)
+	{
+		this.parser = parser;
+		this.workers = workers;
+	}
+
+	public void process(GenericReader reader) throws Exception
+	{
+		BlockingQueue<Future<ParsedRecord>> pending = new ArrayBlockingQueue<>(workers * PENDING_PER_WORKER);
+		ThreadLocal<AbstractParser<?>> workerParsers = ThreadLocal.withInitial(this::createWorkerParser);
+
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+			Thread thread = new Thread(runnable, "Import-Parser-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		AtomicReference<Exception> readError = new AtomicReference<>();
+		Thread readerThread = new Thread(() -> {
+			try {
+				Object record = reader.nextRecord();
+				while (record != null) {
+					Object current = record;
+					int recordNumber = reader.getCurrentRecordNumber();
+					pending.put(workerPool.submit(() -> parse(workerParsers.get(), current, recordNumber)));
+					record = reader.nextRecord();
+				}
+			} catch (InterruptedException ex) {
+				//committer stopped
+			} catch (Exception ex) {
+				readError.set(ex);
+			} finally {
+				if (stopped == false) {
+					try {
+						pending.put(END_OF_RECORDS);
+					} catch (InterruptedException ex) {
+						//committer stopped
+					}
+				}
+			}
+		}, "Import-Reader");
+		readerThread.setDaemon(true);
+		readerThread.start();
+
+		try {
+			Future<ParsedRecord> future = pending.take();
+			while (future != END_OF_RECORDS) {
+				ParsedRecord parsedRecord = future.get();
+				parser.commitRecord(parsedRecord.recordNumber, parsedRecord.records, parsedRecord.errors);
+				future = pending.take();
+			}
+		} finally {
+			stopped = true;
+			readerThread.interrupt();
+			workerPool.shutdownNow();
+			//the reader is closed by the caller
+			readerThread.join();
+		}
+
+		if (readError.get() != null) {
+			throw readError.get();
+		}
+	}
+
+	private AbstractParser<?> createWorkerParser()
+	{
+		AbstractParser<?> worker = parser.createWorkerParser();
+
+		FileHistoryAll workerHistory = new FileHistoryAll();
+		workerHistory.setFileHistory(parser.fileHistoryAll.getFileHistory());
+		workerHistory.setDataMapModel(parser.fileHistoryAll.getDataMapModel());
+		worker.fileHistoryAll = workerHistory;
+		return worker;
+	}
+
+	private ParsedRecord parse(AbstractParser<?> worker, Object record, int recordNumber)
+	{
+		ParsedRecord parsedRecord = new ParsedRecord(recordNumber);
+		worker.currentRecordNumber = recordNumber;
+		worker.workerRecords = parsedRecord.records;
+		worker.fileHistoryAll.setErrors(parsedRecord.errors);
+
+		worker.handleRecord(record);
+		return parsedRecord;
+	}
+
+	private static class ParsedRecord
+	{
+
+		private final int recordNumber;
+		private final List<Object> records = new ArrayList<>();
+		private final List<FileHistoryError> errors = new ArrayList<>();
+
+		public ParsedRecord(int recordNumber)
+		{
+			this.recordNumber = recordNumber;
+		}
+
+	}
+
+}
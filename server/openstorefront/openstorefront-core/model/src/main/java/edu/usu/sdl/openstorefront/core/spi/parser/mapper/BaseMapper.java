@@ -40,6 +40,9 @@ import org.apache.commons.lang3.StringUtils;
 public abstract class BaseMapper<T>
 {
 
+	//records may be mapped in parallel; only the save is serialized (a later save of the same type/code updates it)
+	private static final Object CREATE_LOCK = new Object();
+
 	protected DataTemplateEntity<T> templateFactory;
 	protected FileHistoryAll fileHistoryAll;
 	protected Map<String, DataMapper> dataMappers;
@@ -103,7 +106,9 @@ public abstract class BaseMapper<T>
 		attributeType.setCreateUser(fileHistoryAll.getFileHistory().getCreateUser());
 		attributeType.setUpdateUser(fileHistoryAll.getFileHistory().getCreateUser());
 
-		serviceProxy.getAttributeService().saveAttributeType(attributeType);
+		synchronized (CREATE_LOCK) {
+			serviceProxy.getAttributeService().saveAttributeType(attributeType);
+		}
 		return attributeType;
 	}
 
@@ -123,7 +128,9 @@ public abstract class BaseMapper<T>
 		attributeCodeFound.setCreateUser(fileHistoryAll.getFileHistory().getCreateUser());
 		attributeCodeFound.setUpdateUser(fileHistoryAll.getFileHistory().getCreateUser());
 
-		serviceProxy.getAttributeService().saveAttributeCode(attributeCodeFound, false);
+		synchronized (CREATE_LOCK) {
+			serviceProxy.getAttributeService().saveAttributeCode(attributeCodeFound, false);
+		}
 		return attributeCodeFound;
 	}
 
@@ -18,17 +18,39 @@ package edu.usu.sdl.openstorefront.core.spi.parser.reader;
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapField;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.EncryptedDocumentException;
-import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.POIXMLDocument;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.SAXException;
 
 /**
+ * Reads the rows of the first sheet. XLSX sheets are streamed from the file
+ * (only the shared strings are held in memory); older XLS files are read
+ * through the workbook model.
  *
  * @author dshurtleff
  */
@@ -36,6 +58,16 @@ public class ExcelMapReader
 		extends MappableReader
 {
 
+	private static final Logger LOG = Logger.getLogger(ExcelMapReader.class.getName());
+
+	private Path workbookFile;
+
+	private OPCPackage opcPackage;
+	private ReadOnlySharedStringsTable sharedStrings;
+	private InputStream sheetIn;
+	private XMLStreamReader sheetReader;
+	private boolean sheetDone;
+
 	private Workbook workbook;
 	private Sheet sheet;
 	private int row = 0;
@@ -48,10 +80,35 @@ public class ExcelMapReader
 	@Override
 	public void preProcess()
 	{
-		try (InputStream workbookStream = in) {
-			workbook = WorkbookFactory.create(workbookStream);
-			sheet = workbook.getSheetAt(0);
-		} catch (IOException | InvalidFormatException | EncryptedDocumentException ioe) {
+		try {
+			//the package is read from a file so it doesn't need to be held in memory
+			workbookFile = Files.createTempFile("excelimport", null);
+			try (InputStream workbookStream = in) {
+				Files.copy(workbookStream, workbookFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			boolean xlsx;
+			try (InputStream headerIn = new BufferedInputStream(Files.newInputStream(workbookFile))) {
+				xlsx = POIXMLDocument.hasOOXMLHeader(headerIn);
+			}
+			if (xlsx) {
+				opcPackage = OPCPackage.open(workbookFile.toFile(), PackageAccess.READ);
+				sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+				Iterator<InputStream> sheets = new XSSFReader(opcPackage).getSheetsData();
+				if (sheets.hasNext()) {
+					sheetIn = sheets.next();
+					XMLInputFactory factory = XMLInputFactory.newInstance();
+					factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+					factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+					sheetReader = factory.createXMLStreamReader(sheetIn);
+				} else {
+					sheetDone = true;
+				}
+			} else {
+				workbook = WorkbookFactory.create(workbookFile.toFile());
+				sheet = workbook.getSheetAt(0);
+			}
+		} catch (IOException | OpenXML4JException | SAXException | XMLStreamException | EncryptedDocumentException ioe) {
 			throw new OpenStorefrontRuntimeException("Unable to open excel file.", " Check file and format", ioe);
 		}
 	}
@@ -62,7 +119,13 @@ public class ExcelMapReader
 		MapModel mapModel = null;
 
 		currentRecordNumber++;
-		if (sheet.getRow(row) != null) {
+		if (sheetReader != null || sheetDone) {
+			try {
+				mapModel = readSheetRow();
+			} catch (XMLStreamException ex) {
+				throw new OpenStorefrontRuntimeException("Unable to read excel file.", " Check file and format", ex);
+			}
+		} else if (sheet.getRow(row) != null) {
 			mapModel = readRecord(sheet.getRow(row));
 		}
 		row++;
@@ -70,6 +133,104 @@ public class ExcelMapReader
 		return mapModel;
 	}
 
+	/**
+	 * Reads the next row element; like the workbook model, reading stops at
+	 * the first missing row and a row's columns stop at the first missing
+	 * cell.
+	 */
+	private MapModel readSheetRow() throws XMLStreamException
+	{
+		while (sheetDone == false && sheetReader.hasNext()) {
+			int event = sheetReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT && "row".equals(sheetReader.getLocalName())) {
+				String rowReference = sheetReader.getAttributeValue(null, "r");
+				if (rowReference != null && Integer.parseInt(rowReference) - 1 != row) {
+					sheetDone = true;
+					return null;
+				}
+				return readRowCells();
+			} else if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(sheetReader.getLocalName())) {
+				sheetDone = true;
+			}
+		}
+		return null;
+	}
+
+	private MapModel readRowCells() throws XMLStreamException
+	{
+		MapModel mapModel = new MapModel();
+		mapModel.setName("root");
+
+		int columnNumber = 0;
+		boolean contiguous = true;
+		while (sheetReader.hasNext()) {
+			int event = sheetReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT && "c".equals(sheetReader.getLocalName())) {
+				String cellReference = sheetReader.getAttributeValue(null, "r");
+				String cellType = sheetReader.getAttributeValue(null, "t");
+				int column = cellReference != null ? new CellReference(cellReference).getCol() : columnNumber;
+				String value = readCellValue(cellType);
+
+				if (contiguous && column == columnNumber) {
+					MapField mapField = new MapField();
+					mapField.setName("COLUMN-" + (columnNumber + 1));
+					mapField.setValue(value);
+					mapModel.getMapFields().add(mapField);
+					columnNumber++;
+				} else {
+					contiguous = false;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheetReader.getLocalName())) {
+				break;
+			}
+		}
+		return mapModel;
+	}
+
+	private String readCellValue(String cellType) throws XMLStreamException
+	{
+		StringBuilder value = new StringBuilder();
+		boolean hasValue = false;
+		int phoneticDepth = 0;
+		while (sheetReader.hasNext()) {
+			int event = sheetReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String name = sheetReader.getLocalName();
+				if ("rPh".equals(name)) {
+					phoneticDepth++;
+				} else if (phoneticDepth == 0 && ("v".equals(name) || "t".equals(name))) {
+					value.append(sheetReader.getElementText());
+					hasValue = true;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				String name = sheetReader.getLocalName();
+				if ("rPh".equals(name)) {
+					phoneticDepth--;
+				} else if ("c".equals(name)) {
+					break;
+				}
+			}
+		}
+
+		if (hasValue == false) {
+			return "";
+		}
+		String rawValue = value.toString();
+		if ("s".equals(cellType)) {
+			return sharedStrings.getEntryAt(Integer.parseInt(rawValue.trim()));
+		} else if ("b".equals(cellType)) {
+			return "" + "1".equals(rawValue.trim());
+		} else if ("e".equals(cellType)) {
+			return "";
+		} else if (cellType == null || "n".equals(cellType)) {
+			if (StringUtils.isBlank(rawValue)) {
+				return "";
+			}
+			return "" + Double.parseDouble(rawValue);
+		}
+		return rawValue;
+	}
+
 	private MapModel readRecord(Row row)
 	{
 		MapModel mapModel = new MapModel();
@@ -102,14 +263,59 @@ public class ExcelMapReader
 	public MapModel findFields(InputStream in)
 	{
 		MapModel mapModel = new MapModel();
-		preProcess();
+		try {
+			preProcess();
 
-		//read first row
-		if (sheet.getRow(0) != null) {
-			mapModel = readRecord(sheet.getRow(0));
+			//read first row
+			MapModel firstRow = nextRecord();
+			if (firstRow != null) {
+				mapModel = firstRow;
+			}
+		} finally {
+			closeWorkbook();
 		}
 
 		return mapModel;
 	}
 
+	private void closeWorkbook()
+	{
+		try {
+			if (sheetReader != null) {
+				sheetReader.close();
+			}
+			if (sheetIn != null) {
+				sheetIn.close();
+			}
+			if (opcPackage != null) {
+				opcPackage.revert();
+			}
+			if (workbook != null) {
+				workbook.close();
+			}
+		} catch (IOException | XMLStreamException ex) {
+			LOG.log(Level.WARNING, "Unable to close excel file. (Continuing)", ex);
+		}
+
+		if (workbookFile != null) {
+			try {
+				Files.deleteIfExists(workbookFile);
+			} catch (IOException ex) {
+				LOG.log(Level.WARNING, "Unable to remove temporary excel file. (Continuing)", ex);
+			}
+		}
+		sheetReader = null;
+		sheetIn = null;
+		opcPackage = null;
+		workbook = null;
+		workbookFile = null;
+	}
+
+	@Override
+	public void close() throws Exception
+	{
+		closeWorkbook();
+		super.close();
+	}
+
 }
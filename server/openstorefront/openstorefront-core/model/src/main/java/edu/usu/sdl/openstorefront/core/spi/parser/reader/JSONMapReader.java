@@ -15,23 +15,29 @@
  */
 package edu.usu.sdl.openstorefront.core.spi.parser.reader;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
 import edu.usu.sdl.openstorefront.common.util.StringProcessor;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapField;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.apache.commons.lang3.StringUtils;
 
 /**
+ * Streams the document; each element of a root array and each field of a
+ * root object (each element for array fields) is read as a record so memory
+ * depends on the record size not the file size.
  *
  * @author dshurtleff
  */
@@ -39,9 +45,16 @@ public class JSONMapReader
 		extends MappableReader
 {
 
+	private static final Logger LOG = Logger.getLogger(JSONMapReader.class.getName());
+
+	private static final String ROOT = "root";
+
+	private ObjectMapper objectMapper = StringProcessor.defaultObjectMapper();
+	private JsonParser jsonParser;
 	private MapModel rootModel;
-	private List<MapModel> records = new ArrayList<>();
-	private Iterator<MapModel> recordIterator;
+	private boolean rootArray;
+	private String arrayFieldName;
+	private boolean done;
 
 	public JSONMapReader(InputStream in)
 	{
@@ -51,31 +64,119 @@ public class JSONMapReader
 	@Override
 	public void preProcess()
 	{
-		rootModel = findFields(in);
-		totalRecords = rootModel.getArrayFields().size();
-		records.add(rootModel);
-		recordIterator = records.iterator();
+		if (isRootMapped(ROOT)) {
+			rootModel = readDocument(in);
+			totalRecords = rootModel.getArrayFields().size();
+		} else {
+			try {
+				startDocument(in);
+			} catch (IOException ex) {
+				throw new OpenStorefrontRuntimeException("Unable to open json file.", " Check file and format", ex);
+			}
+		}
 	}
 
 	@Override
 	public MapModel nextRecord()
 	{
-		if (recordIterator.hasNext()) {
-			MapModel mapModel = recordIterator.next();
+		if (rootModel != null) {
+			MapModel mapModel = rootModel;
+			rootModel = null;
+			done = true;
 			currentRecordNumber += mapModel.getArrayFields().size();
 			return mapModel;
-		} else {
-			return null;
 		}
+
+		try {
+			MapModel mapModel = readRecord();
+			if (mapModel != null) {
+				currentRecordNumber++;
+			}
+			return mapModel;
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to read json file.", " Check file and format", ex);
+		}
+	}
+
+	private void startDocument(InputStream in) throws IOException
+	{
+		jsonParser = objectMapper.getFactory().createParser(in);
+		JsonToken token = jsonParser.nextToken();
+		if (token == JsonToken.START_ARRAY) {
+			rootArray = true;
+		} else if (token != JsonToken.START_OBJECT) {
+			//empty or a single value; no records
+			done = true;
+		}
+	}
+
+	private MapModel readRecord() throws IOException
+	{
+		while (done == false) {
+			if (rootArray || arrayFieldName != null) {
+				if (jsonParser.nextToken() == JsonToken.END_ARRAY) {
+					if (rootArray) {
+						done = true;
+					}
+					arrayFieldName = null;
+				} else {
+					JsonNode element = objectMapper.readTree(jsonParser);
+					String parent = rootArray ? "" : arrayFieldName;
+					return toRecord(element, parent);
+				}
+			} else {
+				JsonToken token = jsonParser.nextToken();
+				if (token == JsonToken.FIELD_NAME) {
+					String fieldName = jsonParser.getCurrentName();
+					if (jsonParser.nextToken() == JsonToken.START_ARRAY) {
+						arrayFieldName = fieldName;
+					} else {
+						ObjectNode field = objectMapper.createObjectNode();
+						field.set(fieldName, objectMapper.readTree(jsonParser));
+						return toRecord(field, "");
+					}
+				} else {
+					done = true;
+				}
+			}
+		}
+		return null;
+	}
+
+	private MapModel toRecord(JsonNode node, String parent)
+	{
+		MapModel mapModel = new MapModel();
+		mapModel.setName(ROOT);
+		parseTree(node, mapModel, parent);
+		return mapModel;
 	}
 
 	@Override
 	public MapModel findFields(InputStream in)
 	{
 		MapModel mapModel = new MapModel();
-		mapModel.setName("root");
+		mapModel.setName(ROOT);
+
+		//keep the structure of each record; not the records
+		try (InputStream jsonIn = in) {
+			startDocument(jsonIn);
+			MapModel record = readRecord();
+			while (record != null) {
+				mergeFields(mapModel, record);
+				record = readRecord();
+			}
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to open json file.", " Check file and format", ex);
+		}
+
+		return mapModel;
+	}
+
+	private MapModel readDocument(InputStream in)
+	{
+		MapModel mapModel = new MapModel();
+		mapModel.setName(ROOT);
 
-		ObjectMapper objectMapper = StringProcessor.defaultObjectMapper();
 		try (InputStream jsonIn = in) {
 			JsonNode jsonNode = objectMapper.readTree(jsonIn);
 			if (jsonNode != null
@@ -144,4 +245,17 @@ public class JSONMapReader
 
 	}
 
+	@Override
+	public void close() throws Exception
+	{
+		if (jsonParser != null) {
+			try {
+				jsonParser.close();
+			} catch (IOException ex) {
+				LOG.log(Level.WARNING, "Unable to close json parser. (Continuing)", ex);
+			}
+		}
+		super.close();
+	}
+
 }
@@ -15,8 +15,10 @@
  */
 package edu.usu.sdl.openstorefront.core.spi.parser.reader;
 
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapField;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
 import java.io.InputStream;
+import java.util.Set;
 
 /**
  *
@@ -26,11 +28,69 @@ public abstract class MappableReader
 	extends GenericReader<MapModel>		
 {
 	
+	//Fields the import maps; null if not known
+	protected Set<String> mappedFields;
+	
 	public MappableReader(InputStream in)
 	{
 		super(in);
 	}
 	
 	public abstract MapModel findFields(InputStream in);
+
+	public void setMappedFields(Set<String> mappedFields)
+	{
+		this.mappedFields = mappedFields;
+	}
+	
+	/**
+	 * Streaming readers return each child of the document root as its own
+	 * record. That maps the same as the whole document unless the root itself
+	 * is mapped (the root is then the record).
+	 *
+	 * @param rootPath
+	 * @return true if the whole document needs to be read as one record
+	 */
+	protected boolean isRootMapped(String rootPath)
+	{
+		return mappedFields != null && mappedFields.contains(rootPath);
+	}
+
+	/**
+	 * Adds the fields and children of the source not already in the target;
+	 * used to collect the field structure of a document record by record.
+	 *
+	 * @param target
+	 * @param source
+	 */
+	protected void mergeFields(MapModel target, MapModel source)
+	{
+		for (MapField field : source.getMapFields()) {
+			boolean found = false;
+			for (MapField existing : target.getMapFields()) {
+				if (existing.getName().equals(field.getName())) {
+					found = true;
+					break;
+				}
+			}
+			if (found == false) {
+				target.getMapFields().add(field);
+			}
+		}
+		for (MapModel child : source.getArrayFields()) {
+			MapModel existingChild = null;
+			for (MapModel existing : target.getArrayFields()) {
+				if (existing.getName().equals(child.getName())) {
+					existingChild = existing;
+					break;
+				}
+			}
+			if (existingChild == null) {
+				target.getArrayFields().add(child);
+			} else {
+				mergeFields(existingChild, child);
+			}
+		}
+	}
 	
 }
@@ -21,17 +21,19 @@ import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.apache.commons.lang3.StringUtils;
-import org.jdom2.Attribute;
-import org.jdom2.Document;
-import org.jdom2.Element;
-import org.jdom2.JDOMException;
-import org.jdom2.input.SAXBuilder;
 
 /**
+ * Streams the document; each child element of the root is read as a record
+ * (held in a copy of the root) so memory depends on the record size not the
+ * file size.
  *
  * @author dshurtleff
  */
@@ -40,9 +42,11 @@ public class XMLMapReader
 {
 	private static final Logger log = Logger.getLogger(XMLMapReader.class.getName());
 
+	private XMLStreamReader xmlReader;
+	private String rootName;
+	private List<MapField> rootAttributes = new ArrayList<>();
 	private MapModel rootModel;
-	private List<MapModel> records = new ArrayList<>();
-	private Iterator<MapModel> recordIterator;
+	private boolean done;
 	
 	public XMLMapReader(InputStream in)
 	{
@@ -52,22 +56,56 @@ public class XMLMapReader
 	@Override
 	public void preProcess()
 	{
-		rootModel = findFields(in);
-		totalRecords = rootModel.getArrayFields().size();
-		records.add(rootModel);
-		recordIterator = records.iterator();
+		try {
+			xmlReader = createReader(in);
+			if (moveToRoot(xmlReader)) {
+				rootName = xmlReader.getLocalName();
+				if (isRootMapped(rootName)) {
+					rootModel = readElement(xmlReader).model;
+					totalRecords = rootModel.getArrayFields().size();
+				} else {
+					rootAttributes = readAttributes(xmlReader);
+				}
+			} else {
+				done = true;
+			}
+		} catch (XMLStreamException ex) {
+			throw new OpenStorefrontRuntimeException(ex);
+		}
 	}
 	
 	@Override
 	public MapModel nextRecord()
 	{		
-		if (recordIterator.hasNext()) {
-			MapModel mapModel = recordIterator.next();
+		if (rootModel != null) {
+			MapModel mapModel = rootModel;
+			rootModel = null;
+			done = true;
 			currentRecordNumber += mapModel.getArrayFields().size();
 			return mapModel;
-		} else {
-			return null;
 		}
+		
+		try {
+			while (done == false && xmlReader.hasNext()) {
+				int event = xmlReader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					ParsedElement child = readElement(xmlReader);
+					
+					//the root isn't mapped so only its child records can be
+					if (child.leaf == false) {
+						MapModel mapModel = rootShell();
+						mapModel.getArrayFields().add(child.model);
+						currentRecordNumber++;
+						return mapModel;
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					done = true;
+				}
+			}
+		} catch (XMLStreamException ex) {
+			throw new OpenStorefrontRuntimeException(ex);
+		}
+		return null;
 	}
 
 	@Override
@@ -75,53 +113,149 @@ public class XMLMapReader
 	{	
 		MapModel mapModel = new MapModel();
 	
-		 // the SAXBuilder is the easiest way to create the JDOM2 objects.
-	        SAXBuilder jdomBuilder = new SAXBuilder();
-  
 		try (InputStream xmlIn = in){
-			// jdomDocument is the JDOM2 Object
-			Document jdomDocument = jdomBuilder.build(xmlIn);
-			parseDom(jdomDocument.getRootElement(), mapModel);
-				
-		} catch (JDOMException | IOException ex) {
+			XMLStreamReader fieldReader = createReader(xmlIn);
+			try {
+				if (moveToRoot(fieldReader)) {
+					mapModel.setName(fieldReader.getLocalName());
+					mapModel.getMapFields().addAll(readAttributes(fieldReader));
+
+					//keep the structure of each record; not the records
+					StringBuilder text = new StringBuilder();
+					int textIndex = mapModel.getMapFields().size();
+					while (fieldReader.hasNext()) {
+						int event = fieldReader.next();
+						if (event == XMLStreamConstants.START_ELEMENT) {
+							MapModel record = new MapModel();
+							readElement(fieldReader).addTo(record);
+							mergeFields(mapModel, record);
+						} else if (isText(event)) {
+							text.append(fieldReader.getText());
+						} else if (event == XMLStreamConstants.END_ELEMENT) {
+							break;
+						}
+					}
+					if (StringUtils.isNotBlank(text)) {
+						mapModel.getMapFields().add(textIndex, newField(mapModel.getName(), text.toString()));
+					}
+				}
+			} finally {
+				fieldReader.close();
+			}
+		} catch (XMLStreamException | IOException ex) {
 			throw new OpenStorefrontRuntimeException(ex);
 		} 			
 
 		return mapModel;
 	}
 	
-	private void parseDom(Element root, MapModel mapModel) {
-		if (root == null) {
-			return;
+	private XMLStreamReader createReader(InputStream in) throws XMLStreamException
+	{
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory.createXMLStreamReader(in);
+	}
+	
+	private boolean moveToRoot(XMLStreamReader reader) throws XMLStreamException
+	{
+		while (reader.hasNext()) {
+			if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+				return true;
+			}
 		}
-		
-		mapModel.setName(root.getName());			
-		for (Attribute attribute : root.getAttributes()) {
-			MapField field = new MapField();
-			field.setName(attribute.getName());
-			field.setValue(attribute.getValue());
-			mapModel.getMapFields().add(field);
+		return false;
+	}
+	
+	private MapModel rootShell()
+	{
+		MapModel mapModel = new MapModel();
+		mapModel.setName(rootName);
+		mapModel.getMapFields().addAll(rootAttributes);
+		return mapModel;
+	}
+	
+	private List<MapField> readAttributes(XMLStreamReader reader)
+	{
+		List<MapField> fields = new ArrayList<>();
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			fields.add(newField(reader.getAttributeLocalName(i), reader.getAttributeValue(i)));
 		}
+		return fields;
+	}
+	
+	private boolean isText(int event)
+	{
+		return event == XMLStreamConstants.CHARACTERS
+				|| event == XMLStreamConstants.CDATA
+				|| event == XMLStreamConstants.SPACE;
+	}
+	
+	/**
+	 * Reads the element the reader is on through its end tag. Elements with
+	 * child elements become models; the others are fields of their parent.
+	 */
+	private ParsedElement readElement(XMLStreamReader reader) throws XMLStreamException
+	{
+		ParsedElement element = new ParsedElement();
+		element.model.setName(reader.getLocalName());
+		element.model.getMapFields().addAll(readAttributes(reader));
 		
-		if (StringUtils.isNotBlank(root.getText())) {
-			MapField field = new MapField();
-			field.setName(root.getName());
-			field.setValue(root.getText());
-			mapModel.getMapFields().add(field);
+		int textIndex = element.model.getMapFields().size();
+		StringBuilder text = new StringBuilder();
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				element.leaf = false;
+				readElement(reader).addTo(element.model);
+			} else if (isText(event)) {
+				text.append(reader.getText());
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				break;
+			}
 		}
-		for (Element child : root.getChildren()) {				
-			if (child.getChildren().isEmpty()) {
-				MapField field = new MapField();
-				field.setName(child.getName());
-				field.setValue(child.getText());
-				mapModel.getMapFields().add(field);								
-			} else {
-				MapModel childMap = new MapModel();
-				mapModel.getArrayFields().add(childMap);
-				parseDom(child, childMap);			
+		element.text = text.toString();
+		if (StringUtils.isNotBlank(element.text)) {
+			element.model.getMapFields().add(textIndex, newField(element.model.getName(), element.text));
+		}
+		return element;
+	}
+
+	private static MapField newField(String name, String value)
+	{
+		MapField field = new MapField();
+		field.setName(name);
+		field.setValue(value);
+		return field;
+	}
+
+	@Override
+	public void close() throws Exception
+	{
+		if (xmlReader != null) {
+			try {
+				xmlReader.close();
+			} catch (XMLStreamException ex) {
+				log.log(Level.WARNING, "Unable to close xml reader. (Continuing)", ex);
 			}
 		}
+		super.close();
+	}
+	
+	private static class ParsedElement
+	{
+		private MapModel model = new MapModel();
+		private String text;
+		private boolean leaf = true;
 		
+		private void addTo(MapModel parent)
+		{
+			if (leaf) {
+				parent.getMapFields().add(newField(model.getName(), text));
+			} else {
+				parent.getArrayFields().add(model);
+			}
+		}
 	}
 	
 }
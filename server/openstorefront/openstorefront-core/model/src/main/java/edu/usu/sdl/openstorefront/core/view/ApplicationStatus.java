@@ -44,6 +44,12 @@ public class ApplicationStatus
 	private long usedDiskSpace;
 	private long totalDiskSpace;
 	private String rootStoragePath;
+	private boolean dbLogActive;
+	private int dbLogQueueCapacity;
+	private int dbLogQueueDepth;
+	private long dbLogDroppedCount;
+	private long dbLogWrittenCount;
+	private long dbLogFailedCount;
 
 	public ApplicationStatus()
 	{
@@ -209,4 +215,64 @@ public class ApplicationStatus
 		this.rootStoragePath = rootStoragePath;
 	}
 
+	public boolean getDbLogActive()
+	{
+		return dbLogActive;
+	}
+
+	public void setDbLogActive(boolean dbLogActive)
+	{
+		this.dbLogActive = dbLogActive;
+	}
+
+	public int getDbLogQueueCapacity()
+	{
+		return dbLogQueueCapacity;
+	}
+
+	public void setDbLogQueueCapacity(int dbLogQueueCapacity)
+	{
+		this.dbLogQueueCapacity = dbLogQueueCapacity;
+	}
+
+	public int getDbLogQueueDepth()
+	{
+		return dbLogQueueDepth;
+	}
+
+	public void setDbLogQueueDepth(int dbLogQueueDepth)
+	{
+		this.dbLogQueueDepth = dbLogQueueDepth;
+	}
+
+	public long getDbLogDroppedCount()
+	{
+		return dbLogDroppedCount;
+	}
+
+	public void setDbLogDroppedCount(long dbLogDroppedCount)
+	{
+		this.dbLogDroppedCount = dbLogDroppedCount;
+	}
+
+	public long getDbLogWrittenCount()
+	{
+		return dbLogWrittenCount;
+	}
+
+	public void setDbLogWrittenCount(long dbLogWrittenCount)
+	{
+		this.dbLogWrittenCount = dbLogWrittenCount;
+	}
+
+	public long getDbLogFailedCount()
+	{
+		return dbLogFailedCount;
+	}
+
+	public void setDbLogFailedCount(long dbLogFailedCount)
+	{
+		this.dbLogFailedCount = dbLogFailedCount;
+	}
+
 }
@@ -18,7 +18,7 @@ package edu.usu.sdl.openstorefront.core.view;
 import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
 import edu.usu.sdl.openstorefront.core.annotation.DataType;
 import edu.usu.sdl.openstorefront.core.entity.ComponentEvaluationSection;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -41,7 +41,7 @@ public class ComponentEvaluationView
 	public static ComponentEvaluationView toViewFromStorage(List<ComponentEvaluationSection> sections)
 	{
 		List<ComponentEvaluationSectionView> newSections = ComponentEvaluationSectionView.toViewList(sections);
-		newSections.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, ComponentEvaluationSectionView.NAME_FIELD));
+		newSections.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, ComponentEvaluationSectionView.NAME_FIELD));
 		return ComponentEvaluationView.toView(newSections);
 	}
 
@@ -16,6 +16,7 @@
 package edu.usu.sdl.openstorefront.core.view;
 
 import edu.usu.sdl.openstorefront.core.annotation.DataType;
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacet;
 import edu.usu.sdl.openstorefront.core.model.search.ResultTypeStat;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,6 +32,7 @@ public class ComponentSearchWrapper
 	@DataType(ComponentSearchView.class)
 	private List<ComponentSearchView> data = new ArrayList<>();
 	private List<ResultTypeStat> resultTypeStats = new ArrayList<>();
+	private List<ResultFacet> facets = new ArrayList<>();
 
 	public ComponentSearchWrapper()
 	{
@@ -56,4 +58,14 @@ public class ComponentSearchWrapper
 		this.resultTypeStats = resultTypeStats;
 	}
 
+	public List<ResultFacet> getFacets()
+	{
+		return facets;
+	}
+
+	public void setFacets(List<ResultFacet> facets)
+	{
+		this.facets = facets;
+	}
+
 }
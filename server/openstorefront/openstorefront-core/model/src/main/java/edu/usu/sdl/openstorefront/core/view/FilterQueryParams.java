@@ -15,15 +15,21 @@
  */
 package edu.usu.sdl.openstorefront.core.view;
 
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
 import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.common.util.ReflectionUtil;
 import edu.usu.sdl.openstorefront.core.annotation.APIDescription;
+import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
+import edu.usu.sdl.openstorefront.core.entity.BaseEntity;
 import edu.usu.sdl.openstorefront.core.entity.StandardEntity;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.validation.Sanitize;
 import edu.usu.sdl.openstorefront.validation.TextSanitizer;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.validation.ValidationUtil;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -34,6 +40,7 @@ import javax.validation.constraints.Min;
 import javax.validation.constraints.Size;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.QueryParam;
+import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -132,7 +139,7 @@ public class FilterQueryParams
 	{
 		//sort
 		if (StringUtils.isNotBlank(sortField)) {
-			Collections.sort(data, new BeanComparator<>(sortOrder, sortField));
+			Collections.sort(data, ComparatorFactory.build(sortOrder, sortField));
 		}
 		List<T> results = windowData(data);
 
@@ -181,6 +188,122 @@ public class FilterQueryParams
 		return results;
 	}
 
+	/**
+	 * Finds the entity field that matches the sort field so the sort can be
+	 * handled by the database.
+	 *
+	 * @param entityClass
+	 * @return field name or null if the sort can't be done by the database
+	 */
+	public String databaseSortField(Class entityClass)
+	{
+		String databaseField = null;
+		if (StringUtils.isNotBlank(sortField)) {
+			for (Field field : ReflectionUtil.getAllFields(entityClass)) {
+				if (field.getName().equalsIgnoreCase(sortField)
+						&& ReflectionUtil.isComplexClass(field.getType()) == false
+						&& ReflectionUtil.isCollectionClass(field.getType()) == false) {
+					databaseField = field.getName();
+				}
+			}
+		}
+		return databaseField;
+	}
+
+	/**
+	 * Only ascending or descending is allowed
+	 *
+	 * @return the sort direction for a query
+	 */
+	public String databaseSortOrder()
+	{
+		if (OpenStorefrontConstant.SORT_DESCENDING.equalsIgnoreCase(sortOrder)) {
+			return OpenStorefrontConstant.SORT_DESCENDING;
+		}
+		return OpenStorefrontConstant.SORT_ASCENDING;
+	}
+
+	/**
+	 * Adds the sort to the query when the sort field is on the example entity.
+	 *
+	 * @param queryByExample
+	 * @return true if the query can handle the sort (or no sort is needed)
+	 */
+	public boolean applySort(QueryByExample queryByExample)
+	{
+		if (StringUtils.isBlank(sortField)) {
+			return true;
+		}
+
+		Class entityClass = queryByExample.getExample().getClass();
+		String databaseField = databaseSortField(entityClass);
+		if (databaseField == null) {
+			return false;
+		}
+
+		try {
+			BaseEntity orderByExample = (BaseEntity) entityClass.newInstance();
+			Field field = ReflectionUtil.getField(orderByExample, databaseField);
+			BeanUtils.setProperty(orderByExample, databaseField, QueryByExample.getFlagForType(field.getType()));
+			queryByExample.setOrderBy(orderByExample);
+			queryByExample.setSortDirection(databaseSortOrder());
+		} catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to set sort field: " + databaseField, "Check entity", ex);
+		}
+		return true;
+	}
+
+	/**
+	 * Adds offset and max to the query
+	 *
+	 * @param queryByExample
+	 */
+	public void applyWindow(QueryByExample queryByExample)
+	{
+		queryByExample.setFirstResult(offset);
+		queryByExample.setMaxResults(max);
+	}
+
+	/**
+	 * Adds the sort and window to the query if the database can handle the
+	 * sort. If not, nothing is applied and the results should be run through
+	 * filter(...).
+	 *
+	 * @param queryByExample
+	 * @return true if applied
+	 */
+	public boolean applyToQuery(QueryByExample queryByExample)
+	{
+		boolean applied = applySort(queryByExample);
+		if (applied) {
+			applyWindow(queryByExample);
+		}
+		return applied;
+	}
+
+	/**
+	 * Builds the order by and window portion of a query. Sort fields that are
+	 * not on the entity are ignored.
+	 *
+	 * @param entityClass
+	 * @return the clause
+	 */
+	public String orderAndWindowClause(Class entityClass)
+	{
+		StringBuilder clause = new StringBuilder();
+		String databaseField = databaseSortField(entityClass);
+		if (databaseField != null) {
+			clause.append(" ORDER BY ").append(databaseField).append(" ").append(databaseSortOrder());
+		}
+		if (offset > 0) {
+			clause.append(" SKIP ").append(offset);
+		}
+		if (max > 0) {
+			clause.append(" LIMIT ").append(max);
+		}
+		return clause.toString();
+	}
+
 	public int getMax()
 	{
 		return max;
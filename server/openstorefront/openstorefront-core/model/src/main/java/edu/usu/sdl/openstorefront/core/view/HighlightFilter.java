@@ -17,7 +17,7 @@ package edu.usu.sdl.openstorefront.core.view;
 
 import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
 import edu.usu.sdl.openstorefront.core.entity.StandardEntity;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.validation.Sanitize;
 import edu.usu.sdl.openstorefront.validation.TextSanitizer;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
@@ -111,7 +111,7 @@ public class HighlightFilter
 		List<T> results = new ArrayList<>();
 		//sort
 		if (StringUtils.isNotBlank(sortField)) {
-			Collections.sort(data, new BeanComparator<>(sortOrder, sortField));
+			Collections.sort(data, ComparatorFactory.build(sortOrder, sortField));
 		}
 		//window
 		if (offset < data.size() && max > 0) {
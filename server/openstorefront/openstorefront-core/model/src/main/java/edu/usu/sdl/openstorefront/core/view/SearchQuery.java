@@ -15,6 +15,8 @@
  */
 package edu.usu.sdl.openstorefront.core.view;
 
+import java.util.ArrayList;
+import java.util.List;
 import javax.ws.rs.QueryParam;
 
 /**
@@ -39,6 +41,9 @@ public class SearchQuery
 	@QueryParam("listingType")
 	private String listingType;
 
+	@QueryParam("facet")
+	private List<String> facets = new ArrayList<>();
+
 	public SearchQuery()
 	{
 	}
@@ -93,4 +98,14 @@ public class SearchQuery
 		this.listingType = listingType;
 	}
 
+	public List<String> getFacets()
+	{
+		return facets;
+	}
+
+	public void setFacets(List<String> facets)
+	{
+		this.facets = facets;
+	}
+
 }
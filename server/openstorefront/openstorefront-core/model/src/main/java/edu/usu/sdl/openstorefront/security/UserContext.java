@@ -20,11 +20,14 @@ import edu.usu.sdl.openstorefront.core.entity.SecurityRole;
 import edu.usu.sdl.openstorefront.core.entity.SecurityRoleData;
 import edu.usu.sdl.openstorefront.core.entity.SecurityRolePermission;
 import edu.usu.sdl.openstorefront.core.entity.UserProfile;
+import edu.usu.sdl.openstorefront.core.filter.DataRestrictionPredicate;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -36,10 +39,13 @@ public class UserContext
 		implements Serializable
 {
 
+	private static final Logger LOG = Logger.getLogger(UserContext.class.getName());
+
 	private UserProfile userProfile;
 	private List<SecurityRole> roles = new ArrayList<>();
 	private boolean admin;
 	private Set<String> externalGroups = new HashSet<>();
+	private transient volatile DataRestrictionPredicate dataRestrictionPredicate;
 
 	public UserContext()
 	{
@@ -132,6 +138,61 @@ public class UserContext
 		return uniqueSensitivity;
 	}
 	
+	/**
+	 * The data restrictions are resolved once and reused until the roles
+	 * change. If a role was saved or removed since, the roles are reloaded
+	 * first so the session picks up the new data security.
+	 *
+	 * @return the restrictions for this user
+	 */
+	public DataRestrictionPredicate dataRestrictionPredicate()
+	{
+		DataRestrictionPredicate predicate = dataRestrictionPredicate;
+		if (predicate == null || predicate.isStale(roles)) {
+			synchronized (this) {
+				predicate = dataRestrictionPredicate;
+				if (predicate != null && predicate.isRoleDataChanged()) {
+					refreshRoles();
+				}
+				if (predicate == null || predicate.isStale(roles)) {
+					predicate = new DataRestrictionPredicate(this);
+					dataRestrictionPredicate = predicate;
+				}
+			}
+		}
+		return predicate;
+	}
+
+	/**
+	 * Reloads the roles (a removed role is dropped)
+	 */
+	private void refreshRoles()
+	{
+		try {
+			List<SecurityRole> refreshedRoles = new ArrayList<>();
+			for (SecurityRole role : roles) {
+				SecurityRole roleExample = new SecurityRole();
+				roleExample.setRoleName(role.getRoleName());
+				SecurityRole refreshed = roleExample.find();
+				if (refreshed != null) {
+					refreshedRoles.add(refreshed);
+				}
+			}
+			roles = refreshedRoles;
+		} catch (Exception e) {
+			LOG.log(Level.WARNING, "Unable to reload the user roles; keeping the roles from login.", e);
+		}
+	}
+
+	/**
+	 * Forces the data restrictions to be rebuilt on next use (Call after
+	 * changing role data security in place)
+	 */
+	public void clearDataRestrictionPredicate()
+	{
+		dataRestrictionPredicate = null;
+	}
+
 	public String userLandingPage() 
 	{
 		String landingPage = "/";
@@ -192,6 +253,7 @@ public class UserContext
 	public void setRoles(List<SecurityRole> roles)
 	{
 		this.roles = roles;
+		this.dataRestrictionPredicate = null;
 	}
 
 	public Set<String> getExternalGroups()
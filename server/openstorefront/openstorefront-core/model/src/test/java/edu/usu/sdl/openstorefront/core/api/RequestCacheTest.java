@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.api;
+
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class RequestCacheTest
+{
+
+	@After
+	public void tearDown()
+	{
+		RequestCache.end();
+	}
+
+	@Test
+	public void testNoActiveCache()
+	{
+		AtomicInteger loads = new AtomicInteger();
+		RequestCache.get(Component.class, "findById", "A", () -> loads.incrementAndGet());
+		RequestCache.get(Component.class, "findById", "A", () -> loads.incrementAndGet());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testIdentity()
+	{
+		assertTrue(RequestCache.begin());
+		assertFalse(RequestCache.begin());
+
+		AtomicInteger loads = new AtomicInteger();
+		Component first = RequestCache.get(Component.class, "findById", "A", () -> {
+			loads.incrementAndGet();
+			return new Component();
+		});
+		Component second = RequestCache.get(Component.class, "findById", "A", () -> {
+			loads.incrementAndGet();
+			return new Component();
+		});
+		assertSame(first, second);
+		assertEquals(1, loads.get());
+
+		//not found is remembered too
+		assertNull(RequestCache.get(Component.class, "findById", "B", () -> {
+			loads.incrementAndGet();
+			return null;
+		}));
+		assertNull(RequestCache.get(Component.class, "findById", "B", () -> {
+			loads.incrementAndGet();
+			return null;
+		}));
+		assertEquals(2, loads.get());
+
+		//different read of the same record is kept apart
+		String name = RequestCache.get(Component.class, "name", "A", () -> "Name");
+		assertEquals("Name", name);
+
+		RequestCache requestCache = RequestCache.end();
+		assertEquals(2, requestCache.getHits());
+		assertEquals(3, requestCache.getMisses());
+		assertNull(RequestCache.current());
+	}
+
+	@Test
+	public void testInvalidate()
+	{
+		RequestCache.begin();
+		RequestCache.get(Component.class, "findById", "A", Component::new);
+		RequestCache.get(ComponentTag.class, "findById", "A", ComponentTag::new);
+		assertEquals(2, RequestCache.current().size());
+
+		//subclasses (db proxies) invalidate the entity class
+		Component proxy = new Component()
+		{
+		};
+		RequestCache.invalidate(proxy.getClass());
+		assertEquals(1, RequestCache.current().size());
+
+		RequestCache.invalidateAll();
+		assertEquals(0, RequestCache.current().size());
+	}
+
+}
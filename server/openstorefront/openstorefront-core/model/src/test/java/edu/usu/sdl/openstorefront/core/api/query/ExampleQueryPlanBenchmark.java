@@ -0,0 +1,224 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.api.query;
+
+import edu.usu.sdl.openstorefront.common.util.ReflectionUtil;
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttributePk;
+import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
+import edu.usu.sdl.openstorefront.core.entity.UserTracking;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the reflective (BeanUtils.describe) example generation with the
+ * compiled plan. Run with main() from the test classpath.
+ *
+ * @author dshurtleff
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExampleQueryPlanBenchmark
+{
+
+	private static final String PARAM_NAME_SEPARATOR = "1";
+
+	private Component component;
+	private ComponentAttribute componentAttribute;
+	private UserTracking userTracking;
+	private GenerateStatementOption option;
+
+	@Setup
+	public void setup()
+	{
+		component = new Component();
+		component.setActiveStatus(Component.ACTIVE_STATUS);
+		component.setApprovalState("A");
+		component.setComponentType("COMP");
+
+		componentAttribute = new ComponentAttribute();
+		componentAttribute.setActiveStatus(ComponentAttribute.ACTIVE_STATUS);
+		ComponentAttributePk componentAttributePk = new ComponentAttributePk();
+		componentAttributePk.setComponentId("d1b4f7a6-4c1e-4d36-8b61-5a5e0f2b6a01");
+		componentAttributePk.setAttributeType("DI2ELEVEL");
+		componentAttribute.setComponentAttributePk(componentAttributePk);
+
+		userTracking = new UserTracking();
+		userTracking.setActiveStatus(UserTracking.ACTIVE_STATUS);
+		userTracking.setTrackEventTypeCode(TrackEventCode.LOGIN);
+		userTracking.setCreateUser("admin");
+
+		option = new GenerateStatementOptionBuilder().build();
+	}
+
+	@Benchmark
+	public void legacyComponent(Blackhole blackhole)
+	{
+		legacy(component, blackhole);
+	}
+
+	@Benchmark
+	public void planComponent(Blackhole blackhole)
+	{
+		plan(component, blackhole);
+	}
+
+	@Benchmark
+	public void legacyComponentAttribute(Blackhole blackhole)
+	{
+		legacy(componentAttribute, blackhole);
+	}
+
+	@Benchmark
+	public void planComponentAttribute(Blackhole blackhole)
+	{
+		plan(componentAttribute, blackhole);
+	}
+
+	@Benchmark
+	public void legacyUserTracking(Blackhole blackhole)
+	{
+		legacy(userTracking, blackhole);
+	}
+
+	@Benchmark
+	public void planUserTracking(Blackhole blackhole)
+	{
+		plan(userTracking, blackhole);
+	}
+
+	private void legacy(Object example, Blackhole blackhole)
+	{
+		blackhole.consume(generateWhereClause(example, new ComplexFieldStack(), option, new HashMap<>()));
+		blackhole.consume(mapParameters(example, new ComplexFieldStack(PARAM_NAME_SEPARATOR), option, new HashMap<>()));
+	}
+
+	private void plan(Object example, Blackhole blackhole)
+	{
+		ExampleStatement statement = ExampleQueryPlan.whereClause(example, option, new HashMap<>());
+		blackhole.consume(statement.getClause());
+		blackhole.consume(statement.getParameters());
+	}
+
+	/**
+	 * Previous persistence service generation (kept here as the baseline)
+	 */
+	private String generateWhereClause(Object example, ComplexFieldStack complexFieldStack, GenerateStatementOption generateStatementOption, Map<String, GenerateStatementOption> fieldOptions)
+	{
+		StringBuilder where = new StringBuilder();
+
+		try {
+			Map fieldMap = BeanUtils.describe(example);
+			boolean addAnd = false;
+			for (Object field : fieldMap.keySet()) {
+
+				if ("class".equalsIgnoreCase(field.toString()) == false) {
+					Object value = fieldMap.get(field);
+					if (value != null) {
+						GenerateStatementOption fieldOperation = generateStatementOption;
+						if (fieldOptions != null && fieldOptions.containsKey(field.toString())) {
+							fieldOperation = fieldOptions.get(field.toString());
+						}
+
+						Method method = example.getClass().getMethod("get" + StringUtils.capitalize(field.toString()), (Class<?>[]) null);
+						Object returnObj = method.invoke(example, (Object[]) null);
+						if (addAnd) {
+							where.append(fieldOperation.getCondition());
+						} else {
+							addAnd = true;
+							where.append(" ");
+						}
+						if (ReflectionUtil.isComplexClass(returnObj.getClass())) {
+							complexFieldStack.getFieldStack().push(field.toString());
+							where.append(generateWhereClause(returnObj, complexFieldStack, generateStatementOption, fieldOptions));
+							complexFieldStack.getFieldStack().pop();
+						} else {
+							String fieldName = complexFieldStack.getQueryFieldName() + field.toString() + fieldOperation.getMethod();
+							String fieldParamName = complexFieldStack.getQueryFieldName() + field.toString();
+							where.append(fieldName)
+									.append(" ").append(fieldOperation.getOperation())
+									.append(" :")
+									.append(fieldParamName.replace(".", PARAM_NAME_SEPARATOR))
+									.append(fieldOperation.getParameterSuffix());
+						}
+					}
+				}
+			}
+		} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
+			throw new RuntimeException(ex);
+		}
+		return where.toString();
+	}
+
+	private Map<String, Object> mapParameters(Object example, ComplexFieldStack complexFieldStack, GenerateStatementOption generateStatementOption, Map<String, GenerateStatementOption> fieldOptions)
+	{
+		Map<String, Object> parameterMap = new HashMap<>();
+		try {
+			List<Field> fields = ReflectionUtil.getAllFields(example.getClass());
+			for (Field field : fields) {
+				field.setAccessible(true);
+				Object value = field.get(example);
+				if (value != null) {
+					if (ReflectionUtil.isComplexClass(value.getClass())) {
+						complexFieldStack.getFieldStack().push(field.getName());
+						parameterMap.putAll(mapParameters(value, complexFieldStack, generateStatementOption, fieldOptions));
+						complexFieldStack.getFieldStack().pop();
+					} else {
+						String fieldName = complexFieldStack.getQueryFieldName() + field.getName();
+						parameterMap.put(fieldName + generateStatementOption.getParameterSuffix(), value);
+					}
+				}
+			}
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+		return parameterMap;
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+				.include(ExampleQueryPlanBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+}
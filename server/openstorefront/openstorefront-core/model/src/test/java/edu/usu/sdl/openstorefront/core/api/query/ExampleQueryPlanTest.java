@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.api.query;
+
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttributePk;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ExampleQueryPlanTest
+{
+
+	/**
+	 * Test of whereClause method, of class ExampleQueryPlan.
+	 */
+	@Test
+	public void testWhereClause()
+	{
+		System.out.println("whereClause");
+
+		Component component = new Component();
+		component.setName("Test");
+		component.setActiveStatus(Component.ACTIVE_STATUS);
+
+		ExampleStatement result = ExampleQueryPlan.whereClause(component);
+		assertEquals(" activeStatus = :activeStatusParam AND name = :nameParam", result.getClause());
+		assertEquals(2, result.getParameters().size());
+		assertEquals("Test", result.getParameters().get("nameParam"));
+		assertEquals(Component.ACTIVE_STATUS, result.getParameters().get("activeStatusParam"));
+
+		Component empty = new Component();
+		result = ExampleQueryPlan.whereClause(empty);
+		assertEquals("", result.getClause());
+		assertTrue(result.getParameters().isEmpty());
+
+		//special operators may not have an example
+		result = ExampleQueryPlan.whereClause(null);
+		assertEquals("", result.getClause());
+		assertTrue(result.getParameters().isEmpty());
+	}
+
+	/**
+	 * Test nested complex keys
+	 */
+	@Test
+	public void testWhereClauseComplex()
+	{
+		System.out.println("whereClauseComplex");
+
+		ComponentAttribute componentAttribute = new ComponentAttribute();
+		ComponentAttributePk componentAttributePk = new ComponentAttributePk();
+		componentAttributePk.setComponentId("A");
+		componentAttributePk.setAttributeType("TYPE");
+		componentAttribute.setComponentAttributePk(componentAttributePk);
+
+		ExampleStatement result = ExampleQueryPlan.whereClause(componentAttribute);
+		assertEquals("  componentAttributePk.attributeType = :componentAttributePk1attributeTypeParam AND componentAttributePk.componentId = :componentAttributePk1componentIdParam", result.getClause());
+		assertEquals("A", result.getParameters().get("componentAttributePk1componentIdParam"));
+		assertEquals("TYPE", result.getParameters().get("componentAttributePk1attributeTypeParam"));
+	}
+
+	/**
+	 * The compiled shape should be reused while the values are re-read
+	 */
+	@Test
+	public void testShapeCache()
+	{
+		System.out.println("shapeCache");
+
+		ExampleQueryPlan plan = ExampleQueryPlan.getPlan(Component.class);
+
+		Component component = new Component();
+		component.setComponentId("1");
+		ExampleQueryPlan.whereClause(component);
+		int shapes = plan.getCompiledShapeCount();
+
+		Component component2 = new Component();
+		component2.setComponentId("2");
+		ExampleStatement result = ExampleQueryPlan.whereClause(component2);
+		assertEquals(shapes, plan.getCompiledShapeCount());
+		assertEquals("2", result.getParameters().get("componentIdParam"));
+
+		GenerateStatementOption option = new GenerateStatementOptionBuilder()
+				.setOperation(GenerateStatementOption.OPERATION_NOT_NULL)
+				.build();
+		result = ExampleQueryPlan.whereClause(component2, option, null);
+		assertEquals(" componentId  IS NOT NULL", result.getClause());
+		assertTrue(result.getParameters().isEmpty());
+		assertEquals(shapes + 1, plan.getCompiledShapeCount());
+	}
+
+	/**
+	 * Field options should control both the clause and the parameter name
+	 */
+	@Test
+	public void testFieldOptions()
+	{
+		System.out.println("fieldOptions");
+
+		Component component = new Component();
+		component.setName("Test");
+		component.setComponentId("1");
+
+		Map<String, GenerateStatementOption> fieldOptions = new HashMap<>();
+		fieldOptions.put("name", new GenerateStatementOptionBuilder()
+				.setOperation(GenerateStatementOption.OPERATION_LIKE)
+				.setParameterSuffix(GenerateStatementOption.PARAMETER_SUFFIX_END_RANGE)
+				.build());
+
+		ExampleStatement result = ExampleQueryPlan.whereClause(component, new GenerateStatementOptionBuilder().build(), fieldOptions);
+		assertEquals(" componentId = :componentIdParam AND name LIKE :nameEndRangeParam", result.getClause());
+		assertEquals("Test", result.getParameters().get("nameEndRangeParam"));
+		assertFalse(result.getParameters().containsKey("nameParam"));
+	}
+
+	/**
+	 * Test of exampleNames method, of class ExampleQueryPlan.
+	 */
+	@Test
+	public void testExampleNames()
+	{
+		System.out.println("exampleNames");
+
+		Component component = new Component();
+		component.setName(QueryByExample.STRING_FLAG);
+		component.setUpdateDts(QueryByExample.DATE_FLAG);
+		assertEquals(" name,updateDts", ExampleQueryPlan.exampleNames(component));
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.filter;
+
+import edu.usu.sdl.openstorefront.core.entity.SecurityRole;
+import edu.usu.sdl.openstorefront.core.entity.SecurityRoleData;
+import edu.usu.sdl.openstorefront.security.UserContext;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class DataRestrictionPredicateTest
+{
+
+	private SecurityRole createRole(String dataSource, String dataSensitivity, boolean allowUnspecified)
+	{
+		SecurityRole role = new SecurityRole();
+		role.setRoleName("TEST");
+		role.setAllowUnspecifiedDataSource(allowUnspecified);
+		role.setAllowUnspecifiedDataSensitivity(allowUnspecified);
+
+		SecurityRoleData roleData = new SecurityRoleData();
+		roleData.setDataSource(dataSource);
+		roleData.setDataSensitivity(dataSensitivity);
+		List<SecurityRoleData> dataSecurity = new ArrayList<>();
+		dataSecurity.add(roleData);
+		role.setDataSecurity(dataSecurity);
+		return role;
+	}
+
+	/**
+	 * Test of allow method, of class DataRestrictionPredicate.
+	 */
+	@Test
+	public void testAllow()
+	{
+		System.out.println("allow");
+
+		UserContext userContext = new UserContext();
+		userContext.getRoles().add(createRole("DI2E", "PUBLIC", false));
+
+		DataRestrictionPredicate predicate = userContext.dataRestrictionPredicate();
+		assertTrue(predicate.allow("DI2E", "PUBLIC"));
+		assertFalse(predicate.allow("OTHER", "PUBLIC"));
+		assertFalse(predicate.allow("DI2E", "SECRET"));
+		assertFalse(predicate.allow(null, "PUBLIC"));
+		assertFalse(predicate.allowDataSensitivity(null));
+		assertFalse(predicate.allowComponent(null));
+
+		ComponentSensitivityModel model = new ComponentSensitivityModel();
+		model.setDataSource("DI2E");
+		assertFalse(predicate.allowComponent(model));
+	}
+
+	/**
+	 * The predicate should be reused until the roles change
+	 */
+	@Test
+	public void testRoleChange()
+	{
+		System.out.println("roleChange");
+
+		UserContext userContext = new UserContext();
+		userContext.getRoles().add(createRole("DI2E", "PUBLIC", false));
+
+		DataRestrictionPredicate predicate = userContext.dataRestrictionPredicate();
+		assertSame(predicate, userContext.dataRestrictionPredicate());
+
+		userContext.getRoles().add(createRole(null, null, true));
+		DataRestrictionPredicate updated = userContext.dataRestrictionPredicate();
+		assertNotSame(predicate, updated);
+		assertTrue(updated.allow(null, null));
+
+		List<SecurityRole> roles = new ArrayList<>();
+		roles.add(createRole("DI2E", "PUBLIC", false));
+		userContext.setRoles(roles);
+		assertFalse(userContext.dataRestrictionPredicate().allow(null, null));
+	}
+
+	/**
+	 * Saving or removing a role should rebuild existing predicates
+	 */
+	@Test
+	public void testRoleDataChanged()
+	{
+		System.out.println("roleDataChanged");
+
+		UserContext userContext = new UserContext();
+		userContext.getRoles().add(createRole("DI2E", "PUBLIC", false));
+
+		DataRestrictionPredicate predicate = userContext.dataRestrictionPredicate();
+		assertFalse(predicate.isRoleDataChanged());
+
+		DataRestrictionPredicate.roleDataChanged();
+		assertTrue(predicate.isStale(userContext.getRoles()));
+
+		DataRestrictionPredicate updated = userContext.dataRestrictionPredicate();
+		assertNotSame(predicate, updated);
+		assertFalse(updated.isRoleDataChanged());
+		assertSame(updated, userContext.dataRestrictionPredicate());
+	}
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.sort;
+
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.text.DateFormat;
+import java.text.MessageFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Sorts search view lists with the previous reflective comparator and the
+ * factory comparator. Run with main() from the test classpath.
+ *
+ * @author dshurtleff
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComparatorFactoryBenchmark
+{
+
+	private static final Logger LOG = Logger.getLogger(ComparatorFactoryBenchmark.class.getName());
+
+	@Param({"1000", "20000"})
+	private int size;
+
+	@Param({"name", "averageRating", "lastActivityDts"})
+	private String sortField;
+
+	private List<ComponentSearchView> views;
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(42);
+		views = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			ComponentSearchView view = new ComponentSearchView();
+			view.setName("Component " + random.nextInt(size * 10));
+			view.setAverageRating(random.nextInt(6));
+			view.setLastActivityDts(new Date(1400000000000L + random.nextInt(Integer.MAX_VALUE) * 100L));
+			views.add(view);
+		}
+	}
+
+	@Benchmark
+	public List<ComponentSearchView> legacySort()
+	{
+		List<ComponentSearchView> copy = new ArrayList<>(views);
+		copy.sort(new LegacyBeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, sortField));
+		return copy;
+	}
+
+	@Benchmark
+	public List<ComponentSearchView> factorySort()
+	{
+		List<ComponentSearchView> copy = new ArrayList<>(views);
+		copy.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, sortField));
+		return copy;
+	}
+
+	/**
+	 * Previous BeanComparator (kept here as the baseline)
+	 */
+	private static class LegacyBeanComparator<T>
+			implements Comparator<T>
+	{
+
+		private final String sortDirection;
+		private final String sortField;
+
+		public LegacyBeanComparator(String sortDirection, String sortField)
+		{
+			this.sortDirection = sortDirection;
+			this.sortField = sortField;
+		}
+
+		public int compare(T o1, T o2)
+		{
+			T obj1 = o1;
+			T obj2 = o2;
+			if (OpenStorefrontConstant.SORT_DESCENDING.equals(sortDirection)) {
+				obj1 = o2;
+				obj2 = o1;
+			}
+
+			if (obj1 != null && obj2 == null) {
+				return 1;
+			} else if (obj1 == null && obj2 != null) {
+				return -1;
+			} else if (obj1 != null && obj2 != null) {
+				boolean tryAlternate = false;
+				if (StringUtils.isNotBlank(sortField)) {
+					try {
+						Object o = obj1;
+						Class<?> c = o.getClass();
+
+						Field f = null;
+
+						while (f == null) {
+							try {
+								f = c.getDeclaredField(sortField);
+							} catch (NoSuchFieldException noSuchFieldException) {
+								c = c.getSuperclass();
+								if (c == null) {
+									break;
+								}
+							}
+						}
+
+						if (f == null) {
+							tryAlternate = true;
+						} else {
+							f.setAccessible(true);
+							if (f.get(o) instanceof Date) {
+								int compare = 0;
+								DateFormat format = new SimpleDateFormat("EEE MMM dd HH:mm:ss z yyyy", Locale.ENGLISH);
+								if (BeanUtils.getProperty(obj1, sortField) != null && BeanUtils.getProperty(obj2, sortField) == null) {
+									return 1;
+								} else if (BeanUtils.getProperty(obj1, sortField) == null && BeanUtils.getProperty(obj2, sortField) != null) {
+									return -1;
+								} else if (BeanUtils.getProperty(obj1, sortField) != null && BeanUtils.getProperty(obj2, sortField) != null) {
+									Date value1 = format.parse(BeanUtils.getProperty(obj1, sortField));
+									Date value2 = format.parse(BeanUtils.getProperty(obj2, sortField));
+									if (value1 != null && value2 == null) {
+										return 1;
+									} else if (value1 == null && value2 != null) {
+										return -1;
+									} else if (value1 != null && value2 != null) {
+
+										compare = value1.compareTo(value2);
+									}
+								}
+								return compare;
+							} else {
+								try {
+									String value1 = BeanUtils.getProperty(obj1, sortField);
+									String value2 = BeanUtils.getProperty(obj2, sortField);
+									if (value1 != null && value2 == null) {
+										return 1;
+									} else if (value1 == null && value2 != null) {
+										return -1;
+									} else if (value1 != null && value2 != null) {
+
+										if (StringUtils.isNotBlank(value1)
+												&& StringUtils.isNotBlank(value2)
+												&& StringUtils.isNumeric(value1)
+												&& StringUtils.isNumeric(value2)) {
+
+											BigDecimal numValue1 = new BigDecimal(value1);
+											BigDecimal numValue2 = new BigDecimal(value2);
+											return numValue1.compareTo(numValue2);
+										} else {
+											return value1.toLowerCase().compareTo(value2.toLowerCase());
+										}
+									}
+								} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
+									LOG.log(Level.FINER, MessageFormat.format("Sort field doesn''t exist: {0}", sortField));
+								}
+							}
+						}
+					} catch (ParseException | SecurityException | IllegalArgumentException | IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
+						tryAlternate = true;
+					}
+
+					if (tryAlternate) {
+						try {
+							String value1 = BeanUtils.getProperty(obj1, sortField);
+							String value2 = BeanUtils.getProperty(obj2, sortField);
+							if (value1 != null && value2 == null) {
+								return 1;
+							} else if (value1 == null && value2 != null) {
+								return -1;
+							} else if (value1 != null && value2 != null) {
+
+								if (StringUtils.isNotBlank(value1)
+										&& StringUtils.isNotBlank(value2)
+										&& StringUtils.isNumeric(value1)
+										&& StringUtils.isNumeric(value2)) {
+
+									BigDecimal numValue1 = new BigDecimal(value1);
+									BigDecimal numValue2 = new BigDecimal(value2);
+									return numValue1.compareTo(numValue2);
+								} else {
+									return value1.toLowerCase().compareTo(value2.toLowerCase());
+								}
+							}
+						} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex2) {
+							LOG.log(Level.FINER, MessageFormat.format("Sort field doesn''t exist: {0}", sortField));
+						}
+					}
+
+				}
+			}
+			return 0;
+		}
+
+
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+				.include(ComparatorFactoryBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+}
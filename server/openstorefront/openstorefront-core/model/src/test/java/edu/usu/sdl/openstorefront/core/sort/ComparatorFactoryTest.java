@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.sort;
+
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ComparatorFactoryTest
+{
+
+	private ComponentSearchView view(String name, Integer rating, Date lastActivity)
+	{
+		ComponentSearchView view = new ComponentSearchView();
+		view.setName(name);
+		view.setAverageRating(rating);
+		view.setLastActivityDts(lastActivity);
+		return view;
+	}
+
+	/**
+	 * Test of build method, of class ComparatorFactory.
+	 */
+	@Test
+	public void testBuild()
+	{
+		System.out.println("build");
+
+		List<ComponentSearchView> views = new ArrayList<>();
+		views.add(view("beta", 10, new Date(3000)));
+		views.add(view("Alpha", 2, new Date(1000)));
+		views.add(view(null, null, null));
+		views.add(view("charlie", 9, new Date(2000)));
+
+		views.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, "name"));
+		assertNull(views.get(0).getName());
+		assertEquals("Alpha", views.get(1).getName());
+		assertEquals("charlie", views.get(3).getName());
+
+		views.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_DESCENDING, "averageRating"));
+		assertEquals(10, (int) views.get(0).getAverageRating());
+		assertEquals(9, (int) views.get(1).getAverageRating());
+		assertNull(views.get(3).getAverageRating());
+
+		views.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, "lastActivityDts"));
+		assertNull(views.get(0).getLastActivityDts());
+		assertEquals("Alpha", views.get(1).getName());
+		assertEquals("beta", views.get(3).getName());
+
+		//unknown fields keep the current order
+		views.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, "notAField"));
+		assertEquals("Alpha", views.get(1).getName());
+	}
+
+	/**
+	 * Test of compareValues method, of class ComparatorFactory.
+	 */
+	@Test
+	public void testCompareValues()
+	{
+		System.out.println("compareValues");
+
+		assertEquals(-1, Integer.signum(ComparatorFactory.compareValues("9", "10")));
+		assertEquals(0, ComparatorFactory.compareValues("007", "7"));
+		assertEquals(1, Integer.signum(ComparatorFactory.compareValues("b", "A")));
+		assertEquals(-1, Integer.signum(ComparatorFactory.compareValues(null, "A")));
+		assertEquals(-1, Integer.signum(ComparatorFactory.compareValues(2, 10L)));
+		assertEquals(1, Integer.signum(ComparatorFactory.compareValues(2.5, 2)));
+		assertEquals(1, Integer.signum(ComparatorFactory.compareValues(Double.NaN, 2)));
+		assertEquals(-1, Integer.signum(ComparatorFactory.compareValues(new BigDecimal("1e300"), Double.POSITIVE_INFINITY)));
+		assertEquals(-1, Integer.signum(ComparatorFactory.compareValues(Float.NEGATIVE_INFINITY, 2L)));
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ImportProgressTrackerTest
+{
+
+	@Test
+	public void testFlushByRecords()
+	{
+		AtomicInteger saved = new AtomicInteger();
+		ImportProgressTracker tracker = new ImportProgressTracker(10, 0, saved::incrementAndGet);
+		for (int i = 0; i < 25; i++) {
+			tracker.recordProcessed();
+		}
+		assertEquals(2, saved.get());
+
+		tracker.update();
+		assertEquals(2, saved.get());
+
+		tracker.flush();
+		assertEquals(3, saved.get());
+		assertEquals(3, tracker.getFlushCount());
+	}
+
+	@Test
+	public void testFlushByInterval() throws InterruptedException
+	{
+		AtomicInteger saved = new AtomicInteger();
+		ImportProgressTracker tracker = new ImportProgressTracker(0, 20, saved::incrementAndGet);
+		tracker.recordProcessed();
+		tracker.recordProcessed();
+		assertEquals(0, saved.get());
+
+		Thread.sleep(40);
+		tracker.recordProcessed();
+		assertEquals(1, saved.get());
+	}
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser;
+
+import edu.usu.sdl.openstorefront.core.api.ImportService;
+import edu.usu.sdl.openstorefront.core.api.Service;
+import edu.usu.sdl.openstorefront.core.api.ServiceProxyFactory;
+import edu.usu.sdl.openstorefront.core.entity.FileHistory;
+import edu.usu.sdl.openstorefront.core.model.FileHistoryAll;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.osgi.framework.BundleContext;
+
+/**
+ * Runs an import through the parser pipeline with simulated mapping and
+ * database costs. A progress flush of 1 and a bucket of 1 is the previous
+ * behavior (progress saved and a commit for every record); parallelism of 1
+ * parses on the import thread. Run with main() from the test classpath.
+ *
+ * @author dshurtleff
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportThroughputBenchmark
+{
+
+	private static final int RECORDS = 2000;
+
+	//round trip for a progress update / commit
+	private static final long PROGRESS_COST_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+	private static final long COMMIT_COST_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+	//mapping, validation and sanitizing of a record
+	private static final long PARSE_COST_TOKENS = 20000;
+
+	@Param({"1", "500"})
+	private int progressFlushRecords;
+
+	@Param({"1", "300"})
+	private int bucketSize;
+
+	@Param({"1", "4"})
+	private int parallelism;
+
+	private Path importFile;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException
+	{
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < RECORDS; i++) {
+			data.append("Record ").append(i).append("\n");
+		}
+		importFile = Files.createTempFile("import", ".txt");
+		Files.write(importFile, data.toString().getBytes(StandardCharsets.UTF_8));
+
+		ImportService importService = (ImportService) Proxy.newProxyInstance(
+				ImportService.class.getClassLoader(),
+				new Class<?>[]{ImportService.class},
+				(proxy, method, args) -> {
+					if ("updateImportProgress".equals(method.getName())) {
+						LockSupport.parkNanos(PROGRESS_COST_NANOS);
+						return null;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+		Service service = (Service) Proxy.newProxyInstance(
+				Service.class.getClassLoader(),
+				new Class<?>[]{Service.class},
+				(proxy, method, args) -> {
+					if ("getImportService".equals(method.getName())) {
+						return importService;
+					} else if ("getNewServiceProxy".equals(method.getName())) {
+						return proxy;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+		ServiceProxyFactory.setContext((BundleContext) Proxy.newProxyInstance(
+				BundleContext.class.getClassLoader(),
+				new Class<?>[]{BundleContext.class},
+				(proxy, method, args) -> "getService".equals(method.getName()) ? service : null));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException
+	{
+		ServiceProxyFactory.setContext(null);
+		Files.deleteIfExists(importFile);
+	}
+
+	@Benchmark
+	public FileHistoryAll importRecords()
+	{
+		FileHistory fileHistory = new FileHistory()
+		{
+			@Override
+			public Path pathToFileName()
+			{
+				return importFile;
+			}
+		};
+		FileHistoryAll fileHistoryAll = new FileHistoryAll();
+		fileHistoryAll.setFileHistory(fileHistory);
+
+		BenchmarkParser parser = new BenchmarkParser(progressFlushRecords, bucketSize);
+		parser.setParallelism(parallelism);
+		parser.processData(fileHistoryAll);
+		return fileHistoryAll;
+	}
+
+	public static class ImportRecord
+	{
+
+		private String name;
+
+		public ImportRecord(String name)
+		{
+			this.name = name;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+	}
+
+	private static class BenchmarkParser
+			extends AbstractParser<ImportRecord>
+	{
+
+		private final int progressFlushRecords;
+		private final int bucketSize;
+		private List<ImportRecord> records = new ArrayList<>();
+
+		public BenchmarkParser(int progressFlushRecords, int bucketSize)
+		{
+			this.progressFlushRecords = progressFlushRecords;
+			this.bucketSize = bucketSize;
+		}
+
+		@Override
+		public String checkFormat(String mimeType, InputStream input)
+		{
+			return null;
+		}
+
+		@Override
+		protected ImportProgressTracker createProgressTracker()
+		{
+			return new ImportProgressTracker(progressFlushRecords, ImportProgressTracker.DEFAULT_FLUSH_INTERVAL, this::updateFileHistoryStats);
+		}
+
+		@Override
+		protected AbstractParser<ImportRecord> createWorkerParser()
+		{
+			return new BenchmarkParser(progressFlushRecords, bucketSize);
+		}
+
+		@Override
+		protected <T> Object parseRecord(T record)
+		{
+			Blackhole.consumeCPU(PARSE_COST_TOKENS);
+			return new ImportRecord((String) record);
+		}
+
+		@Override
+		protected List<ImportRecord> getStorageBucket()
+		{
+			return records;
+		}
+
+		@Override
+		protected int getMaxBucketSize()
+		{
+			//flushed once the bucket is over the max
+			return bucketSize - 1;
+		}
+
+		@Override
+		protected void performStorage()
+		{
+			LockSupport.parkNanos(COMMIT_COST_NANOS);
+		}
+
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+				.include(ImportThroughputBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+}
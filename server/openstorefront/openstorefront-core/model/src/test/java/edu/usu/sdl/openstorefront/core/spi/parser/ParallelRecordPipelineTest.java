@@ -0,0 +1,209 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser;
+
+import edu.usu.sdl.openstorefront.core.api.Service;
+import edu.usu.sdl.openstorefront.core.api.ServiceProxyFactory;
+import edu.usu.sdl.openstorefront.core.entity.FileFormat;
+import edu.usu.sdl.openstorefront.core.entity.FileHistory;
+import edu.usu.sdl.openstorefront.core.entity.FileHistoryError;
+import edu.usu.sdl.openstorefront.core.entity.FileHistoryErrorType;
+import edu.usu.sdl.openstorefront.core.model.FileHistoryAll;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ParallelRecordPipelineTest
+{
+
+	private static final int RECORDS = 500;
+
+	private Path importFile;
+
+	@Before
+	public void setup() throws IOException
+	{
+		StringBuilder data = new StringBuilder();
+		for (int i = 1; i <= RECORDS; i++) {
+			data.append(i).append("\n");
+		}
+		importFile = Files.createTempFile("import", ".txt");
+		Files.write(importFile, data.toString().getBytes(StandardCharsets.UTF_8));
+
+		Service service = (Service) Proxy.newProxyInstance(
+				Service.class.getClassLoader(),
+				new Class<?>[]{Service.class},
+				(proxy, method, args) -> {
+					if ("getNewServiceProxy".equals(method.getName())) {
+						return proxy;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+		ServiceProxyFactory.setContext((BundleContext) Proxy.newProxyInstance(
+				BundleContext.class.getClassLoader(),
+				new Class<?>[]{BundleContext.class},
+				(proxy, method, args) -> "getService".equals(method.getName()) ? service : null));
+	}
+
+	@After
+	public void tearDown() throws IOException
+	{
+		ServiceProxyFactory.setContext(null);
+		Files.deleteIfExists(importFile);
+	}
+
+	private FileHistoryAll runImport(TestParser parser)
+	{
+		FileHistory fileHistory = new FileHistory()
+		{
+			@Override
+			public Path pathToFileName()
+			{
+				return importFile;
+			}
+		};
+		FileHistoryAll fileHistoryAll = new FileHistoryAll();
+		fileHistoryAll.setFileHistory(fileHistory);
+		parser.processData(fileHistoryAll);
+		return fileHistoryAll;
+	}
+
+	@Test
+	public void testMatchesSequential()
+	{
+		TestParser sequential = new TestParser();
+		FileHistoryAll sequentialHistory = runImport(sequential);
+
+		TestParser parallel = new TestParser();
+		parallel.setParallelism(4);
+		FileHistoryAll parallelHistory = runImport(parallel);
+
+		assertEquals(sequential.stored, parallel.stored);
+		assertEquals(errorSummary(sequentialHistory), errorSummary(parallelHistory));
+		assertEquals(sequentialHistory.getFileHistory().getRecordsStored(), parallelHistory.getFileHistory().getRecordsStored());
+		assertEquals(Integer.valueOf(RECORDS), parallelHistory.getFileHistory().getRecordsProcessed());
+
+		//every 7th fails; every 10th maps to two entries
+		int failed = RECORDS / 7;
+		int extra = RECORDS / 10 - RECORDS / 70;
+		assertEquals(failed, parallelHistory.getErrors().size());
+		assertEquals(RECORDS - failed + extra, parallel.stored.size());
+		assertEquals(Integer.valueOf(7), parallelHistory.getErrors().get(0).getRecordNumber());
+	}
+
+	@Test
+	public void testPerCore()
+	{
+		TestParser parallel = new TestParser();
+		parallel.setParallelism(FileFormat.PARALLELISM_PER_CORE);
+		runImport(parallel);
+		assertEquals("1", parallel.stored.get(0));
+		assertEquals(RECORDS + "b", parallel.stored.get(parallel.stored.size() - 1));
+	}
+
+	private List<String> errorSummary(FileHistoryAll fileHistoryAll)
+	{
+		List<String> summary = new ArrayList<>();
+		for (FileHistoryError error : fileHistoryAll.getErrors()) {
+			summary.add(error.getFileHistoryErrorType() + ":" + error.getRecordNumber());
+		}
+		return summary;
+	}
+
+	public static class TestParser
+			extends AbstractParser<String>
+	{
+
+		private List<String> bucket = new ArrayList<>();
+		private List<String> stored = new ArrayList<>();
+
+		@Override
+		public String checkFormat(String mimeType, InputStream input)
+		{
+			return null;
+		}
+
+		@Override
+		protected ImportProgressTracker createProgressTracker()
+		{
+			return new ImportProgressTracker(0, 0, () -> {
+			});
+		}
+
+		@Override
+		protected <T> Object parseRecord(T record)
+		{
+			//finish out of order
+			LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ThreadLocalRandom.current().nextInt(200)));
+
+			int number = Integer.parseInt((String) record);
+			if (number % 7 == 0) {
+				fileHistoryAll.addError(FileHistoryErrorType.MAPPING, "Unmapped", currentRecordNumber);
+				return null;
+			} else if (number % 10 == 0) {
+				List<String> entries = new ArrayList<>();
+				entries.add(number + "a");
+				entries.add(number + "b");
+				addMultipleRecords(entries);
+				return null;
+			}
+			return record;
+		}
+
+		@Override
+		protected <T> boolean validateRecord(T record)
+		{
+			return true;
+		}
+
+		@Override
+		protected List<String> getStorageBucket()
+		{
+			return bucket;
+		}
+
+		@Override
+		protected int getMaxBucketSize()
+		{
+			return 20;
+		}
+
+		@Override
+		protected void performStorage()
+		{
+			stored.addAll(bucket);
+		}
+
+	}
+
+}
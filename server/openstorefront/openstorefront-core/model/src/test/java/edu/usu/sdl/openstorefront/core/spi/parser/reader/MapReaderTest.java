@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser.reader;
+
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.FieldDefinition;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class MapReaderTest
+{
+
+	private static final String XML = "<components source=\"test\">"
+			+ "<note>not a record</note>"
+			+ "<component id=\"1\"><name>Alpha</name><contact><email>a@test.com</email></contact></component>"
+			+ "<component id=\"2\"><name><![CDATA[Beta & Co]]></name></component>"
+			+ "</components>";
+
+	private static final String JSON_ARRAY = "[{\"component\":{\"name\":\"Alpha\",\"tags\":[{\"text\":\"one\"}]}},"
+			+ "{\"component\":{\"name\":\"Beta\"}}]";
+
+	private static final String JSON_OBJECT = "{\"version\":2,\"components\":[{\"name\":\"Alpha\",\"contact\":{\"email\":\"a@test.com\"}},"
+			+ "{\"name\":\"Beta\",\"contact\":{\"email\":\"b@test.com\"}}],\"owner\":{\"name\":\"Gamma\"}}";
+
+	private InputStream stream(String data)
+	{
+		return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private List<MapModel> readAll(MappableReader reader) throws Exception
+	{
+		List<MapModel> records = new ArrayList<>();
+		try (MappableReader mapReader = reader) {
+			mapReader.preProcess();
+			MapModel record = mapReader.nextRecord();
+			while (record != null) {
+				records.add(record);
+				record = mapReader.nextRecord();
+			}
+		}
+		return records;
+	}
+
+	private Set<String> uniqueFields(MapModel mapModel)
+	{
+		Set<String> fields = new HashSet<>();
+		for (FieldDefinition fieldDefinition : mapModel.getUniqueFields()) {
+			fields.add(fieldDefinition.getField() + fieldDefinition.getRootField());
+		}
+		return fields;
+	}
+
+	@Test
+	public void testXMLRecords() throws Exception
+	{
+		XMLMapReader reader = new XMLMapReader(stream(XML));
+		List<MapModel> records = readAll(reader);
+		assertEquals(2, records.size());
+		assertEquals(2, reader.getCurrentRecordNumber());
+
+		MapModel first = records.get(0);
+		assertEquals("components", first.getName());
+		assertEquals(1, first.getArrayFields().size());
+		MapModel component = first.getArrayFields().get(0);
+		assertEquals("component", component.getName());
+		assertEquals("id", component.getMapFields().get(0).getName());
+		assertEquals("Alpha", component.getMapFields().get(1).getValue());
+		assertEquals("a@test.com", component.getArrayFields().get(0).getMapFields().get(0).getValue());
+		assertEquals("Beta & Co", records.get(1).getArrayFields().get(0).getMapFields().get(1).getValue());
+
+		//a mapped root is the record
+		reader = new XMLMapReader(stream(XML));
+		reader.setMappedFields(new HashSet<>(Arrays.asList("components", "components.component.name")));
+		records = readAll(reader);
+		assertEquals(1, records.size());
+		MapModel document = records.get(0);
+		assertEquals(2, document.getArrayFields().size());
+		assertEquals("note", document.getMapFields().get(1).getName());
+
+		assertEquals(uniqueFields(document), uniqueFields(new XMLMapReader(null).findFields(stream(XML))));
+	}
+
+	@Test
+	public void testJSONRecords() throws Exception
+	{
+		JSONMapReader reader = new JSONMapReader(stream(JSON_ARRAY));
+		List<MapModel> records = readAll(reader);
+		assertEquals(2, records.size());
+		assertEquals(2, reader.getCurrentRecordNumber());
+		MapModel component = records.get(0).getArrayFields().get(0);
+		assertEquals("component", component.getName());
+		assertEquals("component.name", component.getMapFields().get(0).getName());
+		assertEquals("one", component.getMapFields().get(1).getValue());
+
+		reader = new JSONMapReader(stream(JSON_OBJECT));
+		records = readAll(reader);
+		//version, each component, owner
+		assertEquals(4, records.size());
+		assertEquals(4, reader.getCurrentRecordNumber());
+		assertEquals("components.name", records.get(1).getMapFields().get(0).getName());
+		assertEquals("b@test.com", records.get(2).getArrayFields().get(0).getMapFields().get(0).getValue());
+
+		for (String json : Arrays.asList(JSON_ARRAY, JSON_OBJECT)) {
+			reader = new JSONMapReader(stream(json));
+			reader.setMappedFields(new HashSet<>(Arrays.asList("root")));
+			records = readAll(reader);
+			assertEquals(1, records.size());
+			assertEquals(uniqueFields(records.get(0)), uniqueFields(new JSONMapReader(null).findFields(stream(json))));
+		}
+	}
+
+	@Test
+	public void testJSONRecordNumbers() throws Exception
+	{
+		//one per streamed record regardless of what the record holds
+		try (JSONMapReader reader = new JSONMapReader(stream(JSON_OBJECT))) {
+			reader.preProcess();
+			List<Integer> recordNumbers = new ArrayList<>();
+			while (reader.nextRecord() != null) {
+				recordNumbers.add(reader.getCurrentRecordNumber());
+			}
+			assertEquals(Arrays.asList(1, 2, 3, 4), recordNumbers);
+		}
+	}
+
+	private byte[] workbook(Workbook workbook) throws IOException
+	{
+		Sheet sheet = workbook.createSheet("data");
+		Row header = sheet.createRow(0);
+		header.createCell(0).setCellValue("Name");
+		header.createCell(1).setCellValue("Count");
+		header.createCell(2).setCellValue("Active");
+		header.createCell(4).setCellValue("After a gap");
+
+		Row data = sheet.createRow(1);
+		data.createCell(0).setCellValue("Alpha");
+		data.createCell(1).setCellValue(5);
+		data.createCell(2).setCellValue(true);
+
+		//rows after a missing row are not read
+		sheet.createRow(3).createCell(0).setCellValue("Unread");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		workbook.write(out);
+		workbook.close();
+		return out.toByteArray();
+	}
+
+	@Test
+	public void testExcelRecords() throws Exception
+	{
+		for (byte[] data : Arrays.asList(workbook(new XSSFWorkbook()), workbook(new HSSFWorkbook()))) {
+			List<MapModel> records = readAll(new ExcelMapReader(new ByteArrayInputStream(data)));
+			assertEquals(2, records.size());
+
+			MapModel header = records.get(0);
+			assertEquals(3, header.getMapFields().size());
+			assertEquals("COLUMN-1", header.getMapFields().get(0).getName());
+			assertEquals("Name", header.getMapFields().get(0).getValue());
+
+			MapModel row = records.get(1);
+			assertEquals("Alpha", row.getMapFields().get(0).getValue());
+			assertEquals("5.0", row.getMapFields().get(1).getValue());
+			assertEquals("true", row.getMapFields().get(2).getValue());
+
+			ExcelMapReader reader = new ExcelMapReader(new ByteArrayInputStream(data));
+			assertEquals("Count", reader.findFields(null).getMapFields().get(1).getValue());
+			assertNull(reader.getTotalRecords());
+		}
+	}
+
+}
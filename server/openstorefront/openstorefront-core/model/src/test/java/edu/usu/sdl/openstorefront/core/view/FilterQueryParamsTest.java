@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.view;
+
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.core.api.query.ExampleQueryPlan;
+import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class FilterQueryParamsTest
+{
+
+	/**
+	 * Test of orderAndWindowClause method, of class FilterQueryParams.
+	 */
+	@Test
+	public void testOrderAndWindowClause()
+	{
+		System.out.println("orderAndWindowClause");
+
+		FilterQueryParams filter = FilterQueryParams.defaultFilter();
+		filter.setMax(25);
+		filter.setOffset(50);
+		filter.setSortField("EVENTDTS");
+		filter.setSortOrder(OpenStorefrontConstant.SORT_DESCENDING);
+		assertEquals(" ORDER BY eventDts DESC SKIP 50 LIMIT 25", filter.orderAndWindowClause(ComponentTracking.class));
+
+		//not a field; should not be passed to the query
+		filter.setSortField("eventDts; delete");
+		filter.setSortOrder("DROP");
+		assertNull(filter.databaseSortField(ComponentTracking.class));
+		assertEquals(" SKIP 50 LIMIT 25", filter.orderAndWindowClause(ComponentTracking.class));
+	}
+
+	/**
+	 * Test of applyToQuery method, of class FilterQueryParams.
+	 */
+	@Test
+	public void testApplyToQuery()
+	{
+		System.out.println("applyToQuery");
+
+		FilterQueryParams filter = FilterQueryParams.defaultFilter();
+		filter.setMax(10);
+		filter.setOffset(20);
+		filter.setSortField("name");
+
+		QueryByExample queryByExample = new QueryByExample(new Component());
+		assertTrue(filter.applyToQuery(queryByExample));
+		assertEquals(" name", ExampleQueryPlan.exampleNames(queryByExample.getOrderBy()));
+		assertEquals(20, (int) queryByExample.getFirstResult());
+		assertEquals(10, (int) queryByExample.getMaxResults());
+
+		filter.setSortField("numberOfPendingChanges");
+		queryByExample = new QueryByExample(new Component());
+		assertFalse(filter.applyToQuery(queryByExample));
+		assertNull(queryByExample.getOrderBy());
+		assertNull(queryByExample.getMaxResults());
+	}
+
+}
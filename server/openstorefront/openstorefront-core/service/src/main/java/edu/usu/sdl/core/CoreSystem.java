@@ -25,6 +25,7 @@ import edu.usu.sdl.openstorefront.core.view.SystemStatusView;
 import edu.usu.sdl.openstorefront.service.io.HelpImporter;
 import edu.usu.sdl.openstorefront.service.io.LookupImporter;
 import edu.usu.sdl.openstorefront.service.manager.AsyncTaskManager;
+import edu.usu.sdl.openstorefront.service.manager.ComponentStatisticManager;
 import edu.usu.sdl.openstorefront.service.manager.ConfluenceManager;
 import edu.usu.sdl.openstorefront.service.manager.DBLogManager;
 import edu.usu.sdl.openstorefront.service.manager.DBManager;
@@ -32,11 +33,14 @@ import edu.usu.sdl.openstorefront.service.manager.JiraManager;
 import edu.usu.sdl.openstorefront.service.manager.JobManager;
 import edu.usu.sdl.openstorefront.service.manager.LDAPManager;
 import edu.usu.sdl.openstorefront.service.manager.MailManager;
+import edu.usu.sdl.openstorefront.service.manager.MediaDerivativeManager;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
 import edu.usu.sdl.openstorefront.service.manager.OsgiManager;
 import edu.usu.sdl.openstorefront.service.manager.PluginManager;
+import edu.usu.sdl.openstorefront.service.manager.ReindexManager;
 import edu.usu.sdl.openstorefront.service.manager.ReportManager;
 import edu.usu.sdl.openstorefront.service.manager.SearchServerManager;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
 import edu.usu.sdl.openstorefront.service.manager.UserAgentManager;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -76,6 +80,7 @@ public class CoreSystem
 			new DBManager(),
 			new SearchServerManager(),
 			new OSFCacheManager(),
+			new ReindexManager(),
 			new JiraManager(),
 			new ConfluenceManager(),
 			new LookupImporter(),
@@ -83,7 +88,10 @@ public class CoreSystem
 			new JobManager(),
 			new UserAgentManager(),
 			new AsyncTaskManager(),
+			new ComponentStatisticManager(),
+			new TrackingManager(),
 			new ReportManager(),
+			new MediaDerivativeManager(),
 			new LDAPManager(),
 			new HelpImporter(),
 			new DBLogManager(),
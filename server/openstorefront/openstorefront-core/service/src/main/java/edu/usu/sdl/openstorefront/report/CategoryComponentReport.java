@@ -28,7 +28,7 @@ import edu.usu.sdl.openstorefront.core.entity.Report;
 import edu.usu.sdl.openstorefront.core.filter.FilterEngine;
 import edu.usu.sdl.openstorefront.core.sort.AttributeCodeArchComparator;
 import edu.usu.sdl.openstorefront.core.sort.AttributeCodeComparator;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.report.generator.CSVGenerator;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -98,7 +98,7 @@ public class CategoryComponentReport
 
 			List<Component> components = componentExample.findByExample();
 			components = FilterEngine.filter(components);
-			components.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, Component.FIELD_NAME));	
+			components.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, Component.FIELD_NAME));	
 			
 			for (Component component : components) {
 				List<String> data = new ArrayList<>();
@@ -154,7 +154,7 @@ public class CategoryComponentReport
 
 			List<Component> components = componentExample.findByExample();
 			components = FilterEngine.filter(components);
-			components.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, Component.FIELD_NAME));	
+			components.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, Component.FIELD_NAME));	
 			
 			if (!report.dataIdSet().isEmpty()) {
 				components = components.stream().filter(c -> report.dataIdSet().contains(c.getComponentId())).collect(Collectors.toList());
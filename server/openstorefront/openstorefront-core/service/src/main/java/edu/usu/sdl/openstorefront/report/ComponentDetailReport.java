@@ -33,7 +33,7 @@ import edu.usu.sdl.openstorefront.core.entity.Report;
 import edu.usu.sdl.openstorefront.core.entity.ReportFormat;
 import edu.usu.sdl.openstorefront.core.entity.ResourceType;
 import edu.usu.sdl.openstorefront.core.filter.FilterEngine;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.core.view.ComponentResourceView;
 import edu.usu.sdl.openstorefront.report.generator.CSVGenerator;
@@ -121,7 +121,7 @@ public class ComponentDetailReport
 		if (!report.dataIdSet().isEmpty()) {
 			components = components.stream().filter(c -> report.dataIdSet().contains(c.getComponentId())).collect(Collectors.toList());
 		}
-		components.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, Component.FIELD_NAME));	
+		components.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, Component.FIELD_NAME));	
 	}
 
 	@Override
@@ -248,7 +248,7 @@ public class ComponentDetailReport
 				metaData = FilterEngine.filter(metaData);
 				
 				cvsGenerator.addLine("MetaData");
-				metaData.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, ComponentMetadata.FIELD_LABEL));
+				metaData.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, ComponentMetadata.FIELD_LABEL));
 
 				for (ComponentMetadata metadataItem : metaData) {
 
@@ -442,7 +442,7 @@ public class ComponentDetailReport
 				metaData = FilterEngine.filter(metaData);
 				
 				htmlGenerator.addLine("<h2>MetaData</h2>");
-				metaData.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, ComponentMetadata.FIELD_LABEL));
+				metaData.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, ComponentMetadata.FIELD_LABEL));
 
 				htmlGenerator.addLine("<table>");
 				htmlGenerator.addLine("<tr>");
@@ -29,9 +29,10 @@ import edu.usu.sdl.openstorefront.core.entity.Report;
 import edu.usu.sdl.openstorefront.core.entity.SecurityMarkingType;
 import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
 import edu.usu.sdl.openstorefront.core.filter.FilterEngine;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.report.generator.CSVGenerator;
+import edu.usu.sdl.openstorefront.service.manager.ComponentStatisticManager;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -96,19 +97,13 @@ public class ComponentReport
 		}		
 		cvsGenerator.addLine(header.toArray());		
 		
-		components.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, Component.FIELD_NAME));		
+		components.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, Component.FIELD_NAME));		
 		
 		//write Body
 		for (Component component : components) {
 
-			ComponentTracking componentTrackingExample = new ComponentTracking();
-			componentTrackingExample.setActiveStatus(ComponentTracking.ACTIVE_STATUS);
-			componentTrackingExample.setComponentId(component.getComponentId());
-			componentTrackingExample.setTrackEventTypeCode(TrackEventCode.VIEW);
-			long views = service.getPersistenceService().countByExample(componentTrackingExample);
-
-			componentTrackingExample.setTrackEventTypeCode(TrackEventCode.EXTERNAL_LINK_CLICK);
-			long resourcesClicked = service.getPersistenceService().countByExample(componentTrackingExample);
+			long views = ComponentStatisticManager.getViews(component.getComponentId());
+			long resourcesClicked = ComponentStatisticManager.getResourceClicks(component.getComponentId());
 
 			ComponentReview componentReviewExample = new ComponentReview();
 			componentReviewExample.setComponentId(component.getComponentId());
@@ -130,7 +125,7 @@ public class ComponentReport
 			componentQuestionResponseExample.setActiveStatus(ComponentReview.ACTIVE_STATUS);
 			long questionResponse = service.getPersistenceService().countByExample(componentQuestionResponseExample);
 
-			componentTrackingExample = new ComponentTracking();
+			ComponentTracking componentTrackingExample = new ComponentTracking();
 			componentTrackingExample.setActiveStatus(ComponentTracking.ACTIVE_STATUS);
 			componentTrackingExample.setComponentId(component.getComponentId());
 			componentTrackingExample.setTrackEventTypeCode(TrackEventCode.VIEW);
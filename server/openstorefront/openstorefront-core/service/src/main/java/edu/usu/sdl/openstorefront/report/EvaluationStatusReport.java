@@ -23,7 +23,7 @@ import edu.usu.sdl.openstorefront.core.entity.Report;
 import edu.usu.sdl.openstorefront.core.entity.WorkflowStatus;
 import edu.usu.sdl.openstorefront.core.filter.FilterEngine;
 import edu.usu.sdl.openstorefront.core.model.EvaluationAll;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.core.view.EvaluationView;
 import edu.usu.sdl.openstorefront.report.generator.CSVGenerator;
@@ -89,7 +89,7 @@ public class EvaluationStatusReport
 																		.collect(Collectors.groupingBy(EvaluationTemplate::getTemplateId));
 		
 		List<EvaluationView> views = EvaluationView.toView(evaluations);
-		views.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, EvaluationView.FIELD_COMPONENT_NAME));
+		views.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, EvaluationView.FIELD_COMPONENT_NAME));
 		
 		for (EvaluationView view : views) {
 			EvaluationAll evaluationAll = service.getEvaluationService().getEvaluation(view.getEvaluationId());
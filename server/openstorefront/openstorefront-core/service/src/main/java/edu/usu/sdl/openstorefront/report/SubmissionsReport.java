@@ -33,7 +33,9 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang.StringUtils;
 
 /**
@@ -124,14 +126,25 @@ public class SubmissionsReport
 				"Active Status"
 		);
 
+		//load the entries in one bulk read
+		List<String> componentIds = new ArrayList<>();
+		for (Component component : componentsSubmited) {
+			componentIds.add(component.getComponentId());
+		}
+		Map<String, ComponentAll> componentAllMap = new HashMap<>();
+		for (ComponentAll componentAll : service.getComponentService().getFullComponents(componentIds)) {
+			componentAllMap.put(componentAll.getComponent().getComponentId(), componentAll);
+		}
+
 		//write data
 		for (Component component : componentsSubmited) {
-			ComponentAll componentAll = service.getComponentService().getFullComponent(component.getComponentId());
-	
+			ComponentAll componentAll = componentAllMap.get(component.getComponentId());
+			List<ComponentContact> componentContacts = componentAll == null ? new ArrayList<>() : componentAll.getContacts();
+
 			Contact submitter = new Contact();
 			submitter.setFirstName(OpenStorefrontConstant.NOT_AVAILABLE);
 
-			for (ComponentContact componentContact : componentAll.getContacts()) {
+			for (ComponentContact componentContact : componentContacts) {
 				Contact contact = componentContact.fullContact();
 				if (ContactType.SUBMITTER.equals(componentContact.getContactType())) {
 					submitter = contact;
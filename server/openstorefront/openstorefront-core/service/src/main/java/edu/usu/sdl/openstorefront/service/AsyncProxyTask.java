@@ -15,7 +15,18 @@
  */
 package edu.usu.sdl.openstorefront.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.util.StringProcessor;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -27,6 +38,11 @@ public class AsyncProxyTask
 		implements Callable<Object>
 {
 
+	private static final String FIELD_SERVICE = "service";
+	private static final String FIELD_METHOD = "method";
+	private static final String FIELD_PARAMETER_TYPES = "parameterTypes";
+	private static final String FIELD_ARGUMENTS = "arguments";
+
 	private Object originalObject;
 	private Object proxy;
 	private Method method;
@@ -47,4 +63,105 @@ public class AsyncProxyTask
 		return result;
 	}
 
+	/**
+	 * Writes the call (service, method and arguments) so it can be run again
+	 * after a restart
+	 *
+	 * @return call as JSON
+	 * @throws IOException when an argument can't be written
+	 */
+	public String toDeferredCall() throws IOException
+	{
+		Class<?> serviceClass = method.getDeclaringClass();
+		for (Class<?> serviceInterface : originalObject.getClass().getInterfaces()) {
+			if (serviceClass.isAssignableFrom(serviceInterface)) {
+				serviceClass = serviceInterface;
+				break;
+			}
+		}
+
+		ObjectMapper objectMapper = StringProcessor.defaultObjectMapper();
+		ObjectNode call = objectMapper.createObjectNode();
+		call.put(FIELD_SERVICE, serviceClass.getName());
+		call.put(FIELD_METHOD, method.getName());
+		ArrayNode parameterTypes = call.putArray(FIELD_PARAMETER_TYPES);
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			parameterTypes.add(parameterType.getName());
+		}
+		ArrayNode arguments = call.putArray(FIELD_ARGUMENTS);
+		if (args != null) {
+			for (Object arg : args) {
+				try {
+					arguments.add((JsonNode) objectMapper.valueToTree(arg));
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Unable to write argument of " + method.getName(), e);
+				}
+			}
+		}
+		return objectMapper.writeValueAsString(call);
+	}
+
+	/**
+	 * Rebuilds a call written by toDeferredCall against the current services
+	 *
+	 * @param deferredCall
+	 * @return task
+	 * @throws IOException when an argument can't be read
+	 */
+	public static AsyncProxyTask fromDeferredCall(String deferredCall) throws IOException
+	{
+		ObjectMapper objectMapper = StringProcessor.defaultObjectMapper();
+		JsonNode call = objectMapper.readTree(deferredCall);
+		String serviceName = call.path(FIELD_SERVICE).asText();
+		String methodName = call.path(FIELD_METHOD).asText();
+
+		List<String> parameterTypes = new ArrayList<>();
+		call.path(FIELD_PARAMETER_TYPES).forEach(node -> parameterTypes.add(node.asText()));
+
+		try {
+			Class<?> serviceClass = Class.forName(serviceName);
+			Method method = null;
+			for (Method candidate : serviceClass.getMethods()) {
+				if (candidate.getName().equals(methodName) && parameterTypes.equals(parameterTypeNames(candidate))) {
+					method = candidate;
+					break;
+				}
+			}
+			if (method == null) {
+				throw new OpenStorefrontRuntimeException("Unable to find service method: " + serviceName + "." + methodName, "The service may have changed since the task was deferred.");
+			}
+
+			Object service = null;
+			ServiceProxy serviceProxy = ServiceProxy.getProxy();
+			for (Method getter : ServiceProxy.class.getMethods()) {
+				if (getter.getParameterCount() == 0 && getter.getReturnType().equals(serviceClass)) {
+					service = getter.invoke(serviceProxy);
+					break;
+				}
+			}
+			if (service == null) {
+				throw new OpenStorefrontRuntimeException("Unable to find service: " + serviceName, "The service may have changed since the task was deferred.");
+			}
+
+			Type[] genericTypes = method.getGenericParameterTypes();
+			JsonNode arguments = call.path(FIELD_ARGUMENTS);
+			Object[] args = new Object[genericTypes.length];
+			for (int i = 0; i < genericTypes.length; i++) {
+				args[i] = objectMapper.readValue(objectMapper.treeAsTokens(arguments.path(i)), objectMapper.getTypeFactory().constructType(genericTypes[i]));
+			}
+			return new AsyncProxyTask(service, null, method, args);
+		} catch (ClassNotFoundException | IllegalAccessException | InvocationTargetException e) {
+			throw new OpenStorefrontRuntimeException("Unable to find service: " + serviceName, "The service may have changed since the task was deferred.", e);
+		}
+	}
+
+	private static List<String> parameterTypeNames(Method method)
+	{
+		List<String> names = new ArrayList<>();
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			names.add(parameterType.getName());
+		}
+		return names;
+	}
+
 }
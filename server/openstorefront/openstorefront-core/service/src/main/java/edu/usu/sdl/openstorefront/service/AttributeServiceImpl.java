@@ -16,10 +16,12 @@
 package edu.usu.sdl.openstorefront.service;
 
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
 import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
 import edu.usu.sdl.openstorefront.common.util.ReflectionUtil;
 import edu.usu.sdl.openstorefront.common.util.TimeUtil;
 import edu.usu.sdl.openstorefront.core.api.AttributeService;
+import edu.usu.sdl.openstorefront.core.api.RequestCache;
 import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
 import edu.usu.sdl.openstorefront.core.api.query.QueryType;
 import edu.usu.sdl.openstorefront.core.entity.AttributeCode;
@@ -27,7 +29,6 @@ import edu.usu.sdl.openstorefront.core.entity.AttributeCodePk;
 import edu.usu.sdl.openstorefront.core.entity.AttributeType;
 import edu.usu.sdl.openstorefront.core.entity.AttributeXRefMap;
 import edu.usu.sdl.openstorefront.core.entity.AttributeXRefType;
-import edu.usu.sdl.openstorefront.core.entity.Component;
 import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
 import edu.usu.sdl.openstorefront.core.entity.ComponentAttributePk;
 import edu.usu.sdl.openstorefront.core.entity.FileHistoryOption;
@@ -55,9 +56,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -171,11 +170,11 @@ public class AttributeServiceImpl
             componentAttribute.setComponentAttributePk(componentAttributePk);
             List<ComponentAttribute> componentAttributes = getPersistenceService().queryByExample(componentAttribute);
 
-            List<Component> components = new ArrayList<>();
+            Set<String> componentIds = new HashSet<>();
             componentAttributes.stream().forEach((attr) -> {
-                components.add(persistenceService.findById(Component.class, attr.getComponentAttributePk().getComponentId()));
+                componentIds.add(attr.getComponentAttributePk().getComponentId());
             });
-            getSearchService().indexComponents(components);
+            getSearchService().indexComponentsById(componentIds);
         }
     }
 
@@ -225,11 +224,11 @@ public class AttributeServiceImpl
 
             List<ComponentAttribute> componentAttributes = getPersistenceService().queryByExample(new QueryByExample(example));
 
-            List<Component> components = new ArrayList<>();
+            Set<String> componentIds = new HashSet<>();
             componentAttributes.stream().forEach((attr) -> {
-                components.add(persistenceService.findById(Component.class, attr.getComponentAttributePk().getComponentId()));
+                componentIds.add(attr.getComponentAttributePk().getComponentId());
             });
-            getSearchService().indexComponents(components);
+            getSearchService().indexComponentsById(componentIds);
         }
     }
 
@@ -263,7 +262,7 @@ public class AttributeServiceImpl
             existing.setAttachmentFileName(existing.getAttributeCodePk().toKey().replace("#", "-"));
 
             try (InputStream in = fileInput) {
-                Files.copy(in, existing.pathToAttachment(), StandardCopyOption.REPLACE_EXISTING);
+                FileSystemManager.getBlobStore().store(in, existing.pathToAttachment());
                 persistenceService.persist(existing);
             } catch (IOException ex) {
                 throw new OpenStorefrontRuntimeException("Unable to store attachment.", "Contact System Admin.  Check file permissions and disk space ", ex);
@@ -569,21 +568,29 @@ public class AttributeServiceImpl
         if (element != null) {
             attributeType = (AttributeType) element.getObjectValue();
         } else {
-            AttributeType attributeTypeExample = new AttributeType();
-            attributeTypeExample.setActiveStatus(AttributeType.ACTIVE_STATUS);
-            List<AttributeType> attributeTypes = persistenceService.queryByExample(new QueryByExample(attributeTypeExample));
-            for (AttributeType attributeTypeCheck : attributeTypes) {
-                if (attributeTypeCheck.getAttributeType().equals(type)) {
-                    attributeType = attributeTypeCheck;
-                }
-                element = new Element(attributeTypeCheck.getAttributeType(), attributeTypeCheck);
-                OSFCacheManager.getAttributeTypeCache().put(element);
-            }
+            //unknown types are not in the shared cache; remember the miss for the request
+            attributeType = RequestCache.get(AttributeType.class, "activeType", type, () -> loadTypes(type));
         }
 
         return attributeType;
     }
 
+    private AttributeType loadTypes(String type) {
+        AttributeType attributeType = null;
+
+        AttributeType attributeTypeExample = new AttributeType();
+        attributeTypeExample.setActiveStatus(AttributeType.ACTIVE_STATUS);
+        List<AttributeType> attributeTypes = persistenceService.queryByExample(new QueryByExample(attributeTypeExample));
+        for (AttributeType attributeTypeCheck : attributeTypes) {
+            if (attributeTypeCheck.getAttributeType().equals(type)) {
+                attributeType = attributeTypeCheck;
+            }
+            Element element = new Element(attributeTypeCheck.getAttributeType(), attributeTypeCheck);
+            OSFCacheManager.getAttributeTypeCache().put(element);
+        }
+        return attributeType;
+    }
+
     @Override
     public Architecture generateArchitecture(String attributeType) {
         Architecture architecture = new Architecture();
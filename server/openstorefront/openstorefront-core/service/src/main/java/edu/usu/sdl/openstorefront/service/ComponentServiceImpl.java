@@ -62,7 +62,9 @@ import edu.usu.sdl.openstorefront.service.component.IntegrationComponentServiceI
 import edu.usu.sdl.openstorefront.service.component.SubComponentServiceImpl;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 
@@ -310,6 +312,12 @@ public class ComponentServiceImpl
 		core.saveComponentTracking(tracking);
 	}
 
+	@Override
+	public void addComponentTracking(ComponentTracking tracking)
+	{
+		core.addComponentTracking(tracking);
+	}
+
 	@Override
 	public RequiredForComponent saveComponent(RequiredForComponent component)
 	{
@@ -466,6 +474,12 @@ public class ComponentServiceImpl
 		return core.getFullComponent(componentId);
 	}
 
+	@Override
+	public List<ComponentAll> getFullComponents(Collection<String> componentIds)
+	{
+		return core.getFullComponents(componentIds);
+	}
+
 	@Override
 	public void bulkComponentAttributeChange(BulkComponentAttributeChange bulkComponentAttributeChange)
 	{
@@ -667,6 +681,12 @@ public class ComponentServiceImpl
 		return core.getComponentSensitivity(componentId);
 	}
 
+	@Override
+	public Map<String, ComponentSensitivityModel> getComponentSensitivities(Collection<String> componentIds)
+	{
+		return core.getComponentSensitivities(componentIds);
+	}
+
 	@Override
 	public String resolveComponentIcon(String componentId)
 	{
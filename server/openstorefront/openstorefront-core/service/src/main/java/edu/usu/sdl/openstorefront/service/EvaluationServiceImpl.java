@@ -36,7 +36,7 @@ import edu.usu.sdl.openstorefront.core.filter.FilterEngine;
 import edu.usu.sdl.openstorefront.core.model.ChecklistAll;
 import edu.usu.sdl.openstorefront.core.model.ContentSectionAll;
 import edu.usu.sdl.openstorefront.core.model.EvaluationAll;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.view.ChecklistResponseView;
 import edu.usu.sdl.openstorefront.core.view.EvaluationChecklistRecommendationView;
 import java.util.ArrayList;
@@ -304,7 +304,7 @@ public class EvaluationServiceImpl
 		evaluationExample.setPublished(Boolean.TRUE);
 
 		List<Evaluation> evaluations = evaluationExample.findByExample();
-		evaluations.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_DESCENDING, Evaluation.FIELD_CREATE_DTS));
+		evaluations.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_DESCENDING, Evaluation.FIELD_CREATE_DTS));
 		for (Evaluation evaluation : evaluations) {
 			evaluationAlls.add(getEvaluation(evaluation.getEvaluationId(), true));
 		}
@@ -42,7 +42,7 @@ import edu.usu.sdl.openstorefront.core.model.ExternalFormat;
 import edu.usu.sdl.openstorefront.core.model.FileFormatCheck;
 import edu.usu.sdl.openstorefront.core.model.FileHistoryAll;
 import edu.usu.sdl.openstorefront.core.model.ImportContext;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.sort.LookupComparator;
 import edu.usu.sdl.openstorefront.core.spi.parser.AbstractParser;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.FieldDefinition;
@@ -218,6 +218,7 @@ public class ImportServiceImpl
 				parserClass = this.getClass().getClassLoader().loadClass(externalFormat.getFileFormat().getParserClass());
 			}
 			AbstractParser abstractParser = (AbstractParser) parserClass.newInstance();
+			abstractParser.setParallelism(parallelism(externalFormat.getFileFormat()));
 			abstractParser.processData(fileHistoryAll);
 
 			if (OpenStorefrontConstant.ANONYMOUS_USER.equals(fileHistory.getCreateUser()) == false) {
@@ -239,6 +240,27 @@ public class ImportServiceImpl
 		saveFileHistory(fileHistoryAll);
 	}
 
+	/**
+	 * Mapped formats can be parsed on several threads (off unless set for the
+	 * format)
+	 *
+	 * @param fileFormat
+	 * @return parser threads
+	 */
+	private int parallelism(FileFormat fileFormat)
+	{
+		if (fileFormat.getSupportsDataMap() == false) {
+			return FileFormat.PARALLELISM_SEQUENTIAL;
+		}
+		String key = MessageFormat.format(PropertiesManager.KEY_IMPORT_PARALLELISM, fileFormat.getCode());
+		Integer parallelism = Convert.toInteger(PropertiesManager.getValue(key, Integer.toString(fileFormat.getParallelism())));
+		if (parallelism == null || parallelism < 0) {
+			LOG.log(Level.WARNING, MessageFormat.format("Invalid value for {0}; parsing in order.", key));
+			return FileFormat.PARALLELISM_SEQUENTIAL;
+		}
+		return parallelism;
+	}
+
 	@Override
 	public FileHistory saveFileHistory(FileHistoryAll fileHistoryAll)
 	{
@@ -415,7 +437,7 @@ public class ImportServiceImpl
 				componentVersionHistory.setFileHistoryId(fileHistoryId);
 
 				List<ComponentVersionHistory> versionHistories = persistenceService.queryByExample(componentVersionHistory);
-				versionHistories.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, ComponentVersionHistory.FIELD_CREATE_DTS));
+				versionHistories.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, ComponentVersionHistory.FIELD_CREATE_DTS));
 
 				ComponentVersionHistory batchVersion = null;
 				ComponentVersionHistory previousVersion = null;
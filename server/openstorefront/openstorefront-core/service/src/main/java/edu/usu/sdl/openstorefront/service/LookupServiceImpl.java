@@ -20,6 +20,7 @@ import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
 import edu.usu.sdl.openstorefront.common.util.TimeUtil;
 import edu.usu.sdl.openstorefront.core.annotation.SystemTable;
 import edu.usu.sdl.openstorefront.core.api.LookupService;
+import edu.usu.sdl.openstorefront.core.api.RequestCache;
 import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
 import edu.usu.sdl.openstorefront.core.entity.LookupEntity;
 import edu.usu.sdl.openstorefront.security.SecurityUtil;
@@ -221,7 +222,8 @@ public class LookupServiceImpl
 					} else {
 						example.setCode(code);
 						example.setActiveStatus(LookupEntity.ACTIVE_STATUS);
-						lookupEntity = persistenceService.queryOneByExample(new QueryByExample(example));
+						//unknown codes aren't put in the shared cache; avoid requerying them in the same request
+						lookupEntity = RequestCache.get(lookupClass, "activeCode", code, () -> persistenceService.queryOneByExample(new QueryByExample(example)));
 					}
 					if (lookupEntity != null) {
 						lookupCacheMap.put(code, lookupEntity);
@@ -18,6 +18,7 @@ package edu.usu.sdl.openstorefront.service;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import edu.usu.sdl.openstorefront.common.exception.AttachedReferencesException;
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
 import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.common.util.StringProcessor;
 import edu.usu.sdl.openstorefront.core.api.OrganizationService;
@@ -43,9 +44,7 @@ import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -147,7 +146,7 @@ public class OrganizationServiceImpl
 		persistenceService.persist(savedOrganization);
 
 		try (InputStream in = fileInput) {
-			Files.copy(in, savedOrganization.pathToLogo(), StandardCopyOption.REPLACE_EXISTING);
+			FileSystemManager.getBlobStore().store(in, savedOrganization.pathToLogo());
 		} catch (IOException ex) {
 			throw new OpenStorefrontRuntimeException("Unable to store organization logo.", "Contact System Admin.  Check file permissions and disk space ", ex);
 		}
@@ -15,6 +15,7 @@
  */
 package edu.usu.sdl.openstorefront.service;
 
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.OCommandSQL;
@@ -25,7 +26,9 @@ import edu.usu.sdl.openstorefront.common.util.ReflectionUtil;
 import edu.usu.sdl.openstorefront.common.util.StringProcessor;
 import edu.usu.sdl.openstorefront.core.annotation.PK;
 import edu.usu.sdl.openstorefront.core.api.PersistenceService;
-import edu.usu.sdl.openstorefront.core.api.query.ComplexFieldStack;
+import edu.usu.sdl.openstorefront.core.api.RequestCache;
+import edu.usu.sdl.openstorefront.core.api.query.ExampleQueryPlan;
+import edu.usu.sdl.openstorefront.core.api.query.ExampleStatement;
 import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOption;
 import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOptionBuilder;
 import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
@@ -56,7 +59,6 @@ import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javassist.util.proxy.Proxy;
-import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -121,6 +123,8 @@ public class OrientPersistenceService
 			throw new OpenStorefrontRuntimeException("Not in a transaction", "Begin a new one.");
 		} else {
 			transaction.commit();
+			//reads made outside the transaction may have cached what it replaced
+			RequestCache.invalidateAll();
 		}
 	}
 
@@ -131,6 +135,7 @@ public class OrientPersistenceService
 			throw new OpenStorefrontRuntimeException("Not in a transaction", "Begin a new one.");
 		} else {
 			transaction.rollback();
+			RequestCache.invalidateAll();
 		}
 	}
 
@@ -229,6 +234,48 @@ public class OrientPersistenceService
 			return null;
 		}
 
+		//Inside a transaction the record may have uncommitted changes; read it directly
+		if (transaction != null || RequestCache.current() == null) {
+			return loadById(entity, id);
+		}
+
+		//Only the record id is cached so each caller gets its own instance to change
+		List<T> loaded = new ArrayList<>();
+		ORID recordId = RequestCache.get(entity, "findById", id, () -> {
+			T record = loadById(entity, id);
+			if (record == null) {
+				return null;
+			}
+			loaded.add(record);
+			return loadRecordId(record);
+		});
+		if (loaded.isEmpty() == false) {
+			return loaded.get(0);
+		}
+		if (recordId == null) {
+			return null;
+		}
+
+		OObjectDatabaseTx db = getConnection();
+		try {
+			return db.load(recordId, null, true);
+		} finally {
+			closeConnection(db);
+		}
+	}
+
+	private ORID loadRecordId(Object record)
+	{
+		OObjectDatabaseTx db = getConnection();
+		try {
+			return db.getIdentity(record);
+		} finally {
+			closeConnection(db);
+		}
+	}
+
+	private <T> T loadById(Class<T> entity, Object id)
+	{
 		OObjectDatabaseTx db = getConnection();
 		T returnEntity = null;
 		try {
@@ -359,18 +406,18 @@ public class OrientPersistenceService
 		queryString.append("delete from ").append(queryByExample.getExample().getClass().getSimpleName());
 
 		Map<String, Object> mappedParams = new HashMap<>();
-		String whereClause = generateWhereClause(queryByExample.getExample(), new ComplexFieldStack(), queryByExample.getExampleOption(), queryByExample.getFieldOptions());
-		if (StringUtils.isNotBlank(whereClause)) {
-			queryString.append(" where ").append(whereClause);
-			mappedParams.putAll(mapParameters(queryByExample.getExample(), new ComplexFieldStack(PARAM_NAME_SEPARATOR), queryByExample.getExampleOption(), queryByExample.getFieldOptions()));
+		ExampleStatement whereStatement = ExampleQueryPlan.whereClause(queryByExample.getExample(), queryByExample.getExampleOption(), queryByExample.getFieldOptions());
+		if (StringUtils.isNotBlank(whereStatement.getClause())) {
+			queryString.append(" where ").append(whereStatement.getClause());
+			mappedParams.putAll(whereStatement.getParameters());
 		}
 
 		queryByExample.getExtraWhereCauses().forEach(item -> {
 			SpecialOperatorModel special = (SpecialOperatorModel) item;
-			String extraWhere = generateWhereClause(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions());
-			if (StringUtils.isNotBlank(extraWhere)) {
-				appendToWhere(queryString, extraWhere);
-				mappedParams.putAll(mapParameters(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions()));
+			ExampleStatement extraStatement = ExampleQueryPlan.whereClause(special.getExample(), special.getGenerateStatementOption(), queryByExample.getFieldOptions());
+			if (StringUtils.isNotBlank(extraStatement.getClause())) {
+				appendToWhere(queryString, extraStatement.getClause());
+				mappedParams.putAll(extraStatement.getParameters());
 			}
 		});
 
@@ -382,6 +429,7 @@ public class OrientPersistenceService
 		try {
 			deleteCount = db.command(new OCommandSQL(queryString.toString())).execute(mappedParams);
 		} finally {
+			RequestCache.invalidate(queryByExample.getExample().getClass());
 			closeConnection(db);
 		}
 
@@ -402,6 +450,7 @@ public class OrientPersistenceService
 		try {
 			deleteCount = db.command(new OCommandSQL(queryString.toString())).execute(queryParams);
 		} finally {
+			RequestCache.invalidate(entityClass);
 			closeConnection(db);
 		}
 
@@ -418,26 +467,27 @@ public class OrientPersistenceService
 		GenerateStatementOption generateStatementOption = new GenerateStatementOptionBuilder().build();
 		generateStatementOption.setCondition(GenerateStatementOption.CONDITION_COMMA);
 		generateStatementOption.setParameterSuffix(GenerateStatementOption.PARAMETER_SUFFIX_SET);
-		String setQuery = generateWhereClause(exampleSet, new ComplexFieldStack(), generateStatementOption, new HashMap<>());
-		if (StringUtils.isNotBlank(setQuery)) {
-			queryString.append(" set ").append(setQuery);
+		ExampleStatement setStatement = ExampleQueryPlan.whereClause(exampleSet, generateStatementOption, null);
+		if (StringUtils.isNotBlank(setStatement.getClause())) {
+			queryString.append(" set ").append(setStatement.getClause());
 		} else {
 			throw new OpenStorefrontRuntimeException("Update query requires a SET clause.", "Make sure to set the example set");
 		}
 
-		String whereClause = generateWhereClause(exampleWhere);
-		if (StringUtils.isNotBlank(whereClause)) {
-			queryString.append(" where ").append(generateWhereClause(exampleWhere));
+		ExampleStatement whereStatement = ExampleQueryPlan.whereClause(exampleWhere);
+		if (StringUtils.isNotBlank(whereStatement.getClause())) {
+			queryString.append(" where ").append(whereStatement.getClause());
 		}
 
 		Map<String, Object> queryParams = new HashMap<>();
-		queryParams.putAll(mapParameters(exampleSet, new ComplexFieldStack(), generateStatementOption, new HashMap<>()));
-		queryParams.putAll(mapParameters(exampleWhere));
+		queryParams.putAll(setStatement.getParameters());
+		queryParams.putAll(whereStatement.getParameters());
 
 		OObjectDatabaseTx db = getConnection();
 		try {
 			updateCount = db.command(new OCommandSQL(queryString.toString())).execute(queryParams);
 		} finally {
+			RequestCache.invalidate(entityClass);
 			closeConnection(db);
 		}
 		return updateCount;
@@ -451,6 +501,8 @@ public class OrientPersistenceService
 		try {
 			updateCount = db.command(new OCommandSQL(query)).execute(queryParams);
 		} finally {
+			//Can't tell what the command touched
+			RequestCache.invalidateAll();
 			closeConnection(db);
 		}
 		return updateCount;
@@ -485,18 +537,18 @@ public class OrientPersistenceService
 		queryString.append("from ").append(queryByExample.getExample().getClass().getSimpleName());
 
 		Map<String, Object> mappedParams = new HashMap<>();
-		String whereClause = generateWhereClause(queryByExample.getExample(), new ComplexFieldStack(), queryByExample.getExampleOption(), queryByExample.getFieldOptions());
-		if (StringUtils.isNotBlank(whereClause)) {
-			queryString.append(" where ").append(whereClause);
-			mappedParams.putAll(mapParameters(queryByExample.getExample(), new ComplexFieldStack(PARAM_NAME_SEPARATOR), queryByExample.getExampleOption(), queryByExample.getFieldOptions()));
+		ExampleStatement whereStatement = ExampleQueryPlan.whereClause(queryByExample.getExample(), queryByExample.getExampleOption(), queryByExample.getFieldOptions());
+		if (StringUtils.isNotBlank(whereStatement.getClause())) {
+			queryString.append(" where ").append(whereStatement.getClause());
+			mappedParams.putAll(whereStatement.getParameters());
 		}
 
 		queryByExample.getExtraWhereCauses().forEach(item -> {
 			SpecialOperatorModel special = (SpecialOperatorModel) item;
-			String extraWhere = generateWhereClause(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions());
-			if (StringUtils.isNotBlank(extraWhere)) {
-				appendToWhere(queryString, extraWhere);
-				mappedParams.putAll(mapParameters(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions()));
+			ExampleStatement extraStatement = ExampleQueryPlan.whereClause(special.getExample(), special.getGenerateStatementOption(), queryByExample.getFieldOptions());
+			if (StringUtils.isNotBlank(extraStatement.getClause())) {
+				appendToWhere(queryString, extraStatement.getClause());
+				mappedParams.putAll(extraStatement.getParameters());
 			}
 		});
 
@@ -523,6 +575,7 @@ public class OrientPersistenceService
 		try {
 			documents = db.command(new OCommandSQL(query)).execute(params);
 		} finally {
+			RequestCache.invalidateAll();
 			closeConnection(db);
 		}
 		return documents;
@@ -557,24 +610,24 @@ public class OrientPersistenceService
 		queryString.append(" from ").append(queryByExample.getExample().getClass().getSimpleName());
 
 		Map<String, Object> mappedParams = new HashMap<>();
-		String whereClause = generateWhereClause(queryByExample.getExample(), new ComplexFieldStack(), queryByExample.getExampleOption(), queryByExample.getFieldOptions());
-		if (StringUtils.isNotBlank(whereClause)) {
-			queryString.append(" where ").append(whereClause);
-			mappedParams.putAll(mapParameters(queryByExample.getExample(), new ComplexFieldStack(PARAM_NAME_SEPARATOR), queryByExample.getExampleOption(), queryByExample.getFieldOptions()));
+		ExampleStatement whereStatement = ExampleQueryPlan.whereClause(queryByExample.getExample(), queryByExample.getExampleOption(), queryByExample.getFieldOptions());
+		if (StringUtils.isNotBlank(whereStatement.getClause())) {
+			queryString.append(" where ").append(whereStatement.getClause());
+			mappedParams.putAll(whereStatement.getParameters());
 		}
 		if (queryByExample.getLikeExample() != null) {
-			String likeClause = generateWhereClause(queryByExample.getLikeExample(), new ComplexFieldStack(), queryByExample.getLikeExampleOption(), queryByExample.getFieldOptions());
-			if (StringUtils.isNotBlank(likeClause)) {
-				appendToWhere(queryString, likeClause);
-				mappedParams.putAll(mapParameters(queryByExample.getLikeExample(), new ComplexFieldStack(PARAM_NAME_SEPARATOR), queryByExample.getLikeExampleOption(), queryByExample.getFieldOptions()));
+			ExampleStatement likeStatement = ExampleQueryPlan.whereClause(queryByExample.getLikeExample(), queryByExample.getLikeExampleOption(), queryByExample.getFieldOptions());
+			if (StringUtils.isNotBlank(likeStatement.getClause())) {
+				appendToWhere(queryString, likeStatement.getClause());
+				mappedParams.putAll(likeStatement.getParameters());
 			}
 		}
 		queryByExample.getExtraWhereCauses().forEach(item -> {
 			SpecialOperatorModel special = (SpecialOperatorModel) item;
-			String extraWhere = generateWhereClause(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions());
-			if (StringUtils.isNotBlank(extraWhere)) {
-				appendToWhere(queryString, extraWhere);
-				mappedParams.putAll(mapParameters(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions()));
+			ExampleStatement extraStatement = ExampleQueryPlan.whereClause(special.getExample(), special.getGenerateStatementOption(), queryByExample.getFieldOptions());
+			if (StringUtils.isNotBlank(extraStatement.getClause())) {
+				appendToWhere(queryString, extraStatement.getClause());
+				mappedParams.putAll(extraStatement.getParameters());
 			}
 		});
 
@@ -583,13 +636,13 @@ public class OrientPersistenceService
 		}
 
 		if (queryByExample.getGroupBy() != null) {
-			String names = generateExampleNames(queryByExample.getGroupBy());
+			String names = ExampleQueryPlan.exampleNames(queryByExample.getGroupBy());
 			if (StringUtils.isNotBlank(names)) {
 				queryString.append(" group by ").append(names);
 			}
 		}
 		if (queryByExample.getOrderBy() != null) {
-			String names = generateExampleNames(queryByExample.getOrderBy());
+			String names = ExampleQueryPlan.exampleNames(queryByExample.getOrderBy());
 			if (StringUtils.isNotBlank(names)) {
 				queryString.append(" order by ").append(names).append(" ").append(queryByExample.getSortDirection());
 			}
@@ -621,166 +674,6 @@ public class OrientPersistenceService
 		queryString.append(conditionClause);
 	}
 
-	private <T> String generateWhereClause(T example)
-	{
-		return generateWhereClause(example, new ComplexFieldStack(), new GenerateStatementOptionBuilder().build(), new HashMap<>());
-	}
-
-	private <T> String generateWhereClause(T example, ComplexFieldStack complexFieldStack, GenerateStatementOption generateStatementOption, Map<String, GenerateStatementOption> fieldOptions)
-	{
-		StringBuilder where = new StringBuilder();
-
-		try {
-			Map fieldMap = BeanUtils.describe(example);
-			boolean addAnd = false;
-			for (Object field : fieldMap.keySet()) {
-
-				if ("class".equalsIgnoreCase(field.toString()) == false) {
-					Object value = fieldMap.get(field);
-					if (value != null) {
-						GenerateStatementOption fieldOperation = generateStatementOption;
-						if (fieldOptions != null && fieldOptions.containsKey(field.toString())) {
-							fieldOperation = fieldOptions.get(field.toString());
-						}
-
-						Method method = example.getClass().getMethod("get" + StringUtils.capitalize(field.toString()), (Class<?>[]) null);
-						Object returnObj = method.invoke(example, (Object[]) null);
-						if (ReflectionUtil.isComplexClass(returnObj.getClass())) {
-							complexFieldStack.getFieldStack().push(field.toString());
-							if (addAnd) {
-								where.append(fieldOperation.getCondition());
-							} else {
-								addAnd = true;
-								where.append(" ");
-							}
-
-							where.append(generateWhereClause(returnObj, complexFieldStack, generateStatementOption, fieldOptions));
-							complexFieldStack.getFieldStack().pop();
-						} else {
-
-							if (addAnd) {
-								where.append(fieldOperation.getCondition());
-							} else {
-								addAnd = true;
-								where.append(" ");
-							}
-
-							String fieldName = complexFieldStack.getQueryFieldName() + field.toString() + fieldOperation.getMethod();
-							String fieldParamName = complexFieldStack.getQueryFieldName() + field.toString();
-							where.append(fieldName)
-									.append(" ").append(fieldOperation.getOperation());
-
-							boolean addParameter = true;
-							if (GenerateStatementOption.OPERATION_NULL.equals(fieldOperation.getOperation())
-									|| GenerateStatementOption.OPERATION_NOT_NULL.equals(fieldOperation.getOperation())) {
-								addParameter = false;
-							}
-
-							if (addParameter) {
-								where.append(" :")
-										.append(fieldParamName.replace(".", PARAM_NAME_SEPARATOR))
-										.append(fieldOperation.getParameterSuffix());
-							}
-						}
-					}
-				}
-			}
-		} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
-			throw new OpenStorefrontRuntimeException(ex);
-		}
-		return where.toString();
-	}
-
-	private <T> String generateExampleNames(T example)
-	{
-		return generateExampleNames(example, new ComplexFieldStack());
-	}
-
-	private <T> String generateExampleNames(T example, ComplexFieldStack complexFieldStack)
-	{
-		StringBuilder where = new StringBuilder();
-
-		try {
-			Map fieldMap = BeanUtils.describe(example);
-			boolean addAnd = false;
-			for (Object field : fieldMap.keySet()) {
-
-				if ("class".equalsIgnoreCase(field.toString()) == false) {
-					Object value = fieldMap.get(field);
-					if (value != null) {
-
-						Method method = example.getClass().getMethod("get" + StringUtils.capitalize(field.toString()), (Class<?>[]) null);
-						Object returnObj = method.invoke(example, (Object[]) null);
-						if (ReflectionUtil.isComplexClass(returnObj.getClass())) {
-							complexFieldStack.getFieldStack().push(field.toString());
-							if (addAnd) {
-								where.append(",");
-							} else {
-								addAnd = true;
-								where.append(" ");
-							}
-
-							where.append(generateExampleNames(returnObj, complexFieldStack));
-							complexFieldStack.getFieldStack().pop();
-						} else {
-							if (addAnd) {
-								where.append(",");
-							} else {
-								addAnd = true;
-								where.append(" ");
-							}
-							String fieldName = complexFieldStack.getQueryFieldName() + field.toString();
-
-							where.append(fieldName);
-						}
-					}
-				}
-			}
-		} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
-			throw new OpenStorefrontRuntimeException(ex);
-		}
-		return where.toString();
-	}
-
-	private <T> Map<String, Object> mapParameters(T example)
-	{
-		return mapParameters(example, new ComplexFieldStack(PARAM_NAME_SEPARATOR), new GenerateStatementOptionBuilder().build(), new HashMap<>());
-	}
-
-	private <T> Map<String, Object> mapParameters(T example, ComplexFieldStack complexFieldStack, GenerateStatementOption generateStatementOption, Map<String, GenerateStatementOption> fieldOptions)
-	{
-		Map<String, Object> parameterMap = new HashMap<>();
-		try {
-			List<Field> fields = ReflectionUtil.getAllFields(example.getClass());
-			for (Field field : fields) {
-
-				if ("class".equalsIgnoreCase(field.getName()) == false) {
-					field.setAccessible(true);
-					//Note: this may not work for proxy object....they may need to be call through a get method
-					Object value = field.get(example);
-					if (value != null) {
-						GenerateStatementOption fieldOperation = generateStatementOption;
-						if (fieldOptions != null && fieldOptions.containsKey(field.toString())) {
-							fieldOperation = fieldOptions.get(field.toString());
-						}
-
-						if (ReflectionUtil.isComplexClass(value.getClass())) {
-							complexFieldStack.getFieldStack().push(field.getName());
-							parameterMap.putAll(mapParameters(value, complexFieldStack, generateStatementOption, fieldOptions));
-							complexFieldStack.getFieldStack().pop();
-						} else {
-							String fieldName = complexFieldStack.getQueryFieldName() + field.getName();
-							parameterMap.put(fieldName + fieldOperation.getParameterSuffix(), value);
-						}
-					}
-				}
-			}
-		} catch (IllegalAccessException ex) {
-			throw new RuntimeException(ex);
-		}
-		return parameterMap;
-	}
-
 	/**
 	 * This just returns one result. Typically the query results in only one
 	 * entity.
@@ -885,6 +778,7 @@ public class OrientPersistenceService
 		} catch (Exception e) {
 			throw new OpenStorefrontRuntimeException("Unable to save record. (See stacktrace cause) \n Field Values: \n" + StringProcessor.printObject(entity), e);
 		} finally {
+			RequestCache.invalidate(entity.getClass());
 			closeConnection(db);
 		}
 
@@ -924,6 +818,7 @@ public class OrientPersistenceService
 		} catch (Exception e) {
 			throw new OpenStorefrontRuntimeException("Unable to save record: " + StringProcessor.printObject(entity), e);
 		} finally {
+			RequestCache.invalidate(entity.getClass());
 			closeConnection(db);
 		}
 		return t;
@@ -936,6 +831,7 @@ public class OrientPersistenceService
 		try {
 			if (entity != null) {
 				db.delete(entity);
+				RequestCache.invalidate(entity.getClass());
 			}
 		} finally {
 			closeConnection(db);
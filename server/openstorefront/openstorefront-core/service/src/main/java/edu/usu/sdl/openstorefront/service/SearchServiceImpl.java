@@ -32,11 +32,9 @@ import edu.usu.sdl.openstorefront.core.model.search.AdvanceSearchResult;
 import edu.usu.sdl.openstorefront.core.model.search.ResultTypeStat;
 import edu.usu.sdl.openstorefront.core.model.search.SearchElement;
 import edu.usu.sdl.openstorefront.core.model.search.SearchModel;
-import edu.usu.sdl.openstorefront.core.model.search.SearchOperation;
-import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.MergeCondition;
 import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.SearchType;
 import edu.usu.sdl.openstorefront.core.model.search.SearchSuggestion;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchWrapper;
@@ -44,6 +42,7 @@ import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.core.view.SearchQuery;
 import edu.usu.sdl.openstorefront.service.api.SearchServicePrivate;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
+import edu.usu.sdl.openstorefront.service.manager.ReindexManager;
 import edu.usu.sdl.openstorefront.service.manager.SearchServerManager;
 import edu.usu.sdl.openstorefront.service.search.ArchitectureSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.AttributeSearchHandler;
@@ -58,11 +57,13 @@ import edu.usu.sdl.openstorefront.service.search.MetaDataSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.QuestionResponseSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.QuestionSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.ReviewProConSeatchHandler;
+import edu.usu.sdl.openstorefront.service.search.SearchHandlerRunner;
 import edu.usu.sdl.openstorefront.service.search.ReviewSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.TagSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.UserRatingSearchHandler;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -71,6 +72,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import net.sf.ehcache.Element;
 import org.apache.commons.lang3.StringUtils;
 import org.jsoup.helper.StringUtil;
@@ -111,11 +113,41 @@ public class SearchServiceImpl
 	public void indexComponents(List<Component> components)
 	{
 		if (!components.isEmpty()) {
-			SearchServerManager.getSearchServer().index(components);
-			OSFCacheManager.getSearchCache().removeAll();
+			List<String> componentIds = components.stream()
+					.filter(Objects::nonNull)
+					.map(Component::getComponentId)
+					.collect(Collectors.toList());
+			if (ReindexManager.submit(componentIds) == false) {
+				SearchServerManager.getSearchServer().index(components);
+				OSFCacheManager.getSearchCache().removeAll();
+			}
+		}
+	}
+
+	@Override
+	public void indexComponentsById(Collection<String> componentIds)
+	{
+		if (!componentIds.isEmpty() && ReindexManager.submit(componentIds) == false) {
+			List<Component> components = new ArrayList<>();
+			for (String componentId : new HashSet<>(componentIds)) {
+				Component component = persistenceService.findById(Component.class, componentId);
+				if (component != null) {
+					components.add(component);
+				}
+			}
+			if (!components.isEmpty()) {
+				SearchServerManager.getSearchServer().index(components);
+				OSFCacheManager.getSearchCache().removeAll();
+			}
 		}
 	}
 
+	@Override
+	public boolean flushIndexQueue(long timeoutMillis)
+	{
+		return ReindexManager.flushAndWait(timeoutMillis);
+	}
+
 	@Override
 	public List<ComponentSearchView> architectureSearch(AttributeCodePk pk, FilterQueryParams filter)
 	{
@@ -181,6 +213,7 @@ public class SearchServiceImpl
 	@Override
 	public void deleteById(String id)
 	{
+		ReindexManager.remove(id);
 		SearchServerManager.getSearchServer().deleteById(id);
 		OSFCacheManager.getSearchCache().removeAll();
 	}
@@ -296,16 +329,7 @@ public class SearchServiceImpl
 
 		if (validationResultMain.valid()) {
 			//process groups and aggergate
-			List<String> componentIds = new ArrayList<>();
-			MergeCondition mergeCondition = SearchOperation.MergeCondition.OR;
-			for (BaseSearchHandler handler : handlers) {
-				List<String> foundIds = handler.processSearch();
-
-				componentIds = mergeCondition.apply(componentIds, foundIds);
-
-				//merge
-				mergeCondition = handler.getNextMergeCondition();
-			}
+			List<String> componentIds = new SearchHandlerRunner(handlers).run(SearchServerManager.getHandlerExecutor());
 			Set<String> masterResults = new HashSet<>();
 			masterResults.addAll(componentIds);
 
@@ -369,7 +393,7 @@ public class SearchServiceImpl
 
 				//then sort/window
 				if (StringUtils.isNotBlank(searchModel.getSortField())) {
-					Collections.sort(intermediateViews, new BeanComparator<>(searchModel.getSortDirection(), searchModel.getSortField()));
+					Collections.sort(intermediateViews, ComparatorFactory.build(searchModel.getSortDirection(), searchModel.getSortField()));
 				}
 
 				List<String> idsToResolve = new ArrayList<>();
@@ -394,7 +418,7 @@ public class SearchServiceImpl
 				}
 
 				if (StringUtils.isNotBlank(searchModel.getSortField())) {
-					Collections.sort(views, new BeanComparator<>(searchModel.getSortDirection(), searchModel.getSortField()));
+					Collections.sort(views, ComparatorFactory.build(searchModel.getSortDirection(), searchModel.getSortField()));
 				}
 
 				//trim descriptions to max length
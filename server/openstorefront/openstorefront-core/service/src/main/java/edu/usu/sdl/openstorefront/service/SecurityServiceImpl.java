@@ -35,6 +35,7 @@ import edu.usu.sdl.openstorefront.core.entity.UserRegistration;
 import edu.usu.sdl.openstorefront.core.entity.UserRole;
 import edu.usu.sdl.openstorefront.core.entity.UserSecurity;
 import edu.usu.sdl.openstorefront.core.entity.UserTypeCode;
+import edu.usu.sdl.openstorefront.core.filter.DataRestrictionPredicate;
 import edu.usu.sdl.openstorefront.core.model.AlertContext;
 import edu.usu.sdl.openstorefront.core.view.UserFilterParams;
 import edu.usu.sdl.openstorefront.core.view.UserSecurityView;
@@ -492,6 +493,7 @@ public class SecurityServiceImpl
 			securityRole = persistenceService.persist(securityRole);
 		}
 		securityRole = persistenceService.unwrapProxyObject(securityRole);
+		DataRestrictionPredicate.roleDataChanged();
 		LOG.log(Level.INFO, MessageFormat.format("Security Role {0} was created/updated by: {1}", securityRole.getRoleName(), SecurityUtil.getCurrentUserName()));
 		return securityRole;
 	}
@@ -582,6 +584,7 @@ public class SecurityServiceImpl
 			LOG.log(Level.FINE, MessageFormat.format("{0} evaluation(s) were unassigned from  group {1}", new Object[]{updatedCount, securityRole.getRoleName()}));
 
 			persistenceService.delete(securityRole);
+			DataRestrictionPredicate.roleDataChanged();
 
 			LOG.log(Level.INFO, MessageFormat.format("Role {0} was deleted by {2}. "
 					+ (StringUtils.isNotBlank(moveUserToRole) ? " users were move to: "
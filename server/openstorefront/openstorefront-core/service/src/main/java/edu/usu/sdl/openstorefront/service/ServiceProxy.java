@@ -130,6 +130,12 @@ public class ServiceProxy
 		return new OrientPersistenceService();
 	}
 
+	@Override
+	public Service getNewServiceProxy()
+	{
+		return new ServiceProxy(modificationType);
+	}
+
 	@Override
 	public LookupService getLookupService()
 	{
@@ -16,6 +16,7 @@
 package edu.usu.sdl.openstorefront.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.orientechnologies.orient.core.record.impl.ODocument;
 import edu.usu.sdl.core.CoreSystem;
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
 import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
@@ -45,6 +46,7 @@ import edu.usu.sdl.openstorefront.security.SecurityUtil;
 import edu.usu.sdl.openstorefront.security.UserContext;
 import edu.usu.sdl.openstorefront.service.manager.DBLogManager;
 import edu.usu.sdl.openstorefront.service.manager.JobManager;
+import edu.usu.sdl.openstorefront.service.manager.MediaDerivativeManager;
 import edu.usu.sdl.openstorefront.service.manager.PluginManager;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
@@ -71,6 +73,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Level;
@@ -401,7 +404,8 @@ public class SystemServiceImpl
 
 		generalMedia.setFileName(generalMedia.getName());
 		try (InputStream in = fileInput) {
-			Files.copy(in, generalMedia.pathToMedia(), StandardCopyOption.REPLACE_EXISTING);
+			FileSystemManager.getBlobStore().store(in, generalMedia.pathToMedia());
+			MediaDerivativeManager.invalidate(MediaDerivativeManager.generalMediaKey(generalMedia.getName()));
 			generalMedia.populateBaseCreateFields();
 			persistenceService.persist(generalMedia);
 			return generalMedia;
@@ -415,6 +419,7 @@ public class SystemServiceImpl
 	{
 		GeneralMedia generalMedia = persistenceService.findById(GeneralMedia.class, mediaName);
 		if (generalMedia != null) {
+			MediaDerivativeManager.invalidate(MediaDerivativeManager.generalMediaKey(generalMedia.getName()));
 			Path path = generalMedia.pathToMedia();
 			if (path != null) {
 				if (path.toFile().exists()) {
@@ -581,6 +586,14 @@ public class SystemServiceImpl
 		persistenceService.saveNonBaseEntity(logRecord);
 	}
 
+	@Override
+	public void addLogRecords(List<DBLogRecord> logRecords)
+	{
+		for (DBLogRecord logRecord : logRecords) {
+			addLogRecord(logRecord);
+		}
+	}
+
 	@Override
 	public void cleanUpOldLogRecords()
 	{
@@ -597,12 +610,15 @@ public class SystemServiceImpl
 			if (limit < 0) {
 				limit = 1;
 			}
-			String query = "SELECT FROM DBLogRecord ORDER BY eventDts ASC LIMIT " + limit;
-			List<DBLogRecord> logRecords = persistenceService.query(query, null);
-			logRecords.stream().forEach((record)
-					-> {
-				persistenceService.delete(record);
-			});
+			//find the newest record to remove and delete up to it in one command
+			String query = "SELECT eventDts FROM DBLogRecord ORDER BY eventDts ASC SKIP " + (limit - 1) + " LIMIT 1";
+			List<ODocument> cutoffRecords = persistenceService.query(query, null);
+			if (cutoffRecords.isEmpty() == false) {
+				Map<String, Object> params = new HashMap<>();
+				params.put("cutoffParam", cutoffRecords.get(0).field("eventDts"));
+				int recordsRemoved = persistenceService.deleteByQuery(DBLogRecord.class, "eventDts <= :cutoffParam", params);
+				LOG.log(Level.FINE, MessageFormat.format("Log records removed: {0}", recordsRemoved));
+			}
 		}
 	}
 
@@ -21,7 +21,6 @@ import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
 import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.common.util.NetworkUtil;
 import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
-import edu.usu.sdl.openstorefront.common.util.ReflectionUtil;
 import edu.usu.sdl.openstorefront.common.util.StringProcessor;
 import edu.usu.sdl.openstorefront.common.util.TimeUtil;
 import edu.usu.sdl.openstorefront.core.api.ExternalUserManager;
@@ -52,7 +51,7 @@ import edu.usu.sdl.openstorefront.core.entity.UserWatch;
 import edu.usu.sdl.openstorefront.core.filter.FilterEngine;
 import edu.usu.sdl.openstorefront.core.model.AdminMessage;
 import edu.usu.sdl.openstorefront.core.model.Dashboard;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.util.EntityUtil;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.core.view.UserTrackingResult;
@@ -61,6 +60,7 @@ import edu.usu.sdl.openstorefront.security.UserContext;
 import edu.usu.sdl.openstorefront.security.UserRecord;
 import edu.usu.sdl.openstorefront.service.api.UserServicePrivate;
 import edu.usu.sdl.openstorefront.service.manager.MailManager;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
 import edu.usu.sdl.openstorefront.service.manager.UserAgentManager;
 import edu.usu.sdl.openstorefront.service.message.ApprovalMessageGenerator;
 import edu.usu.sdl.openstorefront.service.message.BaseMessageGenerator;
@@ -69,6 +69,7 @@ import edu.usu.sdl.openstorefront.service.message.ChangeRequestMessageGenerator;
 import edu.usu.sdl.openstorefront.service.message.ComponentSubmissionMessageGenerator;
 import edu.usu.sdl.openstorefront.service.message.ComponentWatchMessageGenerator;
 import edu.usu.sdl.openstorefront.service.message.MessageContext;
+import edu.usu.sdl.openstorefront.service.message.MessageTemplate;
 import edu.usu.sdl.openstorefront.service.message.RecentChangeMessage;
 import edu.usu.sdl.openstorefront.service.message.RecentChangeMessageGenerator;
 import edu.usu.sdl.openstorefront.service.message.SystemErrorAlertMessageGenerator;
@@ -77,8 +78,6 @@ import edu.usu.sdl.openstorefront.service.message.UserDataAlertMessageGenerator;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.validation.ValidationUtil;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.text.MessageFormat;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -97,7 +96,6 @@ import java.util.logging.Logger;
 import javax.mail.Message;
 import javax.servlet.http.HttpServletRequest;
 import net.sf.uadetector.ReadableUserAgent;
-import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.shiro.SecurityUtils;
 import org.codemonkey.simplejavamail.MailException;
@@ -316,7 +314,10 @@ public class UserServiceImpl
 	@Override
 	public UserTracking saveUserTracking(UserTracking tracking)
 	{
-		UserTracking oldTracking = persistenceService.findById(UserTracking.class, tracking.getTrackingId());
+		UserTracking oldTracking = null;
+		if (tracking.getTrackingId() != null) {
+			oldTracking = persistenceService.findById(UserTracking.class, tracking.getTrackingId());
+		}
 		if (oldTracking != null) {
 			oldTracking.setActiveStatus(tracking.getActiveStatus());
 			oldTracking.setBrowser(tracking.getBrowser());
@@ -339,7 +340,10 @@ public class UserServiceImpl
 		tracking.setCreateDts(TimeUtil.currentDate());
 		tracking.setUpdateDts(TimeUtil.currentDate());
 		tracking.setTrackingId(persistenceService.generateId());
-		return persistenceService.persist(tracking);
+
+		//new events are written in the background
+		TrackingManager.submit(tracking);
+		return tracking;
 	}
 
 	@Override
@@ -835,30 +839,25 @@ public class UserServiceImpl
 			}
 		}
 
-		if (StringUtils.isNotBlank(emailAddress)) {
-			MessageContext messageContext = new MessageContext(null);
-			messageContext.setRecentChangeMessage(recentChangeMessage);
-
-			RecentChangeMessageGenerator messageGenerator = new RecentChangeMessageGenerator(messageContext);
-			Email email = messageGenerator.generateMessage();
-			if (email != null) {
-				email.addRecipient("", emailAddress, Message.RecipientType.TO);
-				MailManager.send(email);
-			}
+		//Same content for everyone; render it once
+		MessageContext messageContext = new MessageContext(null);
+		messageContext.setRecentChangeMessage(recentChangeMessage);
+		MessageTemplate messageTemplate = new RecentChangeMessageGenerator(messageContext).generateTemplate();
+		if (messageTemplate == null) {
+			return;
+		}
 
+		if (StringUtils.isNotBlank(emailAddress)) {
+			MailManager.send(messageTemplate.createEmail(emailAddress));
 		} else {
+			int emailCount = 0;
 			for (UserProfile userProfile : userProfiles) {
 				if (StringUtils.isNotBlank(userProfile.getEmail())) {
-					MessageContext messageContext = new MessageContext(userProfile);
-					messageContext.setRecentChangeMessage(recentChangeMessage);
-
-					RecentChangeMessageGenerator messageGenerator = new RecentChangeMessageGenerator(messageContext);
-					Email email = messageGenerator.generateMessage();
-					if (email != null) {
-						MailManager.send(email);
-					}
+					MailManager.send(messageTemplate.createEmail(userProfile));
+					emailCount++;
 				}
 			}
+			LOG.log(Level.FINE, MessageFormat.format("(Recent Changes) {0} email(s) sent", emailCount));
 		}
 
 	}
@@ -940,20 +939,9 @@ public class UserServiceImpl
 		specialOperatorModel.getGenerateStatementOption().setMethod(GenerateStatementOption.METHOD_LOWER_CASE);
 		queryByExample.getExtraWhereCauses().add(specialOperatorModel);
 
-		queryByExample.setMaxResults(filter.getMax());
-		queryByExample.setFirstResult(filter.getOffset());
-		queryByExample.setSortDirection(filter.getSortOrder());
-
-		UserTracking userTrackingOrderExample = new UserTracking();
-		Field sortField = ReflectionUtil.getField(userTrackingOrderExample, filter.getSortField());
-		if (sortField != null) {
-			try {
-				BeanUtils.setProperty(userTrackingOrderExample, sortField.getName(), QueryByExample.getFlagForType(sortField.getType()));
-			} catch (IllegalAccessException | InvocationTargetException ex) {
-				LOG.log(Level.WARNING, "Unable set sort field", ex);
-			}
-			queryByExample.setOrderBy(userTrackingOrderExample);
-		}
+		//unknown sort fields are ignored
+		filter.applySort(queryByExample);
+		filter.applyWindow(queryByExample);
 
 		result.setResult(persistenceService.queryByExample(queryByExample));
 		queryByExample.setQueryType(QueryType.COUNT);
@@ -1073,7 +1061,7 @@ public class UserServiceImpl
 			DashboardWidget widget = new DashboardWidget();
 			widget.setDashboardId(userDashboard.getDashboardId());
 			dashboard.setWidgets(widget.findByExample());
-			dashboard.getWidgets().sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, DashboardWidget.FIELD_WIDGET_ORDER));
+			dashboard.getWidgets().sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, DashboardWidget.FIELD_WIDGET_ORDER));
 		}
 		dashboard.setDashboard(userDashboard);
 
@@ -27,6 +27,7 @@ import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
 import edu.usu.sdl.openstorefront.common.util.ReflectionUtil;
 import edu.usu.sdl.openstorefront.common.util.StringProcessor;
 import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.api.RequestCache;
 import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOption;
 import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOptionBuilder;
 import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
@@ -67,7 +68,6 @@ import edu.usu.sdl.openstorefront.core.entity.FileHistoryOption;
 import edu.usu.sdl.openstorefront.core.entity.ModificationType;
 import edu.usu.sdl.openstorefront.core.entity.TemplateBlock;
 import edu.usu.sdl.openstorefront.core.entity.TemporaryMedia;
-import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
 import edu.usu.sdl.openstorefront.core.entity.UserMessage;
 import edu.usu.sdl.openstorefront.core.entity.UserMessageType;
 import edu.usu.sdl.openstorefront.core.entity.UserWatch;
@@ -81,7 +81,7 @@ import edu.usu.sdl.openstorefront.core.model.EvaluationAll;
 import edu.usu.sdl.openstorefront.core.model.IntegrationAll;
 import edu.usu.sdl.openstorefront.core.model.QuestionAll;
 import edu.usu.sdl.openstorefront.core.model.ReviewAll;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.sort.SortUtil;
 import edu.usu.sdl.openstorefront.core.util.EntityUtil;
 import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
@@ -113,8 +113,10 @@ import edu.usu.sdl.openstorefront.core.view.statistic.ComponentRecordStatistic;
 import edu.usu.sdl.openstorefront.security.SecurityUtil;
 import edu.usu.sdl.openstorefront.service.ComponentServiceImpl;
 import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.manager.ComponentStatisticManager;
 import edu.usu.sdl.openstorefront.service.manager.DBManager;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.validation.ValidationUtil;
@@ -126,13 +128,15 @@ import java.io.Writer;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -141,10 +145,10 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import net.java.truevfs.access.TFile;
 import net.java.truevfs.access.TFileInputStream;
 import net.java.truevfs.access.TFileWriter;
-import net.java.truevfs.access.TPath;
 import net.java.truevfs.access.TVFS;
 import net.java.truevfs.kernel.spec.FsSyncException;
 import net.sf.ehcache.Element;
@@ -166,6 +170,8 @@ public class CoreComponentServiceImpl
 	private static final Logger LOG = Logger.getLogger(CoreComponentServiceImpl.class.getName());
 
 	private static final String COPY_MARKER = "- COPY";
+	private static final String SNAPSHOT_MEDIA_DIR = "media";
+	private static final String SNAPSHOT_RESOURCE_DIR = "resources";
 
 	public CoreComponentServiceImpl(ComponentServiceImpl componentService)
 	{
@@ -217,15 +223,23 @@ public class CoreComponentServiceImpl
 		if (element != null) {
 			componentName = (String) element.getObjectValue();
 		} else {
-			String query = "select componentId, name from " + Component.class.getSimpleName();
-			List<ODocument> documents = persistenceService.query(query, null);
-			for (ODocument document : documents) {
-				Element newElement = new Element(document.field("componentId"), document.field("name"));
-				if (document.field("componentId").equals(componentId)) {
-					componentName = (String) document.field("name");
-				}
-				OSFCacheManager.getComponentLookupCache().put(newElement);
+			//a miss reloads all names; don't repeat that for the same id in a request
+			componentName = RequestCache.get(Component.class, "name", componentId, () -> loadComponentNames(componentId));
+		}
+		return componentName;
+	}
+
+	private String loadComponentNames(String componentId)
+	{
+		String componentName = null;
+		String query = "select componentId, name from " + Component.class.getSimpleName();
+		List<ODocument> documents = persistenceService.query(query, null);
+		for (ODocument document : documents) {
+			Element newElement = new Element(document.field("componentId"), document.field("name"));
+			if (document.field("componentId").equals(componentId)) {
+				componentName = (String) document.field("name");
 			}
+			OSFCacheManager.getComponentLookupCache().put(newElement);
 		}
 		return componentName;
 	}
@@ -368,11 +382,7 @@ public class CoreComponentServiceImpl
 			result.getContacts().add(ComponentContactView.toView(contact));
 		});
 
-		ComponentTracking componentTrackingExample = new ComponentTracking();
-		componentTrackingExample.setActiveStatus(ComponentTracking.ACTIVE_STATUS);
-		componentTrackingExample.setTrackEventTypeCode(TrackEventCode.VIEW);
-		componentTrackingExample.setComponentId(componentId);
-		result.setComponentViews(persistenceService.countByExample(componentTrackingExample));
+		result.setComponentViews(ComponentStatisticManager.getViews(componentId));
 
 		List<ComponentReview> tempReviews = new ArrayList();
 		List<ComponentReview> tempApprovedReviews = componentService.getBaseComponent(ComponentReview.class, componentId);
@@ -406,7 +416,7 @@ public class CoreComponentServiceImpl
 
 			reviews.add(tempView);
 		});
-		reviews.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_DESCENDING, ComponentReviewView.UPDATE_DATE_FIELD));
+		reviews.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_DESCENDING, ComponentReviewView.UPDATE_DATE_FIELD));
 		result.setReviews(reviews);
 
 		// Here we grab the responses to each question
@@ -470,9 +480,17 @@ public class CoreComponentServiceImpl
 			tracking.populateBaseCreateFields();
 			tracking.setComponentTrackingId(persistenceService.generateId());
 			persistenceService.persist(tracking);
+			ComponentStatisticManager.record(tracking);
 		}
 	}
 
+	public void addComponentTracking(ComponentTracking tracking)
+	{
+		tracking.populateBaseCreateFields();
+		tracking.setComponentTrackingId(persistenceService.generateId());
+		TrackingManager.submit(tracking);
+	}
+
 	public RequiredForComponent saveComponent(RequiredForComponent component)
 	{
 		componentService.getComponentServicePrivate().doSaveComponent(component);
@@ -496,7 +514,8 @@ public class CoreComponentServiceImpl
 	}
 
 	/**
-	 * This try to locate the component; use for duplicate protection.
+	 * This try to locate the component; use for duplicate protection. (Uses
+	 * this service's connection so it runs in the caller's transaction)
 	 *
 	 * @param componentToLookFor
 	 * @return component or null if not found
@@ -509,14 +528,18 @@ public class CoreComponentServiceImpl
 		if (oldComponent == null && StringUtils.isNotBlank(componentToLookFor.getExternalId())) {
 			Component componentCheck = new Component();
 			componentCheck.setExternalId(componentToLookFor.getExternalId());
-			oldComponent = componentCheck.findProxy();
+			QueryByExample queryByExample = new QueryByExample(componentCheck);
+			queryByExample.setReturnNonProxied(false);
+			oldComponent = persistenceService.queryOneByExample(queryByExample);
 		}
 
 		//check name
 		if (oldComponent == null && StringUtils.isNotBlank(componentToLookFor.getName())) {
 			Component componentCheck = new Component();
 			componentCheck.setName(componentToLookFor.getName());
-			oldComponent = componentCheck.findProxy();
+			QueryByExample queryByExample = new QueryByExample(componentCheck);
+			queryByExample.setReturnNonProxied(false);
+			oldComponent = persistenceService.queryOneByExample(queryByExample);
 		}
 		return oldComponent;
 	}
@@ -671,7 +694,7 @@ public class CoreComponentServiceImpl
 								componentMedia.setComponentMediaId(persistenceService.generateId());
 								componentMedia.populateBaseCreateFields();
 								componentMedia.setFileName(componentMedia.getComponentMediaId());
-								Files.copy(in, componentMedia.pathToMedia());
+								FileSystemManager.getBlobStore().store(in, componentMedia.pathToMedia());
 								persistenceService.persist(componentMedia);
 								persistenceService.commit();
 								processedConversions.put(tempMediaId, componentMedia.getComponentMediaId());
@@ -739,22 +762,116 @@ public class CoreComponentServiceImpl
 		}
 	}
 
+	/**
+	 * Saves the list in one transaction. Snapshots of the replaced components
+	 * are read in the transaction but only written once it commits so a
+	 * rolled back list leaves no archives behind.
+	 *
+	 * @param components
+	 * @param options
+	 */
 	public void importComponents(List<ComponentAll> components, FileHistoryOption options)
 	{
 		List<Component> componentsToIndex = new ArrayList<>();
-		components.forEach(component
-				-> {
-			Component existing = findExistingComponent(component.getComponent());
-			if (existing != null) {
-				component.getComponent().setComponentId(existing.getComponentId());
-				snapshotVersion(component.getComponent().getComponentId(), component.getComponent().getFileHistoryId());
+		List<PendingSnapshot> snapshots = new ArrayList<>();
+
+		persistenceService.begin();
+		try {
+			Set<String> existingIds = new LinkedHashSet<>();
+			for (ComponentAll componentAll : components) {
+				Component existing = findExistingComponent(componentAll.getComponent());
+				if (existing != null) {
+					componentAll.getComponent().setComponentId(existing.getComponentId());
+					existingIds.add(existing.getComponentId());
+				}
 			}
-			saveFullComponent(component, options, false);
-			componentsToIndex.add(component.getComponent());
-		});
+			List<ComponentAll> records = mergeImportRecords(components);
+
+			//the replaced entries are read in one bulk load before any are saved
+			Map<String, String> fileHistoryIds = new HashMap<>();
+			for (ComponentAll componentAll : records) {
+				fileHistoryIds.put(componentAll.getComponent().getComponentId(), componentAll.getComponent().getFileHistoryId());
+			}
+			Set<String> missingIds = new HashSet<>(existingIds);
+			for (ComponentAll existing : getFullComponents(existingIds)) {
+				String componentId = existing.getComponent().getComponentId();
+				missingIds.remove(componentId);
+				snapshots.add(prepareSnapshot(existing, fileHistoryIds.get(componentId)));
+			}
+			if (missingIds.isEmpty() == false) {
+				throw new OpenStorefrontRuntimeException("Unable to find component: " + missingIds.iterator().next(), "Must sure component still exists");
+			}
+
+			for (ComponentAll componentAll : records) {
+				saveFullComponent(componentAll, options, false);
+				componentsToIndex.add(componentAll.getComponent());
+			}
+			persistenceService.commit();
+		} catch (Exception e) {
+			if (persistenceService.isTransactionActive()) {
+				persistenceService.rollback();
+			}
+			throw e;
+		} finally {
+			persistenceService.endTransaction();
+		}
+
+		for (PendingSnapshot snapshot : snapshots) {
+			try {
+				writeSnapshot(snapshot);
+			} catch (OpenStorefrontRuntimeException e) {
+				LOG.log(Level.WARNING, MessageFormat.format("Unable to snapshot component: {0}  The import was saved.", snapshot.versionHistory.getComponentId()), e);
+			}
+		}
 		componentService.getSearchService().indexComponents(componentsToIndex);
 	}
 
+	/**
+	 * Queries in the import transaction don't see records saved earlier in it,
+	 * so records for the same entry (same id, external id or name) are merged
+	 * first. The last record wins; saving them in turn would leave only its
+	 * sub-entities as well.
+	 *
+	 * @param components (ids already set for existing entries)
+	 * @return one record per entry in first seen order
+	 */
+	private List<ComponentAll> mergeImportRecords(List<ComponentAll> components)
+	{
+		Map<String, ComponentAll> merged = new LinkedHashMap<>();
+		Map<String, String> groups = new HashMap<>();
+		for (ComponentAll componentAll : components) {
+			Component component = componentAll.getComponent();
+			List<String> keys = new ArrayList<>();
+			if (StringUtils.isNotBlank(component.getComponentId())) {
+				keys.add("id:" + component.getComponentId());
+			}
+			if (StringUtils.isNotBlank(component.getExternalId())) {
+				keys.add("externalId:" + component.getExternalId());
+			}
+			if (StringUtils.isNotBlank(component.getName())) {
+				keys.add("name:" + component.getName());
+			}
+
+			String group = null;
+			for (String key : keys) {
+				group = groups.get(key);
+				if (group != null) {
+					break;
+				}
+			}
+			if (group == null) {
+				group = keys.isEmpty() ? "record:" + merged.size() : keys.get(0);
+			} else if (StringUtils.isBlank(component.getComponentId())) {
+				component.setComponentId(merged.get(group).getComponent().getComponentId());
+			}
+			for (String key : keys) {
+				groups.put(key, group);
+			}
+			merged.put(group, componentAll);
+		}
+		return new ArrayList<>(merged.values());
+	}
+
 	public ComponentAll saveFullComponent(ComponentAll componentAll)
 	{
 		return saveFullComponent(componentAll, new FileHistoryOption(), true);
@@ -1090,6 +1207,9 @@ public class CoreComponentServiceImpl
 		if (option.getRemoveWatches()) {
 			componentService.getUserService().removeAllWatchesForComponent(componentId);
 		}
+		if (option.getIgnoreClasses().contains(ComponentTracking.class.getSimpleName()) == false) {
+			ComponentStatisticManager.removeComponent(componentId);
+		}
 		componentService.getSearchService().deleteById(componentId);
 		cleanupCache(componentId);
 	}
@@ -1114,18 +1234,15 @@ public class CoreComponentServiceImpl
 
 	public Boolean setLastViewDts(String componentId, String userId)
 	{
-		UserWatch example = new UserWatch();
-		example.setComponentId(componentId);
-		example.setUsername(userId);
-		example = persistenceService.queryOneByExample(new QueryByExample(example));
-		if (example != null) {
-			UserWatch watch = persistenceService.findById(UserWatch.class, example.getUserWatchId());
-			watch.setLastViewDts(TimeUtil.currentDate());
-			persistenceService.persist(watch);
-			return Boolean.TRUE;
-		} else {
-			return Boolean.FALSE;
-		}
+		UserWatch whereExample = new UserWatch();
+		whereExample.setComponentId(componentId);
+		whereExample.setUsername(userId);
+
+		UserWatch setExample = new UserWatch();
+		setExample.setLastViewDts(TimeUtil.currentDate());
+
+		int updated = persistenceService.updateByExample(UserWatch.class, setExample, whereExample);
+		return updated > 0;
 	}
 
 	public List<Component> findRecentlyAdded(int maxResults)
@@ -1242,96 +1359,180 @@ public class CoreComponentServiceImpl
 	{
 		ComponentAll componentAll = null;
 		if (StringUtils.isNotBlank(componentId)) {
+			List<ComponentAll> componentAlls = getFullComponents(Arrays.asList(componentId));
+			if (componentAlls.isEmpty() == false) {
+				componentAll = componentAlls.get(0);
+			}
+		}
+		return componentAll;
+	}
+
+	public List<ComponentAll> getFullComponents(Collection<String> componentIds)
+	{
+		Set<String> uniqueComponentIds = new LinkedHashSet<>();
+		for (String componentId : componentIds) {
+			if (StringUtils.isNotBlank(componentId)) {
+				uniqueComponentIds.add(componentId);
+			}
+		}
+
+		Map<String, ComponentAll> componentAllMap = new HashMap<>();
+		List<String> componentIdsToLoad = new ArrayList<>();
+		for (String componentId : uniqueComponentIds) {
 			Element element = OSFCacheManager.getComponentCache().get(componentId);
 			if (element != null) {
-				componentAll = (ComponentAll) element.getObjectValue();
+				componentAllMap.put(componentId, (ComponentAll) element.getObjectValue());
 			} else {
-				componentAll = new ComponentAll();
-
-				Component componentExample = new Component();
-				componentExample.setComponentId(componentId);
-				componentAll.setComponent(persistenceService.queryOneByExample(componentExample));
-
-				if (componentAll.getComponent() != null) {
-					componentAll.setAttributes(sub.getAttributesByComponentId(componentId));
-					componentAll.setContacts(sub.getBaseComponent(ComponentContact.class, componentId));
-					componentAll.setEvaluationSections(sub.getBaseComponent(ComponentEvaluationSection.class, componentId));
-					componentAll.setExternalDependencies(sub.getBaseComponent(ComponentExternalDependency.class, componentId));
-					componentAll.setMedia(sub.getBaseComponent(ComponentMedia.class, componentId));
-					componentAll.setMetadata(sub.getBaseComponent(ComponentMetadata.class, componentId));
-					componentAll.setRelationships(sub.getBaseComponent(ComponentRelationship.class, componentId));
-					componentAll.setResources(sub.getBaseComponent(ComponentResource.class, componentId));
-					componentAll.setResources(SortUtil.sortComponentResource(componentAll.getResources()));
-
-					componentAll.setTags(sub.getBaseComponent(ComponentTag.class, componentId));
-
-					List<QuestionAll> allQuestions = new ArrayList<>();
-					List<ComponentQuestion> questions = sub.getBaseComponent(ComponentQuestion.class, componentId);
-					for (ComponentQuestion question : questions) {
-						QuestionAll questionAll = new QuestionAll();
-						questionAll.setQuestion(question);
-
-						ComponentQuestionResponse questionResponseExample = new ComponentQuestionResponse();
-						questionResponseExample.setActiveStatus(ComponentQuestionResponse.ACTIVE_STATUS);
-						questionResponseExample.setQuestionId(question.getQuestionId());
-						questionAll.setResponds(persistenceService.queryByExample(questionResponseExample));
-						allQuestions.add(questionAll);
-					}
-					componentAll.setQuestions(allQuestions);
-
-					List<ReviewAll> allReviews = new ArrayList<>();
-					List<ComponentReview> componentReviews = sub.getBaseComponent(ComponentReview.class, componentId);
-					for (ComponentReview componentReview : componentReviews) {
-						ReviewAll reviewAll = new ReviewAll();
-						reviewAll.setComponentReview(componentReview);
-
-						ComponentReviewPro componentReviewProExample = new ComponentReviewPro();
-						ComponentReviewProPk componentReviewProExamplePk = new ComponentReviewProPk();
-						componentReviewProExamplePk.setComponentReviewId(componentReview.getComponentReviewId());
-						componentReviewProExample.setComponentReviewProPk(componentReviewProExamplePk);
-						reviewAll.setPros(persistenceService.queryByExample(componentReviewProExample));
-
-						ComponentReviewCon componentReviewConExample = new ComponentReviewCon();
-						ComponentReviewConPk componentReviewConExamplePk = new ComponentReviewConPk();
-						componentReviewConExamplePk.setComponentReviewId(componentReview.getComponentReviewId());
-						componentReviewConExample.setComponentReviewConPk(componentReviewConExamplePk);
-						reviewAll.setCons(persistenceService.queryByExample(componentReviewConExample));
-
-						allReviews.add(reviewAll);
-					}
-					componentAll.setReviews(allReviews);
-
-					ComponentIntegration componentIntegrationExample = new ComponentIntegration();
-					componentIntegrationExample.setActiveStatus(ComponentIntegration.ACTIVE_STATUS);
-					componentIntegrationExample.setComponentId(componentId);
-
-					ComponentIntegration componentIntegration = persistenceService.queryOneByExample(componentIntegrationExample);
-					if (componentIntegration != null) {
-						IntegrationAll integrationAll = new IntegrationAll();
-						integrationAll.setIntegration(componentIntegration);
-
-						ComponentIntegrationConfig configExample = new ComponentIntegrationConfig();
-						configExample.setActiveStatus(ComponentIntegrationConfig.ACTIVE_STATUS);
-						configExample.setComponentId(componentId);
-						integrationAll.setConfigs(persistenceService.queryByExample(configExample));
-						componentAll.setIntegrationAll(integrationAll);
-					}
+				componentIdsToLoad.add(componentId);
+			}
+		}
+		if (componentIdsToLoad.isEmpty() == false) {
+			componentAllMap.putAll(loadFullComponents(componentIdsToLoad));
+		}
 
-					element = new Element(componentId, componentAll);
-					OSFCacheManager.getComponentCache().put(element);
+		List<ComponentAll> componentAlls = new ArrayList<>();
+		for (String componentId : uniqueComponentIds) {
+			ComponentAll componentAll = componentAllMap.get(componentId);
+			if (componentAll != null) {
+				Component componentToFilter = FilterEngine.filter(componentAll.getComponent());
+				if (componentToFilter != null) {
+					componentAlls.add(componentAll);
 				}
 			}
 		}
+		return componentAlls;
+	}
 
-		if (componentAll != null) {
-			Component componentToFilter = componentAll.getComponent();
-			componentToFilter = FilterEngine.filter(componentToFilter);
-			if (componentToFilter == null) {
-				componentAll = null;
-			}
+	/**
+	 * Loads the full components with one query per sub-entity type and then
+	 * groups the records in memory. The loaded components are added to the
+	 * component cache.
+	 *
+	 * @param componentIds
+	 * @return Map of component id to the full component (only found
+	 * components)
+	 */
+	private Map<String, ComponentAll> loadFullComponents(List<String> componentIds)
+	{
+		Map<String, ComponentAll> componentAllMap = new HashMap<>();
+
+		Map<String, Object> paramMap = new HashMap<>();
+		paramMap.put("componentIdsParams", componentIds);
+		List<Component> components = persistenceService.query("select from " + Component.class.getSimpleName() + " where componentId IN :componentIdsParams", paramMap, true);
+		if (components.isEmpty()) {
+			return componentAllMap;
+		}
+
+		List<String> foundComponentIds = components.stream()
+				.map(Component::getComponentId)
+				.collect(Collectors.toList());
+
+		Map<String, List<ComponentAttribute>> attributeMap = sub.getAttributesByComponentIds(foundComponentIds);
+		Map<String, List<ComponentContact>> contactMap = sub.getBaseComponentByComponentIds(ComponentContact.class, foundComponentIds);
+		Map<String, List<ComponentEvaluationSection>> evaluationSectionMap = sub.getBaseComponentByComponentIds(ComponentEvaluationSection.class, foundComponentIds);
+		Map<String, List<ComponentExternalDependency>> dependencyMap = sub.getBaseComponentByComponentIds(ComponentExternalDependency.class, foundComponentIds);
+		Map<String, List<ComponentMedia>> mediaMap = sub.getBaseComponentByComponentIds(ComponentMedia.class, foundComponentIds);
+		Map<String, List<ComponentMetadata>> metadataMap = sub.getBaseComponentByComponentIds(ComponentMetadata.class, foundComponentIds);
+		Map<String, List<ComponentRelationship>> relationshipMap = sub.getBaseComponentByComponentIds(ComponentRelationship.class, foundComponentIds);
+		Map<String, List<ComponentResource>> resourceMap = sub.getBaseComponentByComponentIds(ComponentResource.class, foundComponentIds);
+		Map<String, List<ComponentTag>> tagMap = sub.getBaseComponentByComponentIds(ComponentTag.class, foundComponentIds);
+		Map<String, List<ComponentQuestion>> questionMap = sub.getBaseComponentByComponentIds(ComponentQuestion.class, foundComponentIds);
+		Map<String, List<ComponentReview>> reviewMap = sub.getBaseComponentByComponentIds(ComponentReview.class, foundComponentIds);
+
+		//responses for all questions
+		Map<String, List<ComponentQuestionResponse>> responseMap = new HashMap<>();
+		List<String> questionIds = questionMap.values().stream()
+				.flatMap(List::stream)
+				.map(ComponentQuestion::getQuestionId)
+				.collect(Collectors.toList());
+		if (questionIds.isEmpty() == false) {
+			Map<String, Object> responseParams = new HashMap<>();
+			responseParams.put("activeStatusParam", ComponentQuestionResponse.ACTIVE_STATUS);
+			responseParams.put("questionIdsParams", questionIds);
+			List<ComponentQuestionResponse> responses = persistenceService.query("select from " + ComponentQuestionResponse.class.getSimpleName() + " where activeStatus = :activeStatusParam and questionId IN :questionIdsParams", responseParams, true);
+			responseMap = responses.stream().collect(Collectors.groupingBy(ComponentQuestionResponse::getQuestionId));
+		}
+
+		//pros and cons for all reviews
+		Map<String, List<ComponentReviewPro>> proMap = new HashMap<>();
+		Map<String, List<ComponentReviewCon>> conMap = new HashMap<>();
+		List<String> reviewIds = reviewMap.values().stream()
+				.flatMap(List::stream)
+				.map(ComponentReview::getComponentReviewId)
+				.collect(Collectors.toList());
+		if (reviewIds.isEmpty() == false) {
+			Map<String, Object> reviewParams = new HashMap<>();
+			reviewParams.put("reviewIdsParams", reviewIds);
+			List<ComponentReviewPro> pros = persistenceService.query("select from " + ComponentReviewPro.class.getSimpleName() + " where componentReviewProPk.componentReviewId IN :reviewIdsParams", reviewParams, true);
+			proMap = pros.stream().collect(Collectors.groupingBy(pro -> pro.getComponentReviewProPk().getComponentReviewId()));
+
+			List<ComponentReviewCon> cons = persistenceService.query("select from " + ComponentReviewCon.class.getSimpleName() + " where componentReviewConPk.componentReviewId IN :reviewIdsParams", reviewParams, true);
+			conMap = cons.stream().collect(Collectors.groupingBy(con -> con.getComponentReviewConPk().getComponentReviewId()));
+		}
+
+		//integrations
+		Map<String, Object> integrationParams = new HashMap<>();
+		integrationParams.put("activeStatusParam", ComponentIntegration.ACTIVE_STATUS);
+		integrationParams.put("componentIdsParams", foundComponentIds);
+		List<ComponentIntegration> integrations = persistenceService.query("select from " + ComponentIntegration.class.getSimpleName() + " where activeStatus = :activeStatusParam and componentId IN :componentIdsParams", integrationParams, true);
+		Map<String, ComponentIntegration> integrationMap = new HashMap<>();
+		for (ComponentIntegration integration : integrations) {
+			integrationMap.putIfAbsent(integration.getComponentId(), integration);
+		}
+		Map<String, List<ComponentIntegrationConfig>> configMap = new HashMap<>();
+		if (integrationMap.isEmpty() == false) {
+			integrationParams.put("componentIdsParams", new ArrayList<>(integrationMap.keySet()));
+			List<ComponentIntegrationConfig> configs = persistenceService.query("select from " + ComponentIntegrationConfig.class.getSimpleName() + " where activeStatus = :activeStatusParam and componentId IN :componentIdsParams", integrationParams, true);
+			configMap = configs.stream().collect(Collectors.groupingBy(ComponentIntegrationConfig::getComponentId));
 		}
 
-		return componentAll;
+		for (Component component : components) {
+			String componentId = component.getComponentId();
+
+			ComponentAll componentAll = new ComponentAll();
+			componentAll.setComponent(component);
+			componentAll.setAttributes(attributeMap.getOrDefault(componentId, new ArrayList<>()));
+			componentAll.setContacts(contactMap.getOrDefault(componentId, new ArrayList<>()));
+			componentAll.setEvaluationSections(evaluationSectionMap.getOrDefault(componentId, new ArrayList<>()));
+			componentAll.setExternalDependencies(dependencyMap.getOrDefault(componentId, new ArrayList<>()));
+			componentAll.setMedia(mediaMap.getOrDefault(componentId, new ArrayList<>()));
+			componentAll.setMetadata(metadataMap.getOrDefault(componentId, new ArrayList<>()));
+			componentAll.setRelationships(relationshipMap.getOrDefault(componentId, new ArrayList<>()));
+			componentAll.setResources(SortUtil.sortComponentResource(resourceMap.getOrDefault(componentId, new ArrayList<>())));
+			componentAll.setTags(tagMap.getOrDefault(componentId, new ArrayList<>()));
+
+			List<QuestionAll> allQuestions = new ArrayList<>();
+			for (ComponentQuestion question : questionMap.getOrDefault(componentId, new ArrayList<>())) {
+				QuestionAll questionAll = new QuestionAll();
+				questionAll.setQuestion(question);
+				questionAll.setResponds(responseMap.getOrDefault(question.getQuestionId(), new ArrayList<>()));
+				allQuestions.add(questionAll);
+			}
+			componentAll.setQuestions(allQuestions);
+
+			List<ReviewAll> allReviews = new ArrayList<>();
+			for (ComponentReview componentReview : reviewMap.getOrDefault(componentId, new ArrayList<>())) {
+				ReviewAll reviewAll = new ReviewAll();
+				reviewAll.setComponentReview(componentReview);
+				reviewAll.setPros(proMap.getOrDefault(componentReview.getComponentReviewId(), new ArrayList<>()));
+				reviewAll.setCons(conMap.getOrDefault(componentReview.getComponentReviewId(), new ArrayList<>()));
+				allReviews.add(reviewAll);
+			}
+			componentAll.setReviews(allReviews);
+
+			ComponentIntegration componentIntegration = integrationMap.get(componentId);
+			if (componentIntegration != null) {
+				IntegrationAll integrationAll = new IntegrationAll();
+				integrationAll.setIntegration(componentIntegration);
+				integrationAll.setConfigs(configMap.getOrDefault(componentId, new ArrayList<>()));
+				componentAll.setIntegrationAll(integrationAll);
+			}
+
+			OSFCacheManager.getComponentCache().put(new Element(componentId, componentAll));
+			componentAllMap.put(componentId, componentAll);
+		}
+
+		return componentAllMap;
 	}
 
 	public ComponentTrackingResult getComponentTracking(FilterQueryParams filter, String componentId)
@@ -1351,47 +1552,58 @@ public class CoreComponentServiceImpl
 		}
 
 		Map<String, Object> parameterMap = new HashMap<>();
-		StringBuilder primaryQuery = new StringBuilder();
-		primaryQuery.append("select from ").append(ComponentTracking.class.getSimpleName()).append(" where ");
-		primaryQuery.append(" activeStatus = :activeStatus ");
+		//the page and count queries share the where clause
+		StringBuilder whereClause = new StringBuilder();
+		whereClause.append(" where activeStatus = :activeStatus ");
 
 		parameterMap.put("activeStatus", filter.getStatus());
 
 		if (StringUtils.isNotBlank(componentId)) {
-			primaryQuery.append(" and componentId = :componentId ");
+			whereClause.append(" and componentId = :componentId ");
 			parameterMap.put("componentId", componentId);
 		}
 
 		if (filter.getStartDts() != null && filter.getStartDts().getDate() != null) {
-			primaryQuery.append(" and eventDts >= :startDts ");
+			whereClause.append(" and eventDts >= :startDts ");
 			parameterMap.put("startDts", filter.getStartDts().getDate());
 		}
 
 		if (filter.getEndDts() != null && filter.getEndDts().getDate() != null) {
-			primaryQuery.append(" and eventDts <= :endDts ");
+			whereClause.append(" and eventDts <= :endDts ");
 			parameterMap.put("endDts", filter.getEndDts().getDate());
 		}
 
 		if (StringUtils.isNotBlank(filter.getName())) {
-			primaryQuery.append(" and updateUser.toLowerCase() like :nameSearch ");
+			whereClause.append(" and updateUser.toLowerCase() like :nameSearch ");
 			parameterMap.put("nameSearch", "%" + filter.getName().toLowerCase().trim() + "%");
 		}
 
 		if (!componentIdInResults.isEmpty()) {
-			primaryQuery.append(" and componentId IN :componentIdList ");
+			whereClause.append(" and componentId IN :componentIdList ");
 			parameterMap.put("componentIdList", componentIdInResults);
 		}
 
-		if (StringUtils.isNotBlank(filter.getSortField()) && StringUtils.isNotBlank(filter.getSortOrder())) {
-			primaryQuery.append(" ORDER BY ");
-			primaryQuery.append(filter.getSortField());
-			primaryQuery.append(" ");
-			primaryQuery.append(filter.getSortOrder());
-		}
+		String primaryQuery = "select from " + ComponentTracking.class.getSimpleName() + whereClause;
+
+		//sorting on the derived fields (component name, type label) has to be done in memory; otherwise page in the database
+		boolean sortInMemory = filter.databaseSortField(ComponentTracking.class) == null
+				&& filter.databaseSortField(ComponentTrackingCompleteWrapper.class) != null;
 
-		List<ComponentTracking> componentTrackings = persistenceService.query(primaryQuery.toString(), parameterMap);
+		List<ComponentTracking> componentTrackings;
+		if (sortInMemory == false) {
+			componentTrackings = persistenceService.query(primaryQuery + filter.orderAndWindowClause(ComponentTracking.class), parameterMap);
+
+			String countQuery = "select count(*) from " + ComponentTracking.class.getSimpleName() + whereClause;
+			List<ODocument> countDocuments = persistenceService.query(countQuery, parameterMap);
+			if (countDocuments.isEmpty() == false) {
+				Number count = countDocuments.get(0).field("count");
+				result.setCount(count.longValue());
+			}
+		} else {
+			componentTrackings = persistenceService.query(primaryQuery, parameterMap);
+			result.setCount(componentTrackings.size());
+		}
 
-		result.setCount(componentTrackings.size());
 		for (ComponentTracking item : componentTrackings) {
 			ComponentTrackingCompleteWrapper wrapper = new ComponentTrackingCompleteWrapper();
 			wrapper.setData(item);
@@ -1399,7 +1611,9 @@ public class CoreComponentServiceImpl
 			wrapper.setComponentTypeLabel(TranslateUtil.translateComponentType(item.getComponentType()));
 			result.getResult().add(wrapper);
 		}
-		result.setResult(filter.filter(result.getResult()));
+		if (sortInMemory) {
+			result.setResult(filter.filter(result.getResult()));
+		}
 
 		return result;
 	}
@@ -1442,45 +1656,46 @@ public class CoreComponentServiceImpl
 
 		QueryByExample queryByExample = new QueryByExample(componentExample);
 		queryByExample.getExtraWhereCauses().add(specialOperatorModel);
-		
-		//TODO: consider moving the filtering work to the DB
-		List<Component> components = persistenceService.queryByExample(queryByExample);
 
-		components = FilterEngine.filter(components);
+		//data restrictions and pending changes are filtered by the DB
+		StringBuilder additionalWhere = new StringBuilder();
+		String restriction = FilterEngine.queryComponentRestriction();
+		if (StringUtils.isNotBlank(restriction)) {
+			additionalWhere.append(restriction).append(" AND ");
+		}
+		additionalWhere.append(" activeStatus <> '").append(Component.PENDING_STATUS).append("' ");
+		queryByExample.setAdditionalWhere(additionalWhere.toString());
 
-		//filter out pending changes
-		components = components.stream().filter(c -> c.getActiveStatus().equals(Component.PENDING_STATUS) == false).collect(Collectors.toList());
+		//If the sort is on the component then only the page is pulled back; otherwise sort in memory
+		boolean windowedByDatabase = filter.applyToQuery(queryByExample);
 
-		result.setTotalNumber(components.size());
+		List<Component> components = persistenceService.queryByExample(queryByExample);
+		if (windowedByDatabase) {
+			result.setTotalNumber(persistenceService.countByExample(queryByExample));
+		} else {
+			result.setTotalNumber(components.size());
+		}
 
-		ComponentIntegrationConfig integrationConfigExample = new ComponentIntegrationConfig();
-		integrationConfigExample.setActiveStatus(ComponentIntegrationConfig.ACTIVE_STATUS);
+		List<String> componentIds = components.stream()
+				.map(Component::getComponentId)
+				.collect(Collectors.toList());
 
-		List<ComponentIntegrationConfig> componentIntegrationConfigs = persistenceService.queryByExample(integrationConfigExample);
 		Map<String, List<ComponentIntegrationConfig>> configMap = new HashMap<>();
-		componentIntegrationConfigs.forEach(config
-				-> {
-			if (configMap.containsKey(config.getComponentId())) {
-				configMap.get(config.getComponentId()).add(config);
-			} else {
-				List<ComponentIntegrationConfig> configList = new ArrayList<>();
-				configList.add(config);
-				configMap.put(config.getComponentId(), configList);
-			}
-		});
-
-		Component pendingChangeExample = new Component();
-		pendingChangeExample.setPendingChangeId(QueryByExample.STRING_FLAG);
+		Map<String, List<Component>> pendingChangesMap = new HashMap<>();
+		if (componentIds.isEmpty() == false) {
+			Map<String, Object> parameterMap = new HashMap<>();
+			parameterMap.put("activeStatusParam", ComponentIntegrationConfig.ACTIVE_STATUS);
+			parameterMap.put("componentIdsParams", componentIds);
 
-		QueryByExample queryPendingChanges = new QueryByExample(new Component());
+			List<ComponentIntegrationConfig> componentIntegrationConfigs = persistenceService.query("select from " + ComponentIntegrationConfig.class.getSimpleName() + " where activeStatus = :activeStatusParam and componentId IN :componentIdsParams", parameterMap);
+			configMap = componentIntegrationConfigs.stream().collect(Collectors.groupingBy(ComponentIntegrationConfig::getComponentId));
 
-		specialOperatorModel = new SpecialOperatorModel();
-		specialOperatorModel.setExample(pendingChangeExample);
-		specialOperatorModel.getGenerateStatementOption().setOperation(GenerateStatementOption.OPERATION_NOT_NULL);
-		queryPendingChanges.getExtraWhereCauses().add(specialOperatorModel);
+			parameterMap = new HashMap<>();
+			parameterMap.put("componentIdsParams", componentIds);
+			List<Component> pendingChanges = persistenceService.query("select from " + Component.class.getSimpleName() + " where pendingChangeId IN :componentIdsParams", parameterMap);
+			pendingChangesMap = pendingChanges.stream().collect(Collectors.groupingBy(Component::getPendingChangeId));
+		}
 
-		List<Component> pendingChanges = persistenceService.queryByExample(queryPendingChanges);
-		Map<String, List<Component>> pendingChangesMap = pendingChanges.stream().collect(Collectors.groupingBy(Component::getPendingChangeId));
 		List<ComponentView> componentViews = new ArrayList<>();
 		for (Component component : components) {
 
@@ -1503,7 +1718,9 @@ public class CoreComponentServiceImpl
 
 			componentViews.add(componentView);
 		}
-		componentViews = filter.filter(componentViews);
+		if (windowedByDatabase == false) {
+			componentViews = filter.filter(componentViews);
+		}
 
 		List<ComponentAdminView> componentAdminViews = new ArrayList<>();
 		for (ComponentView componentView : componentViews) {
@@ -1696,6 +1913,11 @@ public class CoreComponentServiceImpl
 	}
 
 	public String getComponentApprovalStatus(String componentId)
+	{
+		return RequestCache.get(Component.class, "approvalState", componentId, () -> loadComponentApprovalStatus(componentId));
+	}
+
+	private String loadComponentApprovalStatus(String componentId)
 	{
 		String approvalStatus = null;
 
@@ -1742,34 +1964,49 @@ public class CoreComponentServiceImpl
 
 	public ComponentSensitivityModel getComponentSensitivity(String componentId)
 	{
-		ComponentSensitivityModel componentSensitivityModel = new ComponentSensitivityModel();
-		componentSensitivityModel.setComponentId(componentId);
+		return getComponentSensitivities(Arrays.asList(componentId)).get(componentId);
+	}
 
-		Element element = OSFCacheManager.getComponentDataRestrictionCache().get(componentId);
-		if (element != null) {
-			componentSensitivityModel = (ComponentSensitivityModel) element.getObjectValue();
-		} else {
-			String query = "select componentId, dataSource, dataSensitivity from " + Component.class.getSimpleName() + " where dataSource IS NOT NULL OR dataSensitivity IS NOT NULL";
-			Map<String, Object> parameters = new HashMap<>();
+	public Map<String, ComponentSensitivityModel> getComponentSensitivities(Collection<String> componentIds)
+	{
+		Map<String, ComponentSensitivityModel> sensitivityMap = new HashMap<>();
 
-			List<ODocument> documents = persistenceService.query(query, parameters);
-			for (ODocument document : documents) {
-				ComponentSensitivityModel cacheSensitivityModel = new ComponentSensitivityModel();
-				cacheSensitivityModel.setComponentId(document.field("componentId"));
-				cacheSensitivityModel.setDataSensitivity(document.field("dataSensitivity"));
-				cacheSensitivityModel.setDataSource(document.field("dataSource"));
+		boolean loaded = false;
+		for (String componentId : componentIds) {
+			Element element = OSFCacheManager.getComponentDataRestrictionCache().get(componentId);
+			if (element == null && loaded == false) {
+				loadComponentSensitivityCache();
+				loaded = true;
+				element = OSFCacheManager.getComponentDataRestrictionCache().get(componentId);
+			}
 
-				Element newElement = new Element(document.field("componentId"), cacheSensitivityModel);
-				if (document.field("componentId").equals(componentId)) {
-					componentSensitivityModel.setComponentId(document.field("componentId"));
-					componentSensitivityModel.setDataSensitivity(document.field("dataSensitivity"));
-					componentSensitivityModel.setDataSource(document.field("dataSource"));
-				}
-				OSFCacheManager.getComponentDataRestrictionCache().put(newElement);
+			if (element != null) {
+				sensitivityMap.put(componentId, (ComponentSensitivityModel) element.getObjectValue());
+			} else {
+				//no restrictions on the component
+				ComponentSensitivityModel componentSensitivityModel = new ComponentSensitivityModel();
+				componentSensitivityModel.setComponentId(componentId);
+				sensitivityMap.put(componentId, componentSensitivityModel);
 			}
 		}
+		return sensitivityMap;
+	}
+
+	private void loadComponentSensitivityCache()
+	{
+		String query = "select componentId, dataSource, dataSensitivity from " + Component.class.getSimpleName() + " where dataSource IS NOT NULL OR dataSensitivity IS NOT NULL";
+		Map<String, Object> parameters = new HashMap<>();
+
+		List<ODocument> documents = persistenceService.query(query, parameters);
+		for (ODocument document : documents) {
+			ComponentSensitivityModel cacheSensitivityModel = new ComponentSensitivityModel();
+			cacheSensitivityModel.setComponentId(document.field("componentId"));
+			cacheSensitivityModel.setDataSensitivity(document.field("dataSensitivity"));
+			cacheSensitivityModel.setDataSource(document.field("dataSource"));
 
-		return componentSensitivityModel;
+			Element newElement = new Element(document.field("componentId"), cacheSensitivityModel);
+			OSFCacheManager.getComponentDataRestrictionCache().put(newElement);
+		}
 	}
 
 	public Component copy(String orignalComponentId)
@@ -1863,7 +2100,7 @@ public class CoreComponentServiceImpl
 						media.setFileName(media.getComponentMediaId());
 						Path newPath = media.pathToMedia();
 						try {
-							Files.copy(oldPath, newPath, StandardCopyOption.REPLACE_EXISTING);
+							FileSystemManager.getBlobStore().share(oldPath, newPath);
 						} catch (IOException ex) {
 							throw new OpenStorefrontRuntimeException("Failed to copy media", "check disk permissions and space", ex);
 						}
@@ -1880,7 +2117,7 @@ public class CoreComponentServiceImpl
 						resource.setFileName(resource.getResourceId());
 						Path newPath = resource.pathToResource();
 						try {
-							Files.copy(oldPath, newPath, StandardCopyOption.REPLACE_EXISTING);
+							FileSystemManager.getBlobStore().share(oldPath, newPath);
 						} catch (IOException ex) {
 							throw new OpenStorefrontRuntimeException("Failed to copy resource", "check disk permissions and space", ex);
 						}
@@ -1909,90 +2146,119 @@ public class CoreComponentServiceImpl
 
 	public ComponentVersionHistory snapshotVersion(String componentId, String fileHistoryId)
 	{
-		ComponentVersionHistory versionHistory = new ComponentVersionHistory();
+		PendingSnapshot snapshot = prepareSnapshot(componentId, fileHistoryId);
+		writeSnapshot(snapshot);
+		return snapshot.versionHistory;
+	}
 
+	/**
+	 * Reads the component as it is now (no changes are made)
+	 */
+	private PendingSnapshot prepareSnapshot(String componentId, String fileHistoryId)
+	{
 		ComponentAll componentAll = getFullComponent(componentId);
-		if (componentAll != null) {
-			versionHistory.setComponentId(componentId);
-			versionHistory.setFileHistoryId(fileHistoryId);
-			versionHistory.setVersionHistoryId(persistenceService.generateId());
-			Integer version = componentAll.getComponent().getRecordVersion();
-			if (version == null) {
-				version = 1;
-			}
-			versionHistory.setVersion(version);
-			versionHistory.populateBaseCreateFields();
+		if (componentAll == null) {
+			throw new OpenStorefrontRuntimeException("Unable to find component: " + componentId, "Must sure component still exists");
+		}
+		return prepareSnapshot(componentAll, fileHistoryId);
+	}
 
-			componentService.getChangeLogService().logOtherChange(componentAll.getComponent(), ChangeType.SNAPSHOT, "Version: " + version);
+	private PendingSnapshot prepareSnapshot(ComponentAll componentAll, String fileHistoryId)
+	{
+		String componentId = componentAll.getComponent().getComponentId();
+		PendingSnapshot snapshot = new PendingSnapshot();
+		snapshot.componentAll = componentAll;
 
-			try {
-				String componentJson = StringProcessor.defaultObjectMapper().writeValueAsString(componentAll);
-				String archiveName = versionHistory.pathToFile().toString();
-				File entry = new TFile(archiveName + "/componentAll.json");
-				try (Writer writer = new TFileWriter(entry)) {
-					writer.write(componentJson);
-				} catch (IOException io) {
-					throw new OpenStorefrontRuntimeException("Unable to snapshot component.", io);
-				}
+		ComponentVersionHistory versionHistory = new ComponentVersionHistory();
+		versionHistory.setComponentId(componentId);
+		versionHistory.setFileHistoryId(fileHistoryId);
+		versionHistory.setVersionHistoryId(persistenceService.generateId());
+		Integer version = componentAll.getComponent().getRecordVersion();
+		if (version == null) {
+			version = 1;
+		}
+		versionHistory.setVersion(version);
+		versionHistory.populateBaseCreateFields();
+		snapshot.versionHistory = versionHistory;
 
-				Set<String> fileNameMediaSet = new HashSet<>();
-				Set<String> fileNameResourceSet = new HashSet<>();
-
-				//media
-				for (ComponentMedia componentMedia : componentAll.getMedia()) {
-					java.nio.file.Path mediaPath = componentMedia.pathToMedia();
-					if (mediaPath != null) {
-						String name = mediaPath.getFileName().toString();
-						if (fileNameMediaSet.contains(name) == false) {
-							java.nio.file.Path archiveMediaPath = new TPath(archiveName + "/media/" + name);
-
-							TFile source = new TFile(mediaPath.toString());
-							TFile destination = new TFile(archiveMediaPath.toString());
-							if (destination.isArchive() || destination.isDirectory()) {
-								destination = new TFile(destination, source.getName());
-							}
-							source.toFile().cp_rp(destination);
-							fileNameMediaSet.add(name);
-						}
-					}
-				}
+		try {
+			snapshot.componentJson = StringProcessor.defaultObjectMapper().writeValueAsString(componentAll);
+		} catch (JsonProcessingException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to snapshot component.", ex);
+		}
+		return snapshot;
+	}
 
-				//localreources
-				for (ComponentResource componentResource : componentAll.getResources()) {
-					java.nio.file.Path resourcePath = componentResource.pathToResource();
-					if (resourcePath != null) {
-						String name = resourcePath.getFileName().toString();
-						if (fileNameResourceSet.contains(name) == false) {
-							java.nio.file.Path archiveResourcePath = new TPath(archiveName + "/resources/" + name);
-
-							TFile source = new TFile(resourcePath.toString());
-							TFile destination = new TFile(archiveResourcePath.toString());
-							if (destination.isArchive() || destination.isDirectory()) {
-								destination = new TFile(destination, source.getName());
-							}
-							source.toFile().cp_rp(destination);
-							fileNameResourceSet.add(name);
-						}
+	/**
+	 * Writes the archive and then records the version
+	 */
+	private void writeSnapshot(PendingSnapshot snapshot)
+	{
+		ComponentVersionHistory versionHistory = snapshot.versionHistory;
+		componentService.getChangeLogService().logOtherChange(snapshot.componentAll.getComponent(), ChangeType.SNAPSHOT, "Version: " + versionHistory.getVersion());
+
+		try {
+			String archiveName = versionHistory.pathToFile().toString();
+			File entry = new TFile(archiveName + "/componentAll.json");
+			try (Writer writer = new TFileWriter(entry)) {
+				writer.write(snapshot.componentJson);
+			} catch (IOException io) {
+				throw new OpenStorefrontRuntimeException("Unable to snapshot component.", io);
+			}
+
+			Set<String> fileNameMediaSet = new HashSet<>();
+			Set<String> fileNameResourceSet = new HashSet<>();
+
+			//files are linked beside the archive (not copied into it) so a snapshot only costs the json
+			Path snapshotMediaDir = versionHistory.pathToFileDirectory().resolve(SNAPSHOT_MEDIA_DIR);
+			Path snapshotResourceDir = versionHistory.pathToFileDirectory().resolve(SNAPSHOT_RESOURCE_DIR);
+
+			//media
+			for (ComponentMedia componentMedia : snapshot.componentAll.getMedia()) {
+				java.nio.file.Path mediaPath = componentMedia.pathToMedia();
+				if (mediaPath != null) {
+					String name = mediaPath.getFileName().toString();
+					if (fileNameMediaSet.contains(name) == false) {
+						Files.createDirectories(snapshotMediaDir);
+						FileSystemManager.getBlobStore().share(mediaPath, snapshotMediaDir.resolve(name));
+						fileNameMediaSet.add(name);
 					}
 				}
+			}
 
-			} catch (JsonProcessingException | FsSyncException ex) {
-				throw new OpenStorefrontRuntimeException("Unable to snapshot component.", ex);
-			} catch (IOException ex) {
-				throw new OpenStorefrontRuntimeException("Unable to snapshot component.", ex);
-			} finally {
-				try {
-					TVFS.umount();
-				} catch (FsSyncException ex) {
-					throw new OpenStorefrontRuntimeException("Unable to unable to unmount snapshot...it may be unreadable.", ex);
+			//localreources
+			for (ComponentResource componentResource : snapshot.componentAll.getResources()) {
+				java.nio.file.Path resourcePath = componentResource.pathToResource();
+				if (resourcePath != null) {
+					String name = resourcePath.getFileName().toString();
+					if (fileNameResourceSet.contains(name) == false) {
+						Files.createDirectories(snapshotResourceDir);
+						FileSystemManager.getBlobStore().share(resourcePath, snapshotResourceDir.resolve(name));
+						fileNameResourceSet.add(name);
+					}
 				}
 			}
-			persistenceService.persist(versionHistory);
 
-		} else {
-			throw new OpenStorefrontRuntimeException("Unable to find component: " + componentId, "Must sure component still exists");
+		} catch (FsSyncException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to snapshot component.", ex);
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to snapshot component.", ex);
+		} finally {
+			try {
+				TVFS.umount();
+			} catch (FsSyncException ex) {
+				throw new OpenStorefrontRuntimeException("Unable to unable to unmount snapshot...it may be unreadable.", ex);
+			}
 		}
-		return versionHistory;
+		persistenceService.persist(versionHistory);
+	}
+
+	private static class PendingSnapshot
+	{
+
+		private ComponentAll componentAll;
+		private String componentJson;
+		private ComponentVersionHistory versionHistory;
 	}
 
 	public ComponentDetailView viewSnapshot(String versionHistoryId)
@@ -2081,6 +2347,11 @@ public class CoreComponentServiceImpl
 				cascadeDeleteOfComponent(versionHistory.getComponentId(), deleteOptions);
 
 				//copy resources
+				Path snapshotDir = versionHistory.pathToFileDirectory();
+				restoreSnapshotFiles(snapshotDir.resolve(SNAPSHOT_MEDIA_DIR), FileSystemManager.MEDIA_DIR);
+				restoreSnapshotFiles(snapshotDir.resolve(SNAPSHOT_RESOURCE_DIR), FileSystemManager.RESOURCE_DIR);
+
+				//older snapshots carry the files in the archive
 				archive = new TFile(versionHistory.pathToFile().toFile());
 				TFile allFiles[] = archive.listFiles();
 				if (allFiles != null) {
@@ -2091,7 +2362,11 @@ public class CoreComponentServiceImpl
 								for (TFile mediaFile : mediaFiles) {
 									try {
 										TFile source = mediaFile;
-										TFile destination = new TFile(FileSystemManager.getDir(FileSystemManager.MEDIA_DIR).toPath().resolve(mediaFile.getName()).toFile());
+										Path destinationPath = FileSystemManager.getDir(FileSystemManager.MEDIA_DIR).toPath().resolve(mediaFile.getName());
+
+										//the current file may be shared; replace it rather than write into it
+										Files.deleteIfExists(destinationPath);
+										TFile destination = new TFile(destinationPath.toFile());
 										if (destination.isArchive() || destination.isDirectory()) {
 											destination = new TFile(destination, source.getName());
 										}
@@ -2108,7 +2383,11 @@ public class CoreComponentServiceImpl
 								for (TFile resourceFile : resourceFiles) {
 									try {
 										TFile source = resourceFile;
-										TFile destination = new TFile(FileSystemManager.getDir(FileSystemManager.RESOURCE_DIR).toPath().resolve(resourceFile.getName()).toFile());
+										Path destinationPath = FileSystemManager.getDir(FileSystemManager.RESOURCE_DIR).toPath().resolve(resourceFile.getName());
+
+										//the current file may be shared; replace it rather than write into it
+										Files.deleteIfExists(destinationPath);
+										TFile destination = new TFile(destinationPath.toFile());
 										if (destination.isArchive() || destination.isDirectory()) {
 											destination = new TFile(destination, source.getName());
 										}
@@ -2160,10 +2439,45 @@ public class CoreComponentServiceImpl
 					}
 				}
 			}
+			deleteSnapshotFiles(versionHistory.pathToFileDirectory());
 			persistenceService.delete(versionHistory);
 		}
 	}
 
+	private void restoreSnapshotFiles(Path snapshotDir, String storeDir)
+	{
+		File snapshotFiles[] = snapshotDir.toFile().listFiles();
+		if (snapshotFiles != null) {
+			for (File snapshotFile : snapshotFiles) {
+				try {
+					Path destination = FileSystemManager.getDir(storeDir).toPath().resolve(snapshotFile.getName());
+					FileSystemManager.getBlobStore().share(snapshotFile.toPath(), destination);
+				} catch (IOException ex) {
+					LOG.log(Level.WARNING, MessageFormat.format("Failed to restore snapshot file: {0}", snapshotFile.getName()), ex);
+				}
+			}
+		}
+	}
+
+	private void deleteSnapshotFiles(Path snapshotDir)
+	{
+		if (snapshotDir != null && snapshotDir.toFile().exists()) {
+			//only links; the stored content is removed once nothing uses it
+			for (String subDir : Arrays.asList(SNAPSHOT_MEDIA_DIR, SNAPSHOT_RESOURCE_DIR)) {
+				File snapshotFiles[] = snapshotDir.resolve(subDir).toFile().listFiles();
+				if (snapshotFiles != null) {
+					for (File snapshotFile : snapshotFiles) {
+						snapshotFile.delete();
+					}
+				}
+				snapshotDir.resolve(subDir).toFile().delete();
+			}
+			if (snapshotDir.toFile().delete() == false) {
+				LOG.log(Level.WARNING, "Unable to delete component version files: {0}", snapshotDir.toString());
+			}
+		}
+	}
+
 	public Component merge(String toMergeComponentId, String targetComponentId)
 	{
 		return merge(toMergeComponentId, targetComponentId, null);
@@ -2325,21 +2639,19 @@ public class CoreComponentServiceImpl
 	{
 		List<ComponentRecordStatistic> recordStatistics = new ArrayList<>();
 
-		String limit = "";
+		Stream<Map.Entry<String, Long>> topViewed = ComponentStatisticManager.getAllViews().entrySet().stream()
+				.filter(entry -> entry.getValue() > 0)
+				.sorted(Map.Entry.<String, Long>comparingByValue().reversed());
 		if (maxRecords != null) {
-			limit = "LIMIT " + maxRecords;
+			topViewed = topViewed.limit(maxRecords);
 		}
-
-		String query = "select count(*) as views, componentId from " + ComponentTracking.class.getSimpleName() + " group by componentId order by views DESC " + limit;
-
-		List<ODocument> documents = persistenceService.query(query, null);
-		for (ODocument document : documents) {
+		topViewed.forEach(entry -> {
 			ComponentRecordStatistic componentRecordStatistic = new ComponentRecordStatistic();
-			componentRecordStatistic.setComponentId(document.field("componentId"));
-			componentRecordStatistic.setViews(document.field("views"));
+			componentRecordStatistic.setComponentId(entry.getKey());
+			componentRecordStatistic.setViews(entry.getValue());
 			componentRecordStatistic.setComponentName(getComponentName(componentRecordStatistic.getComponentId()));
 			recordStatistics.add(componentRecordStatistic);
-		}
+		});
 
 		return recordStatistics;
 	}
@@ -16,6 +16,7 @@
 package edu.usu.sdl.openstorefront.service.component;
 
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
 import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
 import edu.usu.sdl.openstorefront.common.util.TimeUtil;
 import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
@@ -51,6 +52,7 @@ import edu.usu.sdl.openstorefront.core.view.ComponentReviewProCon;
 import edu.usu.sdl.openstorefront.core.view.ComponentReviewView;
 import edu.usu.sdl.openstorefront.security.SecurityUtil;
 import edu.usu.sdl.openstorefront.service.ComponentServiceImpl;
+import edu.usu.sdl.openstorefront.service.manager.MediaDerivativeManager;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.validation.ValidationUtil;
@@ -58,15 +60,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -104,6 +109,31 @@ public class SubComponentServiceImpl
 		}
 	}
 
+	/**
+	 * Gets the active sub-entities for a set of components using one query
+	 *
+	 * @param <T>
+	 * @param subComponentClass
+	 * @param componentIds
+	 * @return records grouped by component id
+	 */
+	public <T extends BaseComponent> Map<String, List<T>> getBaseComponentByComponentIds(Class<T> subComponentClass, Collection<String> componentIds)
+	{
+		Map<String, List<T>> recordMap = new HashMap<>();
+		if (componentIds.isEmpty() == false) {
+			String query = "select from " + subComponentClass.getSimpleName() + " where activeStatus = :activeStatusParam and componentId IN :componentIdsParams";
+
+			Map<String, Object> paramMap = new HashMap<>();
+			paramMap.put("activeStatusParam", BaseComponent.ACTIVE_STATUS);
+			paramMap.put("componentIdsParams", new ArrayList<>(componentIds));
+
+			List<T> data = persistenceService.query(query, paramMap, true);
+			data = FilterEngine.filter(data);
+			recordMap = data.stream().collect(Collectors.groupingBy(T::getComponentId));
+		}
+		return recordMap;
+	}
+
 	public <T extends BaseComponent> T deactivateBaseComponent(Class<T> subComponentClass, Object pk)
 	{
 		return deactivateBaseComponent(subComponentClass, pk, true, null);
@@ -195,6 +225,7 @@ public class SubComponentServiceImpl
 	void removeLocalMedia(ComponentMedia componentMedia)
 	{
 		//Note: this can't be rolled back
+		MediaDerivativeManager.invalidate(MediaDerivativeManager.componentMediaKey(componentMedia.getComponentMediaId()));
 		Path path = componentMedia.pathToMedia();
 		if (path != null) {
 			if (path.toFile().exists()) {
@@ -254,6 +285,28 @@ public class SubComponentServiceImpl
 		return persistenceService.queryByExample(new QueryByExample(example));
 	}
 
+	/**
+	 * Gets the active attributes for a set of components using one query
+	 *
+	 * @param componentIds
+	 * @return attributes grouped by component id
+	 */
+	public Map<String, List<ComponentAttribute>> getAttributesByComponentIds(Collection<String> componentIds)
+	{
+		Map<String, List<ComponentAttribute>> attributeMap = new HashMap<>();
+		if (componentIds.isEmpty() == false) {
+			String query = "select from " + ComponentAttribute.class.getSimpleName() + " where activeStatus = :activeStatusParam and componentAttributePk.componentId IN :componentIdsParams";
+
+			Map<String, Object> paramMap = new HashMap<>();
+			paramMap.put("activeStatusParam", ComponentAttribute.ACTIVE_STATUS);
+			paramMap.put("componentIdsParams", new ArrayList<>(componentIds));
+
+			List<ComponentAttribute> attributes = persistenceService.query(query, paramMap, true);
+			attributeMap = attributes.stream().collect(Collectors.groupingBy(attribute -> attribute.getComponentAttributePk().getComponentId()));
+		}
+		return attributeMap;
+	}
+
 	public void saveComponentAttribute(ComponentAttribute attribute, boolean updateLastActivity)
 	{
 		saveComponentAttribute(attribute, updateLastActivity, false);
@@ -788,7 +841,8 @@ public class SubComponentServiceImpl
 		}
 		media.setFileName(media.getComponentMediaId());
 		try (InputStream in = fileInput) {
-			Files.copy(in, media.pathToMedia(), StandardCopyOption.REPLACE_EXISTING);
+			FileSystemManager.getBlobStore().store(in, media.pathToMedia());
+			MediaDerivativeManager.invalidate(MediaDerivativeManager.componentMediaKey(media.getComponentMediaId()));
 			media.setUpdateUser(SecurityUtil.getCurrentUserName());
 			media = saveComponentMedia(media, updateLastActivity);
 		} catch (IOException ex) {
@@ -807,7 +861,7 @@ public class SubComponentServiceImpl
 		}
 		resource.setFileName(resource.getResourceId());
 		try (InputStream in = fileInput) {
-			Files.copy(in, resource.pathToResource(), StandardCopyOption.REPLACE_EXISTING);
+			FileSystemManager.getBlobStore().store(in, resource.pathToResource());
 			resource.setUpdateUser(SecurityUtil.getCurrentUserName());
 			saveComponentResource(resource);
 		} catch (IOException ex) {
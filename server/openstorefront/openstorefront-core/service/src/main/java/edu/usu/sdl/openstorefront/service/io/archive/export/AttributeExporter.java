@@ -151,7 +151,7 @@ public class AttributeExporter
 			archive.save();
 			for (TFile mediaFile : media) {
 				try {
-					Files.copy(mediaFile.toPath(), FileSystemManager.getDir(FileSystemManager.ATTACHMENT_DIR).toPath().resolve(mediaFile.getName()), StandardCopyOption.REPLACE_EXISTING);
+					FileSystemManager.getBlobStore().store(mediaFile.toPath(), FileSystemManager.getDir(FileSystemManager.ATTACHMENT_DIR).toPath().resolve(mediaFile.getName()));
 
 					archive.setRecordsProcessed(archive.getRecordsProcessed() + 1);
 					archive.save();
@@ -29,10 +29,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import net.java.truevfs.access.TFile;
@@ -53,6 +54,7 @@ public class ComponentExporter
 	private static final String DATA_DIR = "/components/";
 	private static final String DATA_MEDIA_DIR = "/components/media/";
 	private static final String DATA_RESOURCE_DIR = "/components/resources/";
+	private static final int EXPORT_BATCH_SIZE = 250;
 
 	@Override
 	public int getPriority()
@@ -92,17 +94,31 @@ public class ComponentExporter
 	@Override
 	public void exportRecords()
 	{
+		List<String> componentIds = new ArrayList<>();
 		for (SystemArchiveOption option : archive.getArchiveOptions()) {
 			if (Component.class.getSimpleName().equals(option.getPrimaryEntity())) {
-				ComponentAll componentAll = service.getComponentService().getFullComponent(option.getEntityId());
-				if (componentAll != null) {
-					exportComponent(componentAll);
+				componentIds.add(option.getEntityId());
+			}
+		}
 
-					archive.setRecordsProcessed(archive.getRecordsProcessed() + 1);
-					archive.setStatusDetails("Exported entry " + componentAll.getComponent().getName());
-					archive.save();
-				} else {
-					LOG.log(Level.WARNING, MessageFormat.format("Unable to find component: {0}", option.getEntityId()));
+		//load in batches to keep the number of queries constant per batch
+		for (int start = 0; start < componentIds.size(); start += EXPORT_BATCH_SIZE) {
+			List<String> batchIds = componentIds.subList(start, Math.min(start + EXPORT_BATCH_SIZE, componentIds.size()));
+			List<ComponentAll> componentAlls = service.getComponentService().getFullComponents(batchIds);
+
+			Set<String> foundIds = new HashSet<>();
+			for (ComponentAll componentAll : componentAlls) {
+				foundIds.add(componentAll.getComponent().getComponentId());
+				exportComponent(componentAll);
+
+				archive.setRecordsProcessed(archive.getRecordsProcessed() + 1);
+				archive.setStatusDetails("Exported entry " + componentAll.getComponent().getName());
+				archive.save();
+			}
+
+			for (String componentId : batchIds) {
+				if (foundIds.contains(componentId) == false) {
+					LOG.log(Level.WARNING, MessageFormat.format("Unable to find component: {0}", componentId));
 				}
 			}
 		}
@@ -199,7 +215,7 @@ public class ComponentExporter
 			if (media != null) {
 				for (TFile mediaFile : media) {
 					try {
-						Files.copy(mediaFile.toPath(), FileSystemManager.getDir(FileSystemManager.MEDIA_DIR).toPath().resolve(mediaFile.getName()), StandardCopyOption.REPLACE_EXISTING);
+						FileSystemManager.getBlobStore().store(mediaFile.toPath(), FileSystemManager.getDir(FileSystemManager.MEDIA_DIR).toPath().resolve(mediaFile.getName()));
 					} catch (IOException ex) {
 						LOG.log(Level.WARNING, MessageFormat.format("Failed to copy media to path file: {0}", mediaFile.getName()), ex);
 						addError(MessageFormat.format("Failed to copy media to path file: {0}", mediaFile.getName()));
@@ -215,7 +231,7 @@ public class ComponentExporter
 			if (resources != null) {
 				for (TFile resourceFile : resources) {
 					try {
-						Files.copy(resourceFile.toPath(), FileSystemManager.getDir(FileSystemManager.RESOURCE_DIR).toPath().resolve(resourceFile.getName()), StandardCopyOption.REPLACE_EXISTING);
+						FileSystemManager.getBlobStore().store(resourceFile.toPath(), FileSystemManager.getDir(FileSystemManager.RESOURCE_DIR).toPath().resolve(resourceFile.getName()));
 					} catch (IOException ex) {
 						LOG.log(Level.WARNING, MessageFormat.format("Failed to copy resource to path file: {0}", resourceFile.getName()), ex);
 						addError(MessageFormat.format("Failed to copy resource to path file: {0}", resourceFile.getName()));
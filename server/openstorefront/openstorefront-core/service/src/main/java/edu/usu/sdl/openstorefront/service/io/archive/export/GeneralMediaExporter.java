@@ -138,7 +138,7 @@ public class GeneralMediaExporter
 			if (media != null) {
 				for (TFile mediaFile : media) {
 					try {
-						Files.copy(mediaFile.toPath(), FileSystemManager.getDir(FileSystemManager.GENERAL_MEDIA_DIR).toPath().resolve(mediaFile.getName()), StandardCopyOption.REPLACE_EXISTING);
+						FileSystemManager.getBlobStore().store(mediaFile.toPath(), FileSystemManager.getDir(FileSystemManager.GENERAL_MEDIA_DIR).toPath().resolve(mediaFile.getName()));
 						
 						archive.setRecordsProcessed(archive.getRecordsProcessed() + 1);
 						archive.save();						
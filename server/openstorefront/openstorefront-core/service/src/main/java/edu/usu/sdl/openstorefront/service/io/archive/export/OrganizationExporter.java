@@ -131,7 +131,7 @@ public class OrganizationExporter
 			if (media != null) {
 				for (TFile mediaFile : media) {
 					try {
-						Files.copy(mediaFile.toPath(), FileSystemManager.getDir(FileSystemManager.ORGANIZATION_DIR).toPath().resolve(mediaFile.getName()), StandardCopyOption.REPLACE_EXISTING);
+						FileSystemManager.getBlobStore().store(mediaFile.toPath(), FileSystemManager.getDir(FileSystemManager.ORGANIZATION_DIR).toPath().resolve(mediaFile.getName()));
 
 					} catch (IOException ex) {
 						LOG.log(Level.WARNING, MessageFormat.format("Failed to copy media to path file: {0}", mediaFile.getName()), ex);
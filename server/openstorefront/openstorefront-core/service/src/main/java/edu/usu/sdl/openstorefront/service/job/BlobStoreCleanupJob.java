@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.job;
+
+import edu.usu.sdl.openstorefront.common.manager.BlobStore;
+import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.quartz.JobExecutionContext;
+
+/**
+ * Moves files saved before the blob store into it (duplicates become links)
+ * and removes blobs nothing uses anymore.
+ *
+ * @author dshurtleff
+ */
+public class BlobStoreCleanupJob
+		extends BaseJob
+{
+
+	private static final Logger log = Logger.getLogger(BlobStoreCleanupJob.class.getName());
+
+	private static final List<String> STORED_DIRS = Arrays.asList(
+			FileSystemManager.MEDIA_DIR,
+			FileSystemManager.RESOURCE_DIR,
+			FileSystemManager.GENERAL_MEDIA_DIR,
+			FileSystemManager.ATTACHMENT_DIR,
+			FileSystemManager.ORGANIZATION_DIR
+	);
+
+	@Override
+	protected void executeInternaljob(JobExecutionContext context)
+	{
+		BlobStore blobStore = FileSystemManager.getBlobStore();
+
+		long adopted = 0;
+		for (String storedDir : STORED_DIRS) {
+			File files[] = FileSystemManager.getDir(storedDir).listFiles();
+			if (files != null) {
+				for (File file : files) {
+					try {
+						if (file.isFile()
+								&& (Integer) Files.getAttribute(file.toPath(), "unix:nlink") == 1
+								&& blobStore.isCopy(file.toPath()) == false) {
+							blobStore.adopt(file.toPath());
+							adopted++;
+						}
+					} catch (UnsupportedOperationException | IllegalArgumentException ex) {
+						log.log(Level.FINE, "File system does not report link counts; skipping blob store cleanup.", ex);
+						return;
+					} catch (IOException ex) {
+						log.log(Level.WARNING, MessageFormat.format("Unable to add file to the blob store: {0}", file), ex);
+					}
+				}
+			}
+		}
+
+		long removed = blobStore.collectGarbage();
+		log.log(Level.FINE, MessageFormat.format("Blob store cleanup: added {0} file(s); removed {1} unused blob(s).", adopted, removed));
+	}
+
+}
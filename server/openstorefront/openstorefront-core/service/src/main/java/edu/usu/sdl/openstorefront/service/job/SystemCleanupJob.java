@@ -15,6 +15,7 @@
  */
 package edu.usu.sdl.openstorefront.service.job;
 
+import edu.usu.sdl.openstorefront.service.manager.MailManager;
 import org.quartz.JobExecutionContext;
 
 /**
@@ -34,6 +35,7 @@ public class SystemCleanupJob
 		service.getSystemService().cleanUpOldTemporaryMedia();
 		service.getImportService().cleanupOldFileHistory();
 		service.getNotificationService().cleanupOldEvents();
+		MailManager.cleanupOutbox();
 	}
 
 }
@@ -21,6 +21,7 @@ import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
 import edu.usu.sdl.openstorefront.core.api.query.SpecialOperatorModel;
 import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
 import edu.usu.sdl.openstorefront.core.entity.UserTracking;
+import edu.usu.sdl.openstorefront.service.manager.ComponentStatisticManager;
 import java.text.MessageFormat;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -77,6 +78,8 @@ public class TrackingCleanupJob
 		recordsRemoved = service.getPersistenceService().deleteByExample(queryByExample);
 		log.log(Level.FINEST, MessageFormat.format("Component records removed: {0}", recordsRemoved));
 
+		ComponentStatisticManager.expireBefore(new Date(maxInstant.toEpochMilli()));
+
 	}
 
 }
@@ -22,16 +22,20 @@ import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.core.api.model.TaskFuture;
 import edu.usu.sdl.openstorefront.core.api.model.TaskRequest;
 import edu.usu.sdl.openstorefront.service.manager.model.TaskManagerStatus;
-import java.util.ArrayList;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Handles running async tasks.
+ * Handles running async tasks. Each task category (See
+ * TaskRequest.CATEGORY_*) has its own pool so long running work (Eg. imports)
+ * doesn't hold up other work.
  *
  * @author dshurtleff
  */
@@ -41,20 +45,39 @@ public class AsyncTaskManager
 	private static final Logger log = Logger.getLogger(AsyncTaskManager.class.getName());
 	
 	private static AtomicBoolean started = new AtomicBoolean(false);
-	private static TaskThreadExecutor taskPool;
+	private static volatile Map<String, TaskThreadExecutor> taskPools = Collections.emptyMap();
 
 	public static void init()
 	{
+		//max general threads (as before); threads start as tasks arrive and stop after 30 seconds idle
 		String maxPoolSize = PropertiesManager.getValue(PropertiesManager.KEY_MAX_TASK_POOL_SIZE, "20");
-		int poolSize = Convert.toInteger(maxPoolSize);
-		taskPool = new TaskThreadExecutor(5, poolSize, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(200));
-		taskPool.allowCoreThreadTimeOut(true);		
+		Map<String, TaskThreadExecutor> pools = new LinkedHashMap<>();
+		createPool(pools, TaskRequest.CATEGORY_GENERAL, maxPoolSize, "200", "1000");
+		createPool(pools, TaskRequest.CATEGORY_REPORT, "3", "100", "500");
+		createPool(pools, TaskRequest.CATEGORY_IMPORT, "2", "50", "250");
+		createPool(pools, TaskRequest.CATEGORY_INDEX, "1", "10", "100");
+		createPool(pools, TaskRequest.CATEGORY_BULK, "2", "50", "250");
+		taskPools = Collections.unmodifiableMap(pools);
+		TaskThreadExecutor.loadSavedTasks();
+	}
+
+	private static void createPool(Map<String, TaskThreadExecutor> pools, String category, String defaultSize, String defaultQueue, String defaultBacklog)
+	{
+		String key = category.toLowerCase();
+		int poolSize = Convert.toInteger(PropertiesManager.getValue(MessageFormat.format(PropertiesManager.KEY_TASK_POOL_CATEGORY_SIZE, key), defaultSize));
+		int queueSize = Convert.toInteger(PropertiesManager.getValue(MessageFormat.format(PropertiesManager.KEY_TASK_POOL_CATEGORY_QUEUE, key), defaultQueue));
+		int backlogSize = Convert.toInteger(PropertiesManager.getValue(MessageFormat.format(PropertiesManager.KEY_TASK_POOL_CATEGORY_BACKLOG, key), defaultBacklog));
+		pools.put(category, new TaskThreadExecutor(category, Math.max(1, poolSize), queueSize, backlogSize));
 	}
 
 	public static void cleanup()
 	{
-		if (taskPool != null) {
+		Map<String, TaskThreadExecutor> pools = taskPools;
+		taskPools = Collections.emptyMap();
+		for (TaskThreadExecutor taskPool : pools.values()) {
 			taskPool.shutdownNow();
+		}
+		for (TaskThreadExecutor taskPool : pools.values()) {
 			try {
 				taskPool.awaitTermination(5L, TimeUnit.SECONDS);
 			} catch (InterruptedException ex) {
@@ -63,22 +86,42 @@ public class AsyncTaskManager
 		}
 	}
 
+	/**
+	 * Runs the task on the pool for its category (unknown categories run on
+	 * the general pool)
+	 *
+	 * @param taskRequest
+	 * @return TaskFuture or null if unable to be queued.
+	 */
 	public static TaskFuture submitTask(TaskRequest taskRequest)
 	{
+		TaskThreadExecutor taskPool = null;
+		if (taskRequest.getCategory() != null) {
+			taskPool = taskPools.get(taskRequest.getCategory());
+		}
+		if (taskPool == null) {
+			taskPool = taskPools.get(TaskRequest.CATEGORY_GENERAL);
+		}
+		if (taskPool == null) {
+			throw new OpenStorefrontRuntimeException("Task manager is not running.", "Wait for the application to finish starting.");
+		}
 		return taskPool.submitTask(taskRequest);
 	}
 
 	public static TaskManagerStatus managerStatus()
 	{
 		TaskManagerStatus status = new TaskManagerStatus();
-		status.setActiveCount(taskPool.getActiveCount());
-		status.setCompletedCount(taskPool.getCompletedTaskCount());
-		status.setLargestPoolSize(taskPool.getLargestPoolSize());
-		status.setMaxPoolSize(taskPool.getMaximumPoolSize());
-		status.setQueuedCount(taskPool.getQueue().size());
-		status.setTotalTaskCount(taskPool.getTaskCount());
-		status.setThreadPoolSize(taskPool.getPoolSize());
-		status.getTasks().addAll(taskPool.getTasks());
+		for (TaskThreadExecutor taskPool : taskPools.values()) {
+			status.setActiveCount(status.getActiveCount() + taskPool.getActiveCount());
+			status.setCompletedCount(status.getCompletedCount() + taskPool.getCompletedTaskCount());
+			status.setLargestPoolSize(status.getLargestPoolSize() + taskPool.getLargestPoolSize());
+			status.setMaxPoolSize(status.getMaxPoolSize() + taskPool.getMaximumPoolSize());
+			status.setQueuedCount(status.getQueuedCount() + taskPool.getQueue().size() + taskPool.getDeferredCount());
+			status.setTotalTaskCount(status.getTotalTaskCount() + taskPool.getTaskCount());
+			status.setThreadPoolSize(status.getThreadPoolSize() + taskPool.getPoolSize());
+			status.getPools().add(taskPool.poolStatus());
+		}
+		status.getTasks().addAll(TaskThreadExecutor.getTasks());
 		return status;
 	}
 
@@ -93,25 +136,16 @@ public class AsyncTaskManager
 	{
 		TaskFuture taskFuture = null;
 
-		for (TaskFuture taskFutureLocal : taskPool.getTasks()) {
-			if (taskFutureLocal.getTaskName().equals(name)) {
-				taskFuture = taskFutureLocal;
-				break;
-			}
+		List<TaskFuture> taskFutures = TaskThreadExecutor.getTasksByName(name);
+		if (taskFutures.isEmpty() == false) {
+			taskFuture = taskFutures.get(0);
 		}
 		return taskFuture;
 	}
 
 	public static List<TaskFuture> getTasksByName(String name)
 	{
-		List<TaskFuture> taskFutures = new ArrayList<>();
-
-		for (TaskFuture taskFutureLocal : taskPool.getTasks()) {
-			if (taskFutureLocal.getTaskName().equals(name)) {
-				taskFutures.add(taskFutureLocal);
-			}
-		}
-		return taskFutures;
+		return TaskThreadExecutor.getTasksByName(name);
 	}
 
 	/**
@@ -123,7 +157,7 @@ public class AsyncTaskManager
 	 */
 	public static boolean cancelTask(String taskId, boolean interrupt)
 	{
-		return taskPool.cancelTask(taskId, interrupt);
+		return TaskThreadExecutor.cancelTask(taskId, interrupt);
 	}
 
 	/**
@@ -135,20 +169,12 @@ public class AsyncTaskManager
 	 */
 	public static void deleteTask(String taskId)
 	{
-		taskPool.removeTask(taskId);
+		TaskThreadExecutor.removeTask(taskId);
 	}
 
 	public static TaskFuture getTaskById(String taskId)
 	{
-		TaskFuture taskFuture = null;
-
-		for (TaskFuture taskFutureLocal : taskPool.getTasks()) {
-			if (taskFutureLocal.getTaskId().equals(taskId)) {
-				taskFuture = taskFutureLocal;
-				break;
-			}
-		}
-		return taskFuture;
+		return TaskThreadExecutor.getTask(taskId);
 	}
 
 	@Override
@@ -0,0 +1,538 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import edu.usu.sdl.openstorefront.common.manager.Initializable;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.api.PersistenceService;
+import edu.usu.sdl.openstorefront.core.entity.ComponentStatistic;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
+import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
+import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import java.text.MessageFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps view/resource click counters per component (all-time and per day) so
+ * readers don't have to count the tracking table.
+ *
+ * Tracking writes add to in-memory counters; a background thread adds the
+ * pending amounts to the ComponentStatistic records. The all-time counters are
+ * held in memory so reads don't touch the database.
+ *
+ * @author dshurtleff
+ */
+public class ComponentStatisticManager
+		implements Initializable
+{
+
+	private static final Logger LOG = Logger.getLogger(ComponentStatisticManager.class.getName());
+
+	private static final String DEFAULT_FLUSH_INTERVAL = "10000";
+	private static final String DAY_PATTERN = "yyyyMMdd";
+	private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern(DAY_PATTERN);
+
+	private static AtomicBoolean started = new AtomicBoolean(false);
+
+	//componentId -> all-time counts (persisted + pending)
+	private static final Map<String, Counter> totals = new ConcurrentHashMap<>();
+
+	//statistic id -> amounts not yet written
+	private static final Map<String, Counter> pending = new ConcurrentHashMap<>();
+
+	//recording shares the lock; removing counters takes it exclusively (after the class monitor)
+	private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private static ScheduledExecutorService writer;
+
+	public static void init()
+	{
+		long flushInterval = Convert.toLong(PropertiesManager.getValue(PropertiesManager.KEY_STATISTIC_FLUSH_INTERVAL, DEFAULT_FLUSH_INTERVAL));
+
+		writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Component-Statistic-Writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		boolean needsRebuild = loadTotals();
+		if (needsRebuild) {
+			writer.execute(ComponentStatisticManager::rebuild);
+		}
+		writer.scheduleWithFixedDelay(ComponentStatisticManager::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+	}
+
+	public static void cleanup()
+	{
+		if (writer != null) {
+			writer.shutdown();
+			try {
+				writer.awaitTermination(5L, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				LOG.log(Level.WARNING, "Statistic writer was interrupted durning shutdown.");
+				Thread.currentThread().interrupt();
+			}
+			writer = null;
+		}
+		flush();
+		totals.clear();
+	}
+
+	/**
+	 * Loads the all-time counters
+	 *
+	 * @return true if there are no counters but there is tracking
+	 */
+	private static boolean loadTotals()
+	{
+		PersistenceService persistenceService = new ServiceProxy().getPersistenceService();
+
+		List<ComponentStatistic> statistics = persistenceService.query("select from " + ComponentStatistic.class.getSimpleName() + " where statisticDate is null", null);
+		for (ComponentStatistic statistic : statistics) {
+			Counter counter = totals.computeIfAbsent(statistic.getComponentId(), key -> new Counter(statistic.getComponentId(), null));
+			counter.views.add(Convert.toLong(statistic.getViews()));
+			counter.resourceClicks.add(Convert.toLong(statistic.getResourceClicks()));
+		}
+
+		if (statistics.isEmpty()) {
+			ComponentTracking componentTrackingExample = new ComponentTracking();
+			return persistenceService.countByExample(componentTrackingExample) > 0;
+		}
+		return false;
+	}
+
+	/**
+	 * Counts a saved tracking record
+	 *
+	 * @param tracking
+	 */
+	public static void record(ComponentTracking tracking)
+	{
+		if (tracking == null
+				|| tracking.getComponentId() == null
+				|| tracking.getEventDts() == null
+				|| ComponentTracking.ACTIVE_STATUS.equals(tracking.getActiveStatus()) == false) {
+			return;
+		}
+
+		boolean view = TrackEventCode.VIEW.equals(tracking.getTrackEventTypeCode());
+		boolean click = TrackEventCode.EXTERNAL_LINK_CLICK.equals(tracking.getTrackEventTypeCode());
+		if (view == false && click == false) {
+			return;
+		}
+
+		lock.readLock().lock();
+		try {
+			String componentId = tracking.getComponentId();
+			String dayKey = toDayKey(tracking.getEventDts());
+			Counter total = totals.computeIfAbsent(componentId, key -> new Counter(componentId, null));
+			Counter day = pending.computeIfAbsent(ComponentStatistic.toStatisticId(componentId, dayKey), key -> new Counter(componentId, dayKey));
+			if (view) {
+				total.views.increment();
+				day.views.increment();
+			} else {
+				total.resourceClicks.increment();
+				day.resourceClicks.increment();
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param componentId
+	 * @return all-time views of the component
+	 */
+	public static long getViews(String componentId)
+	{
+		Counter counter = totals.get(componentId);
+		return counter != null ? counter.views.sum() : 0;
+	}
+
+	/**
+	 * @param componentId
+	 * @return all-time resource clicks of the component
+	 */
+	public static long getResourceClicks(String componentId)
+	{
+		Counter counter = totals.get(componentId);
+		return counter != null ? counter.resourceClicks.sum() : 0;
+	}
+
+	/**
+	 * @return componentId -> all-time views
+	 */
+	public static Map<String, Long> getAllViews()
+	{
+		Map<String, Long> views = new HashMap<>();
+		totals.forEach((componentId, counter) -> views.put(componentId, counter.views.sum()));
+		return views;
+	}
+
+	/**
+	 * Writes pending counts; anything that fails to save is put back and
+	 * retried on the next flush.
+	 */
+	public static synchronized void flush()
+	{
+		if (pending.isEmpty()) {
+			return;
+		}
+
+		Map<String, long[]> totalDeltas = new HashMap<>();
+		List<ComponentStatistic> dayDeltas = new ArrayList<>();
+		String today = toDayKey(TimeUtil.currentDate());
+
+		for (Map.Entry<String, Counter> entry : pending.entrySet()) {
+			Counter counter = entry.getValue();
+			long views = counter.views.sumThenReset();
+			long clicks = counter.resourceClicks.sumThenReset();
+
+			if (today.equals(counter.dayKey) == false) {
+				//late events for past days are rare; drop the entry and keep anything that raced in
+				lock.writeLock().lock();
+				try {
+					pending.remove(entry.getKey(), counter);
+					views += counter.views.sumThenReset();
+					clicks += counter.resourceClicks.sumThenReset();
+				} finally {
+					lock.writeLock().unlock();
+				}
+			}
+			if (views == 0 && clicks == 0) {
+				continue;
+			}
+
+			if (counter.dayKey != null) {
+				dayDeltas.add(toStatistic(counter.componentId, counter.dayKey, views, clicks));
+			}
+			long[] totalDelta = totalDeltas.computeIfAbsent(counter.componentId, key -> new long[2]);
+			totalDelta[0] += views;
+			totalDelta[1] += clicks;
+		}
+
+		int failed = 0;
+		Exception lastError = null;
+		PersistenceService persistenceService = new ServiceProxy().getNewPersistenceService();
+		for (ComponentStatistic dayDelta : dayDeltas) {
+			try {
+				addToStatistic(persistenceService, dayDelta);
+			} catch (Exception e) {
+				//the all-time count is added with it on the retry
+				restore(dayDelta.getComponentId(), toDayKey(dayDelta.getStatisticDate()), dayDelta.getViews(), dayDelta.getResourceClicks());
+				long[] totalDelta = totalDeltas.get(dayDelta.getComponentId());
+				totalDelta[0] -= dayDelta.getViews();
+				totalDelta[1] -= dayDelta.getResourceClicks();
+				failed++;
+				lastError = e;
+			}
+		}
+		for (Map.Entry<String, long[]> entry : totalDeltas.entrySet()) {
+			long views = entry.getValue()[0];
+			long clicks = entry.getValue()[1];
+			if (views == 0 && clicks == 0) {
+				continue;
+			}
+			try {
+				addToStatistic(persistenceService, toStatistic(entry.getKey(), null, views, clicks));
+			} catch (Exception e) {
+				restore(entry.getKey(), null, views, clicks);
+				failed++;
+				lastError = e;
+			}
+		}
+		if (lastError != null) {
+			//Keep the scheduled writer alive; the in-memory totals are still correct
+			LOG.log(Level.SEVERE, MessageFormat.format("Unable to save {0} component statistic update(s); they will be retried.", failed), lastError);
+		}
+	}
+
+	/**
+	 * Puts unsaved amounts back in the pending counts
+	 */
+	private static void restore(String componentId, String dayKey, long views, long clicks)
+	{
+		Counter counter = pending.computeIfAbsent(ComponentStatistic.toStatisticId(componentId, dayKey), key -> new Counter(componentId, dayKey));
+		counter.views.add(views);
+		counter.resourceClicks.add(clicks);
+	}
+
+	private static void addToStatistic(PersistenceService persistenceService, ComponentStatistic delta)
+	{
+		Map<String, Object> params = new HashMap<>();
+		params.put("viewsParam", delta.getViews());
+		params.put("clicksParam", delta.getResourceClicks());
+		params.put("updateDtsParam", delta.getUpdateDts());
+		params.put("idParam", delta.getComponentStatisticId());
+
+		int updated = persistenceService.runDbCommand("update " + ComponentStatistic.class.getSimpleName()
+				+ " set views = views + :viewsParam, resourceClicks = resourceClicks + :clicksParam, updateDts = :updateDtsParam "
+				+ " where componentStatisticId = :idParam", params);
+		if (updated == 0) {
+			persistenceService.persist(delta);
+		}
+	}
+
+	/**
+	 * Queues a rebuild on the background writer
+	 */
+	public static void requestRebuild()
+	{
+		ScheduledExecutorService currentWriter = writer;
+		if (currentWriter != null) {
+			currentWriter.execute(ComponentStatisticManager::rebuild);
+		} else {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Recounts everything from the tracking records. The counts are built
+	 * without holding up recording and replaced in one transaction; events
+	 * saved while this runs may be off by the few in flight.
+	 */
+	public static void rebuild()
+	{
+		LOG.log(Level.INFO, "Rebuilding component statistics from tracking.");
+		PersistenceService persistenceService = new ServiceProxy().getNewPersistenceService();
+
+		Map<String, Object> params = new HashMap<>();
+		params.put("activeStatusParam", ComponentTracking.ACTIVE_STATUS);
+		params.put("viewParam", TrackEventCode.VIEW);
+		params.put("clickParam", TrackEventCode.EXTERNAL_LINK_CLICK);
+
+		//one pass over tracking grouped by day; the all-time counts are the sum of the days
+		String countQuery = "select componentId, trackEventTypeCode, eventDay, count(*) as eventCount from "
+				+ "(select componentId, trackEventTypeCode, eventDts.format('" + DAY_PATTERN + "') as eventDay from " + ComponentTracking.class.getSimpleName()
+				+ " where activeStatus = :activeStatusParam and trackEventTypeCode IN [:viewParam, :clickParam] and eventDts is not null) "
+				+ " group by componentId, trackEventTypeCode, eventDay";
+
+		Map<String, ComponentStatistic> statistics = new HashMap<>();
+		long records = 0;
+		List<ODocument> documents = persistenceService.query(countQuery, params);
+		for (ODocument document : documents) {
+			String dayKey = document.field("eventDay");
+			if (dayKey != null) {
+				countEvents(statistics, document, dayKey);
+				records += countEvents(statistics, document, null);
+			}
+		}
+
+		Map<String, Counter> rebuiltTotals = new HashMap<>();
+		for (ComponentStatistic statistic : statistics.values()) {
+			if (statistic.getStatisticDate() == null) {
+				Counter counter = new Counter(statistic.getComponentId(), null);
+				counter.views.add(statistic.getViews());
+				counter.resourceClicks.add(statistic.getResourceClicks());
+				rebuiltTotals.put(statistic.getComponentId(), counter);
+			}
+		}
+
+		synchronized (ComponentStatisticManager.class) {
+			try {
+				persistenceService.begin();
+				persistenceService.runDbCommand("delete from " + ComponentStatistic.class.getSimpleName(), new HashMap<>());
+				for (ComponentStatistic statistic : statistics.values()) {
+					persistenceService.persist(statistic);
+				}
+				persistenceService.commit();
+			} catch (Exception e) {
+				if (persistenceService.isTransactionActive()) {
+					persistenceService.rollback();
+				}
+				//the old counters are left as they were
+				LOG.log(Level.SEVERE, "Unable to save the rebuilt component statistics.", e);
+				return;
+			} finally {
+				persistenceService.endTransaction();
+			}
+
+			lock.writeLock().lock();
+			try {
+				pending.clear();
+				totals.clear();
+				totals.putAll(rebuiltTotals);
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+		LOG.log(Level.INFO, MessageFormat.format("Rebuilt component statistics from {0} tracking records.", records));
+	}
+
+	/**
+	 * Adds a grouped count (componentId, trackEventTypeCode, eventCount)
+	 *
+	 * @return events counted
+	 */
+	private static long countEvents(Map<String, ComponentStatistic> statistics, ODocument document, String dayKey)
+	{
+		String componentId = document.field("componentId");
+		Number eventCount = document.field("eventCount");
+		if (componentId == null || eventCount == null) {
+			return 0;
+		}
+		boolean view = TrackEventCode.VIEW.equals(document.field("trackEventTypeCode"));
+		ComponentStatistic statistic = statistics.computeIfAbsent(ComponentStatistic.toStatisticId(componentId, dayKey), key -> toStatistic(componentId, dayKey, 0, 0));
+		if (view) {
+			statistic.setViews(statistic.getViews() + eventCount.longValue());
+		} else {
+			statistic.setResourceClicks(statistic.getResourceClicks() + eventCount.longValue());
+		}
+		return eventCount.longValue();
+	}
+
+	/**
+	 * Removes day counts before the cutoff (and takes them out of the
+	 * all-time counts) to stay in line with the tracking clean up.
+	 *
+	 * @param cutoff
+	 */
+	public static void expireBefore(Date cutoff)
+	{
+		synchronized (ComponentStatisticManager.class) {
+			lock.writeLock().lock();
+			try {
+				flush();
+
+				PersistenceService persistenceService = new ServiceProxy().getNewPersistenceService();
+				Map<String, Object> params = new HashMap<>();
+				params.put("cutoffParam", TimeUtil.beginningOfDay(cutoff));
+				List<ComponentStatistic> expired = persistenceService.query("select from " + ComponentStatistic.class.getSimpleName()
+						+ " where statisticDate < :cutoffParam", params);
+
+				Map<String, long[]> totalDeltas = new HashMap<>();
+				for (ComponentStatistic statistic : expired) {
+					long[] totalDelta = totalDeltas.computeIfAbsent(statistic.getComponentId(), key -> new long[2]);
+					totalDelta[0] -= Convert.toLong(statistic.getViews());
+					totalDelta[1] -= Convert.toLong(statistic.getResourceClicks());
+				}
+				for (Map.Entry<String, long[]> entry : totalDeltas.entrySet()) {
+					addToStatistic(persistenceService, toStatistic(entry.getKey(), null, entry.getValue()[0], entry.getValue()[1]));
+					Counter counter = totals.get(entry.getKey());
+					if (counter != null) {
+						counter.views.add(entry.getValue()[0]);
+						counter.resourceClicks.add(entry.getValue()[1]);
+					}
+				}
+				persistenceService.runDbCommand("delete from " + ComponentStatistic.class.getSimpleName() + " where statisticDate < :cutoffParam", params);
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Drops the counters of a deleted component
+	 *
+	 * @param componentId
+	 */
+	public static void removeComponent(String componentId)
+	{
+		synchronized (ComponentStatisticManager.class) {
+			lock.writeLock().lock();
+			try {
+				totals.remove(componentId);
+				pending.values().removeIf(counter -> counter.componentId.equals(componentId));
+
+				ComponentStatistic statisticExample = new ComponentStatistic();
+				statisticExample.setComponentId(componentId);
+				new ServiceProxy().getPersistenceService().deleteByExample(statisticExample);
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	private static ComponentStatistic toStatistic(String componentId, String dayKey, long views, long clicks)
+	{
+		ComponentStatistic statistic = new ComponentStatistic();
+		statistic.setComponentStatisticId(ComponentStatistic.toStatisticId(componentId, dayKey));
+		statistic.setComponentId(componentId);
+		if (dayKey != null) {
+			statistic.setStatisticDate(Date.from(LocalDate.parse(dayKey, DAY_FORMAT).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+		}
+		statistic.setViews(views);
+		statistic.setResourceClicks(clicks);
+		statistic.setUpdateDts(TimeUtil.currentDate());
+		return statistic;
+	}
+
+	private static String toDayKey(Date date)
+	{
+		return toLocalDate(date).format(DAY_FORMAT);
+	}
+
+	private static LocalDate toLocalDate(Date date)
+	{
+		return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+
+	@Override
+	public void initialize()
+	{
+		ComponentStatisticManager.init();
+		started.set(true);
+	}
+
+	@Override
+	public void shutdown()
+	{
+		ComponentStatisticManager.cleanup();
+		started.set(false);
+	}
+
+	@Override
+	public boolean isStarted()
+	{
+		return started.get();
+	}
+
+	private static class Counter
+	{
+
+		private final String componentId;
+		private final String dayKey;
+		private final LongAdder views = new LongAdder();
+		private final LongAdder resourceClicks = new LongAdder();
+
+		public Counter(String componentId, String dayKey)
+		{
+			this.componentId = componentId;
+			this.dayKey = dayKey;
+		}
+
+	}
+
+}
@@ -45,6 +45,14 @@ public class DBLogManager
 		return max;
 	}
 
+	/**
+	 * @return the active handler or null if DB logging is off
+	 */
+	public static DBLogHandler getLogHandler()
+	{
+		return logHandler;
+	}
+
 	public static void init()
 	{
 		String useDBLogger = PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_DBLOG_ON);
@@ -79,6 +87,7 @@ public class DBLogManager
 		}
 		if (logHandler != null) {
 			logHandler.close();
+			logHandler = null;
 		}
 	}
 
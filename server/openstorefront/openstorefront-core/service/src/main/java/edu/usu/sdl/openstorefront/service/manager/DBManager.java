@@ -19,6 +19,9 @@ import com.orientechnologies.orient.core.command.OCommandOutputListener;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.db.tool.ODatabaseExport;
 import com.orientechnologies.orient.core.db.tool.ODatabaseImport;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.object.db.OObjectDatabasePool;
 import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
 import com.orientechnologies.orient.server.OServer;
@@ -28,10 +31,15 @@ import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
 import edu.usu.sdl.openstorefront.common.manager.Initializable;
 import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
 import edu.usu.sdl.openstorefront.core.entity.BaseEntity;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
+import edu.usu.sdl.openstorefront.core.entity.ComponentReview;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -55,6 +63,13 @@ public class DBManager
 
 	private static OObjectDatabasePool globalInstance;
 
+	private static final String FIELD_COMPONENT_ID = "componentId";
+	private static final List<Class<?>> COMPONENT_ID_INDEXED = Arrays.asList(
+			ComponentAttribute.class,
+			ComponentReview.class,
+			ComponentTag.class
+	);
+
 	@Override
 	public void initialize()
 	{
@@ -99,6 +114,7 @@ public class DBManager
 
 			try (OObjectDatabaseTx db = getConnection()) {
 				db.getEntityManager().registerEntityClasses(ENTITY_MODEL_PACKAGE, BaseEntity.class.getClassLoader());
+				createIndexes(db);
 			}
 
 			started.set(true);
@@ -109,6 +125,31 @@ public class DBManager
 		}
 	}
 
+	/**
+	 * Adds the (non-unique) indexes that lookups by component rely on; an
+	 * existing index is left alone.
+	 *
+	 * @param db
+	 */
+	public static void createIndexes(OObjectDatabaseTx db)
+	{
+		OSchema schema = db.getMetadata().getSchema();
+		for (Class<?> entityClass : COMPONENT_ID_INDEXED) {
+			OClass oClass = schema.getClass(entityClass.getSimpleName());
+			if (oClass == null) {
+				continue;
+			}
+			String indexName = entityClass.getSimpleName() + "." + FIELD_COMPONENT_ID;
+			if (oClass.getClassIndex(indexName) == null) {
+				LOG.log(Level.INFO, "Creating index: {0}", indexName);
+				if (oClass.getProperty(FIELD_COMPONENT_ID) == null) {
+					oClass.createProperty(FIELD_COMPONENT_ID, OType.STRING);
+				}
+				oClass.createIndex(indexName, OClass.INDEX_TYPE.NOTUNIQUE, FIELD_COMPONENT_ID);
+			}
+		}
+	}
+
 	/**
 	 * Called once at application shutdown
 	 */
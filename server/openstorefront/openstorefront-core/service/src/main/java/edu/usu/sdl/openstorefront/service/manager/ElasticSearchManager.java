@@ -18,23 +18,25 @@ package edu.usu.sdl.openstorefront.service.manager;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
 import edu.usu.sdl.openstorefront.common.manager.Initializable;
 import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
 import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
 import edu.usu.sdl.openstorefront.common.util.StringProcessor;
-import edu.usu.sdl.openstorefront.core.entity.ApprovalStatus;
 import edu.usu.sdl.openstorefront.core.entity.Component;
-import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
-import edu.usu.sdl.openstorefront.core.entity.ComponentReview;
-import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
+import edu.usu.sdl.openstorefront.core.filter.DataRestrictionPredicate;
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacet;
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacetValue;
 import edu.usu.sdl.openstorefront.core.model.search.SearchSuggestion;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchWrapper;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.core.view.SearchQuery;
 import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.search.ComponentIndexLoader;
 import edu.usu.sdl.openstorefront.service.search.IndexSearchResult;
 import edu.usu.sdl.openstorefront.service.search.SearchServer;
 import edu.usu.sdl.openstorefront.service.search.SolrComponentModel;
@@ -42,30 +44,38 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import org.apache.commons.lang.StringUtils;
+import org.elasticsearch.action.ListenableActionFuture;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsRequest;
 import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsResponse;
+import org.elasticsearch.action.admin.indices.mapping.put.PutMappingResponse;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteResponse;
+import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.transport.TransportClient;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.sort.FieldSortBuilder;
 import org.elasticsearch.search.sort.SortOrder;
 
@@ -82,10 +92,27 @@ public class ElasticSearchManager
 	private static final String INDEX = "openstorefront";
 	private static final String INDEX_TYPE = "component";
 	private static final String ELASTICSEARCH_ALL_FIELDS = "_all";
+	private static final int INDEX_PAGE_SIZE = 500;
+	private static final int MAX_BULK_IN_FLIGHT = 2;
+
+	//exact (not analyzed) copies of the facet values; kept out of _all
+	private static final String FACET_PREFIX = "facet_";
+	//exact values used to restrict results (and facet counts) in the query
+	private static final String RESTRICT_PREFIX = "restrict_";
+	private static final String FIELD_RESTRICT_DATA_SOURCE = RESTRICT_PREFIX + "dataSource";
+	private static final String FIELD_RESTRICT_DATA_SENSITIVITY = RESTRICT_PREFIX + "dataSensitivity";
+	private static final String FIELD_RESTRICT_SEARCHABLE = RESTRICT_PREFIX + "searchable";
+	private static final String FACET_MAPPING = "{\"dynamic_templates\":[{\"facets\":{"
+			+ "\"match\":\"" + FACET_PREFIX + "*\",\"match_mapping_type\":\"string\","
+			+ "\"mapping\":{\"type\":\"string\",\"index\":\"not_analyzed\",\"include_in_all\":false}}},"
+			+ "{\"restrictions\":{"
+			+ "\"match\":\"" + RESTRICT_PREFIX + "*\",\"match_mapping_type\":\"string\","
+			+ "\"mapping\":{\"type\":\"string\",\"index\":\"not_analyzed\",\"include_in_all\":false}}}]}";
 
 	private static AtomicBoolean started = new AtomicBoolean(false);
 	private static Client client;
 	private static AtomicBoolean checkIndex = new AtomicBoolean(true);
+	private static AtomicBoolean checkMapping = new AtomicBoolean(true);
 
 	public static void init()
 	{
@@ -123,6 +150,19 @@ public class ElasticSearchManager
 			}
 
 			checkIndex.set(true);
+
+			//existing indexes pick up the template for new documents
+			if (checkMapping.get()) {
+				PutMappingResponse putMappingResponse = client.admin().indices()
+						.preparePutMapping(INDEX)
+						.setType(INDEX_TYPE)
+						.setSource(FACET_MAPPING)
+						.get();
+				if (putMappingResponse.isAcknowledged() == false) {
+					LOG.log(Level.WARNING, "Search index: " + INDEX + " facet mapping was not acknowledged; facet counts may be split into words.");
+				}
+				checkMapping.set(false);
+			}
 		}
 
 		return client;
@@ -156,13 +196,14 @@ public class ElasticSearchManager
 	{
 		ComponentSearchWrapper componentSearchWrapper = new ComponentSearchWrapper();
 
-		IndexSearchResult indexSearchResult = doIndexSearch(searchQuery.getQuery(), filter);
+		IndexSearchResult indexSearchResult = doIndexSearch(searchQuery.getQuery(), filter, null, searchQuery.getFacets());
 
 		SearchServerManager.updateSearchScore(searchQuery.getQuery(), indexSearchResult.getSearchViews());
 
 		componentSearchWrapper.setData(indexSearchResult.getSearchViews());
 		componentSearchWrapper.setResults(indexSearchResult.getSearchViews().size());
 		componentSearchWrapper.setTotalNumber(indexSearchResult.getTotalResults());
+		SearchServerManager.applyFacets(componentSearchWrapper, indexSearchResult);
 
 		return componentSearchWrapper;
 	}
@@ -175,8 +216,15 @@ public class ElasticSearchManager
 
 	@Override
 	public IndexSearchResult doIndexSearch(String query, FilterQueryParams filter, String[] addtionalFieldsToReturn)
+	{
+		return doIndexSearch(query, filter, addtionalFieldsToReturn, null);
+	}
+
+	@Override
+	public IndexSearchResult doIndexSearch(String query, FilterQueryParams filter, String[] addtionalFieldsToReturn, List<String> facetFields)
 	{
 		IndexSearchResult indexSearchResult = new IndexSearchResult();
+		List<String> facets = SearchServerManager.facetFields(facetFields);
 
 		int maxSearchResults = 10000;
 		if (filter.getMax() < maxSearchResults) {
@@ -271,42 +319,96 @@ public class ElasticSearchManager
 		FieldSortBuilder sort = new FieldSortBuilder(filter.getSortField())
 				.unmappedType("String") // currently the only fileds we are searching/sorting on are strings
 				.order(OpenStorefrontConstant.SORT_ASCENDING.equals(filter.getSortOrder()) ? SortOrder.ASC : SortOrder.DESC);
-		SearchResponse response = ElasticSearchManager.getClient()
+		SearchRequestBuilder searchRequest = ElasticSearchManager.getClient()
 				.prepareSearch(INDEX)
-				.setQuery(esQuery)
+				.setQuery(restrict(esQuery, SearchServerManager.dataRestriction()))
 				.setFrom(filter.getOffset())
 				.setSize(maxSearchResults)
-				.addSort(sort)
-				.execute()
-				.actionGet();
+				.addSort(sort);
+
+		//counted by the server over all matches
+		for (String facet : facets) {
+			searchRequest.addAggregation(AggregationBuilders.terms(facet)
+					.field(FACET_PREFIX + facet)
+					.size(SearchServerManager.FACET_LIMIT));
+		}
+		SearchResponse response = searchRequest.execute().actionGet();
 
 		indexSearchResult.setTotalResults(response.getHits().getTotalHits());
 		indexSearchResult.setMaxScore(response.getHits().getMaxScore());
 
+		for (String facet : facets) {
+			ResultFacet resultFacet = new ResultFacet(facet);
+			Terms terms = response.getAggregations() != null ? response.getAggregations().get(facet) : null;
+			if (terms != null) {
+				for (Terms.Bucket bucket : terms.getBuckets()) {
+					resultFacet.getValues().add(new ResultFacetValue(bucket.getKeyAsString(), bucket.getDocCount()));
+				}
+			}
+			indexSearchResult.getFacets().add(resultFacet);
+		}
+
+		//results come from the stored view; stale entries (Eg. indexed before the restriction fields) are fixed in the background
 		ObjectMapper objectMapper = StringProcessor.defaultObjectMapper();
+		List<String> staleIds = new ArrayList<>();
 		for (SearchHit hit : response.getHits().getHits()) {
 			try {
 				ComponentSearchView view = objectMapper.readValue(hit.getSourceAsString(), new TypeReference<ComponentSearchView>()
 				{
 				});
-				if (service.getComponentService().checkComponentApproval(view.getComponentId())) {
+				if (SearchServerManager.isSearchable(view)) {
 					view.setSearchScore(hit.getScore());
 					indexSearchResult.getSearchViews().add(view);
 					indexSearchResult.getResultsList().add(SolrComponentModel.fromComponentSearchView(view));
 				} else {
-					LOG.log(Level.FINER, MessageFormat.format("Component is no long approved and active.  Removing index.  {0}", view.getComponentId()));
+					LOG.log(Level.FINER, MessageFormat.format("Component is no long approved and active.  Queuing index removal.  {0}", view.getComponentId()));
 					indexSearchResult.setTotalResults(indexSearchResult.getTotalResults() - 1);
-					deleteById(view.getComponentId());
+					staleIds.add(view.getComponentId());
 				}
 			} catch (IOException ex) {
 				throw new OpenStorefrontRuntimeException("Unable to handle search result", "check index database", ex);
 			}
 		}
+		SearchServerManager.reconcile(staleIds);
 		indexSearchResult.applyDataFilter();
 
 		return indexSearchResult;
 	}
 
+	/**
+	 * Filters (no effect on scores) to what the user can see so the totals
+	 * and facets match what is returned. Entries indexed before the
+	 * restriction fields existed are treated as unspecified and searchable.
+	 */
+	private QueryBuilder restrict(QueryBuilder esQuery, DataRestrictionPredicate restriction)
+	{
+		BoolQueryBuilder restricted = QueryBuilders.boolQuery()
+				.must(esQuery)
+				.mustNot(QueryBuilders.termQuery(FIELD_RESTRICT_SEARCHABLE, Boolean.FALSE.toString()));
+		if (restriction != null) {
+			restricted.filter(anyValue(FIELD_RESTRICT_DATA_SOURCE, restriction.getDataSources(), restriction.isAllowUnspecifiedDataSource()));
+			restricted.filter(anyValue(FIELD_RESTRICT_DATA_SENSITIVITY, restriction.getDataSensitivities(), restriction.isAllowUnspecifiedDataSensitivity()));
+		}
+		return restricted;
+	}
+
+	private QueryBuilder anyValue(String field, Set<String> values, boolean allowUnspecified)
+	{
+		//at least one should clause has to match; none matches nothing
+		BoolQueryBuilder anyValue = QueryBuilders.boolQuery()
+				.minimumNumberShouldMatch(1);
+		if (values.isEmpty() == false) {
+			anyValue.should(QueryBuilders.termsQuery(field, values));
+		}
+		if (allowUnspecified) {
+			anyValue.should(QueryBuilders.boolQuery().mustNot(QueryBuilders.existsQuery(field)));
+		}
+		if (values.isEmpty() && allowUnspecified == false) {
+			anyValue.mustNot(QueryBuilders.matchAllQuery());
+		}
+		return anyValue;
+	}
+
 	@Override
 	public List<SearchSuggestion> searchSuggestions(String query, int maxResult, String componentType)
 	{
@@ -378,10 +480,8 @@ public class ElasticSearchManager
 			suggestion.setComponentId(model.getId());
 			suggestion.setQuery("\"" + model.getName() + "\"");
 
-			// Only include approved components.
-			if (service.getComponentService().checkComponentApproval(suggestion.getComponentId())) {
-				searchSuggestions.add(suggestion);
-			}
+			//approval was checked by the search
+			searchSuggestions.add(suggestion);
 		}
 
 		return searchSuggestions;
@@ -393,55 +493,58 @@ public class ElasticSearchManager
 		Objects.requireNonNull(components);
 
 		if (!components.isEmpty()) {
-			ObjectMapper objectMapper = StringProcessor.defaultObjectMapper();
-			BulkRequestBuilder bulkRequest = ElasticSearchManager.getClient().prepareBulk();
-
-			//pull attribute and map
-			ComponentAttribute componentAttribute = new ComponentAttribute();
-			componentAttribute.setActiveStatus(ComponentAttribute.ACTIVE_STATUS);
-			List<ComponentAttribute> componentAttributes = componentAttribute.findByExample();
-			Map<String, List<ComponentAttribute>> attributeMap = componentAttributes.stream().collect(Collectors.groupingBy(ComponentAttribute::getComponentId));
-
-			//pull reviews and map
-			ComponentReview componentReview = new ComponentReview();
-			componentReview.setActiveStatus(ComponentReview.ACTIVE_STATUS);
-			List<ComponentReview> componentReviews = componentReview.findByExample();
-			Map<String, List<ComponentReview>> reviewMap = componentReviews.stream().collect(Collectors.groupingBy(ComponentReview::getComponentId));
-
-			//pull tags and map
-			ComponentTag componentTag = new ComponentTag();
-			componentTag.setActiveStatus(ComponentReview.ACTIVE_STATUS);
-			List<ComponentTag> componentTags = componentTag.findByExample();
-			Map<String, List<ComponentTag>> tagMap = componentTags.stream().collect(Collectors.groupingBy(ComponentTag::getComponentId));
-
-			for (Component component : components) {
-
-				//convert to search result object
-				componentAttributes = attributeMap.getOrDefault(component.getComponentId(), new ArrayList<>());
-				componentReviews = reviewMap.getOrDefault(component.getComponentId(), new ArrayList<>());
-				componentTags = tagMap.getOrDefault(component.getComponentId(), new ArrayList<>());
-
-				ComponentSearchView componentSearchView = ComponentSearchView.toView(component, componentAttributes, componentReviews, componentTags);
-
-				try {
-					bulkRequest.add(ElasticSearchManager.getClient().prepareIndex(INDEX, INDEX_TYPE, componentSearchView.getComponentId())
-							.setSource(objectMapper.writeValueAsBytes(componentSearchView)));
-				} catch (JsonProcessingException ex) {
-					LOG.log(Level.SEVERE, MessageFormat.format("Unable to index component: {0}  Component will be missing from search.", componentSearchView.getName()));
-				}
+			ComponentIndexLoader indexLoader = new ComponentIndexLoader(service.getPersistenceService());
+			BulkResponse bulkResponse = buildBulkRequest(indexLoader, components).get();
+			logBulkResponse(bulkResponse);
+		}
+	}
+
+	private BulkRequestBuilder buildBulkRequest(ComponentIndexLoader indexLoader, List<Component> components)
+	{
+		ObjectMapper objectMapper = StringProcessor.defaultObjectMapper();
+		BulkRequestBuilder bulkRequest = ElasticSearchManager.getClient().prepareBulk();
+
+		//pull attributes, reviews and tags for just these components
+		indexLoader.load(components);
+
+		for (Component component : components) {
+
+			//convert to search result object
+			ComponentSearchView componentSearchView = ComponentSearchView.toView(component,
+					indexLoader.getAttributes(component.getComponentId()),
+					indexLoader.getReviews(component.getComponentId()),
+					indexLoader.getTags(component.getComponentId()));
+
+			ObjectNode source = objectMapper.valueToTree(componentSearchView);
+			for (String facet : ResultFacet.FIELDS) {
+				ArrayNode values = source.putArray(FACET_PREFIX + facet);
+				SearchServerManager.facetValues(facet, componentSearchView).forEach(values::add);
 			}
+			source.put(FIELD_RESTRICT_DATA_SOURCE, componentSearchView.getDataSource());
+			source.put(FIELD_RESTRICT_DATA_SENSITIVITY, componentSearchView.getDataSensitivity());
+			source.put(FIELD_RESTRICT_SEARCHABLE, Boolean.toString(SearchServerManager.isSearchable(componentSearchView)));
 
-			BulkResponse bulkResponse = bulkRequest.get();
-			if (bulkResponse.hasFailures()) {
-				bulkResponse.forEach(response -> {
-					if (StringUtils.isNotBlank(response.getFailureMessage())) {
-						LOG.log(Level.WARNING, MessageFormat.format("A component failed to index: {0}", response.getFailureMessage()));
-					}
-				});
-			} else {
-				LOG.log(Level.FINE, "Index components successfully");
+			try {
+				bulkRequest.add(ElasticSearchManager.getClient().prepareIndex(INDEX, INDEX_TYPE, componentSearchView.getComponentId())
+						.setSource(objectMapper.writeValueAsBytes(source)));
+			} catch (JsonProcessingException ex) {
+				LOG.log(Level.SEVERE, MessageFormat.format("Unable to index component: {0}  Component will be missing from search.", componentSearchView.getName()));
 			}
 		}
+		return bulkRequest;
+	}
+
+	private void logBulkResponse(BulkResponse bulkResponse)
+	{
+		if (bulkResponse.hasFailures()) {
+			bulkResponse.forEach(response -> {
+				if (StringUtils.isNotBlank(response.getFailureMessage())) {
+					LOG.log(Level.WARNING, MessageFormat.format("A component failed to index: {0}", response.getFailureMessage()));
+				}
+			});
+		} else {
+			LOG.log(Level.FINE, "Index components successfully");
+		}
 	}
 
 	@Override
@@ -490,15 +593,32 @@ public class ElasticSearchManager
 		}
 	}
 
+	/**
+	 * Indexes all searchable components a page at a time; only a few bulk
+	 * requests are kept in flight.
+	 */
 	@Override
 	public void saveAll()
 	{
-		Component component = new Component();
-		component.setActiveStatus(Component.ACTIVE_STATUS);
-		component.setApprovalState(ApprovalStatus.APPROVED);
-		List<Component> components = component.findByExample();
+		ComponentIndexLoader indexLoader = new ComponentIndexLoader(service.getPersistenceService());
+		Deque<ListenableActionFuture<BulkResponse>> inFlight = new ArrayDeque<>();
 
-		index(components);
+		List<Component> components = indexLoader.nextComponentPage(null, INDEX_PAGE_SIZE);
+		while (components.isEmpty() == false) {
+			if (inFlight.size() >= MAX_BULK_IN_FLIGHT) {
+				logBulkResponse(inFlight.poll().actionGet());
+			}
+			inFlight.add(buildBulkRequest(indexLoader, components).execute());
+
+			if (components.size() < INDEX_PAGE_SIZE) {
+				break;
+			}
+			components = indexLoader.nextComponentPage(components.get(components.size() - 1).getComponentId(), INDEX_PAGE_SIZE);
+		}
+
+		while (inFlight.isEmpty() == false) {
+			logBulkResponse(inFlight.poll().actionGet());
+		}
 	}
 
 	@Override
@@ -24,6 +24,7 @@ import edu.usu.sdl.openstorefront.service.io.ComponentImporter;
 import edu.usu.sdl.openstorefront.service.io.HighlightImporter;
 import edu.usu.sdl.openstorefront.service.io.LookupImporter;
 import edu.usu.sdl.openstorefront.service.job.BaseJob;
+import edu.usu.sdl.openstorefront.service.job.BlobStoreCleanupJob;
 import edu.usu.sdl.openstorefront.service.job.ComponentUpdateJob;
 import edu.usu.sdl.openstorefront.service.job.ImportJob;
 import edu.usu.sdl.openstorefront.service.job.IntegrationJob;
@@ -98,6 +99,7 @@ public class JobManager
 
 		addCleanUpErrorsJob();
 		addTrackingCleanUpJob();
+		addBlobStoreCleanUpJob();
 		addNotificationJob();
 		addRecentChangeNotifyJob();
 		addScheduledReportJob();
@@ -322,6 +324,26 @@ public class JobManager
 		scheduler.scheduleJob(job, trigger);
 	}
 
+	private static void addBlobStoreCleanUpJob() throws SchedulerException
+	{
+		LOG.log(Level.INFO, "Adding Blob Store Cleanup Job");
+
+		JobDetail job = JobBuilder.newJob(BlobStoreCleanupJob.class)
+				.withIdentity("BlobStoreCleanupJob", JOB_GROUP_SYSTEM)
+				.withDescription("Dedups stored files and removes unused blobs")
+				.build();
+
+		Trigger trigger = newTrigger()
+				.withIdentity("BlobStoreCleanupJobTrigger", JOB_GROUP_SYSTEM)
+				.startNow()
+				.withSchedule(simpleSchedule()
+						.withIntervalInHours(24)
+						.repeatForever())
+				.build();
+
+		scheduler.scheduleJob(job, trigger);
+	}
+
 	public static void addJob(AddJobModel addjob)
 	{
 		LOG.log(Level.FINE, MessageFormat.format("Adding Job: {0}", addjob.getJobName()));
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
+import edu.usu.sdl.openstorefront.common.manager.Initializable;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.model.search.SearchSuggestion;
+import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
+import edu.usu.sdl.openstorefront.core.view.ComponentSearchWrapper;
+import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
+import edu.usu.sdl.openstorefront.core.view.SearchQuery;
+import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.search.ComponentIndexLoader;
+import edu.usu.sdl.openstorefront.service.search.IndexSearchResult;
+import edu.usu.sdl.openstorefront.service.search.LuceneIndex;
+import edu.usu.sdl.openstorefront.service.search.SearchServer;
+import edu.usu.sdl.openstorefront.service.search.SolrComponentModel;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import org.apache.commons.lang.StringUtils;
+import org.apache.lucene.store.FSDirectory;
+
+/**
+ * Search server that runs in process on an embedded Lucene index (under the
+ * data directory). No external server is needed; set search.server=lucene.
+ *
+ * @author dshurtleff
+ */
+public class LuceneSearchManager
+		implements Initializable, SearchServer
+{
+
+	private static final Logger LOG = Logger.getLogger(LuceneSearchManager.class.getName());
+
+	private static final int INDEX_PAGE_SIZE = 500;
+	private static final long COMMIT_INTERVAL_SECONDS = 5L;
+
+	private static AtomicBoolean started = new AtomicBoolean(false);
+	private static LuceneIndex luceneIndex;
+	private static ScheduledExecutorService committer;
+
+	public static void init()
+	{
+		String indexDir = PropertiesManager.getValue(PropertiesManager.KEY_LUCENE_INDEX_DIR, FileSystemManager.SEARCH_INDEX_DIR);
+		try {
+			LOG.log(Level.INFO, MessageFormat.format("Opening embedded search index at {0}", indexDir));
+			luceneIndex = new LuceneIndex(FSDirectory.open(FileSystemManager.getDir(indexDir).toPath()));
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to open search index directory", "Check configuration and permissions;  property: " + PropertiesManager.KEY_LUCENE_INDEX_DIR + " current value: " + indexDir, ex);
+		}
+
+		//changes are searchable right away; commits just make them durable
+		committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Search-Index-Commit");
+			thread.setDaemon(true);
+			return thread;
+		});
+		committer.scheduleWithFixedDelay(() -> {
+			try {
+				luceneIndex.commit();
+			} catch (Exception e) {
+				LOG.log(Level.SEVERE, "Unable to commit search index", e);
+			}
+		}, COMMIT_INTERVAL_SECONDS, COMMIT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+	}
+
+	public static void cleanup()
+	{
+		if (committer != null) {
+			//let a running commit finish before the index is closed
+			committer.shutdown();
+			try {
+				if (committer.awaitTermination(30L, TimeUnit.SECONDS) == false) {
+					LOG.log(Level.WARNING, "Search index commit did not finish; closing the index anyway.");
+				}
+			} catch (InterruptedException ex) {
+				LOG.log(Level.WARNING, "Interrupted waiting for the search index commit to finish.");
+				Thread.currentThread().interrupt();
+			}
+			committer = null;
+		}
+		if (luceneIndex != null) {
+			try {
+				luceneIndex.close();
+			} catch (IOException ex) {
+				LOG.log(Level.WARNING, "Unable to close search index cleanly", ex);
+			}
+			luceneIndex = null;
+		}
+	}
+
+	public static LuceneIndex getIndex()
+	{
+		if (luceneIndex == null) {
+			throw new OpenStorefrontRuntimeException("Search index is not open.", "Make sure the search server manager is started.");
+		}
+		return luceneIndex;
+	}
+
+	@Override
+	public void initialize()
+	{
+		LuceneSearchManager.init();
+		started.set(true);
+	}
+
+	@Override
+	public void shutdown()
+	{
+		LuceneSearchManager.cleanup();
+		started.set(false);
+	}
+
+	@Override
+	public boolean isStarted()
+	{
+		return started.get();
+	}
+
+	private ServiceProxy service = ServiceProxy.getProxy();
+
+	@Override
+	public ComponentSearchWrapper search(SearchQuery searchQuery, FilterQueryParams filter)
+	{
+		ComponentSearchWrapper componentSearchWrapper = new ComponentSearchWrapper();
+
+		IndexSearchResult indexSearchResult = doIndexSearch(searchQuery.getQuery(), filter, null, searchQuery.getFacets());
+
+		SearchServerManager.updateSearchScore(searchQuery.getQuery(), indexSearchResult.getSearchViews());
+
+		componentSearchWrapper.setData(indexSearchResult.getSearchViews());
+		componentSearchWrapper.setResults(indexSearchResult.getSearchViews().size());
+		componentSearchWrapper.setTotalNumber(indexSearchResult.getTotalResults());
+		SearchServerManager.applyFacets(componentSearchWrapper, indexSearchResult);
+
+		return componentSearchWrapper;
+	}
+
+	@Override
+	public IndexSearchResult doIndexSearch(String query, FilterQueryParams filter)
+	{
+		return doIndexSearch(query, filter, null);
+	}
+
+	@Override
+	public IndexSearchResult doIndexSearch(String query, FilterQueryParams filter, String[] addtionalFieldsToReturn)
+	{
+		return doIndexSearch(query, filter, addtionalFieldsToReturn, null);
+	}
+
+	@Override
+	public IndexSearchResult doIndexSearch(String query, FilterQueryParams filter, String[] addtionalFieldsToReturn, List<String> facetFields)
+	{
+		IndexSearchResult found = getIndex().search(query, filter.getOffset(), filter.getMax(), filter.getSortField(), filter.getSortOrder(), SearchServerManager.facetFields(facetFields), SearchServerManager.dataRestriction());
+
+		IndexSearchResult indexSearchResult = new IndexSearchResult();
+		indexSearchResult.setTotalResults(found.getTotalResults());
+		indexSearchResult.setMaxScore(found.getMaxScore());
+		indexSearchResult.setFacets(found.getFacets());
+		//results come from the stored view; stale entries (Eg. indexed before the searchable field) are fixed in the background
+		List<String> staleIds = new ArrayList<>();
+		for (ComponentSearchView view : found.getSearchViews()) {
+			if (SearchServerManager.isSearchable(view)) {
+				indexSearchResult.getSearchViews().add(view);
+				indexSearchResult.getResultsList().add(SolrComponentModel.fromComponentSearchView(view));
+			} else {
+				LOG.log(Level.FINER, MessageFormat.format("Component is no long approved and active.  Queuing index removal.  {0}", view.getComponentId()));
+				indexSearchResult.setTotalResults(indexSearchResult.getTotalResults() - 1);
+				staleIds.add(view.getComponentId());
+			}
+		}
+		SearchServerManager.reconcile(staleIds);
+		indexSearchResult.applyDataFilter();
+
+		return indexSearchResult;
+	}
+
+	@Override
+	public List<SearchSuggestion> searchSuggestions(String query, int maxResult, String componentType)
+	{
+		List<SearchSuggestion> searchSuggestions = new ArrayList<>();
+
+		FilterQueryParams filter = FilterQueryParams.defaultFilter();
+
+		//ignore case
+		query = "*" + query.toLowerCase() + "*";
+
+		IndexSearchResult indexSearchResult = doIndexSearch(query, filter);
+
+		if (StringUtils.isNotBlank(componentType)) {
+			indexSearchResult.setResultsList(
+					indexSearchResult.getResultsList()
+							.stream()
+							.filter((result) -> componentType.equals(result.getComponentType()))
+							.collect(Collectors.toList())
+			);
+		}
+
+		//apply weight to items
+		String queryNoWild = query.replace("*", "").toLowerCase();
+		for (SolrComponentModel model : indexSearchResult.getResultsList()) {
+			int score = 0;
+
+			if (StringUtils.isNotBlank(model.getName())
+					&& model.getName().toLowerCase().contains(queryNoWild)) {
+				score += 100;
+			}
+
+			if (StringUtils.isNotBlank(model.getOrganization())
+					&& model.getOrganization().toLowerCase().contains(queryNoWild)) {
+				score += 50;
+			}
+
+			int count = StringUtils.countMatches(StringUtils.defaultString(model.getDescription()).toLowerCase(), queryNoWild);
+			score += count * 5;
+
+			model.setSearchWeight(score);
+		}
+
+		//sort
+		indexSearchResult.getResultsList().sort((SolrComponentModel o1, SolrComponentModel o2) -> Integer.compare(o2.getSearchWeight(), o1.getSearchWeight()));
+
+		//window (approval was checked by the search)
+		indexSearchResult.getResultsList().stream().limit(maxResult).forEach(model -> {
+			SearchSuggestion suggestion = new SearchSuggestion();
+			suggestion.setName(model.getName());
+			suggestion.setComponentId(model.getId());
+			suggestion.setQuery("\"" + model.getName() + "\"");
+			searchSuggestions.add(suggestion);
+		});
+
+		return searchSuggestions;
+	}
+
+	@Override
+	public void index(List<Component> components)
+	{
+		Objects.requireNonNull(components);
+
+		if (!components.isEmpty()) {
+			ComponentIndexLoader indexLoader = new ComponentIndexLoader(service.getPersistenceService());
+			getIndex().index(toViews(indexLoader, components));
+		}
+	}
+
+	private List<ComponentSearchView> toViews(ComponentIndexLoader indexLoader, List<Component> components)
+	{
+		//pull attributes, reviews and tags for just these components
+		indexLoader.load(components);
+
+		List<ComponentSearchView> views = new ArrayList<>();
+		for (Component component : components) {
+			views.add(ComponentSearchView.toView(component,
+					indexLoader.getAttributes(component.getComponentId()),
+					indexLoader.getReviews(component.getComponentId()),
+					indexLoader.getTags(component.getComponentId())));
+		}
+		return views;
+	}
+
+	@Override
+	public void deleteById(String id)
+	{
+		getIndex().deleteById(id);
+	}
+
+	@Override
+	public void deleteAll()
+	{
+		getIndex().deleteAll();
+	}
+
+	@Override
+	public void saveAll()
+	{
+		LuceneIndex index = getIndex();
+		ComponentIndexLoader indexLoader = new ComponentIndexLoader(service.getPersistenceService());
+
+		List<Component> components = indexLoader.nextComponentPage(null, INDEX_PAGE_SIZE);
+		while (components.isEmpty() == false) {
+			index.index(toViews(indexLoader, components));
+
+			if (components.size() < INDEX_PAGE_SIZE) {
+				break;
+			}
+			components = indexLoader.nextComponentPage(components.get(components.size() - 1).getComponentId(), INDEX_PAGE_SIZE);
+		}
+		index.commit();
+	}
+
+	@Override
+	public void resetIndexer()
+	{
+		deleteAll();
+		saveAll();
+	}
+
+}
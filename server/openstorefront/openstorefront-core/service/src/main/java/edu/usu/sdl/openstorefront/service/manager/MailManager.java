@@ -16,17 +16,38 @@
 package edu.usu.sdl.openstorefront.service.manager;
 
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
 import edu.usu.sdl.openstorefront.common.manager.Initializable;
 import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
 import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
 import edu.usu.sdl.openstorefront.common.util.StringProcessor;
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.api.PersistenceService;
+import edu.usu.sdl.openstorefront.core.entity.OutgoingEmail;
+import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.manager.resource.MailOutbox;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.text.MessageFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.mail.internet.MimeMessage;
 import org.apache.commons.lang.StringUtils;
 import org.codemonkey.simplejavamail.MailException;
 import org.codemonkey.simplejavamail.Mailer;
@@ -38,6 +59,10 @@ import org.hazlewood.connor.bottema.emailaddress.EmailAddressValidator;
 /**
  * Used for Handling Email
  *
+ * Email is queued in a persistent outbox (record plus the message spooled to
+ * disk) and sent in the background; anything not delivered is picked up
+ * again on startup.
+ *
  * @author dshurtleff
  */
 public class MailManager
@@ -46,8 +71,16 @@ public class MailManager
 
 	private static final Logger log = Logger.getLogger(MailManager.class.getName());
 
+	private static final String DEFAULT_SENDER_THREADS = "2";
+	private static final String DEFAULT_RETRY_MAX = "5";
+	private static final String DEFAULT_RETRY_BASE = "30";
+	private static final String DEFAULT_OUTBOX_KEEP_DAYS = "7";
+	private static final long SHUTDOWN_WAIT_MILLIS = 10000;
+	private static final int MAX_ERROR_LENGTH = 1024;
+
 	private static AtomicBoolean started = new AtomicBoolean(false);
 	private static Mailer mailer;
+	private static MailOutbox outbox;
 
 	public static void init()
 	{
@@ -68,6 +101,12 @@ public class MailManager
 			}
 
 			mailer = new Mailer(server, Convert.toInteger(serverPort), serverUser, serverPW, transportStrategy);
+
+			int senders = Convert.toInteger(PropertiesManager.getValue(PropertiesManager.KEY_MAIL_SENDER_THREADS, DEFAULT_SENDER_THREADS));
+			int maxAttempts = Convert.toInteger(PropertiesManager.getValue(PropertiesManager.KEY_MAIL_RETRY_MAX, DEFAULT_RETRY_MAX));
+			long retryBase = TimeUnit.SECONDS.toMillis(Convert.toLong(PropertiesManager.getValue(PropertiesManager.KEY_MAIL_RETRY_BASE, DEFAULT_RETRY_BASE)));
+			outbox = new MailOutbox(mailer.getSession(), senders, maxAttempts, retryBase, new OutboxRecorder());
+			recoverOutbox();
 		} else {
 			log.log(Level.WARNING, "No mail server is set up.  See application properties file to configure.");
 		}
@@ -75,7 +114,71 @@ public class MailManager
 
 	public static void cleanup()
 	{
-		//nothing needed for now
+		if (outbox != null) {
+			//unsent messages stay queued for the next start
+			outbox.shutdown(SHUTDOWN_WAIT_MILLIS);
+			outbox = null;
+		}
+	}
+
+	private static void recoverOutbox()
+	{
+		try {
+			PersistenceService persistenceService = new ServiceProxy().getNewPersistenceService();
+			List<OutgoingEmail> pending = new ArrayList<>();
+			for (String status : new String[]{OutgoingEmail.STATUS_QUEUED, OutgoingEmail.STATUS_RETRY}) {
+				OutgoingEmail example = new OutgoingEmail();
+				example.setDeliveryStatus(status);
+				pending.addAll(persistenceService.queryByExample(example));
+			}
+
+			long now = System.currentTimeMillis();
+			for (OutgoingEmail outgoingEmail : pending) {
+				File spoolFile = spoolFile(outgoingEmail.getEmailId());
+				if (spoolFile.exists()) {
+					MimeMessage message;
+					try (InputStream in = new FileInputStream(spoolFile)) {
+						message = new MimeMessage(mailer.getSession(), in);
+					}
+					int attempts = outgoingEmail.getAttempts() != null ? outgoingEmail.getAttempts() : 0;
+					long delay = 0;
+					if (outgoingEmail.getNextAttemptDts() != null) {
+						delay = Math.max(outgoingEmail.getNextAttemptDts().getTime() - now, 0);
+					}
+					outbox.submit(outgoingEmail.getEmailId(), message, attempts, delay);
+				} else {
+					updateOutgoingEmail(outgoingEmail.getEmailId(), email -> {
+						email.setDeliveryStatus(OutgoingEmail.STATUS_FAILED);
+						email.setLastError("Spooled message is missing: " + spoolFile.getPath());
+					});
+				}
+			}
+			if (pending.isEmpty() == false) {
+				log.log(Level.INFO, MessageFormat.format("Resubmitted {0} unsent email(s) from the outbox.", pending.size()));
+			}
+		} catch (Exception e) {
+			log.log(Level.SEVERE, "Unable to recover unsent email from the outbox.", e);
+		}
+	}
+
+	/**
+	 * Removes sent and failed outbox records older than the keep days
+	 */
+	public static void cleanupOutbox()
+	{
+		int keepDays = Convert.toInteger(PropertiesManager.getValue(PropertiesManager.KEY_MAIL_OUTBOX_KEEP_DAYS, DEFAULT_OUTBOX_KEEP_DAYS));
+
+		LocalDateTime archiveTime = LocalDateTime.now().minusDays(keepDays).truncatedTo(ChronoUnit.DAYS);
+		Date archiveDts = Date.from(archiveTime.atZone(ZoneId.systemDefault()).toInstant());
+
+		Map<String, Object> queryParams = new HashMap<>();
+		queryParams.put("maxUpdateDts", archiveDts);
+		queryParams.put("sentStatus", OutgoingEmail.STATUS_SENT);
+		queryParams.put("failedStatus", OutgoingEmail.STATUS_FAILED);
+
+		new ServiceProxy().getPersistenceService().deleteByQuery(OutgoingEmail.class,
+				"updateDts < :maxUpdateDts and (deliveryStatus = :sentStatus or deliveryStatus = :failedStatus)",
+				queryParams);
 	}
 
 	public static Email newEmail()
@@ -145,8 +248,12 @@ public class MailManager
                                         // Attempt To Send Email
                                         try {
 
-                                                // Send Email
-                                                mailer.sendMail(email);
+                                                // Queue Email; Test Emails Are Sent Right Away To Report The Result
+                                                if (throwException == false && outbox != null) {
+                                                        queue(email);
+                                                } else {
+                                                        mailer.sendMail(email);
+                                                }
                                         }
                                         
                                         // Catch Mail Error
@@ -197,6 +304,111 @@ public class MailManager
 		}
 	}
         
+	private static void queue(Email email)
+	{
+		String emailId = null;
+		MimeMessage message;
+		try {
+			message = Mailer.produceMimeMessage(email, mailer.getSession());
+			message.saveChanges();
+
+			PersistenceService persistenceService = new ServiceProxy().getNewPersistenceService();
+			emailId = persistenceService.generateId();
+			try (OutputStream out = new FileOutputStream(spoolFile(emailId))) {
+				message.writeTo(out);
+			}
+
+			OutgoingEmail outgoingEmail = new OutgoingEmail();
+			outgoingEmail.setEmailId(emailId);
+			outgoingEmail.setSubject(email.getSubject());
+			outgoingEmail.setRecipients(email.getRecipients().stream()
+					.map(Recipient::getAddress)
+					.collect(Collectors.joining(", ")));
+			outgoingEmail.setDeliveryStatus(OutgoingEmail.STATUS_QUEUED);
+			outgoingEmail.setAttempts(0);
+			outgoingEmail.setCreateUser(OpenStorefrontConstant.SYSTEM_USER);
+			outgoingEmail.setUpdateUser(OpenStorefrontConstant.SYSTEM_USER);
+			outgoingEmail.populateBaseCreateFields();
+			persistenceService.persist(outgoingEmail);
+		} catch (Exception e) {
+			log.log(Level.WARNING, "Unable to queue email; sending it directly.", e);
+			if (emailId != null) {
+				spoolFile(emailId).delete();
+			}
+			mailer.sendMail(email);
+			return;
+		}
+		outbox.submit(emailId, message);
+	}
+
+	private static File spoolFile(String emailId)
+	{
+		return new File(FileSystemManager.getDir(FileSystemManager.MAIL_OUTBOX_DIR), emailId + ".eml");
+	}
+
+	private static void updateOutgoingEmail(String emailId, Consumer<OutgoingEmail> change)
+	{
+		PersistenceService persistenceService = new ServiceProxy().getNewPersistenceService();
+		OutgoingEmail outgoingEmail = persistenceService.findById(OutgoingEmail.class, emailId);
+		if (outgoingEmail != null) {
+			change.accept(outgoingEmail);
+			outgoingEmail.setUpdateDts(TimeUtil.currentDate());
+			outgoingEmail.setUpdateUser(OpenStorefrontConstant.SYSTEM_USER);
+			persistenceService.persist(outgoingEmail);
+		}
+	}
+
+	private static String errorMessage(Exception error)
+	{
+		return StringProcessor.ellipseString(error.toString(), MAX_ERROR_LENGTH);
+	}
+
+	/**
+	 * Records the delivery results on the outbox records; the spooled message
+	 * is removed once it's sent or has failed.
+	 */
+	private static class OutboxRecorder
+			implements MailOutbox.DeliveryListener
+	{
+
+		@Override
+		public void sent(String messageId, int attempts)
+		{
+			updateOutgoingEmail(messageId, email -> {
+				email.setDeliveryStatus(OutgoingEmail.STATUS_SENT);
+				email.setAttempts(attempts);
+				email.setSentDts(TimeUtil.currentDate());
+				email.setNextAttemptDts(null);
+			});
+			spoolFile(messageId).delete();
+		}
+
+		@Override
+		public void retry(String messageId, int attempts, long delayMillis, Exception error)
+		{
+			updateOutgoingEmail(messageId, email -> {
+				email.setDeliveryStatus(OutgoingEmail.STATUS_RETRY);
+				email.setAttempts(attempts);
+				email.setNextAttemptDts(new Date(System.currentTimeMillis() + delayMillis));
+				email.setLastError(errorMessage(error));
+			});
+		}
+
+		@Override
+		public void failed(String messageId, int attempts, Exception error)
+		{
+			log.log(Level.WARNING, MessageFormat.format("Unable to send email {0} after {1} attempt(s): {2}", messageId, attempts, error.getMessage()));
+			updateOutgoingEmail(messageId, email -> {
+				email.setDeliveryStatus(OutgoingEmail.STATUS_FAILED);
+				email.setAttempts(attempts);
+				email.setNextAttemptDts(null);
+				email.setLastError(errorMessage(error));
+			});
+			spoolFile(messageId).delete();
+		}
+
+	}
+
         /**
          * Validate email addresses
          * <p>
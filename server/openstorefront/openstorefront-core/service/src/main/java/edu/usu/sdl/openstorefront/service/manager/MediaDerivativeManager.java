@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager;
+
+import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
+import edu.usu.sdl.openstorefront.common.manager.Initializable;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.core.entity.ComponentMedia;
+import edu.usu.sdl.openstorefront.core.entity.GeneralMedia;
+import edu.usu.sdl.openstorefront.service.media.ImageDerivativeCache;
+import edu.usu.sdl.openstorefront.service.media.ImageResizer;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Serves resized copies of component and general media (Eg. logos in the
+ * search results) so pages don't download the full size image to show a
+ * thumbnail.
+ *
+ * @author dshurtleff
+ */
+public class MediaDerivativeManager
+		implements Initializable
+{
+
+	private static final Logger LOG = Logger.getLogger(MediaDerivativeManager.class.getName());
+
+	public static final int MAX_DIMENSION = 2000;
+
+	private static final String DEFAULT_CACHE_MB = "256";
+
+	private static AtomicBoolean started = new AtomicBoolean(false);
+	private static volatile ImageDerivativeCache cache;
+
+	public static void init()
+	{
+		long maxBytes = Convert.toLong(PropertiesManager.getValue(PropertiesManager.KEY_MEDIA_DERIVATIVE_CACHE_MB, DEFAULT_CACHE_MB)) * 1024L * 1024L;
+		cache = new ImageDerivativeCache(FileSystemManager.getDir(FileSystemManager.MEDIA_DERIVATIVE_DIR), maxBytes);
+		LOG.log(Level.CONFIG, MessageFormat.format("Media variant cache has {0} file(s) using {1} bytes", cache.size(), cache.getTotalBytes()));
+	}
+
+	public static void cleanup()
+	{
+		//variants stay on disk for the next start
+		cache = null;
+	}
+
+	public static String componentMediaKey(String componentMediaId)
+	{
+		return ComponentMedia.class.getSimpleName() + "-" + componentMediaId;
+	}
+
+	public static String generalMediaKey(String name)
+	{
+		return GeneralMedia.class.getSimpleName() + "-" + name;
+	}
+
+	/**
+	 * Gets a copy of the image that fits the size
+	 *
+	 * @param mediaKey
+	 * @param source
+	 * @param mimeType of the source
+	 * @param width max width (null or 0 for no limit)
+	 * @param height max height (null or 0 for no limit)
+	 * @param format jpg or png (null to match the source)
+	 * @return resized image or null if the original should be used (not an
+	 * image, bad size or the manager isn't running)
+	 */
+	public static Path getDerivative(String mediaKey, Path source, String mimeType, Integer width, Integer height, String format)
+	{
+		ImageDerivativeCache currentCache = cache;
+		if (currentCache == null || StringUtils.startsWith(mimeType, "image/") == false) {
+			return null;
+		}
+
+		int maxWidth = width == null ? 0 : width;
+		int maxHeight = height == null ? 0 : height;
+		if ((maxWidth == 0 && maxHeight == 0)
+				|| maxWidth < 0 || maxHeight < 0
+				|| maxWidth > MAX_DIMENSION || maxHeight > MAX_DIMENSION) {
+			return null;
+		}
+
+		String variantFormat = resolveFormat(format, mimeType);
+		if (variantFormat == null) {
+			return null;
+		}
+		return currentCache.getVariant(mediaKey, source, maxWidth, maxHeight, variantFormat);
+	}
+
+	private static String resolveFormat(String format, String mimeType)
+	{
+		if (StringUtils.isBlank(format)) {
+			//photos stay jpg; everything else keeps its transparency
+			return "image/jpeg".equals(mimeType) ? ImageResizer.FORMAT_JPG : ImageResizer.FORMAT_PNG;
+		} else if (ImageResizer.FORMAT_JPG.equalsIgnoreCase(format) || "jpeg".equalsIgnoreCase(format)) {
+			return ImageResizer.FORMAT_JPG;
+		} else if (ImageResizer.FORMAT_PNG.equalsIgnoreCase(format)) {
+			return ImageResizer.FORMAT_PNG;
+		}
+		return null;
+	}
+
+	public static String mimeType(Path derivative)
+	{
+		return derivative.toString().endsWith("." + ImageResizer.FORMAT_JPG) ? "image/jpeg" : "image/png";
+	}
+
+	/**
+	 * @param originalName name of the source file (may be null)
+	 * @param derivative
+	 * @return original name with the extension of the derivative
+	 */
+	public static String filename(String originalName, Path derivative)
+	{
+		if (StringUtils.isBlank(originalName)) {
+			return originalName;
+		}
+		String extension = StringUtils.substringAfterLast(derivative.getFileName().toString(), ".");
+		String baseName = originalName.contains(".") ? StringUtils.substringBeforeLast(originalName, ".") : originalName;
+		return baseName + "." + extension;
+	}
+
+	/**
+	 * Drops the resized copies of the media
+	 *
+	 * @param mediaKey
+	 */
+	public static void invalidate(String mediaKey)
+	{
+		ImageDerivativeCache currentCache = cache;
+		if (currentCache != null) {
+			currentCache.invalidate(mediaKey);
+		}
+	}
+
+	@Override
+	public void initialize()
+	{
+		MediaDerivativeManager.init();
+		started.set(true);
+	}
+
+	@Override
+	public void shutdown()
+	{
+		MediaDerivativeManager.cleanup();
+		started.set(false);
+	}
+
+	@Override
+	public boolean isStarted()
+	{
+		return started.get();
+	}
+
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager;
+
+import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
+import edu.usu.sdl.openstorefront.common.manager.Initializable;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.entity.ApprovalStatus;
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.manager.model.ReindexQueueStatus;
+import edu.usu.sdl.openstorefront.service.search.ComponentIndexLoader;
+import edu.usu.sdl.openstorefront.service.search.ReindexQueue;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Queues components that need to be reindexed so saves don't wait on the
+ * search server. Repeated ids are merged within the debounce window and a
+ * background worker indexes them in batches (components that are no longer
+ * active and approved are removed from the index). The queued ids are written
+ * to a file so they survive a restart.
+ *
+ * @author dshurtleff
+ */
+public class ReindexManager
+		implements Initializable
+{
+
+	private static final Logger LOG = Logger.getLogger(ReindexManager.class.getName());
+
+	private static final String DEFAULT_DEBOUNCE = "2000";
+	private static final String DEFAULT_MAX_WAIT = "30000";
+	private static final String DEFAULT_BATCH_SIZE = "200";
+	private static final String DEFAULT_INTERVAL = "1000";
+
+	private static final String QUEUE_FILE = "reindexqueue.txt";
+
+	private static final String COMPONENT_QUERY = "select from " + Component.class.getSimpleName() + " where componentId IN :componentIdsParam";
+
+	private static AtomicBoolean started = new AtomicBoolean(false);
+
+	private static volatile ReindexQueue queue = new ReindexQueue(Convert.toLong(DEFAULT_DEBOUNCE), Convert.toLong(DEFAULT_MAX_WAIT));
+	private static final AtomicBoolean snapshotPending = new AtomicBoolean(false);
+
+	private static final AtomicLong indexedCount = new AtomicLong();
+	private static final AtomicLong removedCount = new AtomicLong();
+	private static final AtomicLong failedCount = new AtomicLong();
+	private static final AtomicLong batchCount = new AtomicLong();
+	private static volatile long lastBatchMillis;
+	private static volatile Date lastIndexDts;
+
+	private static volatile int batchSize = Convert.toInteger(DEFAULT_BATCH_SIZE);
+	private static ScheduledExecutorService worker;
+
+	public static void init()
+	{
+		long debounce = Convert.toLong(PropertiesManager.getValue(PropertiesManager.KEY_SEARCH_REINDEX_DEBOUNCE, DEFAULT_DEBOUNCE));
+		long maxWait = Convert.toLong(PropertiesManager.getValue(PropertiesManager.KEY_SEARCH_REINDEX_MAX_WAIT, DEFAULT_MAX_WAIT));
+		batchSize = Math.min(Convert.toInteger(PropertiesManager.getValue(PropertiesManager.KEY_SEARCH_REINDEX_BATCH_SIZE, DEFAULT_BATCH_SIZE)), ComponentIndexLoader.ID_BATCH_SIZE);
+		long interval = Convert.toLong(PropertiesManager.getValue(PropertiesManager.KEY_SEARCH_REINDEX_INTERVAL, DEFAULT_INTERVAL));
+
+		queue = new ReindexQueue(debounce, maxWait);
+		loadSnapshot();
+
+		worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Search-Reindex");
+			thread.setDaemon(true);
+			return thread;
+		});
+		worker.scheduleWithFixedDelay(() -> processQueue(false), interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	public static void cleanup()
+	{
+		if (worker != null) {
+			worker.shutdown();
+			try {
+				worker.awaitTermination(5L, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				LOG.log(Level.WARNING, "Reindex worker was interrupted durning shutdown.");
+				Thread.currentThread().interrupt();
+			}
+			worker = null;
+		}
+		//whatever is left gets picked up on the next start
+		saveSnapshot();
+	}
+
+	/**
+	 * Queues the components for reindexing
+	 *
+	 * @param componentIds
+	 * @return false if the manager is not running (nothing was queued)
+	 */
+	public static boolean submit(Collection<String> componentIds)
+	{
+		if (started.get() == false) {
+			return false;
+		}
+		queue.mark(componentIds, System.currentTimeMillis());
+		snapshotPending.set(true);
+		return true;
+	}
+
+	/**
+	 * Drops a queued id (Eg. the component's index was removed)
+	 *
+	 * @param componentId
+	 */
+	public static void remove(String componentId)
+	{
+		queue.remove(componentId);
+		snapshotPending.set(true);
+	}
+
+	/**
+	 * Indexes everything queued now (ignoring the debounce) and waits for it.
+	 * Meant for tests and imports that need to search what they just saved.
+	 *
+	 * @param timeoutMillis
+	 * @return true if the queue was emptied
+	 */
+	public static boolean flushAndWait(long timeoutMillis)
+	{
+		ScheduledExecutorService currentWorker = worker;
+		if (currentWorker == null) {
+			return queue.size() == 0;
+		}
+
+		try {
+			Future<?> future = currentWorker.submit(() -> processQueue(true));
+			future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException | TimeoutException ex) {
+			LOG.log(Level.WARNING, "Reindex flush did not complete", ex);
+			return false;
+		} catch (Exception ex) {
+			//shutting down
+			return false;
+		}
+		return queue.size() == 0;
+	}
+
+	private static synchronized void processQueue(boolean flush)
+	{
+		try {
+			List<String> batch = queue.takeReady(System.currentTimeMillis(), batchSize, flush);
+			while (batch.isEmpty() == false) {
+				snapshotPending.set(true);
+				if (indexBatch(batch) == false) {
+					//the ids are back in the queue; taking them again now would just fail again
+					break;
+				}
+				batch = queue.takeReady(System.currentTimeMillis(), batchSize, flush);
+			}
+		} catch (Exception e) {
+			//Keep the scheduled worker alive
+			LOG.log(Level.SEVERE, "Unable to process reindex queue", e);
+		}
+		saveSnapshot();
+	}
+
+	/**
+	 * Indexes the batch; a failed batch is requeued
+	 *
+	 * @param componentIds
+	 * @return false if the batch failed
+	 */
+	private static boolean indexBatch(List<String> componentIds)
+	{
+		long start = System.currentTimeMillis();
+		try {
+			ServiceProxy service = new ServiceProxy();
+
+			Map<String, Object> parameters = new HashMap<>();
+			parameters.put("componentIdsParam", new ArrayList<>(componentIds));
+			List<Component> components = service.getPersistenceService().query(COMPONENT_QUERY, parameters, true);
+
+			//only searchable components stay in the index
+			List<Component> searchableComponents = components.stream()
+					.filter(component -> Component.ACTIVE_STATUS.equals(component.getActiveStatus())
+					&& ApprovalStatus.APPROVED.equals(component.getApprovalState()))
+					.collect(Collectors.toList());
+			Set<String> searchableIds = searchableComponents.stream()
+					.map(Component::getComponentId)
+					.collect(Collectors.toSet());
+
+			if (searchableComponents.isEmpty() == false) {
+				SearchServerManager.getSearchServer().index(searchableComponents);
+			}
+
+			//removed, inactivated or unapproved since it was queued
+			long removed = 0;
+			for (String componentId : componentIds) {
+				if (searchableIds.contains(componentId) == false) {
+					SearchServerManager.getSearchServer().deleteById(componentId);
+					removed++;
+				}
+			}
+			OSFCacheManager.getSearchCache().removeAll();
+
+			indexedCount.addAndGet(searchableComponents.size());
+			removedCount.addAndGet(removed);
+			batchCount.incrementAndGet();
+			lastIndexDts = TimeUtil.currentDate();
+			return true;
+		} catch (Exception e) {
+			failedCount.addAndGet(componentIds.size());
+			LOG.log(Level.SEVERE, MessageFormat.format("Unable to reindex batch of {0}; requeuing.", componentIds.size()), e);
+			queue.mark(componentIds, System.currentTimeMillis());
+			return false;
+		} finally {
+			lastBatchMillis = System.currentTimeMillis() - start;
+		}
+	}
+
+	private static File queueFile()
+	{
+		return new File(FileSystemManager.getDir(FileSystemManager.MAIN_PERM_DIR), QUEUE_FILE);
+	}
+
+	private static void loadSnapshot()
+	{
+		File file = queueFile();
+		if (file.exists()) {
+			try {
+				List<String> componentIds = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).stream()
+						.map(String::trim)
+						.filter(componentId -> componentId.isEmpty() == false)
+						.collect(Collectors.toList());
+				queue.mark(componentIds, System.currentTimeMillis());
+				if (componentIds.isEmpty() == false) {
+					LOG.log(Level.INFO, MessageFormat.format("Requeued {0} component(s) left from the last run for reindexing.", componentIds.size()));
+				}
+			} catch (IOException ex) {
+				LOG.log(Level.WARNING, "Unable to read the saved reindex queue; run a full reindex if the search results are out of date.", ex);
+			}
+		}
+	}
+
+	private static void saveSnapshot()
+	{
+		if (snapshotPending.compareAndSet(true, false)) {
+			File file = queueFile();
+			File tempFile = new File(file.getPath() + ".tmp");
+			try {
+				Files.write(tempFile.toPath(), queue.getComponentIds(), StandardCharsets.UTF_8);
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException ex) {
+				snapshotPending.set(true);
+				LOG.log(Level.WARNING, "Unable to save the reindex queue", ex);
+			}
+		}
+	}
+
+	public static ReindexQueueStatus managerStatus()
+	{
+		ReindexQueue currentQueue = queue;
+		ReindexQueueStatus status = new ReindexQueueStatus();
+		status.setBacklogCount(currentQueue.size());
+		status.setLagMillis(currentQueue.getLagMillis(System.currentTimeMillis()));
+		status.setDebounceMillis(currentQueue.getDebounceMillis());
+		status.setMaxWaitMillis(currentQueue.getMaxWaitMillis());
+		status.setBatchSize(batchSize);
+		status.setMarkedCount(currentQueue.getMarkedCount());
+		status.setCoalescedCount(currentQueue.getCoalescedCount());
+		status.setIndexedCount(indexedCount.get());
+		status.setRemovedCount(removedCount.get());
+		status.setFailedCount(failedCount.get());
+		status.setBatchCount(batchCount.get());
+		status.setLastBatchMillis(lastBatchMillis);
+		status.setLastIndexDts(lastIndexDts);
+		return status;
+	}
+
+	@Override
+	public void initialize()
+	{
+		ReindexManager.init();
+		started.set(true);
+	}
+
+	@Override
+	public void shutdown()
+	{
+		started.set(false);
+		ReindexManager.cleanup();
+	}
+
+	@Override
+	public boolean isStarted()
+	{
+		return started.get();
+	}
+
+}
@@ -95,6 +95,8 @@ public class ReportManager
 					TaskRequest taskRequest = new TaskRequest();
 					taskRequest.setAllowMultiple(true);
 					taskRequest.setName(TaskRequest.TASKNAME_REPORT);
+					taskRequest.setCategory(TaskRequest.CATEGORY_REPORT);
+					taskRequest.setPriority(TaskRequest.PRIORITY_LOW);
 					taskRequest.setDetails("Report: " + report.getReportType() + " Report id: " + report.getReportId() + " for user: " + SecurityUtil.getCurrentUserName());
 					taskRequest.getTaskData().put(TaskRequest.DATAKEY_REPORT_ID, report.getReportId());
 					serviceProxy.getAsyncProxy(serviceProxy.getReportService(), taskRequest).generateReport(report);
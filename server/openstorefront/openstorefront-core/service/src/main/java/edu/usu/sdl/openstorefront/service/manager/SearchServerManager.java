@@ -17,12 +17,36 @@ package edu.usu.sdl.openstorefront.service.manager;
 
 import edu.usu.sdl.openstorefront.common.manager.Initializable;
 import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.core.entity.ApprovalStatus;
+import edu.usu.sdl.openstorefront.core.entity.Component;
 import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
+import edu.usu.sdl.openstorefront.core.filter.DataRestrictionPredicate;
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacet;
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacetValue;
+import edu.usu.sdl.openstorefront.core.model.search.ResultTypeStat;
+import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
+import edu.usu.sdl.openstorefront.core.view.ComponentSearchWrapper;
 import edu.usu.sdl.openstorefront.core.view.SearchResultAttribute;
+import edu.usu.sdl.openstorefront.security.SecurityUtil;
+import edu.usu.sdl.openstorefront.security.UserContext;
+import edu.usu.sdl.openstorefront.service.search.IndexSearchResult;
 import edu.usu.sdl.openstorefront.service.search.SearchServer;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.commons.lang3.StringUtils;
 
@@ -37,14 +61,32 @@ public class SearchServerManager
 	
 	private static final String SOLR = "solr";
 	private static final String ELASTICSEARCH = "elasticsearch";
+	private static final String LUCENE = "lucene";
+
+	/**
+	 * Max values returned per facet field (highest counts first)
+	 */
+	public static final int FACET_LIMIT = 100;
 	
 	private static AtomicBoolean started = new AtomicBoolean(false);
 	private static SearchServer searchServer;
+	private static ThreadPoolExecutor handlerExecutor;
 
 	public static SearchServer getSearchServer()
 	{
 		return searchServer;
 	}
+
+	/**
+	 * Bounded pool for running advance search handlers; when it's saturated
+	 * the handler runs on the calling thread.
+	 *
+	 * @return executor or null when not started
+	 */
+	public static ExecutorService getHandlerExecutor()
+	{
+		return handlerExecutor;
+	}
 	
 	public static void init()
 	{	
@@ -62,21 +104,189 @@ public class SearchServerManager
 				searchServer = new ElasticSearchManager();
 			}
 			break;
+
+			case LUCENE:
+			{
+				searchServer = new LuceneSearchManager();
+			}
+			break;
 			default:
 			{
 				searchServer = new SolrManager();				
 			}			
 		}
 		((Initializable)searchServer).initialize();
+
+		String defaultThreads = Integer.toString(Math.max(2, Runtime.getRuntime().availableProcessors()));
+		int threads = Convert.toInteger(PropertiesManager.getValue(PropertiesManager.KEY_SEARCH_HANDLER_THREADS, defaultThreads));
+		AtomicInteger threadCount = new AtomicInteger();
+		handlerExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(threads * 16),
+				runnable -> {
+					Thread thread = new Thread(runnable, "Search-Handler-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		handlerExecutor.allowCoreThreadTimeOut(true);
 	}
 	
 	public static void cleanup()
 	{
+		if (handlerExecutor != null) {
+			handlerExecutor.shutdown();
+			handlerExecutor = null;
+		}
 		if (searchServer != null) {
 			((Initializable)searchServer).shutdown();
 		}
 	}	
 	
+	/**
+	 * Checks the stored view (as it was when indexed); no database read.
+	 *
+	 * @param view
+	 * @return true if it can be returned in results
+	 */
+	public static boolean isSearchable(ComponentSearchView view)
+	{
+		return ApprovalStatus.APPROVED.equals(view.getApprovalState())
+				&& (view.getActiveStatus() == null || Component.ACTIVE_STATUS.equals(view.getActiveStatus()));
+	}
+
+	/**
+	 * The search servers filter on this in the query so the totals and facets
+	 * only count what the user can see.
+	 *
+	 * @return the current user's data restrictions or null when there is no
+	 * user context (nothing is restricted)
+	 */
+	public static DataRestrictionPredicate dataRestriction()
+	{
+		UserContext userContext = SecurityUtil.getUserContext();
+		if (userContext != null) {
+			return userContext.dataRestrictionPredicate();
+		}
+		return null;
+	}
+
+	/**
+	 * Queues index entries that look stale (not searchable or missing stored
+	 * data) to be checked against the database and fixed in the background.
+	 *
+	 * @param componentIds
+	 */
+	public static void reconcile(Collection<String> componentIds)
+	{
+		if (componentIds.isEmpty() == false) {
+			log.log(Level.FINE, MessageFormat.format("Queuing {0} index entries for reconciliation", componentIds.size()));
+			if (ReindexManager.submit(componentIds) == false) {
+				log.log(Level.FINE, "Reindex manager is not running; stale index entries will be fixed on the next re-index.");
+			}
+		}
+	}
+
+	/**
+	 * Drops unknown and repeated facet fields
+	 *
+	 * @param requestedFields
+	 * @return supported fields in the requested order
+	 */
+	public static List<String> facetFields(Collection<String> requestedFields)
+	{
+		Set<String> fields = new LinkedHashSet<>();
+		if (requestedFields != null) {
+			for (String field : requestedFields) {
+				if (ResultFacet.FIELDS.contains(field)) {
+					fields.add(field);
+				} else if (field != null) {
+					log.log(Level.FINE, MessageFormat.format("Ignoring unsupported facet field: {0}", field));
+				}
+			}
+		}
+		return new ArrayList<>(fields);
+	}
+
+	/**
+	 * Values the view is counted under for a facet field
+	 *
+	 * @param field
+	 * @param view
+	 * @return values (may be empty)
+	 */
+	public static List<String> facetValues(String field, ComponentSearchView view)
+	{
+		List<String> values = new ArrayList<>();
+		switch (field) {
+			case ResultFacet.FIELD_COMPONENT_TYPE:
+				if (StringUtils.isNotBlank(view.getComponentType())) {
+					values.add(view.getComponentType());
+				}
+				break;
+			case ResultFacet.FIELD_ORGANIZATION:
+				if (StringUtils.isNotBlank(view.getOrganization())) {
+					values.add(view.getOrganization());
+				}
+				break;
+			case ResultFacet.FIELD_TAGS:
+				for (ComponentTag tag : view.getTags()) {
+					if (StringUtils.isNotBlank(tag.getText())) {
+						values.add(tag.getText());
+					}
+				}
+				break;
+			case ResultFacet.FIELD_ATTRIBUTES:
+				for (SearchResultAttribute attribute : view.getAttributes()) {
+					values.add(ResultFacet.attributeValue(attribute.getType(), attribute.getCode()));
+				}
+				break;
+			default:
+				break;
+		}
+		return values;
+	}
+
+	/**
+	 * Builds a facet from value counts (highest first, up to the facet limit)
+	 *
+	 * @param field
+	 * @param counts
+	 * @return
+	 */
+	public static ResultFacet toFacet(String field, Map<String, Long> counts)
+	{
+		ResultFacet facet = new ResultFacet(field);
+		counts.entrySet().stream()
+				.sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+						.thenComparing(Map.Entry.comparingByKey()))
+				.limit(FACET_LIMIT)
+				.forEach(entry -> facet.getValues().add(new ResultFacetValue(entry.getKey(), entry.getValue())));
+		return facet;
+	}
+
+	/**
+	 * Copies the facets to the wrapper; component type counts are also
+	 * returned as result type stats.
+	 *
+	 * @param componentSearchWrapper
+	 * @param indexSearchResult
+	 */
+	public static void applyFacets(ComponentSearchWrapper componentSearchWrapper, IndexSearchResult indexSearchResult)
+	{
+		componentSearchWrapper.setFacets(indexSearchResult.getFacets());
+		for (ResultFacet facet : indexSearchResult.getFacets()) {
+			if (ResultFacet.FIELD_COMPONENT_TYPE.equals(facet.getField())) {
+				for (ResultFacetValue value : facet.getValues()) {
+					ResultTypeStat stat = new ResultTypeStat();
+					stat.setComponentType(value.getValue());
+					stat.setComponentTypeDescription(TranslateUtil.translateComponentType(value.getValue()));
+					stat.setCount((int) value.getCount());
+					componentSearchWrapper.getResultTypeStats().add(stat);
+				}
+			}
+		}
+	}
+
 	public static void updateSearchScore(String query, List<ComponentSearchView> views)
 	{
 		if (StringUtils.isNotBlank(query)) {
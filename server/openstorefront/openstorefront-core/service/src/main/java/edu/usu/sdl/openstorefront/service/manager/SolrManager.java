@@ -15,6 +15,10 @@
  */
 package edu.usu.sdl.openstorefront.service.manager;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
 import edu.usu.sdl.openstorefront.common.manager.Initializable;
 import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
@@ -29,13 +33,18 @@ import edu.usu.sdl.openstorefront.core.entity.AttributeType;
 import edu.usu.sdl.openstorefront.core.entity.Component;
 import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
 import edu.usu.sdl.openstorefront.core.entity.ComponentAttributePk;
+import edu.usu.sdl.openstorefront.core.entity.ComponentReview;
 import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
+import edu.usu.sdl.openstorefront.core.filter.DataRestrictionPredicate;
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacet;
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacetValue;
 import edu.usu.sdl.openstorefront.core.model.search.SearchSuggestion;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchWrapper;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.core.view.SearchQuery;
 import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.search.ComponentIndexLoader;
 import edu.usu.sdl.openstorefront.service.search.IndexSearchResult;
 import edu.usu.sdl.openstorefront.service.search.SearchServer;
 import edu.usu.sdl.openstorefront.service.search.SolrComponentModel;
@@ -44,7 +53,6 @@ import java.lang.reflect.Field;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -59,7 +67,9 @@ import org.apache.solr.client.solrj.SolrRequest;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.impl.HttpSolrClient;
 import org.apache.solr.client.solrj.impl.XMLResponseParser;
+import org.apache.solr.client.solrj.response.FacetField;
 import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.client.solrj.util.ClientUtils;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.util.NamedList;
@@ -193,37 +203,46 @@ public class SolrManager
 	{
 		ComponentSearchWrapper componentSearchWrapper = new ComponentSearchWrapper();
 
-		IndexSearchResult indexSearchResult = doIndexSearch(searchQuery.getQuery(), filter);
-		List<SolrComponentModel> resultsList = indexSearchResult.getResultsList();
+		IndexSearchResult indexSearchResult = doIndexSearch(searchQuery.getQuery(), filter, null, searchQuery.getFacets());
 		long totalFound = indexSearchResult.getTotalResults();
 
-		//Pulling the full object on the return
-		List<ComponentSearchView> views = new ArrayList<>();
+		//Results come from the stored view; entries indexed before views were stored are loaded (and reindexed)
+		Map<String, ComponentSearchView> viewMap = new HashMap<>();
+		for (ComponentSearchView view : indexSearchResult.getSearchViews()) {
+			viewMap.put(view.getComponentId(), view);
+		}
 
 		List<String> componentIds = new ArrayList<>();
-		for (SolrComponentModel result : resultsList) {
-			if (result.getIsComponent()) {
+		for (SolrComponentModel result : indexSearchResult.getResultsList()) {
+			if (result.getIsComponent() && viewMap.containsKey(result.getId()) == false) {
 				componentIds.add(result.getId());
 			}
 		}
 
-		//remove bad indexes, if any
-		List<ComponentSearchView> componentSearchViews = service.getComponentService().getSearchComponentList(componentIds);
-		Set<String> goodComponentIdSet = new HashSet<>();
-		for (ComponentSearchView view : componentSearchViews) {
-			goodComponentIdSet.add(view.getComponentId());
+		if (componentIds.isEmpty() == false) {
+			List<ComponentSearchView> componentSearchViews = service.getComponentService().getSearchComponentList(componentIds);
+			for (ComponentSearchView view : componentSearchViews) {
+				viewMap.put(view.getComponentId(), view);
+			}
+			for (String componentId : componentIds) {
+				if (viewMap.containsKey(componentId) == false) {
+					totalFound--;
+				}
+			}
+
+			//bad indexes are removed, good ones get their view stored
+			SearchServerManager.reconcile(componentIds);
 		}
 
-		for (String componentId : componentIds) {
-			if (goodComponentIdSet.contains(componentId) == false) {
-				log.log(Level.FINE, MessageFormat.format("Removing bad index: {0}", componentId));
-				deleteById(componentId);
-				totalFound--;
+		//keep the index order (score or sort)
+		List<ComponentSearchView> views = new ArrayList<>();
+		for (SolrComponentModel result : indexSearchResult.getResultsList()) {
+			ComponentSearchView view = viewMap.remove(result.getId());
+			if (view != null) {
+				views.add(view);
 			}
 		}
-		SearchServerManager.updateSearchScore(searchQuery.getQuery(), componentSearchViews);
-
-		views.addAll(componentSearchViews);
+		SearchServerManager.updateSearchScore(searchQuery.getQuery(), views);
 
 		componentSearchWrapper.setData(views);
 		componentSearchWrapper.setResults(views.size());
@@ -233,6 +252,7 @@ public class SolrManager
 			totalFound = 0;
 		}
 		componentSearchWrapper.setTotalNumber(totalFound);
+		SearchServerManager.applyFacets(componentSearchWrapper, indexSearchResult);
 		return componentSearchWrapper;
 	}
 
@@ -242,21 +262,10 @@ public class SolrManager
 		// initialize solr server
 		SolrClient solrService = SolrManager.getServer();
 
-		Map<String, List<ComponentAttribute>> attributeMap = new HashMap<>();
-		Map<String, List<ComponentTag>> tagMap = new HashMap<>();
-
-		if (components.size() > 1) {
-			ComponentAttribute componentAttributeExample = new ComponentAttribute();
-			componentAttributeExample.setActiveStatus(ComponentAttribute.ACTIVE_STATUS);
-			List<ComponentAttribute> allAttributes = service.getPersistenceService().queryByExample(componentAttributeExample);
-			attributeMap = allAttributes.stream().collect(Collectors.groupingBy(ComponentAttribute::getComponentId));
-
-			ComponentTag componentTagExample = new ComponentTag();
-			componentTagExample.setActiveStatus(ComponentTag.ACTIVE_STATUS);
-			List<ComponentTag> allTags = service.getPersistenceService().queryByExample(componentTagExample);
-			tagMap = allTags.stream().collect(Collectors.groupingBy(ComponentTag::getComponentId));
-
-		}
+		//pull attributes, reviews and tags for just these components
+		ComponentIndexLoader indexLoader = new ComponentIndexLoader(service.getPersistenceService());
+		indexLoader.load(components);
+		ObjectWriter viewWriter = StringProcessor.defaultObjectMapper().writer().without(SerializationFeature.INDENT_OUTPUT);
 
 		List<SolrComponentModel> solrDocs = new ArrayList<>();
 		for (Component component : components) {
@@ -276,20 +285,20 @@ public class SolrManager
 			solrDocModel.setUpdateDts(component.getUpdateDts());
 			solrDocModel.setOrganization(component.getOrganization());
 
-			List<ComponentTag> tags;
-			List<ComponentAttribute> attributes;
-			if (components.size() > 1) {
-				tags = tagMap.get(component.getComponentId());
-				if (tags == null) {
-					tags = new ArrayList<>();
-				}
-				attributes = attributeMap.get(component.getComponentId());
-				if (attributes == null) {
-					attributes = new ArrayList<>();
-				}
-			} else {
-				tags = service.getComponentService().getBaseComponent(ComponentTag.class, component.getComponentId());
-				attributes = service.getComponentService().getBaseComponent(ComponentAttribute.class, component.getComponentId());
+			List<ComponentTag> tags = indexLoader.getTags(component.getComponentId());
+			List<ComponentAttribute> attributes = indexLoader.getAttributes(component.getComponentId());
+			List<ComponentReview> reviews = indexLoader.getReviews(component.getComponentId());
+
+			ComponentSearchView view = ComponentSearchView.toView(component, attributes, reviews, tags);
+			solrDocModel.setRestrictDataSource(component.getDataSource());
+			solrDocModel.setRestrictDataSensitivity(component.getDataSensitivity());
+			solrDocModel.setSearchable(SearchServerManager.isSearchable(view));
+			solrDocModel.setTagValues(SearchServerManager.facetValues(ResultFacet.FIELD_TAGS, view));
+			solrDocModel.setAttributeValues(SearchServerManager.facetValues(ResultFacet.FIELD_ATTRIBUTES, view));
+			try {
+				solrDocModel.setSearchViewJson(viewWriter.writeValueAsString(view));
+			} catch (JsonProcessingException ex) {
+				log.log(Level.WARNING, MessageFormat.format("Unable to store search view for: {0}  Search will load it from the database.", component.getName()), ex);
 			}
 
 			StringBuilder tagList = new StringBuilder();
@@ -351,10 +360,20 @@ public class SolrManager
 
 	@Override
 	public IndexSearchResult doIndexSearch(String query, FilterQueryParams filter, String[] addtionalFieldsToReturn)
+	{
+		return doIndexSearch(query, filter, addtionalFieldsToReturn, null);
+	}
+
+	@Override
+	public IndexSearchResult doIndexSearch(String query, FilterQueryParams filter, String[] addtionalFieldsToReturn, List<String> facetFields)
 	{
 		IndexSearchResult indexSearchResult = new IndexSearchResult();
+		List<String> facets = SearchServerManager.facetFields(facetFields);
 
 		List<SolrComponentModel> resultsList = new ArrayList<>();
+		List<ComponentSearchView> searchViews = new ArrayList<>();
+		List<String> staleIds = new ArrayList<>();
+		ObjectReader viewReader = StringProcessor.defaultObjectMapper().readerFor(ComponentSearchView.class);
 
 		// use for advanced search with And - Or combinations on separate fields
 		String queryOperator = " " + SolrAndOr.OR + " ";
@@ -399,7 +418,7 @@ public class SolrManager
 			solrQuery.setQuery(myQueryString);
 
 			// fields to be returned back from solr
-			solrQuery.setFields(SolrComponentModel.ID_FIELD, SolrComponentModel.ISCOMPONENT_FIELD);
+			solrQuery.setFields(SolrComponentModel.ID_FIELD, SolrComponentModel.ISCOMPONENT_FIELD, SolrComponentModel.FIELD_SEARCH_VIEW);
 			if (addtionalFieldsToReturn != null) {
 				for (String field : addtionalFieldsToReturn) {
 					solrQuery.addField(field);
@@ -425,10 +444,36 @@ public class SolrManager
 
 			solrQuery.setIncludeScore(true);
 
+			//restricted in the query so the totals and facets match what is returned
+			for (String filterQuery : restrictionFilters(SearchServerManager.dataRestriction())) {
+				solrQuery.addFilterQuery(filterQuery);
+			}
+
+			//counted by solr over all matches
+			if (facets.isEmpty() == false) {
+				solrQuery.setFacet(true);
+				solrQuery.setFacetMinCount(1);
+				solrQuery.setFacetLimit(SearchServerManager.FACET_LIMIT);
+				for (String facet : facets) {
+					solrQuery.addFacetField(SolrComponentModel.FACET_FIELDS.get(facet));
+				}
+			}
+
 			QueryResponse response = SolrManager.getServer().query(solrQuery);
 			SolrDocumentList results = response.getResults();
 			totalFound = results.getNumFound();
 
+			for (String facet : facets) {
+				ResultFacet resultFacet = new ResultFacet(facet);
+				FacetField facetField = response.getFacetField(SolrComponentModel.FACET_FIELDS.get(facet));
+				if (facetField != null && facetField.getValues() != null) {
+					for (FacetField.Count count : facetField.getValues()) {
+						resultFacet.getValues().add(new ResultFacetValue(count.getName(), count.getCount()));
+					}
+				}
+				indexSearchResult.getFacets().add(resultFacet);
+			}
+
 //			DocumentObjectBinder binder = new DocumentObjectBinder();
 //			resultsList = binder.getBeans(SolrComponentModel.class, results);
 			for (SolrDocument document : results) {
@@ -448,6 +493,17 @@ public class SolrManager
 				solrComponentModel.setOrganization((String) document.get(SolrComponentModel.FIELD_ORGANIZATION));
 				solrComponentModel.setDescription((String) document.get(SolrComponentModel.FIELD_DESCRIPTION));
 				solrComponentModel.setQueryScore((float) document.get("score"));
+
+				ComponentSearchView view = readView(viewReader, (String) document.get(SolrComponentModel.FIELD_SEARCH_VIEW));
+				if (view != null) {
+					if (SearchServerManager.isSearchable(view)) {
+						view.setSearchScore(solrComponentModel.getQueryScore());
+						searchViews.add(view);
+					} else {
+						staleIds.add(view.getComponentId());
+						continue;
+					}
+				}
 				resultsList.add(solrComponentModel);
 			}
 
@@ -457,12 +513,62 @@ public class SolrManager
 			log.log(Level.WARNING, "Solr query failed unexpectly; likely bad input.", ex);
 		}
 		indexSearchResult.getResultsList().addAll(resultsList);
-		indexSearchResult.setTotalResults(totalFound);
+		indexSearchResult.getSearchViews().addAll(searchViews);
+		indexSearchResult.setTotalResults(totalFound - staleIds.size());
+		SearchServerManager.reconcile(staleIds);
 		indexSearchResult.applyDataFilter();
 
 		return indexSearchResult;
 	}
 
+	/**
+	 * Entries indexed before the restriction fields existed are treated as
+	 * unspecified and searchable; the result filtering still catches them.
+	 *
+	 * @param restriction (null for no data restriction)
+	 * @return filter queries
+	 */
+	static List<String> restrictionFilters(DataRestrictionPredicate restriction)
+	{
+		List<String> filterQueries = new ArrayList<>();
+		filterQueries.add(SolrEquals.NOTEQUAL.getSolrOperator() + SolrComponentModel.FIELD_SEARCHABLE + SOLR_QUERY_SEPERATOR + Boolean.FALSE);
+		if (restriction != null) {
+			filterQueries.add(anyValueFilter(SolrComponentModel.FIELD_RESTRICT_DATA_SOURCE, restriction.getDataSources(), restriction.isAllowUnspecifiedDataSource()));
+			filterQueries.add(anyValueFilter(SolrComponentModel.FIELD_RESTRICT_DATA_SENSITIVITY, restriction.getDataSensitivities(), restriction.isAllowUnspecifiedDataSensitivity()));
+		}
+		return filterQueries;
+	}
+
+	private static String anyValueFilter(String field, Set<String> values, boolean allowUnspecified)
+	{
+		List<String> clauses = new ArrayList<>();
+		if (values.isEmpty() == false) {
+			clauses.add(field + SOLR_QUERY_SEPERATOR + "(" + values.stream()
+					.map(ClientUtils::escapeQueryChars)
+					.collect(Collectors.joining(" " + SolrAndOr.OR + " ")) + ")");
+		}
+		if (allowUnspecified) {
+			clauses.add("(" + SOLR_ALL_QUERY + " " + SolrEquals.NOTEQUAL.getSolrOperator() + field + SOLR_QUERY_SEPERATOR + "[* TO *])");
+		}
+		if (clauses.isEmpty()) {
+			//nothing is allowed
+			return SolrEquals.NOTEQUAL.getSolrOperator() + SOLR_ALL_QUERY;
+		}
+		return String.join(" " + SolrAndOr.OR + " ", clauses);
+	}
+
+	private ComponentSearchView readView(ObjectReader viewReader, String searchViewJson)
+	{
+		if (searchViewJson != null) {
+			try {
+				return viewReader.readValue(searchViewJson);
+			} catch (IOException ex) {
+				log.log(Level.FINE, "Unable to read stored search view; it will be loaded from the database.", ex);
+			}
+		}
+		return null;
+	}
+
 	@Override
 	public List<SearchSuggestion> searchSuggestions(String query, int maxResult, String componentType)
 	{
@@ -524,17 +630,14 @@ public class SolrManager
 		//window
 		List<SolrComponentModel> topItems = indexSearchResult.getResultsList().stream().limit(maxResult).collect(Collectors.toList());
 
+		//approval was checked by the search
 		for (SolrComponentModel model : topItems) {
 
 			SearchSuggestion suggestion = new SearchSuggestion();
 			suggestion.setName(model.getName());
 			suggestion.setComponentId(model.getId());
 			suggestion.setQuery("\"" + model.getName() + "\"");
-
-			// Only include approved components.
-			if (service.getComponentService().checkComponentApproval(suggestion.getComponentId())) {
-				suggestions.add(suggestion);
-			}
+			suggestions.add(suggestion);
 		}
 
 		return suggestions;
@@ -16,6 +16,7 @@
 package edu.usu.sdl.openstorefront.service.manager;
 
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
 import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant.TaskStatus;
 import edu.usu.sdl.openstorefront.common.util.TimeUtil;
@@ -28,25 +29,46 @@ import edu.usu.sdl.openstorefront.core.entity.NotificationEventType;
 import edu.usu.sdl.openstorefront.core.model.ErrorInfo;
 import edu.usu.sdl.openstorefront.core.view.SystemErrorModel;
 import edu.usu.sdl.openstorefront.security.SecurityUtil;
+import edu.usu.sdl.openstorefront.service.AsyncProxyTask;
 import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.manager.model.TaskPoolStatus;
+import edu.usu.sdl.openstorefront.service.manager.resource.TaskRegistry;
+import java.io.IOException;
+import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Handles running background jobs
+ * Handles running background jobs for a task category
+ *
+ * Tasks are kept in memory (indexed by id, future and name); finished tasks
+ * are saved so they still show after a restart until they expire. The task
+ * index is shared by all the pools.
+ *
+ * Queued tasks run by priority (then in submit order). Once the queue is
+ * full, new tasks are deferred to a backlog (still shown as queued; also
+ * ordered by priority) which is drained as tasks finish. Tasks are only
+ * rejected once the backlog is full too.
+ *
+ * Deferred tasks are saved until they leave the backlog. On startup, saved
+ * async service calls (See AsyncProxy) are submitted again; other deferred
+ * tasks can't be rebuilt so they are marked as failed.
  *
  * @author dshurtleff
  */
@@ -56,16 +78,36 @@ public class TaskThreadExecutor
 
 	private static final Logger log = Logger.getLogger(TaskThreadExecutor.class.getName());
 
-	private static final int MAX_DELAY_CHECK = 5;
-	private static final long MAX_DELAY_MILLIS = 10;
-	private static final int MAX_ORPHAN_QUEUE_TIME = 60000;
-
-	private static List<TaskFuture> tasks = Collections.synchronizedList(new ArrayList<>());
+	private static final TaskRegistry tasks = new TaskRegistry();
 	private static Queue<TaskRequest> queue = new ConcurrentLinkedQueue<>();
+	private static final AtomicLong sequence = new AtomicLong();
+
+	private static final long[] WAIT_BUCKETS = {10, 100, 1000, 10000, 60000};
+	private static final String[] WAIT_BUCKET_LABELS = {"<10ms", "<100ms", "<1s", "<10s", "<60s", ">=60s"};
 
-	public TaskThreadExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, BlockingQueue<Runnable> workQueue)
+	private final String category;
+	private final int queueBound;
+	private final int backlogBound;
+	private final PriorityBlockingQueue<PrioritizedTask> backlog = new PriorityBlockingQueue<>();
+	private final AtomicLong deferredTotal = new AtomicLong();
+	private final AtomicLong rejectedTotal = new AtomicLong();
+	private final AtomicLongArray waitCounts = new AtomicLongArray(WAIT_BUCKET_LABELS.length);
+	private final AtomicLong maxWaitMillis = new AtomicLong();
+
+	/**
+	 * @param category task category the pool runs
+	 * @param poolSize max threads
+	 * @param queueBound max queued tasks before tasks are deferred to the
+	 * backlog
+	 * @param backlogBound max deferred tasks before tasks are rejected
+	 */
+	public TaskThreadExecutor(String category, int poolSize, int queueBound, int backlogBound)
 	{
-		super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue);
+		super(poolSize, poolSize, 30L, TimeUnit.SECONDS, new PriorityBlockingQueue<>());
+		allowCoreThreadTimeOut(true);
+		this.category = category;
+		this.queueBound = Math.max(1, queueBound);
+		this.backlogBound = Math.max(0, backlogBound);
 	}
 
 	@Override
@@ -74,143 +116,213 @@ public class TaskThreadExecutor
 		super.afterExecute(r, t);
 		if (r instanceof Future<?>) {
 			Future future = ((Future<?>) r);
-			for (TaskFuture taskFuture : getTasks(true)) {
-				if (taskFuture.getFuture().equals(future)) {
-					taskFuture.setCompletedDts(TimeUtil.currentDate());
-					taskFuture.setStatus(OpenStorefrontConstant.TaskStatus.DONE);
-
-					if (taskFuture.isQueueable()) {
-                                                TaskRequest nextRequest = queue.poll();
-                                                if (nextRequest != null) {
-                                                    this.submitTask(nextRequest);                                                    
-                                                }
+			TaskFuture taskFuture = tasks.getByFuture(future);
+			if (taskFuture != null) {
+				tasks.completed(taskFuture);
+
+				taskFuture.setCompletedDts(TimeUtil.currentDate());
+				taskFuture.setStatus(OpenStorefrontConstant.TaskStatus.DONE);
+
+				if (taskFuture.isQueueable()) {
+					TaskRequest nextRequest = queue.poll();
+					if (nextRequest != null) {
+						//it may belong to another pool
+						try {
+							AsyncTaskManager.submitTask(nextRequest);
+						} catch (OpenStorefrontRuntimeException e) {
+							log.log(Level.WARNING, "Unable to run queued task: " + nextRequest.getName(), e);
+						}
 					}
+				}
 
-					try {
-						future.get();
-					} catch (CancellationException ce) {
-						taskFuture.setStatus(OpenStorefrontConstant.TaskStatus.CANCELLED);
-					} catch (ExecutionException ee) {
-						Throwable cause = ee.getCause();
-						taskFuture.setStatus(OpenStorefrontConstant.TaskStatus.FAILED);
-
-						ServiceProxy serviceProxy = new ServiceProxy();
-						ErrorInfo errorInfo = new ErrorInfo(cause, null);
-						errorInfo.setErrorTypeCode(ErrorTypeCode.SYSTEM);
-						errorInfo.setInputData("Background Task Error");
-						SystemErrorModel systemErrorModel = serviceProxy.getSystemService().generateErrorTicket(errorInfo);
-						taskFuture.setError("Task failed.  " + systemErrorModel.toString());
-					} catch (InterruptedException ie) {
-						Thread.currentThread().interrupt(); // ignore/reset
-					}
+				try {
+					future.get();
+				} catch (CancellationException ce) {
+					taskFuture.setStatus(OpenStorefrontConstant.TaskStatus.CANCELLED);
+				} catch (ExecutionException ee) {
+					Throwable cause = ee.getCause();
+					taskFuture.setStatus(OpenStorefrontConstant.TaskStatus.FAILED);
+
+					ServiceProxy serviceProxy = new ServiceProxy();
+					ErrorInfo errorInfo = new ErrorInfo(cause, null);
+					errorInfo.setErrorTypeCode(ErrorTypeCode.SYSTEM);
+					errorInfo.setInputData("Background Task Error");
+					SystemErrorModel systemErrorModel = serviceProxy.getSystemService().generateErrorTicket(errorInfo);
+					taskFuture.setError("Task failed.  " + systemErrorModel.toString());
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt(); // ignore/reset
+				}
 
-					if (taskFuture.getCallback() != null) {
-						taskFuture.getCallback().afterExecute(taskFuture);
-					}
+				if (taskFuture.getCallback() != null) {
+					taskFuture.getCallback().afterExecute(taskFuture);
+				}
 
-					if (TaskStatus.CANCELLED.equals(taskFuture.getStatus()) == false) {
-						ServiceProxy serviceProxy = ServiceProxy.getProxy();
-						serviceProxy.getSystemService().saveAsyncTask(taskFuture);
-					}
+				if (TaskStatus.CANCELLED.equals(taskFuture.getStatus()) == false) {
+					ServiceProxy serviceProxy = ServiceProxy.getProxy();
+					serviceProxy.getSystemService().saveAsyncTask(taskFuture);
+				}
 
-					if (OpenStorefrontConstant.ANONYMOUS_USER.equals(taskFuture.getCreateUser()) == false) {
-						if (TaskRequest.TASKNAME_REPORT.equals(taskFuture.getTaskName()) == false) {
-							NotificationEvent notificationEvent = new NotificationEvent();
-							notificationEvent.setEventType(NotificationEventType.TASK);
-							notificationEvent.setUsername(taskFuture.getCreateUser());
-							notificationEvent.setMessage("Task: " + taskFuture.getTaskName() + " has finished processing with status: " + taskFuture.getStatus());
-							notificationEvent.setEntityMetaDataStatus(taskFuture.getStatus().name());
-							notificationEvent.setEntityName(AsyncTask.class.getSimpleName());
-							notificationEvent.setEntityId(taskFuture.getTaskId());
-							ServiceProxy.getProxy().getNotificationService().postEvent(notificationEvent);
-						}
+				if (OpenStorefrontConstant.ANONYMOUS_USER.equals(taskFuture.getCreateUser()) == false) {
+					if (TaskRequest.TASKNAME_REPORT.equals(taskFuture.getTaskName()) == false) {
+						NotificationEvent notificationEvent = new NotificationEvent();
+						notificationEvent.setEventType(NotificationEventType.TASK);
+						notificationEvent.setUsername(taskFuture.getCreateUser());
+						notificationEvent.setMessage("Task: " + taskFuture.getTaskName() + " has finished processing with status: " + taskFuture.getStatus());
+						notificationEvent.setEntityMetaDataStatus(taskFuture.getStatus().name());
+						notificationEvent.setEntityName(AsyncTask.class.getSimpleName());
+						notificationEvent.setEntityId(taskFuture.getTaskId());
+						ServiceProxy.getProxy().getNotificationService().postEvent(notificationEvent);
 					}
-
 				}
 			}
 		}
 		if (t != null) {
 			log.log(Level.SEVERE, "Failure in background task", t);
 		}
+		for (PrioritizedTask task : drainBacklog()) {
+			removeDeferredTask(task);
+		}
 	}
 
 	@Override
 	protected void beforeExecute(Thread t, Runnable r)
 	{
-		t.setName("Async-Pool-Task-" + t.getId());
+		t.setName("Async-" + category + "-Task-" + t.getId());
+		if (r instanceof PrioritizedTask) {
+			recordWait(System.currentTimeMillis() - ((PrioritizedTask) r).queuedMillis);
+		}
 		if (r instanceof Future<?>) {
-			Future future = ((Future<?>) r);
+			//Tasks are registered before they are queued (see submitTask)
+			TaskFuture taskFuture = tasks.getByFuture((Future<?>) r);
+			if (taskFuture != null) {
+				taskFuture.setStatus(OpenStorefrontConstant.TaskStatus.WORKING);
 
-			/**
-			 * There is a race condition on the task being added and when it
-			 * actually runs. So this is here to correct that by waiting for it
-			 * to be added.
-			 */
-			boolean foundTask = false;
-			int checks = 0;
-			do {
-				checks++;
-				for (TaskFuture taskFuture : getTasks(true)) {
-					if (taskFuture.getFuture().equals(future)) {
-						taskFuture.setStatus(OpenStorefrontConstant.TaskStatus.WORKING);
-
-						if (taskFuture.getCallback() != null) {
-							taskFuture.getCallback().beforeExecute(taskFuture);
-						}
-						foundTask = true;
-					}
-				}
-				try {
-					Thread.sleep(MAX_DELAY_MILLIS);
-				} catch (InterruptedException ex) {
-					//**continue on interruption
+				if (taskFuture.getCallback() != null) {
+					taskFuture.getCallback().beforeExecute(taskFuture);
 				}
-
-			} while (!foundTask && checks <= MAX_DELAY_CHECK);
+			}
 		}
 		super.beforeExecute(t, r);
 	}
 
-	public List<TaskFuture> getTasks()
+	public static List<TaskFuture> getTasks()
 	{
 		return getTasks(false);
 	}
 
-	public List<TaskFuture> getTasks(boolean liveonly)
+	/**
+	 * @param liveonly true to leave out the tasks that were loaded from the
+	 * database
+	 * @return tasks that haven't expired
+	 */
+	public static List<TaskFuture> getTasks(boolean liveonly)
 	{
-		Map<String, TaskFuture> taskMap = new HashMap<>();
-		for (int i = tasks.size() - 1; i >= 0; i--) {
-			TaskFuture taskFuture = tasks.get(i);
-			if (taskFuture.isExpired()) {
-				tasks.remove(i);
-			} else if (this.getQueue().isEmpty()
-					&& OpenStorefrontConstant.TaskStatus.QUEUED.equals(taskFuture.getStatus())
-					&& System.currentTimeMillis() > (taskFuture.getSubmitedDts().getTime() + MAX_ORPHAN_QUEUE_TIME)) {
-				//Remove rejected queued tasks or orphan tasks
-				tasks.remove(i);
-			} else {
-				taskMap.put(taskFuture.getTaskId(), taskFuture);
+		removeExpiredTasks();
+
+		List<TaskFuture> taskFutures = new ArrayList<>();
+		for (TaskFuture taskFuture : tasks.getTasks()) {
+			if (liveonly == false || taskFuture.getFuture() != null) {
+				taskFutures.add(taskFuture);
+			}
+		}
+		return taskFutures;
+	}
+
+	public static TaskFuture getTask(String taskId)
+	{
+		TaskFuture taskFuture = tasks.getById(taskId);
+		if (taskFuture != null && taskFuture.isExpired()) {
+			return null;
+		}
+		return taskFuture;
+	}
+
+	public static List<TaskFuture> getTasksByName(String name)
+	{
+		List<TaskFuture> taskFutures = tasks.getByName(name);
+		taskFutures.removeIf(TaskFuture::isExpired);
+		return taskFutures;
+	}
+
+	private static void removeExpiredTasks()
+	{
+		for (TaskFuture taskFuture : tasks.removeExpired()) {
+			if (TaskStatus.CANCELLED.equals(taskFuture.getStatus()) == false) {
+				ServiceProxy.getProxy().getSystemService().removeAsyncTask(taskFuture.getTaskId());
 			}
 		}
+	}
 
-		if (liveonly == false) {
+	/**
+	 * Loads the finished tasks saved before the last shutdown and resubmits
+	 * the deferred ones
+	 */
+	public static void loadSavedTasks()
+	{
+		try {
 			ServiceProxy serviceProxy = ServiceProxy.getProxy();
 
 			AsyncTask asyncTaskExample = new AsyncTask();
 			asyncTaskExample.setActiveStatus(AsyncTask.ACTIVE_STATUS);
 
 			List<AsyncTask> asyncTasks = serviceProxy.getPersistenceService().queryByExample(asyncTaskExample);
+			List<AsyncTask> deferredTasks = new ArrayList<>();
 			for (AsyncTask asyncTask : asyncTasks) {
 				TaskFuture taskFuture = asyncTask.toTaskFuture();
-				if (taskFuture.isExpired()) {
+				if (TaskStatus.QUEUED.equals(asyncTask.getStatus())) {
+					deferredTasks.add(asyncTask);
+				} else if (taskFuture.isExpired()) {
 					serviceProxy.getSystemService().removeAsyncTask(taskFuture.getTaskId());
-				} else if (taskMap.containsKey(taskFuture.getTaskId()) == false) {
-					taskMap.put(taskFuture.getTaskId(), taskFuture);
+				} else if (tasks.getById(taskFuture.getTaskId()) == null) {
+					tasks.register(taskFuture);
 				}
 			}
+			deferredTasks.sort(Comparator.comparing(AsyncTask::getSubmitedDts, Comparator.nullsFirst(Comparator.naturalOrder())));
+			for (AsyncTask deferredTask : deferredTasks) {
+				resumeDeferredTask(deferredTask);
+			}
+		} catch (Exception e) {
+			log.log(Level.WARNING, "Unable to load saved tasks.", e);
+		}
+	}
+
+	private static void resumeDeferredTask(AsyncTask deferredTask)
+	{
+		ServiceProxy serviceProxy = ServiceProxy.getProxy();
+		serviceProxy.getSystemService().removeAsyncTask(deferredTask.getTaskId());
+
+		String error = "The server restarted before the task ran.  Submit it again.";
+		if (deferredTask.getDeferredCall() != null) {
+			try {
+				TaskRequest taskRequest = new TaskRequest();
+				taskRequest.setName(deferredTask.getTaskName());
+				taskRequest.setDetails(deferredTask.getDetails());
+				taskRequest.setAllowMultiple(Convert.toBoolean(deferredTask.getAllowMultiple()));
+				if (deferredTask.getCategory() != null) {
+					taskRequest.setCategory(deferredTask.getCategory());
+				}
+				if (deferredTask.getPriority() != null) {
+					taskRequest.setPriority(deferredTask.getPriority());
+				}
+				taskRequest.setTask(AsyncProxyTask.fromDeferredCall(deferredTask.getDeferredCall()));
+				TaskFuture taskFuture = AsyncTaskManager.submitTask(taskRequest);
+				if (taskFuture != null) {
+					taskFuture.setCreateUser(deferredTask.getCreateUser());
+				}
+				log.log(Level.INFO, MessageFormat.format("Resubmitted deferred task: {0}", deferredTask.getTaskName()));
+				return;
+			} catch (IOException | OpenStorefrontRuntimeException e) {
+				log.log(Level.WARNING, "Unable to resubmit deferred task: " + deferredTask.getTaskName(), e);
+				error = "The task was deferred before a restart and couldn't be resubmitted.  Submit it again.";
+			}
 		}
 
-		return new ArrayList<>(taskMap.values());
+		TaskFuture taskFuture = deferredTask.toTaskFuture();
+		taskFuture.setStatus(TaskStatus.FAILED);
+		taskFuture.setError(error);
+		taskFuture.setCompletedDts(TimeUtil.currentDate());
+		serviceProxy.getSystemService().saveAsyncTask(taskFuture);
+		tasks.register(taskFuture);
 	}
 
 	/**
@@ -222,32 +334,37 @@ public class TaskThreadExecutor
 	public synchronized TaskFuture submitTask(TaskRequest taskRequest)
 	{
 		boolean runJob = true;
-		if (taskRequest.isAllowMultiple() == false) {
-			List<TaskFuture> currentTasks = getTasks(true);
-			for (TaskFuture taskFuture : currentTasks) {
-				if (taskFuture.getTaskName().equals(taskRequest.getName())
-						&& OpenStorefrontConstant.TaskStatus.WORKING.equals(taskFuture.getStatus())) {
-
-					if (taskRequest.isQueueable()) {
-						queue.add(taskRequest);
-					}
-					runJob = false;
-					break;
-				}
+		if (taskRequest.isAllowMultiple() == false
+				&& tasks.isWorking(taskRequest.getName())) {
+			if (taskRequest.isQueueable()) {
+				queue.add(taskRequest);
 			}
+			runJob = false;
 		}
 
 		TaskFuture taskFuture = null;
 		if (runJob) {
-			Future future = submit(taskRequest.getTask());
+			PrioritizedTask future = new PrioritizedTask(taskRequest.getTask(), taskRequest.getPriority());
 			taskFuture = new TaskFuture(future, TimeUtil.currentDate(), taskRequest.isAllowMultiple());
+			taskFuture.setCategory(category);
 			taskFuture.setQueueable(taskRequest.isQueueable());
 			taskFuture.setCreateUser(SecurityUtil.getCurrentUserName());
 			taskFuture.setDetails(taskRequest.getDetails());
 			taskFuture.setTaskData(taskRequest.getTaskData());
 			taskFuture.setTaskName(taskRequest.getName());
 			taskFuture.setCallback(taskRequest.getCallback());
-			tasks.add(taskFuture);
+
+			//register first so it's found when it starts
+			tasks.register(taskFuture);
+			try {
+				if (enqueue(future)) {
+					//saved before it can be drained (both hold this pool's lock)
+					saveDeferredTask(taskFuture, taskRequest);
+				}
+			} catch (RejectedExecutionException e) {
+				tasks.remove(taskFuture.getTaskId());
+				throw new OpenStorefrontRuntimeException("Unable to run task: " + taskRequest.getName() + "  " + e.getMessage(), "Try again once the running tasks finish or increase the pool's queue/backlog size.", e);
+			}
 
 			if (OpenStorefrontConstant.ANONYMOUS_USER.equals(taskFuture.getCreateUser()) == false) {
 				if (TaskRequest.TASKNAME_REPORT.equals(taskRequest.getName()) == false) {
@@ -266,32 +383,31 @@ public class TaskThreadExecutor
 		return taskFuture;
 	}
 
-	public boolean cancelTask(String taskId, boolean interrupt)
+	public static boolean cancelTask(String taskId, boolean interrupt)
 	{
 		boolean cancelled = false;
 
-		for (TaskFuture taskFuture : getTasks(true)) {
-			if (taskFuture.getTaskId().equals(taskId)) {
-				cancelled = taskFuture.cancel(interrupt);
+		TaskFuture taskFuture = tasks.getById(taskId);
+		if (taskFuture != null && taskFuture.getFuture() != null) {
+			boolean queued = TaskStatus.QUEUED.equals(taskFuture.getStatus());
+			cancelled = taskFuture.cancel(interrupt);
+			if (cancelled && queued) {
+				//may be a saved deferred task
+				ServiceProxy.getProxy().getSystemService().removeAsyncTask(taskId);
 			}
 		}
 
 		return cancelled;
 	}
 
-	public void removeTask(String taskId)
+	public static void removeTask(String taskId)
 	{
 
-		TaskFuture taskFuture = AsyncTaskManager.getTaskById(taskId);
+		TaskFuture taskFuture = getTask(taskId);
 
 		if (taskFuture != null) {
 			if (taskFuture.getCompletedDts() != null) {
-				for (int i = tasks.size() - 1; i >= 0; i--) {
-					TaskFuture taskFutureInMemory = tasks.get(i);
-					if (taskFutureInMemory.getTaskId().equals(taskId)) {
-						tasks.remove(i);
-					}
-				}
+				tasks.remove(taskId);
 				ServiceProxy service = ServiceProxy.getProxy();
 				service.getSystemService().removeAsyncTask(taskId);
 			} else {
@@ -300,4 +416,184 @@ public class TaskThreadExecutor
 		}
 	}
 
+	/**
+	 * Queues the task; defers it to the backlog when the queue is full (or
+	 * there is already a backlog, so it's drained in priority order).
+	 *
+	 * @param task
+	 * @return true if the task was deferred
+	 * @throws RejectedExecutionException when the pool is shut down or the
+	 * backlog is full
+	 */
+	synchronized boolean enqueue(PrioritizedTask task)
+	{
+		if (isShutdown()) {
+			throw new RejectedExecutionException("Task pool " + category + " is shut down");
+		}
+		if (backlog.isEmpty() == false || getQueue().size() >= queueBound) {
+			if (backlog.size() >= backlogBound) {
+				rejectedTotal.incrementAndGet();
+				throw new RejectedExecutionException("Task pool " + category + " is full (" + queueBound + " queued, " + backlogBound + " deferred)");
+			}
+			backlog.add(task);
+			deferredTotal.incrementAndGet();
+			log.log(Level.FINE, "Task pool {0} is full; deferring task", category);
+			return true;
+		}
+		execute(task);
+		return false;
+	}
+
+	/**
+	 * Moves deferred tasks to the queue while there is room
+	 *
+	 * @return tasks that left the backlog
+	 */
+	private synchronized List<PrioritizedTask> drainBacklog()
+	{
+		List<PrioritizedTask> drained = new ArrayList<>();
+		while (getQueue().size() < queueBound && isShutdown() == false) {
+			PrioritizedTask task = backlog.poll();
+			if (task == null) {
+				break;
+			}
+			drained.add(task);
+			try {
+				execute(task);
+			} catch (RejectedExecutionException e) {
+				log.log(Level.WARNING, "Unable to run deferred task on pool: " + category, e);
+			}
+		}
+		return drained;
+	}
+
+	/**
+	 * Saves a deferred task so it isn't lost on a restart; async service calls
+	 * are saved with the call so they can be submitted again.
+	 */
+	private void saveDeferredTask(TaskFuture taskFuture, TaskRequest taskRequest)
+	{
+		try {
+			AsyncTask asyncTask = new AsyncTask();
+			asyncTask.setTaskId(taskFuture.getTaskId());
+			asyncTask.setAllowMultiple(taskFuture.isAllowMultiple());
+			asyncTask.setStatus(TaskStatus.QUEUED);
+			asyncTask.setSubmitedDts(taskFuture.getSubmitedDts());
+			asyncTask.setTaskName(taskFuture.getTaskName());
+			asyncTask.setDetails(taskFuture.getDetails());
+			asyncTask.setCategory(category);
+			asyncTask.setPriority(taskRequest.getPriority());
+			//a callback can't be saved so the task couldn't be finished the same way
+			if (taskRequest.getTask() instanceof AsyncProxyTask && taskRequest.getCallback() == null) {
+				try {
+					asyncTask.setDeferredCall(((AsyncProxyTask) taskRequest.getTask()).toDeferredCall());
+				} catch (IOException e) {
+					log.log(Level.FINE, "Deferred task: " + taskFuture.getTaskName() + " can't be resubmitted after a restart.", e);
+				}
+			}
+			asyncTask.setCreateUser(taskFuture.getCreateUser());
+			asyncTask.setUpdateUser(taskFuture.getCreateUser());
+			asyncTask.populateBaseCreateFields();
+			ServiceProxy.getProxy().getPersistenceService().persist(asyncTask);
+		} catch (Exception e) {
+			log.log(Level.WARNING, "Unable to save deferred task: " + taskFuture.getTaskName(), e);
+		}
+	}
+
+	private void removeDeferredTask(PrioritizedTask task)
+	{
+		TaskFuture taskFuture = tasks.getByFuture(task);
+		if (taskFuture != null) {
+			try {
+				ServiceProxy.getProxy().getSystemService().removeAsyncTask(taskFuture.getTaskId());
+			} catch (Exception e) {
+				log.log(Level.WARNING, "Unable to remove saved deferred task: " + taskFuture.getTaskName(), e);
+			}
+		}
+	}
+
+	private void recordWait(long waitMillis)
+	{
+		int bucket = 0;
+		while (bucket < WAIT_BUCKETS.length && waitMillis >= WAIT_BUCKETS[bucket]) {
+			bucket++;
+		}
+		waitCounts.incrementAndGet(bucket);
+		maxWaitMillis.accumulateAndGet(waitMillis, Math::max);
+	}
+
+	public String getCategory()
+	{
+		return category;
+	}
+
+	public int getQueueBound()
+	{
+		return queueBound;
+	}
+
+	public int getBacklogBound()
+	{
+		return backlogBound;
+	}
+
+	/**
+	 * @return tasks waiting in the backlog
+	 */
+	public int getDeferredCount()
+	{
+		return backlog.size();
+	}
+
+	public TaskPoolStatus poolStatus()
+	{
+		TaskPoolStatus status = new TaskPoolStatus();
+		status.setCategory(category);
+		status.setPoolSize(getMaximumPoolSize());
+		status.setActiveCount(getActiveCount());
+		status.setQueueBound(queueBound);
+		status.setQueuedCount(getQueue().size());
+		status.setDeferredCount(backlog.size());
+		status.setBacklogBound(backlogBound);
+		status.setDeferredTotal(deferredTotal.get());
+		status.setRejectedTotal(rejectedTotal.get());
+		status.setCompletedCount(getCompletedTaskCount());
+		status.setMaxWaitMillis(maxWaitMillis.get());
+		for (int i = 0; i < WAIT_BUCKET_LABELS.length; i++) {
+			status.getWaitTimes().put(WAIT_BUCKET_LABELS[i], waitCounts.get(i));
+		}
+		return status;
+	}
+
+	/**
+	 * Task ordered by priority (lower first) then by submit order
+	 */
+	static class PrioritizedTask
+			extends FutureTask<Object>
+			implements Comparable<PrioritizedTask>
+	{
+
+		private final int priority;
+		private final long order = sequence.incrementAndGet();
+		private final long queuedMillis = System.currentTimeMillis();
+
+		@SuppressWarnings("unchecked")
+		PrioritizedTask(Callable task, int priority)
+		{
+			super(task);
+			this.priority = priority;
+		}
+
+		@Override
+		public int compareTo(PrioritizedTask other)
+		{
+			int compare = Integer.compare(priority, other.priority);
+			if (compare == 0) {
+				compare = Long.compare(order, other.order);
+			}
+			return compare;
+		}
+
+	}
+
 }
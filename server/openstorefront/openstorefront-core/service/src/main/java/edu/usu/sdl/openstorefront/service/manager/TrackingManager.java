@@ -0,0 +1,262 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager;
+
+import edu.usu.sdl.openstorefront.common.manager.Initializable;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.api.PersistenceService;
+import edu.usu.sdl.openstorefront.core.entity.BaseEntity;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
+import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.manager.model.TrackingQueueStatus;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Buffers tracking records (component views, resource clicks, user events) so
+ * the request thread doesn't wait on the database. A background writer saves
+ * them in batches; each batch is one transaction. When the queue is full new
+ * records are dropped (and counted) rather than blocking the request.
+ *
+ * @author dshurtleff
+ */
+public class TrackingManager
+		implements Initializable
+{
+
+	private static final Logger LOG = Logger.getLogger(TrackingManager.class.getName());
+
+	private static final String DEFAULT_QUEUE_SIZE = "10000";
+	private static final String DEFAULT_FLUSH_SIZE = "200";
+	private static final String DEFAULT_FLUSH_INTERVAL = "2000";
+
+	private static AtomicBoolean started = new AtomicBoolean(false);
+
+	private static final Queue<BaseEntity> queue = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger queuedCount = new AtomicInteger();
+	private static final AtomicBoolean flushPending = new AtomicBoolean(false);
+
+	private static final AtomicLong acceptedCount = new AtomicLong();
+	private static final AtomicLong writtenCount = new AtomicLong();
+	private static final AtomicLong droppedCount = new AtomicLong();
+	private static final AtomicLong failedCount = new AtomicLong();
+	private static final AtomicLong batchCount = new AtomicLong();
+	private static volatile Date lastFlushDts;
+
+	private static volatile int capacity = Convert.toInteger(DEFAULT_QUEUE_SIZE);
+	private static volatile int flushSize = Convert.toInteger(DEFAULT_FLUSH_SIZE);
+	private static volatile long flushInterval = Convert.toLong(DEFAULT_FLUSH_INTERVAL);
+	private static ScheduledExecutorService writer;
+
+	public static void init()
+	{
+		capacity = Convert.toInteger(PropertiesManager.getValue(PropertiesManager.KEY_TRACKING_QUEUE_SIZE, DEFAULT_QUEUE_SIZE));
+		flushSize = Convert.toInteger(PropertiesManager.getValue(PropertiesManager.KEY_TRACKING_FLUSH_SIZE, DEFAULT_FLUSH_SIZE));
+		flushInterval = Convert.toLong(PropertiesManager.getValue(PropertiesManager.KEY_TRACKING_FLUSH_INTERVAL, DEFAULT_FLUSH_INTERVAL));
+
+		writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Tracking-Writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		writer.scheduleWithFixedDelay(TrackingManager::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+	}
+
+	public static void cleanup()
+	{
+		if (writer != null) {
+			writer.shutdown();
+			try {
+				writer.awaitTermination(5L, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				LOG.log(Level.WARNING, "Tracking writer was interrupted durning shutdown.");
+				Thread.currentThread().interrupt();
+			}
+			writer = null;
+		}
+		//write what is left
+		flush();
+	}
+
+	/**
+	 * Adds the record to the queue. The record should be ready to save
+	 * (Id and create fields populated).
+	 *
+	 * @param record
+	 * @return true if it was queued; false if it was saved directly (manager
+	 * not running) or dropped (queue is full)
+	 */
+	public static boolean submit(BaseEntity record)
+	{
+		if (started.get() == false) {
+			saveDirect(record);
+			return false;
+		}
+
+		if (queuedCount.incrementAndGet() > capacity) {
+			queuedCount.decrementAndGet();
+			long dropped = droppedCount.incrementAndGet();
+			if (dropped == 1 || dropped % 1000 == 0) {
+				LOG.log(Level.WARNING, MessageFormat.format("Tracking queue is full; records are being dropped. Dropped so far: {0}", dropped));
+			}
+			return false;
+		}
+		queue.offer(record);
+		acceptedCount.incrementAndGet();
+
+		if (queuedCount.get() >= flushSize && flushPending.compareAndSet(false, true)) {
+			ScheduledExecutorService currentWriter = writer;
+			if (currentWriter != null) {
+				try {
+					currentWriter.execute(TrackingManager::flush);
+				} catch (Exception e) {
+					//shutting down; cleanup will flush
+					flushPending.set(false);
+				}
+			}
+		}
+		return true;
+	}
+
+	private static void saveDirect(BaseEntity record)
+	{
+		ServiceProxy serviceProxy = new ServiceProxy();
+		serviceProxy.getPersistenceService().persist(record);
+		recordStatistic(record);
+	}
+
+	private static void recordStatistic(BaseEntity record)
+	{
+		if (record instanceof ComponentTracking) {
+			ComponentStatisticManager.record((ComponentTracking) record);
+		}
+	}
+
+	/**
+	 * Writes all queued records in batches of the flush size
+	 */
+	public static synchronized void flush()
+	{
+		flushPending.set(false);
+		try {
+			List<BaseEntity> batch = drain();
+			while (batch.isEmpty() == false) {
+				writeBatch(batch);
+				batch = drain();
+			}
+		} catch (Exception e) {
+			//Keep the scheduled writer alive
+			LOG.log(Level.SEVERE, "Unable to write tracking records", e);
+		}
+	}
+
+	private static List<BaseEntity> drain()
+	{
+		List<BaseEntity> batch = new ArrayList<>();
+		BaseEntity record = queue.poll();
+		while (record != null) {
+			queuedCount.decrementAndGet();
+			batch.add(record);
+			if (batch.size() >= flushSize) {
+				break;
+			}
+			record = queue.poll();
+		}
+		return batch;
+	}
+
+	private static void writeBatch(List<BaseEntity> batch)
+	{
+		PersistenceService persistenceService = new ServiceProxy().getNewPersistenceService();
+		List<BaseEntity> written = new ArrayList<>();
+		try {
+			persistenceService.begin();
+			for (BaseEntity record : batch) {
+				try {
+					persistenceService.persist(record);
+					written.add(record);
+				} catch (Exception e) {
+					failedCount.incrementAndGet();
+					LOG.log(Level.WARNING, "Unable to save tracking record: " + record.getClass().getSimpleName(), e);
+				}
+			}
+			persistenceService.commit();
+			written.forEach(TrackingManager::recordStatistic);
+			writtenCount.addAndGet(written.size());
+			batchCount.incrementAndGet();
+			lastFlushDts = TimeUtil.currentDate();
+		} catch (Exception e) {
+			failedCount.addAndGet(written.size());
+			LOG.log(Level.SEVERE, MessageFormat.format("Unable to commit tracking batch of {0}", batch.size()), e);
+			if (persistenceService.isTransactionActive()) {
+				persistenceService.rollback();
+			}
+		} finally {
+			persistenceService.endTransaction();
+		}
+	}
+
+	public static TrackingQueueStatus managerStatus()
+	{
+		TrackingQueueStatus status = new TrackingQueueStatus();
+		status.setCapacity(capacity);
+		status.setQueuedCount(queuedCount.get());
+		status.setFlushSize(flushSize);
+		status.setFlushIntervalMillis(flushInterval);
+		status.setAcceptedCount(acceptedCount.get());
+		status.setWrittenCount(writtenCount.get());
+		status.setDroppedCount(droppedCount.get());
+		status.setFailedCount(failedCount.get());
+		status.setBatchCount(batchCount.get());
+		status.setLastFlushDts(lastFlushDts);
+		return status;
+	}
+
+	@Override
+	public void initialize()
+	{
+		TrackingManager.init();
+		started.set(true);
+	}
+
+	@Override
+	public void shutdown()
+	{
+		started.set(false);
+		TrackingManager.cleanup();
+	}
+
+	@Override
+	public boolean isStarted()
+	{
+		return started.get();
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.model;
+
+import java.util.Date;
+
+/**
+ * Holds search reindex queue status
+ *
+ * @author dshurtleff
+ */
+public class ReindexQueueStatus
+{
+
+	private int backlogCount;
+	private long lagMillis;
+	private long debounceMillis;
+	private long maxWaitMillis;
+	private int batchSize;
+	private long markedCount;
+	private long coalescedCount;
+	private long indexedCount;
+	private long removedCount;
+	private long failedCount;
+	private long batchCount;
+	private long lastBatchMillis;
+	private Date lastIndexDts;
+
+	public ReindexQueueStatus()
+	{
+	}
+
+	public int getBacklogCount()
+	{
+		return backlogCount;
+	}
+
+	public void setBacklogCount(int backlogCount)
+	{
+		this.backlogCount = backlogCount;
+	}
+
+	public long getLagMillis()
+	{
+		return lagMillis;
+	}
+
+	public void setLagMillis(long lagMillis)
+	{
+		this.lagMillis = lagMillis;
+	}
+
+	public long getDebounceMillis()
+	{
+		return debounceMillis;
+	}
+
+	public void setDebounceMillis(long debounceMillis)
+	{
+		this.debounceMillis = debounceMillis;
+	}
+
+	public long getMaxWaitMillis()
+	{
+		return maxWaitMillis;
+	}
+
+	public void setMaxWaitMillis(long maxWaitMillis)
+	{
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	public int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize)
+	{
+		this.batchSize = batchSize;
+	}
+
+	public long getMarkedCount()
+	{
+		return markedCount;
+	}
+
+	public void setMarkedCount(long markedCount)
+	{
+		this.markedCount = markedCount;
+	}
+
+	public long getCoalescedCount()
+	{
+		return coalescedCount;
+	}
+
+	public void setCoalescedCount(long coalescedCount)
+	{
+		this.coalescedCount = coalescedCount;
+	}
+
+	public long getIndexedCount()
+	{
+		return indexedCount;
+	}
+
+	public void setIndexedCount(long indexedCount)
+	{
+		this.indexedCount = indexedCount;
+	}
+
+	public long getRemovedCount()
+	{
+		return removedCount;
+	}
+
+	public void setRemovedCount(long removedCount)
+	{
+		this.removedCount = removedCount;
+	}
+
+	public long getFailedCount()
+	{
+		return failedCount;
+	}
+
+	public void setFailedCount(long failedCount)
+	{
+		this.failedCount = failedCount;
+	}
+
+	public long getBatchCount()
+	{
+		return batchCount;
+	}
+
+	public void setBatchCount(long batchCount)
+	{
+		this.batchCount = batchCount;
+	}
+
+	public long getLastBatchMillis()
+	{
+		return lastBatchMillis;
+	}
+
+	public void setLastBatchMillis(long lastBatchMillis)
+	{
+		this.lastBatchMillis = lastBatchMillis;
+	}
+
+	public Date getLastIndexDts()
+	{
+		return lastIndexDts;
+	}
+
+	public void setLastIndexDts(Date lastIndexDts)
+	{
+		this.lastIndexDts = lastIndexDts;
+	}
+
+}
@@ -39,6 +39,9 @@ public class TaskManagerStatus
 	@DataType(TaskFuture.class)
 	private List<TaskFuture> tasks = new ArrayList<>();
 
+	@DataType(TaskPoolStatus.class)
+	private List<TaskPoolStatus> pools = new ArrayList<>();
+
 	public TaskManagerStatus()
 	{
 	}
@@ -123,4 +126,14 @@ public class TaskManagerStatus
 		this.threadPoolSize = threadPoolSize;
 	}
 
+	public List<TaskPoolStatus> getPools()
+	{
+		return pools;
+	}
+
+	public void setPools(List<TaskPoolStatus> pools)
+	{
+		this.pools = pools;
+	}
+
 }
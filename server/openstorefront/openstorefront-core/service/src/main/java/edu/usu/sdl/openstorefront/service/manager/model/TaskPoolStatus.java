@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the status of a task pool (one per task category)
+ *
+ * @author dshurtleff
+ */
+public class TaskPoolStatus
+{
+
+	private String category;
+	private int poolSize;
+	private int activeCount;
+	private int queueBound;
+	private int queuedCount;
+	private int deferredCount;
+	private int backlogBound;
+	private long deferredTotal;
+	private long rejectedTotal;
+	private long completedCount;
+	private long maxWaitMillis;
+
+	/**
+	 * Tasks by how long they waited to start (Eg. "<1s" -> count)
+	 */
+	private Map<String, Long> waitTimes = new LinkedHashMap<>();
+
+	public TaskPoolStatus()
+	{
+	}
+
+	public String getCategory()
+	{
+		return category;
+	}
+
+	public void setCategory(String category)
+	{
+		this.category = category;
+	}
+
+	public int getPoolSize()
+	{
+		return poolSize;
+	}
+
+	public void setPoolSize(int poolSize)
+	{
+		this.poolSize = poolSize;
+	}
+
+	public int getActiveCount()
+	{
+		return activeCount;
+	}
+
+	public void setActiveCount(int activeCount)
+	{
+		this.activeCount = activeCount;
+	}
+
+	public int getQueueBound()
+	{
+		return queueBound;
+	}
+
+	public void setQueueBound(int queueBound)
+	{
+		this.queueBound = queueBound;
+	}
+
+	public int getQueuedCount()
+	{
+		return queuedCount;
+	}
+
+	public void setQueuedCount(int queuedCount)
+	{
+		this.queuedCount = queuedCount;
+	}
+
+	public int getDeferredCount()
+	{
+		return deferredCount;
+	}
+
+	public void setDeferredCount(int deferredCount)
+	{
+		this.deferredCount = deferredCount;
+	}
+
+	public long getDeferredTotal()
+	{
+		return deferredTotal;
+	}
+
+	public void setDeferredTotal(long deferredTotal)
+	{
+		this.deferredTotal = deferredTotal;
+	}
+
+	public int getBacklogBound()
+	{
+		return backlogBound;
+	}
+
+	public void setBacklogBound(int backlogBound)
+	{
+		this.backlogBound = backlogBound;
+	}
+
+	public long getRejectedTotal()
+	{
+		return rejectedTotal;
+	}
+
+	public void setRejectedTotal(long rejectedTotal)
+	{
+		this.rejectedTotal = rejectedTotal;
+	}
+
+	public long getCompletedCount()
+	{
+		return completedCount;
+	}
+
+	public void setCompletedCount(long completedCount)
+	{
+		this.completedCount = completedCount;
+	}
+
+	public long getMaxWaitMillis()
+	{
+		return maxWaitMillis;
+	}
+
+	public void setMaxWaitMillis(long maxWaitMillis)
+	{
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	public Map<String, Long> getWaitTimes()
+	{
+		return waitTimes;
+	}
+
+	public void setWaitTimes(Map<String, Long> waitTimes)
+	{
+		this.waitTimes = waitTimes;
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.model;
+
+import java.util.Date;
+
+/**
+ * Holds tracking queue status
+ *
+ * @author dshurtleff
+ */
+public class TrackingQueueStatus
+{
+
+	private int capacity;
+	private int queuedCount;
+	private int flushSize;
+	private long flushIntervalMillis;
+	private long acceptedCount;
+	private long writtenCount;
+	private long droppedCount;
+	private long failedCount;
+	private long batchCount;
+	private Date lastFlushDts;
+
+	public TrackingQueueStatus()
+	{
+	}
+
+	/**
+	 * @return percentage of the queue that is in use (0-100)
+	 */
+	public int getBackpressure()
+	{
+		if (capacity <= 0) {
+			return 0;
+		}
+		return (int) ((queuedCount * 100L) / capacity);
+	}
+
+	public int getCapacity()
+	{
+		return capacity;
+	}
+
+	public void setCapacity(int capacity)
+	{
+		this.capacity = capacity;
+	}
+
+	public int getQueuedCount()
+	{
+		return queuedCount;
+	}
+
+	public void setQueuedCount(int queuedCount)
+	{
+		this.queuedCount = queuedCount;
+	}
+
+	public int getFlushSize()
+	{
+		return flushSize;
+	}
+
+	public void setFlushSize(int flushSize)
+	{
+		this.flushSize = flushSize;
+	}
+
+	public long getFlushIntervalMillis()
+	{
+		return flushIntervalMillis;
+	}
+
+	public void setFlushIntervalMillis(long flushIntervalMillis)
+	{
+		this.flushIntervalMillis = flushIntervalMillis;
+	}
+
+	public long getAcceptedCount()
+	{
+		return acceptedCount;
+	}
+
+	public void setAcceptedCount(long acceptedCount)
+	{
+		this.acceptedCount = acceptedCount;
+	}
+
+	public long getWrittenCount()
+	{
+		return writtenCount;
+	}
+
+	public void setWrittenCount(long writtenCount)
+	{
+		this.writtenCount = writtenCount;
+	}
+
+	public long getDroppedCount()
+	{
+		return droppedCount;
+	}
+
+	public void setDroppedCount(long droppedCount)
+	{
+		this.droppedCount = droppedCount;
+	}
+
+	public long getFailedCount()
+	{
+		return failedCount;
+	}
+
+	public void setFailedCount(long failedCount)
+	{
+		this.failedCount = failedCount;
+	}
+
+	public long getBatchCount()
+	{
+		return batchCount;
+	}
+
+	public void setBatchCount(long batchCount)
+	{
+		this.batchCount = batchCount;
+	}
+
+	public Date getLastFlushDts()
+	{
+		return lastFlushDts;
+	}
+
+	public void setLastFlushDts(Date lastFlushDts)
+	{
+		this.lastFlushDts = lastFlushDts;
+	}
+
+}
@@ -19,14 +19,19 @@ import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
 import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.core.entity.DBLogRecord;
 import edu.usu.sdl.openstorefront.service.ServiceProxy;
-import java.util.concurrent.ExecutorService;
+import edu.usu.sdl.openstorefront.service.manager.resource.LogRecordBuffer.OverflowPolicy;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Handler;
 import java.util.logging.LogRecord;
 
 /**
- * Handles pushing records to the Database
+ * Handles pushing records to the Database. Records are buffered (fixed size)
+ * and written in batches by a background thread.
  *
  * @author dshurtleff
  */
@@ -34,24 +39,42 @@ public class DBLogHandler
 		extends Handler
 {
 
-	private final ExecutorService asyncLoggerService = Executors.newSingleThreadExecutor();
-	private boolean active = true;
+	private static final String SECURITY_FILTER_CLASS = "edu.usu.sdl.openstorefront.web.rest.SecurityFilter";
+	private static final int BATCH_SIZE = 500;
+
+	private final LogRecordBuffer buffer;
+	private final ScheduledExecutorService asyncLoggerService;
+	private final AtomicLong writtenCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private volatile Thread writerThread;
+	private volatile boolean active = true;
+
+	public DBLogHandler()
+	{
+		int capacity = Convert.toInteger(PropertiesManager.getValue(PropertiesManager.KEY_DBLOG_QUEUE_SIZE, "5000"));
+		OverflowPolicy overflowPolicy = OverflowPolicy.valueOf(PropertiesManager.getValue(PropertiesManager.KEY_DBLOG_OVERFLOW_POLICY, OverflowPolicy.DROP_FINE_FIRST.name()));
+		long flushInterval = Convert.toLong(PropertiesManager.getValue(PropertiesManager.KEY_DBLOG_FLUSH_INTERVAL, "1000"));
+
+		buffer = new LogRecordBuffer(capacity, overflowPolicy);
+		asyncLoggerService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "DB-Log-Writer");
+			thread.setDaemon(true);
+			writerThread = thread;
+			return thread;
+		});
+		asyncLoggerService.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+	}
 
 	@Override
 	public void publish(LogRecord record)
 	{
-		if (record != null && active) {
+		//Skip what the writer logs itself; otherwise saving records creates more records
+		if (record != null && active && Thread.currentThread() != writerThread) {
 			try {
 				//Filter Audit logging as it can fill the logs and it's better captured else where
 				boolean logSecurityFilter = Convert.toBoolean(PropertiesManager.getValue(PropertiesManager.KEY_DBLOG_LOG_SECURITY, "false"));
-				if (logSecurityFilter || record.getSourceClassName().equals("edu.usu.sdl.openstorefront.web.rest.SecurityFilter") == false) {
-					DBLogRecord logRecord = DBLogRecord.fromLogRecord(record);
-
-					Runnable task = () -> {
-						ServiceProxy serviceProxy = new ServiceProxy();
-						serviceProxy.getSystemService().addLogRecord(logRecord);
-					};
-					asyncLoggerService.submit(task);
+				if (logSecurityFilter || SECURITY_FILTER_CLASS.equals(record.getSourceClassName()) == false) {
+					buffer.offer(record);
 				}
 			} catch (Exception e) {
 				getErrorManager().error("Failed to log Record", e, 1);
@@ -60,9 +83,29 @@ public class DBLogHandler
 	}
 
 	@Override
-	public void flush()
+	public synchronized void flush()
 	{
-		//Nothing is Buffered
+		try {
+			List<LogRecord> records = buffer.drain(BATCH_SIZE);
+			while (records.isEmpty() == false) {
+				List<DBLogRecord> logRecords = new ArrayList<>(records.size());
+				for (LogRecord record : records) {
+					logRecords.add(DBLogRecord.fromLogRecord(record));
+				}
+				try {
+					ServiceProxy serviceProxy = new ServiceProxy();
+					serviceProxy.getSystemService().addLogRecords(logRecords);
+					writtenCount.addAndGet(logRecords.size());
+				} catch (Exception e) {
+					failedCount.addAndGet(logRecords.size());
+					getErrorManager().error("Failed to save log records", e, 1);
+				}
+				records = buffer.drain(BATCH_SIZE);
+			}
+		} catch (Exception e) {
+			//Keep the scheduled writer alive
+			getErrorManager().error("Failed to flush log records", e, 1);
+		}
 	}
 
 	@Override
@@ -75,6 +118,37 @@ public class DBLogHandler
 		} catch (InterruptedException ex) {
 			getErrorManager().error("Failed to shutdown db logger", ex, 2);
 		}
+		flush();
+	}
+
+	public int getQueueCapacity()
+	{
+		return buffer.getCapacity();
+	}
+
+	public int getQueueDepth()
+	{
+		return buffer.size();
+	}
+
+	public long getDroppedCount()
+	{
+		return buffer.getDroppedCount();
+	}
+
+	public long getWrittenCount()
+	{
+		return writtenCount.get();
+	}
+
+	public long getFailedCount()
+	{
+		return failedCount.get();
+	}
+
+	public OverflowPolicy getOverflowPolicy()
+	{
+		return buffer.getOverflowPolicy();
 	}
 
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Fixed size buffer of log records. When it's full a record is dropped
+ * according to the overflow policy rather than growing.
+ *
+ * @author dshurtleff
+ */
+public class LogRecordBuffer
+{
+
+	public enum OverflowPolicy
+	{
+		/**
+		 * Drop the oldest record
+		 */
+		DROP_OLDEST,
+		/**
+		 * Drop the oldest record below INFO (FINE, FINER...); if there are none
+		 * drop the oldest record
+		 */
+		DROP_FINE_FIRST
+	}
+
+	private final int capacity;
+	private final OverflowPolicy overflowPolicy;
+
+	//FINE and below go in their own ring when dropping those first
+	private final Ring main;
+	private final Ring fine;
+	private long droppedCount;
+
+	public LogRecordBuffer(int capacity, OverflowPolicy overflowPolicy)
+	{
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		}
+		this.capacity = capacity;
+		this.overflowPolicy = overflowPolicy != null ? overflowPolicy : OverflowPolicy.DROP_OLDEST;
+		main = new Ring(capacity);
+		fine = new Ring(this.overflowPolicy == OverflowPolicy.DROP_FINE_FIRST ? capacity : 0);
+	}
+
+	/**
+	 * Adds a record; drops one if full
+	 *
+	 * @param record
+	 * @return false if a record was dropped
+	 */
+	public synchronized boolean offer(LogRecord record)
+	{
+		boolean dropped = false;
+		if (size() >= capacity) {
+			dropped = true;
+			droppedCount++;
+			if (fine.size > 0) {
+				fine.poll();
+			} else {
+				main.poll();
+			}
+		}
+		if (isFine(record)) {
+			fine.add(record);
+		} else {
+			main.add(record);
+		}
+		return dropped == false;
+	}
+
+	private boolean isFine(LogRecord record)
+	{
+		return overflowPolicy == OverflowPolicy.DROP_FINE_FIRST
+				&& record.getLevel() != null
+				&& record.getLevel().intValue() < Level.INFO.intValue();
+	}
+
+	/**
+	 * Removes up to max records (oldest first)
+	 *
+	 * @param max
+	 * @return records
+	 */
+	public synchronized List<LogRecord> drain(int max)
+	{
+		List<LogRecord> records = new ArrayList<>(Math.min(max, size()));
+		while (records.size() < max && size() > 0) {
+			if (fine.size == 0) {
+				records.add(main.poll());
+			} else if (main.size == 0) {
+				records.add(fine.poll());
+			} else if (main.peek().getSequenceNumber() <= fine.peek().getSequenceNumber()) {
+				records.add(main.poll());
+			} else {
+				records.add(fine.poll());
+			}
+		}
+		return records;
+	}
+
+	public synchronized int size()
+	{
+		return main.size + fine.size;
+	}
+
+	public int getCapacity()
+	{
+		return capacity;
+	}
+
+	public OverflowPolicy getOverflowPolicy()
+	{
+		return overflowPolicy;
+	}
+
+	public synchronized long getDroppedCount()
+	{
+		return droppedCount;
+	}
+
+	private static class Ring
+	{
+
+		private final LogRecord[] items;
+		private int head;
+		private int size;
+
+		public Ring(int capacity)
+		{
+			items = new LogRecord[capacity];
+		}
+
+		public void add(LogRecord record)
+		{
+			items[(head + size) % items.length] = record;
+			size++;
+		}
+
+		public LogRecord peek()
+		{
+			return items[head];
+		}
+
+		public LogRecord poll()
+		{
+			LogRecord record = items[head];
+			items[head] = null;
+			head = (head + 1) % items.length;
+			size--;
+			return record;
+		}
+
+	}
+
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import com.sun.mail.smtp.SMTPAddressFailedException;
+import com.sun.mail.smtp.SMTPSendFailedException;
+import java.text.MessageFormat;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+/**
+ * Sends queued messages on a small pool of sender threads. Each sender keeps
+ * its connection to the relay open between messages (closing it when idle),
+ * so a burst of mail costs one connect/authenticate per sender rather than
+ * one per message.
+ *
+ * Failed messages are retried with exponential backoff (base, 2x base, 4x
+ * base...) until the max attempts; permanent (5xx) rejections are not
+ * retried. The listener is told the result of every attempt so it can be
+ * recorded.
+ *
+ * @author dshurtleff
+ */
+public class MailOutbox
+{
+
+	private static final Logger LOG = Logger.getLogger(MailOutbox.class.getName());
+
+	private static final long IDLE_CLOSE_MILLIS = 5000;
+	private static final int MAX_BACKOFF_SHIFT = 10;
+	private static final OutboxMessage STOP = new OutboxMessage(null, null, 0);
+
+	public interface DeliveryListener
+	{
+
+		void sent(String messageId, int attempts);
+
+		void retry(String messageId, int attempts, long delayMillis, Exception error);
+
+		void failed(String messageId, int attempts, Exception error);
+
+	}
+
+	private final Session session;
+	private final int maxAttempts;
+	private final long retryBaseMillis;
+	private final DeliveryListener listener;
+	private final int senderCount;
+
+	private final BlockingQueue<OutboxMessage> queue = new LinkedBlockingQueue<>();
+	private final ExecutorService senderPool;
+	private final ScheduledExecutorService retryScheduler;
+	private volatile boolean running = true;
+
+	private final AtomicInteger waitingRetryCount = new AtomicInteger();
+	private final AtomicLong sentCount = new AtomicLong();
+	private final AtomicLong retryCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong connectionCount = new AtomicLong();
+
+	/**
+	 * @param session mail session (connection and authentication properties)
+	 * @param senders number of sender threads/connections
+	 * @param maxAttempts attempts before a message is failed
+	 * @param retryBaseMillis delay before the first retry
+	 * @param listener records the delivery results
+	 */
+	public MailOutbox(Session session, int senders, int maxAttempts, long retryBaseMillis, DeliveryListener listener)
+	{
+		this.session = session;
+		this.maxAttempts = Math.max(1, maxAttempts);
+		this.retryBaseMillis = Math.max(0, retryBaseMillis);
+		this.listener = listener;
+
+		senderCount = Math.max(1, senders);
+		AtomicInteger threadCount = new AtomicInteger();
+		senderPool = Executors.newFixedThreadPool(senderCount, runnable -> {
+			Thread thread = new Thread(runnable, "Mail-Sender-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Mail-Retry");
+			thread.setDaemon(true);
+			return thread;
+		});
+		for (int i = 0; i < senderCount; i++) {
+			senderPool.execute(new Sender());
+		}
+	}
+
+	/**
+	 * Queues a new message
+	 *
+	 * @param messageId id used when reporting the result
+	 * @param message ready to send (saveChanges already called)
+	 */
+	public void submit(String messageId, MimeMessage message)
+	{
+		submit(messageId, message, 0, 0);
+	}
+
+	/**
+	 * Queues a message that has already been attempted (Eg. recovered on
+	 * startup)
+	 *
+	 * @param messageId
+	 * @param message
+	 * @param attempts attempts made so far
+	 * @param delayMillis wait before sending
+	 */
+	public void submit(String messageId, MimeMessage message, int attempts, long delayMillis)
+	{
+		OutboxMessage outboxMessage = new OutboxMessage(messageId, message, attempts);
+		if (delayMillis > 0) {
+			scheduleRetry(outboxMessage, delayMillis);
+		} else {
+			queue.offer(outboxMessage);
+		}
+	}
+
+	private void scheduleRetry(OutboxMessage outboxMessage, long delayMillis)
+	{
+		waitingRetryCount.incrementAndGet();
+		retryScheduler.schedule(() -> {
+			waitingRetryCount.decrementAndGet();
+			queue.offer(outboxMessage);
+		}, delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops accepting work and waits for the queued messages to be sent.
+	 * Anything left (or waiting on a retry) is still recorded as queued by
+	 * the listener's store and can be resubmitted later.
+	 *
+	 * @param timeoutMillis max wait for the senders
+	 */
+	public void shutdown(long timeoutMillis)
+	{
+		running = false;
+		retryScheduler.shutdownNow();
+		for (int i = 0; i < senderCount; i++) {
+			queue.offer(STOP);
+		}
+		senderPool.shutdown();
+		try {
+			if (senderPool.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS) == false) {
+				senderPool.shutdownNow();
+			}
+		} catch (InterruptedException ex) {
+			senderPool.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private long retryDelay(int attempts)
+	{
+		int shift = Math.min(Math.max(attempts - 1, 0), MAX_BACKOFF_SHIFT);
+		return retryBaseMillis << shift;
+	}
+
+	private void handleFailure(OutboxMessage outboxMessage, Exception error)
+	{
+		if (outboxMessage.attempts >= maxAttempts || isPermanent(error)) {
+			failedCount.incrementAndGet();
+			try {
+				listener.failed(outboxMessage.messageId, outboxMessage.attempts, error);
+			} catch (Exception e) {
+				LOG.log(Level.WARNING, "Unable to record failed email: " + outboxMessage.messageId, e);
+			}
+		} else {
+			long delay = retryDelay(outboxMessage.attempts);
+			retryCount.incrementAndGet();
+			try {
+				listener.retry(outboxMessage.messageId, outboxMessage.attempts, delay, error);
+			} catch (Exception e) {
+				LOG.log(Level.WARNING, "Unable to record email retry: " + outboxMessage.messageId, e);
+			}
+			if (running) {
+				scheduleRetry(outboxMessage, delay);
+			}
+		}
+	}
+
+	private static boolean isPermanent(Exception error)
+	{
+		Exception cause = error;
+		while (cause != null) {
+			if (cause instanceof SMTPSendFailedException && ((SMTPSendFailedException) cause).getReturnCode() >= 500) {
+				return true;
+			}
+			if (cause instanceof SMTPAddressFailedException && ((SMTPAddressFailedException) cause).getReturnCode() >= 500) {
+				return true;
+			}
+			cause = cause instanceof MessagingException ? ((MessagingException) cause).getNextException() : null;
+		}
+		return false;
+	}
+
+	public int getQueuedCount()
+	{
+		return queue.size() + waitingRetryCount.get() - (running ? 0 : senderCount);
+	}
+
+	public long getSentCount()
+	{
+		return sentCount.get();
+	}
+
+	public long getRetryCount()
+	{
+		return retryCount.get();
+	}
+
+	public long getFailedCount()
+	{
+		return failedCount.get();
+	}
+
+	/**
+	 * @return connections opened to the relay
+	 */
+	public long getConnectionCount()
+	{
+		return connectionCount.get();
+	}
+
+	private class Sender
+			implements Runnable
+	{
+
+		private Transport transport;
+
+		@Override
+		public void run()
+		{
+			try {
+				OutboxMessage outboxMessage = queue.poll(IDLE_CLOSE_MILLIS, TimeUnit.MILLISECONDS);
+				while (outboxMessage != STOP) {
+					if (outboxMessage == null) {
+						close();
+					} else {
+						deliver(outboxMessage);
+					}
+					outboxMessage = queue.poll(IDLE_CLOSE_MILLIS, TimeUnit.MILLISECONDS);
+				}
+			} catch (InterruptedException ex) {
+				//shutting down; remaining messages are picked up on restart
+			} finally {
+				close();
+			}
+		}
+
+		private void deliver(OutboxMessage outboxMessage)
+		{
+			outboxMessage.attempts++;
+			try {
+				send(outboxMessage.message);
+				sentCount.incrementAndGet();
+				try {
+					listener.sent(outboxMessage.messageId, outboxMessage.attempts);
+				} catch (Exception e) {
+					LOG.log(Level.WARNING, "Unable to record sent email: " + outboxMessage.messageId, e);
+				}
+			} catch (MessagingException e) {
+				if (e instanceof SendFailedException == false) {
+					//connection is in an unknown state
+					close();
+				}
+				LOG.log(Level.FINE, MessageFormat.format("Email {0} attempt {1} failed: {2}", outboxMessage.messageId, outboxMessage.attempts, e.getMessage()));
+				handleFailure(outboxMessage, e);
+			}
+		}
+
+		private void send(MimeMessage message) throws MessagingException
+		{
+			if (transport != null) {
+				try {
+					transport.sendMessage(message, message.getAllRecipients());
+					return;
+				} catch (SendFailedException e) {
+					throw e;
+				} catch (MessagingException e) {
+					//the relay may have dropped the idle connection; try a new one
+					close();
+				}
+			}
+			transport = session.getTransport();
+			transport.connect();
+			connectionCount.incrementAndGet();
+			transport.sendMessage(message, message.getAllRecipients());
+		}
+
+		private void close()
+		{
+			if (transport != null) {
+				try {
+					transport.close();
+				} catch (MessagingException e) {
+					LOG.log(Level.FINEST, "Unable to close mail connection", e);
+				}
+				transport = null;
+			}
+		}
+
+	}
+
+	private static class OutboxMessage
+	{
+
+		private final String messageId;
+		private final MimeMessage message;
+		private int attempts;
+
+		public OutboxMessage(String messageId, MimeMessage message, int attempts)
+		{
+			this.messageId = messageId;
+			this.message = message;
+			this.attempts = attempts;
+		}
+
+	}
+
+}
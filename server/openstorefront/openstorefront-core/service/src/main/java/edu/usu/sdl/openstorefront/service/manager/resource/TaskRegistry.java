@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant.TaskStatus;
+import edu.usu.sdl.openstorefront.core.api.model.TaskFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * In-memory index of tasks by id, future and name. Holds the running tasks
+ * (which have a future) and the finished tasks loaded from the database
+ * (which don't) until they expire.
+ *
+ * @author dshurtleff
+ */
+public class TaskRegistry
+{
+
+	private final Map<String, TaskFuture> tasksById = new ConcurrentHashMap<>();
+	private final Map<Future<?>, TaskFuture> tasksByFuture = new ConcurrentHashMap<>();
+	private final Map<String, Set<TaskFuture>> tasksByName = new ConcurrentHashMap<>();
+
+	public void register(TaskFuture taskFuture)
+	{
+		tasksById.put(taskFuture.getTaskId(), taskFuture);
+		if (taskFuture.getFuture() != null) {
+			tasksByFuture.put(taskFuture.getFuture(), taskFuture);
+		}
+		if (taskFuture.getTaskName() != null) {
+			tasksByName.computeIfAbsent(taskFuture.getTaskName(), name -> ConcurrentHashMap.newKeySet()).add(taskFuture);
+		}
+	}
+
+	/**
+	 * Drops the future lookup once the task has finished
+	 *
+	 * @param taskFuture
+	 */
+	public void completed(TaskFuture taskFuture)
+	{
+		if (taskFuture.getFuture() != null) {
+			tasksByFuture.remove(taskFuture.getFuture());
+		}
+	}
+
+	public TaskFuture remove(String taskId)
+	{
+		TaskFuture taskFuture = tasksById.remove(taskId);
+		if (taskFuture != null) {
+			completed(taskFuture);
+			if (taskFuture.getTaskName() != null) {
+				tasksByName.computeIfPresent(taskFuture.getTaskName(), (name, tasks) -> {
+					tasks.remove(taskFuture);
+					return tasks.isEmpty() ? null : tasks;
+				});
+			}
+		}
+		return taskFuture;
+	}
+
+	public TaskFuture getById(String taskId)
+	{
+		if (taskId == null) {
+			return null;
+		}
+		return tasksById.get(taskId);
+	}
+
+	public TaskFuture getByFuture(Future<?> future)
+	{
+		return tasksByFuture.get(future);
+	}
+
+	public List<TaskFuture> getByName(String name)
+	{
+		List<TaskFuture> taskFutures = new ArrayList<>();
+		if (name != null) {
+			Set<TaskFuture> tasks = tasksByName.get(name);
+			if (tasks != null) {
+				taskFutures.addAll(tasks);
+			}
+		}
+		return taskFutures;
+	}
+
+	/**
+	 * @param name
+	 * @return true if a task with the name is currently running
+	 */
+	public boolean isWorking(String name)
+	{
+		for (TaskFuture taskFuture : getByName(name)) {
+			if (TaskStatus.WORKING.equals(taskFuture.getStatus())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public List<TaskFuture> getTasks()
+	{
+		return new ArrayList<>(tasksById.values());
+	}
+
+	/**
+	 * Removes the tasks past their expire time
+	 *
+	 * @return the removed tasks
+	 */
+	public List<TaskFuture> removeExpired()
+	{
+		List<TaskFuture> expired = new ArrayList<>();
+		for (TaskFuture taskFuture : tasksById.values()) {
+			if (taskFuture.isExpired() && remove(taskFuture.getTaskId()) != null) {
+				expired.add(taskFuture);
+			}
+		}
+		return expired;
+	}
+
+	public int size()
+	{
+		return tasksById.size();
+	}
+
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.media;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.util.StringProcessor;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Resized copies of media kept in a directory. Variants are made on first
+ * request (one resize per variant no matter how many requests are waiting on
+ * it) and the least recently used are removed once the directory is over its
+ * size limit.
+ *
+ * Variant file names start with a hash of the media key so all of the
+ * variants for a media record can be dropped together. They also carry the
+ * source file's size and modified time so a replaced file is never answered
+ * with an old variant. Sources that can't be resized are remembered by the
+ * same name so they aren't decoded again on every request.
+ *
+ * @author dshurtleff
+ */
+public class ImageDerivativeCache
+{
+
+	private static final Logger LOG = Logger.getLogger(ImageDerivativeCache.class.getName());
+
+	private static final String TEMP_EXTENSION = ".tmp";
+	private static final int MAX_UNREADABLE = 10000;
+
+	private final File directory;
+	private final long maxBytes;
+
+	//access ordered; guarded by this
+	private final LinkedHashMap<String, Long> variants = new LinkedHashMap<>(16, 0.75f, true);
+	private long totalBytes;
+
+	private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+	//variant names whose source could not be resized
+	private final Set<String> unreadable = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong generatedCount = new AtomicLong();
+	private final AtomicLong evictedCount = new AtomicLong();
+
+	public ImageDerivativeCache(File directory, long maxBytes)
+	{
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		load();
+	}
+
+	private synchronized void load()
+	{
+		File files[] = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+
+		//oldest first so they are evicted first
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for (File file : files) {
+			if (file.getName().endsWith(TEMP_EXTENSION)) {
+				//left from an interrupted resize
+				file.delete();
+			} else if (file.isFile()) {
+				variants.put(file.getName(), file.length());
+				totalBytes += file.length();
+			}
+		}
+		evict(null);
+	}
+
+	/**
+	 * Gets the variant, making it if needed
+	 *
+	 * @param mediaKey (Eg. type and id of the media record)
+	 * @param source original file
+	 * @param width max width (0 for no limit)
+	 * @param height max height (0 for no limit)
+	 * @param format jpg or png
+	 * @return variant file or null if the source isn't an image that can be
+	 * resized
+	 */
+	public Path getVariant(String mediaKey, Path source, int width, int height, String format)
+	{
+		File sourceFile = source.toFile();
+		String name = keyPrefix(mediaKey)
+				+ width + "x" + height + "_"
+				+ Long.toHexString(sourceFile.length()) + Long.toHexString(sourceFile.lastModified())
+				+ "." + format;
+		Path variant = directory.toPath().resolve(name);
+
+		if (unreadable.contains(name)) {
+			return null;
+		}
+
+		synchronized (this) {
+			Long size = variants.get(name);
+			if (size != null) {
+				if (variant.toFile().exists()) {
+					hitCount.incrementAndGet();
+					return variant;
+				}
+				variants.remove(name);
+				totalBytes -= size;
+			}
+		}
+
+		CompletableFuture<Path> future = new CompletableFuture<>();
+		CompletableFuture<Path> running = inFlight.putIfAbsent(name, future);
+		if (running != null) {
+			return await(running);
+		}
+
+		try {
+			Path tempFile = directory.toPath().resolve(name + TEMP_EXTENSION);
+			Path created = null;
+			if (ImageResizer.resize(source, width, height, format, tempFile)) {
+				Files.move(tempFile, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				generatedCount.incrementAndGet();
+				add(name, variant.toFile().length());
+				created = variant;
+			} else {
+				if (unreadable.size() >= MAX_UNREADABLE) {
+					unreadable.clear();
+				}
+				unreadable.add(name);
+			}
+			future.complete(created);
+			return created;
+		} catch (IOException | RuntimeException ex) {
+			future.completeExceptionally(ex);
+			throw new OpenStorefrontRuntimeException("Unable to resize media: " + mediaKey, "Check the media file and disk space.", ex);
+		} finally {
+			inFlight.remove(name, future);
+		}
+	}
+
+	private Path await(CompletableFuture<Path> running)
+	{
+		try {
+			return running.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new OpenStorefrontRuntimeException("Interrupted waiting on media resize", "Try again.", ex);
+		} catch (ExecutionException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to resize media", "Check the media file and disk space.", ex.getCause());
+		}
+	}
+
+	private synchronized void add(String name, long size)
+	{
+		Long oldSize = variants.put(name, size);
+		if (oldSize != null) {
+			totalBytes -= oldSize;
+		}
+		totalBytes += size;
+		evict(name);
+	}
+
+	private void evict(String keep)
+	{
+		Iterator<Map.Entry<String, Long>> iterator = variants.entrySet().iterator();
+		while (totalBytes > maxBytes && iterator.hasNext()) {
+			Map.Entry<String, Long> entry = iterator.next();
+			if (entry.getKey().equals(keep)) {
+				continue;
+			}
+			iterator.remove();
+			totalBytes -= entry.getValue();
+			evictedCount.incrementAndGet();
+			delete(entry.getKey());
+		}
+	}
+
+	/**
+	 * Drops all variants of the media (call when it's replaced or removed)
+	 *
+	 * @param mediaKey
+	 */
+	public synchronized void invalidate(String mediaKey)
+	{
+		String prefix = keyPrefix(mediaKey);
+		List<String> removed = new ArrayList<>();
+		Iterator<Map.Entry<String, Long>> iterator = variants.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, Long> entry = iterator.next();
+			if (entry.getKey().startsWith(prefix)) {
+				iterator.remove();
+				totalBytes -= entry.getValue();
+				removed.add(entry.getKey());
+			}
+		}
+		removed.forEach(this::delete);
+	}
+
+	private void delete(String name)
+	{
+		File file = new File(directory, name);
+		if (file.exists() && file.delete() == false) {
+			LOG.log(Level.WARNING, MessageFormat.format("Unable to delete media variant. Path: {0}", file.getPath()));
+		}
+	}
+
+	private String keyPrefix(String mediaKey)
+	{
+		try {
+			byte hash[] = MessageDigest.getInstance("SHA-1").digest(mediaKey.getBytes(StandardCharsets.UTF_8));
+			return StringProcessor.getHexFromBytes(hash) + "_";
+		} catch (NoSuchAlgorithmException ex) {
+			throw new OpenStorefrontRuntimeException("Hash Format not available", "Coding issue", ex);
+		}
+	}
+
+	public synchronized int size()
+	{
+		return variants.size();
+	}
+
+	public synchronized long getTotalBytes()
+	{
+		return totalBytes;
+	}
+
+	public long getMaxBytes()
+	{
+		return maxBytes;
+	}
+
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+
+	public long getGeneratedCount()
+	{
+		return generatedCount.get();
+	}
+
+	public long getEvictedCount()
+	{
+		return evictedCount.get();
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.media;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Scales images down to fit a box and re-encodes them
+ *
+ * @author dshurtleff
+ */
+public class ImageResizer
+{
+
+	public static final String FORMAT_JPG = "jpg";
+	public static final String FORMAT_PNG = "png";
+
+	//larger sources are served as is rather than decoded (about 200MB as ARGB)
+	public static final long MAX_SOURCE_PIXELS = 50L * 1000L * 1000L;
+
+	private static final float JPG_QUALITY = 0.85f;
+
+	private ImageResizer()
+	{
+	}
+
+	/**
+	 * Writes a scaled copy of the image (aspect ratio is kept and images are
+	 * never scaled up)
+	 *
+	 * @param source
+	 * @param width max width (0 for no limit)
+	 * @param height max height (0 for no limit)
+	 * @param format jpg or png
+	 * @param target
+	 * @return false if the source is not an image that can be read (or is
+	 * too large to decode)
+	 * @throws IOException
+	 */
+	public static boolean resize(Path source, int width, int height, String format, Path target) throws IOException
+	{
+		BufferedImage image = read(source);
+		if (image == null) {
+			return false;
+		}
+
+		double scale = 1.0;
+		if (width > 0) {
+			scale = Math.min(scale, (double) width / image.getWidth());
+		}
+		if (height > 0) {
+			scale = Math.min(scale, (double) height / image.getHeight());
+		}
+		int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+		int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+		BufferedImage scaled = scale(image, targetWidth, targetHeight, FORMAT_JPG.equals(format) == false);
+		try (OutputStream out = Files.newOutputStream(target)) {
+			write(scaled, format, out);
+		}
+		return true;
+	}
+
+	/**
+	 * Checks the size from the header before decoding
+	 *
+	 * @return image or null if it's not a readable image or too large
+	 */
+	private static BufferedImage read(Path source) throws IOException
+	{
+		try (ImageInputStream imageIn = ImageIO.createImageInputStream(source.toFile())) {
+			if (imageIn == null) {
+				return null;
+			}
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+			if (readers.hasNext() == false) {
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(imageIn, true, true);
+				if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_SOURCE_PIXELS) {
+					return null;
+				}
+				return reader.read(0);
+			} catch (IIOException | IndexOutOfBoundsException ex) {
+				//corrupt or truncated
+				return null;
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	private static BufferedImage scale(BufferedImage image, int targetWidth, int targetHeight, boolean keepAlpha)
+	{
+		int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+		//halve in steps; a single bilinear pass drops detail on large reductions
+		BufferedImage current = image;
+		int currentWidth = image.getWidth();
+		int currentHeight = image.getHeight();
+		do {
+			currentWidth = Math.max(targetWidth, currentWidth / 2);
+			currentHeight = Math.max(targetHeight, currentHeight / 2);
+
+			BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+			Graphics2D graphics = next.createGraphics();
+			try {
+				if (keepAlpha == false) {
+					graphics.setColor(Color.WHITE);
+					graphics.fillRect(0, 0, currentWidth, currentHeight);
+				}
+				graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+			} finally {
+				graphics.dispose();
+			}
+			current = next;
+		} while (currentWidth != targetWidth || currentHeight != targetHeight);
+
+		return current;
+	}
+
+	private static void write(BufferedImage image, String format, OutputStream out) throws IOException
+	{
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+		if (writers.hasNext() == false) {
+			throw new IOException("No image writer for format: " + format);
+		}
+		ImageWriter writer = writers.next();
+		try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+			writer.setOutput(imageOut);
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			if (FORMAT_JPG.equals(format)) {
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				param.setCompressionQuality(JPG_QUALITY);
+			}
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+	}
+
+}
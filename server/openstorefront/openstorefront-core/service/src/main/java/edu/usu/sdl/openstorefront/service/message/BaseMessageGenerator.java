@@ -22,8 +22,6 @@ import edu.usu.sdl.openstorefront.service.manager.MailManager;
 import javax.mail.Message.RecipientType;
 import org.apache.commons.lang.StringUtils;
 import org.codemonkey.simplejavamail.email.Email;
-import org.jsoup.Jsoup;
-import org.jsoup.examples.HtmlToPlainText;
 
 /**
  * A new generator should be created for each email
@@ -47,10 +45,27 @@ public abstract class BaseMessageGenerator
 	 * @return email message to send or null if nothing to send.
 	 */
 	public Email generateMessage()
+	{
+		MessageTemplate template = generateTemplate();
+		if (template == null) {
+			return null;
+		}
+		Email email = template.personalize(messageContext.getUserProfile());
+		addUserToEmail(email);
+		return email;
+	}
+
+	/**
+	 * Renders the message once so it can be sent to many recipients. Use
+	 * when the content doesn't depend on the recipient (Eg. the recent change
+	 * message).
+	 *
+	 * @return template or null if nothing to send.
+	 */
+	public MessageTemplate generateTemplate()
 	{
 		Email email = MailManager.newEmail();
 		email.setSubject(getApplcationTitle() + " - " + getSubject());
-		addUserToEmail(email);
 
 		StringBuilder message = new StringBuilder();
 
@@ -65,11 +80,7 @@ public abstract class BaseMessageGenerator
 		message.append("<br>");
 		message.append(getContactLine());
 
-		email.setTextHTML(message.toString());
-		String textBased = message.toString().replace("<br>", "\n");
-		textBased = new HtmlToPlainText().getPlainText(Jsoup.parse(textBased));
-		email.setText(textBased);
-		return email;
+		return new MessageTemplate(email, message.toString());
 	}
 
 	protected abstract String getSubject();
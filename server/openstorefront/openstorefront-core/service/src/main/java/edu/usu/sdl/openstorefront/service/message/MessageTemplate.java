@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.message;
+
+import edu.usu.sdl.openstorefront.core.entity.UserProfile;
+import java.util.Map;
+import javax.mail.Message.RecipientType;
+import org.apache.commons.lang.StringEscapeUtils;
+import org.apache.commons.lang.StringUtils;
+import org.codemonkey.simplejavamail.email.AttachmentResource;
+import org.codemonkey.simplejavamail.email.Email;
+import org.codemonkey.simplejavamail.email.Recipient;
+import org.jsoup.Jsoup;
+import org.jsoup.examples.HtmlToPlainText;
+
+/**
+ * A rendered message that can be sent to many recipients. The body is
+ * rendered (and converted to text) once; each email only gets the recipient
+ * and the user fields (Eg. ${firstName}) filled in.
+ *
+ * @author dshurtleff
+ */
+public class MessageTemplate
+{
+
+	public static final String FIELD_FIRST_NAME = "${firstName}";
+	public static final String FIELD_LAST_NAME = "${lastName}";
+
+	private final Email prototype;
+	private final String html;
+	private final String text;
+	private final boolean hasUserFields;
+
+	/**
+	 * @param prototype holds the from, subject, headers and attachments
+	 * @param html full HTML body
+	 */
+	MessageTemplate(Email prototype, String html)
+	{
+		this.prototype = prototype;
+		this.html = html;
+
+		String textBased = html.replace("<br>", "\n");
+		this.text = new HtmlToPlainText().getPlainText(Jsoup.parse(textBased));
+		this.hasUserFields = html.contains(FIELD_FIRST_NAME) || html.contains(FIELD_LAST_NAME);
+	}
+
+	/**
+	 * Creates an email for the user (addressed to the user's email)
+	 *
+	 * @param userProfile
+	 * @return email ready to send
+	 */
+	public Email createEmail(UserProfile userProfile)
+	{
+		Email email = personalize(userProfile);
+		if (userProfile != null && StringUtils.isNotBlank(userProfile.getEmail())) {
+			email.addRecipient(userProfile.getFirstName() + " " + userProfile.getLastName(), userProfile.getEmail(), RecipientType.TO);
+		}
+		return email;
+	}
+
+	/**
+	 * Creates an email for an address that isn't tied to a user
+	 *
+	 * @param emailAddress
+	 * @return email ready to send
+	 */
+	public Email createEmail(String emailAddress)
+	{
+		Email email = personalize(null);
+		email.addRecipient("", emailAddress, RecipientType.TO);
+		return email;
+	}
+
+	/**
+	 * Copies the template and fills in the user fields (no recipients)
+	 *
+	 * @param userProfile (may be null)
+	 * @return new email
+	 */
+	Email personalize(UserProfile userProfile)
+	{
+		Email email = new Email();
+		Recipient from = prototype.getFromRecipient();
+		if (from != null) {
+			email.setFromAddress(from.getName(), from.getAddress());
+		}
+		Recipient replyTo = prototype.getReplyToRecipient();
+		if (replyTo != null) {
+			email.setReplyToAddress(replyTo.getName(), replyTo.getAddress());
+		}
+		email.setSubject(prototype.getSubject());
+		for (Map.Entry<String, String> header : prototype.getHeaders().entrySet()) {
+			email.addHeader(header.getKey(), header.getValue());
+		}
+		for (AttachmentResource attachment : prototype.getAttachments()) {
+			email.addAttachment(attachment.getName(), attachment.getDataSource());
+		}
+		for (AttachmentResource image : prototype.getEmbeddedImages()) {
+			email.addEmbeddedImage(image.getName(), image.getDataSource());
+		}
+
+		if (hasUserFields) {
+			String firstName = userProfile != null ? StringUtils.defaultString(userProfile.getFirstName()) : "";
+			String lastName = userProfile != null ? StringUtils.defaultString(userProfile.getLastName()) : "";
+			email.setTextHTML(StringUtils.replaceEach(html,
+					new String[]{FIELD_FIRST_NAME, FIELD_LAST_NAME},
+					new String[]{StringEscapeUtils.escapeHtml(firstName), StringEscapeUtils.escapeHtml(lastName)}));
+			email.setText(StringUtils.replaceEach(text,
+					new String[]{FIELD_FIRST_NAME, FIELD_LAST_NAME},
+					new String[]{firstName, lastName}));
+		} else {
+			email.setTextHTML(html);
+			email.setText(text);
+		}
+		return email;
+	}
+
+	public String getSubject()
+	{
+		return prototype.getSubject();
+	}
+
+	public String getHtml()
+	{
+		return html;
+	}
+
+	public String getText()
+	{
+		return text;
+	}
+
+}
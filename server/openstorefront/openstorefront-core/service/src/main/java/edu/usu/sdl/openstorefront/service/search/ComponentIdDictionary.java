@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps component ids to small ints so search results can be held and merged
+ * as bit sets. Codes are only meaningful within one search.
+ *
+ * @author dshurtleff
+ */
+public class ComponentIdDictionary
+{
+
+	private final Map<String, Integer> codes = new HashMap<>();
+	private final List<String> componentIds = new ArrayList<>();
+
+	/**
+	 * Encodes the ids (adding any new ones to the dictionary)
+	 *
+	 * @param ids
+	 * @return set of codes
+	 */
+	public BitSet encode(Collection<String> ids)
+	{
+		BitSet bitSet = new BitSet(componentIds.size());
+		if (ids != null) {
+			for (String componentId : ids) {
+				if (componentId != null) {
+					bitSet.set(toCode(componentId));
+				}
+			}
+		}
+		return bitSet;
+	}
+
+	private int toCode(String componentId)
+	{
+		Integer code = codes.get(componentId);
+		if (code == null) {
+			code = componentIds.size();
+			codes.put(componentId, code);
+			componentIds.add(componentId);
+		}
+		return code;
+	}
+
+	/**
+	 * @param bitSet
+	 * @return ids in code order
+	 */
+	public List<String> decode(BitSet bitSet)
+	{
+		List<String> ids = new ArrayList<>(bitSet.cardinality());
+		for (int code = bitSet.nextSetBit(0); code >= 0; code = bitSet.nextSetBit(code + 1)) {
+			ids.add(componentIds.get(code));
+		}
+		return ids;
+	}
+
+	public int size()
+	{
+		return componentIds.size();
+	}
+
+}
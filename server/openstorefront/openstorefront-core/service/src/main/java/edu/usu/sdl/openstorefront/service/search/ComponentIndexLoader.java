@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import edu.usu.sdl.openstorefront.core.api.PersistenceService;
+import edu.usu.sdl.openstorefront.core.entity.ApprovalStatus;
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
+import edu.usu.sdl.openstorefront.core.entity.ComponentReview;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the data needed to index components. Sub-entities (attributes,
+ * reviews, tags) are only loaded for the components being indexed.
+ *
+ * @author dshurtleff
+ */
+public class ComponentIndexLoader
+{
+
+	/**
+	 * Max ids per IN clause
+	 */
+	public static final int ID_BATCH_SIZE = 500;
+
+	public static final String ATTRIBUTE_QUERY = "select from " + ComponentAttribute.class.getSimpleName() + " where activeStatus = :activeStatusParam and componentId IN :componentIdsParam";
+	public static final String REVIEW_QUERY = "select from " + ComponentReview.class.getSimpleName() + " where activeStatus = :activeStatusParam and componentId IN :componentIdsParam";
+	public static final String TAG_QUERY = "select from " + ComponentTag.class.getSimpleName() + " where activeStatus = :activeStatusParam and componentId IN :componentIdsParam";
+
+	private static final String COMPONENT_PAGE_QUERY = "select from " + Component.class.getSimpleName()
+			+ " where activeStatus = :activeStatusParam and approvalState = :approvalStateParam and componentId > :lastIdParam"
+			+ " order by componentId limit ";
+
+	private final PersistenceService persistenceService;
+
+	private final Map<String, List<ComponentAttribute>> attributeMap = new HashMap<>();
+	private final Map<String, List<ComponentReview>> reviewMap = new HashMap<>();
+	private final Map<String, List<ComponentTag>> tagMap = new HashMap<>();
+
+	public ComponentIndexLoader(PersistenceService persistenceService)
+	{
+		this.persistenceService = persistenceService;
+	}
+
+	/**
+	 * Loads the sub-entities for the components (replaces anything loaded
+	 * before)
+	 *
+	 * @param components
+	 * @return this
+	 */
+	public ComponentIndexLoader load(List<Component> components)
+	{
+		attributeMap.clear();
+		reviewMap.clear();
+		tagMap.clear();
+
+		List<String> componentIds = components.stream()
+				.map(Component::getComponentId)
+				.distinct()
+				.collect(Collectors.toList());
+
+		for (int start = 0; start < componentIds.size(); start += ID_BATCH_SIZE) {
+			List<String> batch = componentIds.subList(start, Math.min(start + ID_BATCH_SIZE, componentIds.size()));
+
+			List<ComponentAttribute> attributes = query(ATTRIBUTE_QUERY, ComponentAttribute.ACTIVE_STATUS, batch);
+			attributes.forEach(attribute -> attributeMap.computeIfAbsent(attribute.getComponentId(), key -> new ArrayList<>()).add(attribute));
+
+			List<ComponentReview> reviews = query(REVIEW_QUERY, ComponentReview.ACTIVE_STATUS, batch);
+			reviews.forEach(review -> reviewMap.computeIfAbsent(review.getComponentId(), key -> new ArrayList<>()).add(review));
+
+			List<ComponentTag> tags = query(TAG_QUERY, ComponentTag.ACTIVE_STATUS, batch);
+			tags.forEach(tag -> tagMap.computeIfAbsent(tag.getComponentId(), key -> new ArrayList<>()).add(tag));
+		}
+		return this;
+	}
+
+	private <T> List<T> query(String query, String activeStatus, List<String> componentIds)
+	{
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("activeStatusParam", activeStatus);
+		parameters.put("componentIdsParam", new ArrayList<>(componentIds));
+		return persistenceService.query(query, parameters, true);
+	}
+
+	/**
+	 * Gets the next page of searchable (active and approved) components in id
+	 * order
+	 *
+	 * @param lastComponentId last id of the previous page (null for the first)
+	 * @param pageSize
+	 * @return components (empty when done)
+	 */
+	public List<Component> nextComponentPage(String lastComponentId, int pageSize)
+	{
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("activeStatusParam", Component.ACTIVE_STATUS);
+		parameters.put("approvalStateParam", ApprovalStatus.APPROVED);
+		parameters.put("lastIdParam", lastComponentId != null ? lastComponentId : "");
+		return persistenceService.query(COMPONENT_PAGE_QUERY + pageSize, parameters, true);
+	}
+
+	public List<ComponentAttribute> getAttributes(String componentId)
+	{
+		return attributeMap.getOrDefault(componentId, new ArrayList<>());
+	}
+
+	public List<ComponentReview> getReviews(String componentId)
+	{
+		return reviewMap.getOrDefault(componentId, new ArrayList<>());
+	}
+
+	public List<ComponentTag> getTags(String componentId)
+	{
+		return tagMap.getOrDefault(componentId, new ArrayList<>());
+	}
+
+}
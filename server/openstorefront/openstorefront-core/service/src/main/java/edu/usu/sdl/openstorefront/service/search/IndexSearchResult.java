@@ -15,12 +15,13 @@
  */
 package edu.usu.sdl.openstorefront.service.search;
 
+import edu.usu.sdl.openstorefront.core.filter.DataRestrictionPredicate;
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacet;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
 import edu.usu.sdl.openstorefront.security.SecurityUtil;
 import edu.usu.sdl.openstorefront.security.UserContext;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -32,6 +33,7 @@ public class IndexSearchResult
 
 	private List<SolrComponentModel> resultsList = new ArrayList<>();
 	private List<ComponentSearchView> searchViews = new ArrayList<>();
+	private List<ResultFacet> facets = new ArrayList<>();
 	private long totalResults = 0;
 	private float maxScore;
 
@@ -48,61 +50,33 @@ public class IndexSearchResult
 	 */
 	public void applyDataFilter()
 	{
+		applyDataFilter(SecurityUtil.getUserContext());
+	}
 
-		UserContext userContext = SecurityUtil.getUserContext();
+	/**
+	 * Removes the results the user isn't allowed to see
+	 *
+	 * @param userContext (null leaves the results as is)
+	 */
+	public void applyDataFilter(UserContext userContext)
+	{
 		if (userContext != null) {
-			Set<String> dataSources = userContext.dataSources();
-			Set<String> acceptedDataSensitivity = userContext.dataSensitivity();
+			DataRestrictionPredicate predicate = userContext.dataRestrictionPredicate();
 
 			int removeFromResults = 0;
 			if (!resultsList.isEmpty()) {
 				int countBefore = resultsList.size();
-
 				resultsList = resultsList.stream()
-						.filter(result -> {
-							boolean keepSource = false;
-							if (result.getDataSource() == null && userContext.allowUnspecifiedDataSources()) {
-								keepSource = true;
-							} else if (dataSources.contains(result.getDataSource())) {
-								keepSource = true;
-							}
-
-							if (keepSource) {
-								if (result.getDataSensitivity() == null && userContext.allowUnspecifiedDataSensitivty()) {
-									return true;
-								} else if (acceptedDataSensitivity.contains(result.getDataSensitivity())) {
-									return true;
-								}
-							}
-							return false;
-						})
+						.filter(result -> predicate.allow(result.getDataSource(), result.getDataSensitivity()))
 						.collect(Collectors.toList());
 				removeFromResults = (countBefore - resultsList.size());
 			}
 
 			int removeSearchResults = 0;
 			if (!searchViews.isEmpty()) {
-
 				int countBefore = searchViews.size();
-
-				searchViews.stream()
-						.filter(result -> {
-							boolean keepSource = false;
-							if (result.getDataSource() == null && userContext.allowUnspecifiedDataSources()) {
-								keepSource = true;
-							} else if (dataSources.contains(result.getDataSource())) {
-								keepSource = true;
-							}
-
-							if (keepSource) {
-								if (result.getDataSensitivity() == null && userContext.allowUnspecifiedDataSensitivty()) {
-									return true;
-								} else if (acceptedDataSensitivity.contains(result.getDataSensitivity())) {
-									return true;
-								}
-							}
-							return false;
-						})
+				searchViews = searchViews.stream()
+						.filter(result -> predicate.allow(result.getDataSource(), result.getDataSensitivity()))
 						.collect(Collectors.toList());
 				removeSearchResults = (countBefore - searchViews.size());
 			}
@@ -150,4 +124,14 @@ public class IndexSearchResult
 		this.searchViews = searchViews;
 	}
 
+	public List<ResultFacet> getFacets()
+	{
+		return facets;
+	}
+
+	public void setFacets(List<ResultFacet> facets)
+	{
+		this.facets = facets;
+	}
+
 }
@@ -0,0 +1,593 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.common.util.StringProcessor;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
+import edu.usu.sdl.openstorefront.core.filter.DataRestrictionPredicate;
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacet;
+import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
+import edu.usu.sdl.openstorefront.core.view.SearchResultAttribute;
+import edu.usu.sdl.openstorefront.service.manager.SearchServerManager;
+import java.io.Closeable;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.lang.StringUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.MultiCollector;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopDocsCollector;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.QueryBuilder;
+
+/**
+ * Component search index held in a Lucene directory. Writes go through one
+ * IndexWriter; searches use near-real-time searchers that are refreshed after
+ * each write, so changes are searchable before they are committed (call
+ * commit() to make them durable). Scoring is BM25.
+ *
+ * The full search view is stored with the document so results don't need a
+ * database read. Facet values are kept as doc values and counted while
+ * collecting the hits.
+ *
+ * @author dshurtleff
+ */
+public class LuceneIndex
+		implements Closeable
+{
+
+	private static final Logger LOG = Logger.getLogger(LuceneIndex.class.getName());
+
+	public static final String FIELD_ID = "id";
+	public static final String FIELD_NAME = ComponentSearchView.FIELD_NAME;
+	public static final String FIELD_ORGANIZATION = ComponentSearchView.FIELD_ORGANIZATION;
+	public static final String FIELD_DESCRIPTION = "description";
+	public static final String FIELD_COMPONENT_TYPE = "componentType";
+	public static final String FIELD_TAGS = "tags";
+	public static final String FIELD_ATTRIBUTES = "attributes";
+	public static final String FIELD_ALL = "_all";
+	private static final String FIELD_SOURCE = "_source";
+	private static final String SORT_PREFIX = "sort_";
+	private static final String FACET_PREFIX = "facet_";
+
+	//exact values used to restrict results (and facet counts) in the query
+	private static final String FIELD_DATA_SOURCE = "dataSource";
+	private static final String FIELD_DATA_SENSITIVITY = "dataSensitivity";
+	private static final String FIELD_SEARCHABLE = "searchable";
+	private static final String UNSPECIFIED = "_unspecified";
+
+	/**
+	 * Max results that can be paged through
+	 */
+	public static final int MAX_RESULTS = 10000;
+
+	//keeps the sort values small; ordering past this is not meaningful
+	private static final int MAX_SORT_LENGTH = 256;
+
+	//fuzzy terms must share the first letter; keeps the term scan small
+	private static final int FUZZY_PREFIX_LENGTH = 1;
+
+	private static final Map<String, SortField.Type> SORT_FIELDS;
+
+	static {
+		Map<String, SortField.Type> sortFields = new HashMap<>();
+		sortFields.put(FIELD_NAME, SortField.Type.STRING);
+		sortFields.put(FIELD_ORGANIZATION, SortField.Type.STRING);
+		sortFields.put(FIELD_DESCRIPTION, SortField.Type.STRING);
+		sortFields.put(FIELD_COMPONENT_TYPE, SortField.Type.STRING);
+		sortFields.put("releaseDate", SortField.Type.LONG);
+		sortFields.put("approvedDts", SortField.Type.LONG);
+		sortFields.put("lastActivityDts", SortField.Type.LONG);
+		sortFields.put("updateDts", SortField.Type.LONG);
+		SORT_FIELDS = Collections.unmodifiableMap(sortFields);
+	}
+
+	//the stored view is read for every hit; keep the readers prebuilt
+	private final ObjectReader viewReader = StringProcessor.defaultObjectMapper().readerFor(ComponentSearchView.class);
+	private final ObjectWriter viewWriter = StringProcessor.defaultObjectMapper().writer().without(SerializationFeature.INDENT_OUTPUT);
+
+	private final Analyzer analyzer = new StandardAnalyzer();
+	private final IndexWriter writer;
+	private final SearcherManager searcherManager;
+
+	public LuceneIndex(Directory directory)
+	{
+		try {
+			IndexWriterConfig config = new IndexWriterConfig(analyzer);
+			config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+			config.setSimilarity(new BM25Similarity());
+			writer = new IndexWriter(directory, config);
+			searcherManager = new SearcherManager(writer, true, new SearcherFactory()
+			{
+
+				@Override
+				public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) throws IOException
+				{
+					IndexSearcher searcher = new IndexSearcher(reader);
+					searcher.setSimilarity(new BM25Similarity());
+					return searcher;
+				}
+
+			});
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to open the search index.", "Check the index directory permissions and disk space.", ex);
+		}
+	}
+
+	/**
+	 * Adds or replaces the views (by component id)
+	 *
+	 * @param views
+	 */
+	public void index(List<ComponentSearchView> views)
+	{
+		try {
+			for (ComponentSearchView view : views) {
+				try {
+					writer.updateDocument(new Term(FIELD_ID, view.getComponentId()), toDocument(view));
+				} catch (JsonProcessingException ex) {
+					LOG.log(Level.SEVERE, MessageFormat.format("Unable to index component: {0}  Component will be missing from search.", view.getName()));
+				}
+			}
+			refresh();
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to write to the search index.", "Check the index directory and disk space.", ex);
+		}
+	}
+
+	private Document toDocument(ComponentSearchView view) throws JsonProcessingException
+	{
+		Document document = new Document();
+		document.add(new StringField(FIELD_ID, view.getComponentId(), Field.Store.YES));
+		document.add(new StoredField(FIELD_SOURCE, viewWriter.writeValueAsString(view)));
+
+		String description = StringProcessor.stripHtml(StringUtils.defaultString(view.getDescription()));
+		StringBuilder tags = new StringBuilder();
+		for (ComponentTag tag : view.getTags()) {
+			tags.append(tag.getText()).append(" ");
+		}
+		StringBuilder attributes = new StringBuilder();
+		for (SearchResultAttribute attribute : view.getAttributes()) {
+			attributes.append(attribute.getTypeLabel()).append(" ")
+					.append(attribute.getLabel()).append(" ");
+		}
+
+		addText(document, FIELD_NAME, view.getName());
+		addText(document, FIELD_ORGANIZATION, view.getOrganization());
+		addText(document, FIELD_DESCRIPTION, description);
+		addText(document, FIELD_TAGS, tags.toString());
+		addText(document, FIELD_ATTRIBUTES, attributes.toString());
+		addText(document, FIELD_ALL, String.join(" ",
+				StringUtils.defaultString(view.getName()),
+				StringUtils.defaultString(view.getOrganization()),
+				description,
+				StringUtils.defaultString(view.getComponentTypeDescription()),
+				tags.toString(),
+				attributes.toString()));
+		if (view.getComponentType() != null) {
+			document.add(new StringField(FIELD_COMPONENT_TYPE, view.getComponentType(), Field.Store.NO));
+		}
+		document.add(new StringField(FIELD_DATA_SOURCE, StringUtils.defaultString(view.getDataSource(), UNSPECIFIED), Field.Store.NO));
+		document.add(new StringField(FIELD_DATA_SENSITIVITY, StringUtils.defaultString(view.getDataSensitivity(), UNSPECIFIED), Field.Store.NO));
+		document.add(new StringField(FIELD_SEARCHABLE, Boolean.toString(SearchServerManager.isSearchable(view)), Field.Store.NO));
+
+		addSortValue(document, FIELD_NAME, view.getName());
+		addSortValue(document, FIELD_ORGANIZATION, view.getOrganization());
+		addSortValue(document, FIELD_DESCRIPTION, description);
+		addSortValue(document, FIELD_COMPONENT_TYPE, view.getComponentType());
+		addSortValue(document, "releaseDate", view.getReleaseDate());
+		addSortValue(document, "approvedDts", view.getApprovedDts());
+		addSortValue(document, "lastActivityDts", view.getLastActivityDts());
+		addSortValue(document, "updateDts", view.getUpdateDts());
+
+		for (String facetField : ResultFacet.FIELDS) {
+			for (String value : SearchServerManager.facetValues(facetField, view)) {
+				document.add(new SortedSetDocValuesField(FACET_PREFIX + facetField, new BytesRef(value)));
+			}
+		}
+		return document;
+	}
+
+	private void addText(Document document, String field, String value)
+	{
+		if (StringUtils.isNotBlank(value)) {
+			document.add(new TextField(field, value, Field.Store.NO));
+		}
+	}
+
+	private void addSortValue(Document document, String field, String value)
+	{
+		if (value != null) {
+			String sortValue = StringUtils.left(value.toLowerCase(), MAX_SORT_LENGTH);
+			document.add(new SortedDocValuesField(SORT_PREFIX + field, new BytesRef(sortValue)));
+		}
+	}
+
+	private void addSortValue(Document document, String field, Date value)
+	{
+		if (value != null) {
+			document.add(new NumericDocValuesField(SORT_PREFIX + field, value.getTime()));
+		}
+	}
+
+	public void deleteById(String componentId)
+	{
+		try {
+			writer.deleteDocuments(new Term(FIELD_ID, componentId));
+			refresh();
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to delete from the search index.", "Check the index directory and disk space.", ex);
+		}
+	}
+
+	public void deleteAll()
+	{
+		try {
+			writer.deleteAll();
+			writer.commit();
+			refresh();
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to clear the search index.", "Check the index directory and disk space.", ex);
+		}
+	}
+
+	private void refresh() throws IOException
+	{
+		searcherManager.maybeRefreshBlocking();
+	}
+
+	/**
+	 * Commits pending changes (if any) to the directory
+	 */
+	public void commit()
+	{
+		try {
+			if (writer.hasUncommittedChanges()) {
+				writer.commit();
+			}
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to commit the search index.", "Check the index directory and disk space.", ex);
+		}
+	}
+
+	/**
+	 * Searches the index
+	 *
+	 * @param query user query (quoted phrases and * wildcards are supported;
+	 * blank matches everything)
+	 * @param offset
+	 * @param max
+	 * @param sortField (null or unknown sorts by relevance)
+	 * @param sortOrder
+	 * @return views with scores (no data filtering is applied)
+	 */
+	public IndexSearchResult search(String query, int offset, int max, String sortField, String sortOrder)
+	{
+		return search(query, offset, max, sortField, sortOrder, null, null);
+	}
+
+	/**
+	 * Searches the index and counts the facet fields over all matches
+	 *
+	 * @param query
+	 * @param offset
+	 * @param max
+	 * @param sortField
+	 * @param sortOrder
+	 * @param facetFields (null or empty for no facets)
+	 * @param restriction data the user can see (null for no restriction);
+	 * entries that aren't searchable (Eg. no longer approved) are always left
+	 * out
+	 * @return views with scores and facets
+	 */
+	public IndexSearchResult search(String query, int offset, int max, String sortField, String sortOrder, List<String> facetFields, DataRestrictionPredicate restriction)
+	{
+		IndexSearchResult indexSearchResult = new IndexSearchResult();
+
+		boolean faceted = facetFields != null && facetFields.isEmpty() == false;
+		int start = Math.max(0, Math.min(offset, MAX_RESULTS));
+		int size = Math.max(0, Math.min(max, MAX_RESULTS - start));
+		if (size == 0 && faceted == false) {
+			return indexSearchResult;
+		}
+
+		IndexSearcher searcher = null;
+		try {
+			searcher = searcherManager.acquire();
+
+			Query luceneQuery = restrict(buildQuery(query), restriction);
+			SortField.Type sortType = sortField != null ? SORT_FIELDS.get(sortField) : null;
+
+			//the collector needs room for at least one hit even when only counting
+			int numHits = Math.max(1, start + size);
+			TopDocsCollector<?> topDocsCollector;
+			if (sortType != null) {
+				boolean reverse = OpenStorefrontConstant.SORT_DESCENDING.equals(sortOrder);
+				Sort sort = new Sort(new SortField(SORT_PREFIX + sortField, sortType, reverse), SortField.FIELD_SCORE);
+				topDocsCollector = TopFieldCollector.create(sort.rewrite(searcher), numHits, null, true, true, true);
+			} else {
+				topDocsCollector = TopScoreDocCollector.create(numHits);
+			}
+
+			//one pass collects the page and the facet counts
+			if (faceted) {
+				FacetCountCollector facetCollector = new FacetCountCollector(facetFields);
+				searcher.search(luceneQuery, MultiCollector.wrap(topDocsCollector, facetCollector));
+				indexSearchResult.getFacets().addAll(facetCollector.getFacets());
+			} else {
+				searcher.search(luceneQuery, topDocsCollector);
+			}
+			TopDocs topDocs = topDocsCollector.topDocs(0, start + size);
+
+			indexSearchResult.setTotalResults(topDocs.totalHits);
+			indexSearchResult.setMaxScore(Float.isNaN(topDocs.getMaxScore()) ? 0 : topDocs.getMaxScore());
+
+			ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+			for (int i = start; i < scoreDocs.length; i++) {
+				Document document = searcher.doc(scoreDocs[i].doc);
+				ComponentSearchView view = viewReader.readValue(document.get(FIELD_SOURCE));
+				view.setSearchScore(scoreDocs[i].score);
+				indexSearchResult.getSearchViews().add(view);
+				indexSearchResult.getResultsList().add(SolrComponentModel.fromComponentSearchView(view));
+			}
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to search the index.", "Check the index directory; a re-index may be needed.", ex);
+		} finally {
+			if (searcher != null) {
+				try {
+					searcherManager.release(searcher);
+				} catch (IOException ex) {
+					LOG.log(Level.WARNING, "Unable to release index searcher", ex);
+				}
+			}
+		}
+		return indexSearchResult;
+	}
+
+	/**
+	 * Same shape as the elasticsearch query: quoted phrases match as phrases;
+	 * the rest matches name/organization terms, a description phrase and any
+	 * field (wildcard or fuzzy).
+	 */
+	private Query buildQuery(String query)
+	{
+		if (StringUtils.isBlank(query) || "*".equals(query.trim())) {
+			return new MatchAllDocsQuery();
+		}
+
+		List<String> phrases = new ArrayList<>();
+		StringBuilder remaining = new StringBuilder();
+		String parts[] = query.split("\"", -1);
+		for (int i = 0; i < parts.length; i++) {
+			//odd parts are inside quotes (unless the last quote isn't closed)
+			if (i % 2 == 1 && i < parts.length - 1) {
+				phrases.add(parts[i]);
+			} else {
+				remaining.append(parts[i]).append(" ");
+			}
+		}
+
+		QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+		BooleanQuery.Builder builder = new BooleanQuery.Builder();
+
+		String text = remaining.toString().trim().replaceAll("\\s+", " ");
+		if (text.isEmpty() == false) {
+			addShould(builder, queryBuilder.createBooleanQuery(FIELD_NAME, text), 3f);
+			addShould(builder, queryBuilder.createBooleanQuery(FIELD_ORGANIZATION, text), 2f);
+			addShould(builder, queryBuilder.createPhraseQuery(FIELD_DESCRIPTION, text), 1f);
+			addShould(builder, queryBuilder.createBooleanQuery(FIELD_ALL, text), 1f);
+
+			for (String token : text.split(" ")) {
+				String term = token.toLowerCase();
+				if (term.contains("*") || term.contains("?")) {
+					builder.add(new WildcardQuery(new Term(FIELD_ALL, term)), BooleanClause.Occur.SHOULD);
+				} else if (term.length() > 2) {
+					builder.add(new BoostQuery(new FuzzyQuery(new Term(FIELD_ALL, term), 1, FUZZY_PREFIX_LENGTH), 0.5f), BooleanClause.Occur.SHOULD);
+				}
+			}
+		}
+
+		for (String phrase : phrases) {
+			addShould(builder, queryBuilder.createPhraseQuery(FIELD_NAME, phrase), 3f);
+			addShould(builder, queryBuilder.createPhraseQuery(FIELD_ORGANIZATION, phrase), 2f);
+			addShould(builder, queryBuilder.createPhraseQuery(FIELD_DESCRIPTION, phrase), 1f);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Filters (no effect on scores) to what the user can see
+	 */
+	private Query restrict(Query query, DataRestrictionPredicate restriction)
+	{
+		BooleanQuery.Builder builder = new BooleanQuery.Builder();
+		builder.add(query, BooleanClause.Occur.MUST);
+		builder.add(new TermQuery(new Term(FIELD_SEARCHABLE, Boolean.FALSE.toString())), BooleanClause.Occur.MUST_NOT);
+		if (restriction != null) {
+			builder.add(anyValue(FIELD_DATA_SOURCE, restriction.getDataSources(), restriction.isAllowUnspecifiedDataSource()), BooleanClause.Occur.FILTER);
+			builder.add(anyValue(FIELD_DATA_SENSITIVITY, restriction.getDataSensitivities(), restriction.isAllowUnspecifiedDataSensitivity()), BooleanClause.Occur.FILTER);
+		}
+		return builder.build();
+	}
+
+	private Query anyValue(String field, Set<String> values, boolean allowUnspecified)
+	{
+		//no clauses matches nothing
+		BooleanQuery.Builder builder = new BooleanQuery.Builder();
+		for (String value : values) {
+			builder.add(new TermQuery(new Term(field, value)), BooleanClause.Occur.SHOULD);
+		}
+		if (allowUnspecified) {
+			builder.add(new TermQuery(new Term(field, UNSPECIFIED)), BooleanClause.Occur.SHOULD);
+		}
+		return builder.build();
+	}
+
+	private void addShould(BooleanQuery.Builder builder, Query query, float boost)
+	{
+		//null when the text is all stop words
+		if (query != null) {
+			builder.add(boost == 1f ? query : new BoostQuery(query, boost), BooleanClause.Occur.SHOULD);
+		}
+	}
+
+	/**
+	 * Counts the facet doc values of every collected document. Ordinals are
+	 * per segment so they are resolved to values when the segment is done.
+	 */
+	private static class FacetCountCollector
+			extends SimpleCollector
+	{
+
+		private final List<String> fields;
+		private final List<Map<String, Long>> fieldCounts = new ArrayList<>();
+
+		private SortedSetDocValues segmentValues[];
+		private long segmentCounts[][];
+
+		public FacetCountCollector(List<String> fields)
+		{
+			this.fields = fields;
+			for (int i = 0; i < fields.size(); i++) {
+				fieldCounts.add(new HashMap<>());
+			}
+		}
+
+		@Override
+		protected void doSetNextReader(LeafReaderContext context) throws IOException
+		{
+			finishSegment();
+			segmentValues = new SortedSetDocValues[fields.size()];
+			segmentCounts = new long[fields.size()][];
+			for (int i = 0; i < fields.size(); i++) {
+				segmentValues[i] = DocValues.getSortedSet(context.reader(), FACET_PREFIX + fields.get(i));
+				segmentCounts[i] = new long[(int) segmentValues[i].getValueCount()];
+			}
+		}
+
+		@Override
+		public void collect(int doc) throws IOException
+		{
+			for (int i = 0; i < segmentValues.length; i++) {
+				SortedSetDocValues values = segmentValues[i];
+				values.setDocument(doc);
+				for (long ord = values.nextOrd(); ord != SortedSetDocValues.NO_MORE_ORDS; ord = values.nextOrd()) {
+					segmentCounts[i][(int) ord]++;
+				}
+			}
+		}
+
+		private void finishSegment()
+		{
+			if (segmentValues != null) {
+				for (int i = 0; i < segmentValues.length; i++) {
+					Map<String, Long> counts = fieldCounts.get(i);
+					for (int ord = 0; ord < segmentCounts[i].length; ord++) {
+						if (segmentCounts[i][ord] > 0) {
+							counts.merge(segmentValues[i].lookupOrd(ord).utf8ToString(), segmentCounts[i][ord], Long::sum);
+						}
+					}
+				}
+				segmentValues = null;
+			}
+		}
+
+		@Override
+		public boolean needsScores()
+		{
+			return false;
+		}
+
+		public List<ResultFacet> getFacets()
+		{
+			finishSegment();
+			List<ResultFacet> facets = new ArrayList<>();
+			for (int i = 0; i < fields.size(); i++) {
+				facets.add(SearchServerManager.toFacet(fields.get(i), fieldCounts.get(i)));
+			}
+			return facets;
+		}
+
+	}
+
+	/**
+	 * @return number of documents in the index
+	 */
+	public int size()
+	{
+		return writer.numDocs();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		searcherManager.close();
+		commit();
+		writer.close();
+		analyzer.close();
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Set of component ids that need to be reindexed. Marking an id that is
+ * already queued just pushes its debounce time out, so a burst of saves for
+ * the same component becomes one index update. An id is ready once it hasn't
+ * been marked for the debounce window (or has waited the max wait).
+ *
+ * Times are passed in so the caller controls the clock.
+ *
+ * @author dshurtleff
+ */
+public class ReindexQueue
+{
+
+	private final Map<String, DirtyEntry> entries = new ConcurrentHashMap<>();
+	private final AtomicLong markedCount = new AtomicLong();
+	private final AtomicLong coalescedCount = new AtomicLong();
+
+	private final long debounceMillis;
+	private final long maxWaitMillis;
+
+	public ReindexQueue(long debounceMillis, long maxWaitMillis)
+	{
+		this.debounceMillis = debounceMillis;
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	/**
+	 * Marks the ids as dirty
+	 *
+	 * @param componentIds
+	 * @param now
+	 * @return number of ids that were not already queued
+	 */
+	public int mark(Collection<String> componentIds, long now)
+	{
+		int added = 0;
+		for (String componentId : componentIds) {
+			if (componentId == null) {
+				continue;
+			}
+			markedCount.incrementAndGet();
+			boolean isNew[] = {false};
+			entries.compute(componentId, (key, current) -> {
+				if (current == null) {
+					isNew[0] = true;
+					return new DirtyEntry(now, now);
+				}
+				return new DirtyEntry(current.firstMarked, now);
+			});
+			if (isNew[0]) {
+				added++;
+			} else {
+				coalescedCount.incrementAndGet();
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Removes the id (Eg. the component was deleted)
+	 *
+	 * @param componentId
+	 */
+	public void remove(String componentId)
+	{
+		entries.remove(componentId);
+	}
+
+	/**
+	 * Takes up to max ids that are ready. Taken ids are removed; marking one
+	 * again queues it again.
+	 *
+	 * @param now
+	 * @param max
+	 * @param ignoreDebounce true to take everything (flush)
+	 * @return ids (empty when nothing is ready)
+	 */
+	public List<String> takeReady(long now, int max, boolean ignoreDebounce)
+	{
+		List<String> ready = new ArrayList<>();
+		for (Map.Entry<String, DirtyEntry> entry : entries.entrySet()) {
+			if (ready.size() >= max) {
+				break;
+			}
+			DirtyEntry dirtyEntry = entry.getValue();
+			if (ignoreDebounce || dirtyEntry.isReady(now)) {
+				//skip if it was marked again in the mean time
+				if (entries.remove(entry.getKey(), dirtyEntry)) {
+					ready.add(entry.getKey());
+				}
+			}
+		}
+		return ready;
+	}
+
+	/**
+	 * @param now
+	 * @return how long the oldest queued id has waited (0 if empty)
+	 */
+	public long getLagMillis(long now)
+	{
+		long oldest = now;
+		for (DirtyEntry dirtyEntry : entries.values()) {
+			oldest = Math.min(oldest, dirtyEntry.firstMarked);
+		}
+		return now - oldest;
+	}
+
+	public List<String> getComponentIds()
+	{
+		return new ArrayList<>(entries.keySet());
+	}
+
+	public int size()
+	{
+		return entries.size();
+	}
+
+	public long getMarkedCount()
+	{
+		return markedCount.get();
+	}
+
+	public long getCoalescedCount()
+	{
+		return coalescedCount.get();
+	}
+
+	public long getDebounceMillis()
+	{
+		return debounceMillis;
+	}
+
+	public long getMaxWaitMillis()
+	{
+		return maxWaitMillis;
+	}
+
+	private class DirtyEntry
+	{
+
+		private final long firstMarked;
+		private final long lastMarked;
+
+		public DirtyEntry(long firstMarked, long lastMarked)
+		{
+			this.firstMarked = firstMarked;
+			this.lastMarked = lastMarked;
+		}
+
+		public boolean isReady(long now)
+		{
+			return now - lastMarked >= debounceMillis
+					|| now - firstMarked >= maxWaitMillis;
+		}
+
+	}
+
+}
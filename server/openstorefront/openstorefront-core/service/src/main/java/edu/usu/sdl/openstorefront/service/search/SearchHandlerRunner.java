@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.MergeCondition;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.UnavailableSecurityManagerException;
+
+/**
+ * Runs the advance search handlers and merges their results. The handlers
+ * are independent queries so they run at the same time; the merge is still
+ * applied in handler order (each handler's merge condition applies to the
+ * next one). Results are merged as bit sets over a per-search id dictionary.
+ *
+ * @author dshurtleff
+ */
+public class SearchHandlerRunner
+{
+
+	private static final Logger LOG = Logger.getLogger(SearchHandlerRunner.class.getName());
+
+	private final List<BaseSearchHandler> handlers;
+
+	//condition used to merge the handler at the same index into the results
+	private final List<MergeCondition> conditions = new ArrayList<>();
+
+	public SearchHandlerRunner(List<BaseSearchHandler> handlers)
+	{
+		this.handlers = handlers;
+
+		MergeCondition mergeCondition = MergeCondition.OR;
+		for (BaseSearchHandler handler : handlers) {
+			conditions.add(mergeCondition);
+			mergeCondition = handler.getNextMergeCondition();
+		}
+	}
+
+	/**
+	 * Runs the handlers
+	 *
+	 * @param executor (null to run on the calling thread)
+	 * @return matching component ids
+	 */
+	public List<String> run(ExecutorService executor)
+	{
+		if (executor == null || handlers.size() < 2) {
+			return merge(index -> handlers.get(index).processSearch());
+		}
+
+		List<List<String>> results = runConcurrent(executor);
+		if (results == null) {
+			return new ArrayList<>();
+		}
+		return merge(results::get);
+	}
+
+	private List<String> merge(IntFunction<List<String>> handlerResults)
+	{
+		ComponentIdDictionary dictionary = new ComponentIdDictionary();
+		BitSet componentIds = new BitSet();
+		for (int i = 0; i < handlers.size(); i++) {
+			componentIds = conditions.get(i).apply(componentIds, dictionary.encode(handlerResults.apply(i)));
+			if (componentIds.isEmpty() && onlyAndAfter(i)) {
+				//nothing can be added back
+				break;
+			}
+		}
+		return dictionary.decode(componentIds);
+	}
+
+	private List<List<String>> runConcurrent(ExecutorService executor)
+	{
+		CompletionService<List<String>> completionService = new ExecutorCompletionService<>(executor);
+		Map<Future<List<String>>, Integer> futures = new HashMap<>();
+		for (int i = 0; i < handlers.size(); i++) {
+			BaseSearchHandler handler = handlers.get(i);
+			futures.put(completionService.submit(bindSubject(handler::processSearch)), i);
+		}
+
+		List<List<String>> results = new ArrayList<>(Collections.nCopies(handlers.size(), null));
+		try {
+			for (int i = 0; i < handlers.size(); i++) {
+				Future<List<String>> future = completionService.take();
+				int index = futures.get(future);
+				List<String> foundIds = future.get();
+				if ((foundIds == null || foundIds.isEmpty()) && emptyEndsSearch(index)) {
+					LOG.log(Level.FINEST, "Search handler {0} found nothing; skipping the rest.", handlers.get(index).getClass().getSimpleName());
+					return null;
+				}
+				results.set(index, foundIds);
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new OpenStorefrontRuntimeException("Search was interrupted.", "Try the search again.", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new OpenStorefrontRuntimeException("Search handler failed.", "See cause.", ex.getCause());
+		} finally {
+			//stops any that haven't started (when short-circuited or failed)
+			futures.keySet().forEach(future -> future.cancel(false));
+		}
+		return results;
+	}
+
+	/**
+	 * An empty result at the index empties the final result when it's merged
+	 * with AND/NOT (or is first) and only ANDs follow.
+	 */
+	private boolean emptyEndsSearch(int index)
+	{
+		return (index == 0 || conditions.get(index) != MergeCondition.OR) && onlyAndAfter(index);
+	}
+
+	private boolean onlyAndAfter(int index)
+	{
+		for (int i = index + 1; i < conditions.size(); i++) {
+			if (conditions.get(i) != MergeCondition.AND) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Callable<List<String>> bindSubject(Callable<List<String>> task)
+	{
+		//handlers may check the current user (data restrictions)
+		try {
+			return SecurityUtils.getSubject().associateWith(task);
+		} catch (UnavailableSecurityManagerException ex) {
+			return task;
+		}
+	}
+
+}
@@ -56,6 +56,19 @@ public interface SearchServer
 	 */
 	public IndexSearchResult doIndexSearch(String query, FilterQueryParams filter, String[] addtionalFieldsToReturn);
 
+	/**
+	 * Performs the actual search and counts the facet fields across all
+	 * matches; only the requested page of hits is returned. (See ResultFacet
+	 * for the fields)
+	 *
+	 * @param query
+	 * @param filter
+	 * @param addtionalFieldsToReturn
+	 * @param facetFields (null or empty for no facets)
+	 * @return
+	 */
+	public IndexSearchResult doIndexSearch(String query, FilterQueryParams filter, String[] addtionalFieldsToReturn, List<String> facetFields);
+
 	/**
 	 * Finds search suggestions
 	 *
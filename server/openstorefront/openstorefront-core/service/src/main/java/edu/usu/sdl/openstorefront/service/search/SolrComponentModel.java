@@ -15,8 +15,14 @@
  */
 package edu.usu.sdl.openstorefront.service.search;
 
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacet;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.apache.solr.client.solrj.beans.Field;
 
 /**
@@ -32,6 +38,26 @@ public class SolrComponentModel
 	public static final String FIELD_ORGANIZATION = "organization_s_is";
 	public static final String FIELD_DESCRIPTION = "content_text";
 	public static final String FIELD_COMPONENTTYPE = "componentType_s_is";
+	public static final String FIELD_SEARCH_VIEW = "searchView_json";
+	public static final String FIELD_TAG_VALUES = "tags_ss";
+	public static final String FIELD_ATTRIBUTE_VALUES = "attributes_ss";
+	public static final String FIELD_RESTRICT_DATA_SOURCE = "restrictDataSource_s";
+	public static final String FIELD_RESTRICT_DATA_SENSITIVITY = "restrictDataSensitivity_s";
+	public static final String FIELD_SEARCHABLE = "searchable_b";
+
+	/**
+	 * Solr field for each facet field
+	 */
+	public static final Map<String, String> FACET_FIELDS;
+
+	static {
+		Map<String, String> facetFields = new HashMap<>();
+		facetFields.put(ResultFacet.FIELD_COMPONENT_TYPE, FIELD_COMPONENTTYPE);
+		facetFields.put(ResultFacet.FIELD_ORGANIZATION, FIELD_ORGANIZATION);
+		facetFields.put(ResultFacet.FIELD_TAGS, FIELD_TAG_VALUES);
+		facetFields.put(ResultFacet.FIELD_ATTRIBUTES, FIELD_ATTRIBUTE_VALUES);
+		FACET_FIELDS = Collections.unmodifiableMap(facetFields);
+	}
 
 	public static final String FIELD_SEARCH_WEIGHT = "searchWeight";
 
@@ -87,6 +113,27 @@ public class SolrComponentModel
 	@Field("datasensitivy_s_is")
 	private String dataSensitivity;
 
+	//serialized ComponentSearchView (stored only) so results don't need a database read
+	@Field("searchView_json")
+	private String searchViewJson;
+
+	//exact values for faceting
+	@Field("tags_ss")
+	private List<String> tagValues = new ArrayList<>();
+
+	@Field("attributes_ss")
+	private List<String> attributeValues = new ArrayList<>();
+
+	//exact values used to restrict results (and facet counts) in the query
+	@Field(FIELD_RESTRICT_DATA_SOURCE)
+	private String restrictDataSource;
+
+	@Field(FIELD_RESTRICT_DATA_SENSITIVITY)
+	private String restrictDataSensitivity;
+
+	@Field(FIELD_SEARCHABLE)
+	private Boolean searchable;
+
 	private int searchWeight;
 	private float queryScore;
 
@@ -324,4 +371,64 @@ public class SolrComponentModel
 		this.componentType = componentType;
 	}
 
+	public String getSearchViewJson()
+	{
+		return searchViewJson;
+	}
+
+	public void setSearchViewJson(String searchViewJson)
+	{
+		this.searchViewJson = searchViewJson;
+	}
+
+	public List<String> getTagValues()
+	{
+		return tagValues;
+	}
+
+	public void setTagValues(List<String> tagValues)
+	{
+		this.tagValues = tagValues;
+	}
+
+	public List<String> getAttributeValues()
+	{
+		return attributeValues;
+	}
+
+	public void setAttributeValues(List<String> attributeValues)
+	{
+		this.attributeValues = attributeValues;
+	}
+
+	public String getRestrictDataSource()
+	{
+		return restrictDataSource;
+	}
+
+	public void setRestrictDataSource(String restrictDataSource)
+	{
+		this.restrictDataSource = restrictDataSource;
+	}
+
+	public String getRestrictDataSensitivity()
+	{
+		return restrictDataSensitivity;
+	}
+
+	public void setRestrictDataSensitivity(String restrictDataSensitivity)
+	{
+		this.restrictDataSensitivity = restrictDataSensitivity;
+	}
+
+	public Boolean getSearchable()
+	{
+		return searchable;
+	}
+
+	public void setSearchable(Boolean searchable)
+	{
+		this.searchable = searchable;
+	}
+
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager;
+
+import edu.usu.sdl.openstorefront.core.entity.SecurityRole;
+import edu.usu.sdl.openstorefront.core.entity.SecurityRoleData;
+import edu.usu.sdl.openstorefront.security.UserContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class SolrManagerTest
+{
+
+	@Test
+	public void testRestrictionFilters()
+	{
+		assertEquals(Arrays.asList("-searchable_b:false"), SolrManager.restrictionFilters(null));
+
+		SecurityRole role = new SecurityRole();
+		role.setRoleName("TEST");
+		role.setAllowUnspecifiedDataSource(true);
+		role.setAllowUnspecifiedDataSensitivity(false);
+		SecurityRoleData roleData = new SecurityRoleData();
+		roleData.setDataSource("DI2E Hub");
+		List<SecurityRoleData> dataSecurity = new ArrayList<>();
+		dataSecurity.add(roleData);
+		role.setDataSecurity(dataSecurity);
+		UserContext userContext = new UserContext();
+		userContext.getRoles().add(role);
+
+		assertEquals(Arrays.asList(
+				"-searchable_b:false",
+				"restrictDataSource_s:(DI2E\\ Hub) OR (*:* -restrictDataSource_s:[* TO *])",
+				"-*:*"
+		), SolrManager.restrictionFilters(userContext.dataRestrictionPredicate()));
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager;
+
+import edu.usu.sdl.openstorefront.core.api.model.TaskRequest;
+import edu.usu.sdl.openstorefront.service.manager.TaskThreadExecutor.PrioritizedTask;
+import edu.usu.sdl.openstorefront.service.manager.model.TaskPoolStatus;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class TaskThreadExecutorTest
+{
+
+	private PrioritizedTask createTask(List<String> ran, CountDownLatch done, String name, int priority)
+	{
+		return new PrioritizedTask(() -> {
+			ran.add(name);
+			done.countDown();
+			return null;
+		}, priority);
+	}
+
+	@Test
+	public void testPriorityAndBacklog() throws Exception
+	{
+		TaskThreadExecutor pool = new TaskThreadExecutor(TaskRequest.CATEGORY_GENERAL, 1, 2, 2);
+		try {
+			List<String> ran = Collections.synchronizedList(new ArrayList<>());
+			CountDownLatch release = new CountDownLatch(1);
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch done = new CountDownLatch(4);
+
+			assertFalse(pool.enqueue(new PrioritizedTask(() -> {
+				started.countDown();
+				release.await();
+				return null;
+			}, TaskRequest.PRIORITY_NORMAL)));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+
+			assertFalse(pool.enqueue(createTask(ran, done, "low", TaskRequest.PRIORITY_LOW)));
+			assertFalse(pool.enqueue(createTask(ran, done, "high", TaskRequest.PRIORITY_HIGH)));
+			assertTrue(pool.enqueue(createTask(ran, done, "normal", TaskRequest.PRIORITY_NORMAL)));
+			assertTrue(pool.enqueue(createTask(ran, done, "high2", TaskRequest.PRIORITY_HIGH)));
+			assertEquals(2, pool.getDeferredCount());
+
+			//the backlog is full
+			try {
+				pool.enqueue(createTask(ran, done, "rejected", TaskRequest.PRIORITY_HIGH));
+				fail("Expected the task to be rejected");
+			} catch (RejectedExecutionException e) {
+				assertEquals(2, pool.getDeferredCount());
+			}
+
+			TaskPoolStatus status = pool.poolStatus();
+			assertEquals(TaskRequest.CATEGORY_GENERAL, status.getCategory());
+			assertEquals(2, status.getQueuedCount());
+			assertEquals(2, status.getDeferredCount());
+			assertEquals(2, status.getBacklogBound());
+			assertEquals(1, status.getRejectedTotal());
+
+			release.countDown();
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+			pool.shutdown();
+			assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+			//the backlog drains by priority too
+			assertEquals(Arrays.asList("high", "high2", "normal", "low"), ran);
+			status = pool.poolStatus();
+			assertEquals(0, status.getDeferredCount());
+			assertEquals(2, status.getDeferredTotal());
+			assertEquals(5, status.getCompletedCount());
+			long waited = 0;
+			for (Long count : status.getWaitTimes().values()) {
+				waited += count;
+			}
+			assertEquals(5, waited);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+}
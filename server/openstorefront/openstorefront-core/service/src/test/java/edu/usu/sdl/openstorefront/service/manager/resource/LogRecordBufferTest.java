@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import edu.usu.sdl.openstorefront.service.manager.resource.LogRecordBuffer.OverflowPolicy;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class LogRecordBufferTest
+{
+
+	/**
+	 * Test of offer method, of class LogRecordBuffer.
+	 */
+	@Test
+	public void testDropOldest()
+	{
+		System.out.println("dropOldest");
+
+		LogRecordBuffer buffer = new LogRecordBuffer(3, OverflowPolicy.DROP_OLDEST);
+		assertTrue(buffer.offer(new LogRecord(Level.SEVERE, "1")));
+		assertTrue(buffer.offer(new LogRecord(Level.FINE, "2")));
+		assertTrue(buffer.offer(new LogRecord(Level.INFO, "3")));
+		assertFalse(buffer.offer(new LogRecord(Level.INFO, "4")));
+
+		assertEquals(3, buffer.size());
+		assertEquals(1, buffer.getDroppedCount());
+
+		List<LogRecord> records = buffer.drain(10);
+		assertEquals("2", records.get(0).getMessage());
+		assertEquals("4", records.get(2).getMessage());
+		assertEquals(0, buffer.size());
+	}
+
+	/**
+	 * Test of offer method, of class LogRecordBuffer.
+	 */
+	@Test
+	public void testDropFineFirst()
+	{
+		System.out.println("dropFineFirst");
+
+		LogRecordBuffer buffer = new LogRecordBuffer(3, OverflowPolicy.DROP_FINE_FIRST);
+		buffer.offer(new LogRecord(Level.SEVERE, "1"));
+		buffer.offer(new LogRecord(Level.FINE, "2"));
+		buffer.offer(new LogRecord(Level.INFO, "3"));
+		assertFalse(buffer.offer(new LogRecord(Level.WARNING, "4")));
+
+		//the fine record goes first; order is kept
+		List<LogRecord> records = buffer.drain(2);
+		assertEquals(2, records.size());
+		assertEquals("1", records.get(0).getMessage());
+		assertEquals("3", records.get(1).getMessage());
+		assertEquals("4", buffer.drain(2).get(0).getMessage());
+
+		//with no fine records the oldest goes
+		buffer.offer(new LogRecord(Level.SEVERE, "5"));
+		buffer.offer(new LogRecord(Level.SEVERE, "6"));
+		buffer.offer(new LogRecord(Level.SEVERE, "7"));
+		buffer.offer(new LogRecord(Level.SEVERE, "8"));
+		assertEquals("6", buffer.drain(1).get(0).getMessage());
+		assertEquals(2, buffer.getDroppedCount());
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class MailOutboxTest
+{
+
+	private TestSmtpServer server;
+	private Session session;
+	private MailOutbox outbox;
+	private RecordingListener listener;
+
+	@Before
+	public void setup() throws IOException
+	{
+		server = new TestSmtpServer();
+
+		Properties properties = new Properties();
+		properties.put("mail.transport.protocol", "smtp");
+		properties.put("mail.smtp.host", "127.0.0.1");
+		properties.put("mail.smtp.port", Integer.toString(server.getPort()));
+		session = Session.getInstance(properties);
+	}
+
+	@After
+	public void tearDown() throws IOException
+	{
+		if (outbox != null) {
+			outbox.shutdown(1000);
+		}
+		server.close();
+	}
+
+	private MimeMessage createMessage(int number) throws MessagingException
+	{
+		MimeMessage message = new MimeMessage(session);
+		message.setFrom(new InternetAddress("storefront@example.com"));
+		message.setRecipient(Message.RecipientType.TO, new InternetAddress("user" + number + "@example.com"));
+		message.setSubject("Notification " + number);
+		message.setText("Message " + number);
+		message.saveChanges();
+		return message;
+	}
+
+	@Test
+	public void testReusesConnections() throws Exception
+	{
+		int messages = 300;
+		listener = new RecordingListener(messages);
+		outbox = new MailOutbox(session, 2, 3, 10, listener);
+		for (int i = 0; i < messages; i++) {
+			outbox.submit("email-" + i, createMessage(i));
+		}
+
+		assertTrue(listener.await());
+		assertEquals(messages, listener.sent.size());
+		assertEquals(messages, server.getMessages().size());
+		assertTrue("Connections: " + server.getConnectionCount(), server.getConnectionCount() <= 2);
+		assertEquals(server.getConnectionCount(), outbox.getConnectionCount());
+	}
+
+	@Test
+	public void testRetryBackoff() throws Exception
+	{
+		server.failNext(2);
+		listener = new RecordingListener(1);
+		outbox = new MailOutbox(session, 1, 5, 20, listener);
+		outbox.submit("email-1", createMessage(1));
+
+		assertTrue(listener.await());
+		assertEquals(1, listener.sent.size());
+		assertEquals("email-1:3", listener.sent.get(0));
+		assertEquals(2, listener.retries.size());
+		assertEquals("email-1:1:20", listener.retries.get(0));
+		assertEquals("email-1:2:40", listener.retries.get(1));
+		assertEquals(1, server.getMessages().size());
+		assertTrue(server.getMessages().get(0).contains("Subject: Notification 1"));
+	}
+
+	@Test
+	public void testMaxAttempts() throws Exception
+	{
+		server.failNext(10);
+		listener = new RecordingListener(1);
+		outbox = new MailOutbox(session, 1, 3, 5, listener);
+		outbox.submit("email-1", createMessage(1));
+
+		assertTrue(listener.await());
+		assertEquals(2, listener.retries.size());
+		assertEquals(1, listener.failed.size());
+		assertEquals("email-1:3", listener.failed.get(0));
+		assertEquals(0, server.getMessages().size());
+	}
+
+	@Test
+	public void testPermanentFailureNotRetried() throws Exception
+	{
+		server.setRejectAll(true);
+		listener = new RecordingListener(1);
+		outbox = new MailOutbox(session, 1, 5, 5, listener);
+		outbox.submit("email-1", createMessage(1));
+
+		assertTrue(listener.await());
+		assertEquals(0, listener.retries.size());
+		assertEquals("email-1:1", listener.failed.get(0));
+	}
+
+	private static class RecordingListener
+			implements MailOutbox.DeliveryListener
+	{
+
+		private final CountDownLatch finished;
+		private final List<String> sent = new CopyOnWriteArrayList<>();
+		private final List<String> retries = new CopyOnWriteArrayList<>();
+		private final List<String> failed = new CopyOnWriteArrayList<>();
+
+		public RecordingListener(int messages)
+		{
+			finished = new CountDownLatch(messages);
+		}
+
+		public boolean await() throws InterruptedException
+		{
+			return finished.await(30, TimeUnit.SECONDS);
+		}
+
+		@Override
+		public void sent(String messageId, int attempts)
+		{
+			sent.add(messageId + ":" + attempts);
+			finished.countDown();
+		}
+
+		@Override
+		public void retry(String messageId, int attempts, long delayMillis, Exception error)
+		{
+			retries.add(messageId + ":" + attempts + ":" + delayMillis);
+		}
+
+		@Override
+		public void failed(String messageId, int attempts, Exception error)
+		{
+			failed.add(messageId + ":" + attempts);
+			finished.countDown();
+		}
+
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant.TaskStatus;
+import edu.usu.sdl.openstorefront.core.api.model.TaskFuture;
+import java.util.Date;
+import java.util.concurrent.FutureTask;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class TaskRegistryTest
+{
+
+	private TaskFuture createTask(String name)
+	{
+		FutureTask<Object> future = new FutureTask<>(() -> null);
+		TaskFuture taskFuture = new TaskFuture(future, new Date(), false);
+		taskFuture.setTaskName(name);
+		return taskFuture;
+	}
+
+	@Test
+	public void testLookups()
+	{
+		TaskRegistry registry = new TaskRegistry();
+		TaskFuture report = createTask("Report");
+		TaskFuture otherReport = createTask("Report");
+		TaskFuture archive = createTask("Archive");
+		registry.register(report);
+		registry.register(otherReport);
+		registry.register(archive);
+
+		assertEquals(3, registry.size());
+		assertSame(report, registry.getById(report.getTaskId()));
+		assertSame(archive, registry.getByFuture(archive.getFuture()));
+		assertEquals(2, registry.getByName("Report").size());
+		assertTrue(registry.getByName("Missing").isEmpty());
+
+		assertFalse(registry.isWorking("Archive"));
+		archive.setStatus(TaskStatus.WORKING);
+		assertTrue(registry.isWorking("Archive"));
+
+		registry.completed(archive);
+		assertNull(registry.getByFuture(archive.getFuture()));
+		assertSame(archive, registry.getById(archive.getTaskId()));
+
+		registry.remove(report.getTaskId());
+		assertNull(registry.getById(report.getTaskId()));
+		assertNull(registry.getByFuture(report.getFuture()));
+		assertEquals(1, registry.getByName("Report").size());
+		assertEquals(2, registry.getTasks().size());
+	}
+
+	@Test
+	public void testSavedTask()
+	{
+		TaskRegistry registry = new TaskRegistry();
+		TaskFuture saved = new TaskFuture();
+		saved.setTaskId("saved-1");
+		saved.setTaskName("Import");
+		saved.setStatus(TaskStatus.DONE);
+		registry.register(saved);
+
+		assertSame(saved, registry.getById("saved-1"));
+		assertEquals(1, registry.getByName("Import").size());
+		assertFalse(registry.isWorking("Import"));
+		assertTrue(registry.removeExpired().isEmpty());
+	}
+
+}
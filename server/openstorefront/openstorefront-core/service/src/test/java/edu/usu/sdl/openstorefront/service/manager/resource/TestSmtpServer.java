@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP relay for tests. Accepts every message (recording it), counts
+ * connections and can reject messages with a temporary (451) or permanent
+ * (550) error.
+ *
+ * @author dshurtleff
+ */
+public class TestSmtpServer
+		implements AutoCloseable
+{
+
+	private final ServerSocket serverSocket;
+	private final Thread acceptThread;
+	private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+	private final AtomicInteger connectionCount = new AtomicInteger();
+	private final AtomicInteger temporaryFailures = new AtomicInteger();
+	private volatile boolean rejectAll;
+
+	public TestSmtpServer() throws IOException
+	{
+		serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		acceptThread = new Thread(this::acceptConnections, "Test-SMTP");
+		acceptThread.setDaemon(true);
+		acceptThread.start();
+	}
+
+	public int getPort()
+	{
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @param count messages to reject with 451 before accepting
+	 */
+	public void failNext(int count)
+	{
+		temporaryFailures.set(count);
+	}
+
+	/**
+	 * @param rejectAll reject every message with 550
+	 */
+	public void setRejectAll(boolean rejectAll)
+	{
+		this.rejectAll = rejectAll;
+	}
+
+	public List<String> getMessages()
+	{
+		return messages;
+	}
+
+	public int getConnectionCount()
+	{
+		return connectionCount.get();
+	}
+
+	private void acceptConnections()
+	{
+		while (serverSocket.isClosed() == false) {
+			try {
+				Socket socket = serverSocket.accept();
+				connectionCount.incrementAndGet();
+				Thread session = new Thread(() -> handle(socket), "Test-SMTP-Session");
+				session.setDaemon(true);
+				session.start();
+			} catch (IOException ex) {
+				//closed
+			}
+		}
+	}
+
+	private void handle(Socket socket)
+	{
+		try (Socket client = socket;
+				BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+				Writer out = new OutputStreamWriter(client.getOutputStream(), StandardCharsets.US_ASCII)) {
+
+			reply(out, "220 localhost Test SMTP");
+			String line = in.readLine();
+			while (line != null) {
+				String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+				switch (command) {
+					case "EHLO":
+						reply(out, "250-localhost\r\n250 8BITMIME");
+						break;
+					case "HELO":
+					case "MAIL":
+					case "RCPT":
+					case "RSET":
+					case "NOOP":
+						reply(out, "250 OK");
+						break;
+					case "DATA":
+						reply(out, "354 End data with <CR><LF>.<CR><LF>");
+						StringBuilder data = new StringBuilder();
+						String dataLine = in.readLine();
+						while (dataLine != null && ".".equals(dataLine) == false) {
+							data.append(dataLine).append("\n");
+							dataLine = in.readLine();
+						}
+						if (rejectAll) {
+							reply(out, "550 Rejected");
+						} else if (temporaryFailures.getAndDecrement() > 0) {
+							reply(out, "451 Try again later");
+						} else {
+							messages.add(data.toString());
+							reply(out, "250 OK queued");
+						}
+						break;
+					case "QUIT":
+						reply(out, "221 Bye");
+						return;
+					default:
+						reply(out, "502 Command not implemented");
+				}
+				line = in.readLine();
+			}
+		} catch (IOException ex) {
+			//client went away
+		}
+	}
+
+	private void reply(Writer out, String response) throws IOException
+	{
+		out.write(response);
+		out.write("\r\n");
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		serverSocket.close();
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.media;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ImageDerivativeCacheTest
+{
+
+	private Path directory;
+	private Path image;
+
+	@Before
+	public void setup() throws IOException
+	{
+		directory = Files.createTempDirectory("variants");
+		image = Files.createTempFile("logo", ".png");
+
+		BufferedImage bufferedImage = new BufferedImage(800, 400, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = bufferedImage.createGraphics();
+		graphics.setColor(Color.BLUE);
+		graphics.fillOval(0, 0, 800, 400);
+		graphics.dispose();
+		ImageIO.write(bufferedImage, "png", image.toFile());
+	}
+
+	@After
+	public void tearDown() throws IOException
+	{
+		for (File file : directory.toFile().listFiles()) {
+			file.delete();
+		}
+		Files.deleteIfExists(directory);
+		Files.deleteIfExists(image);
+	}
+
+	@Test
+	public void testResize() throws IOException
+	{
+		ImageDerivativeCache cache = new ImageDerivativeCache(directory.toFile(), 10 * 1024 * 1024);
+
+		Path variant = cache.getVariant("logo", image, 200, 0, ImageResizer.FORMAT_PNG);
+		BufferedImage resized = ImageIO.read(variant.toFile());
+		assertEquals(200, resized.getWidth());
+		assertEquals(100, resized.getHeight());
+		assertTrue(Files.size(variant) < Files.size(image));
+
+		//never scaled up
+		resized = ImageIO.read(cache.getVariant("logo", image, 1600, 1600, ImageResizer.FORMAT_JPG).toFile());
+		assertEquals(800, resized.getWidth());
+
+		assertEquals(variant, cache.getVariant("logo", image, 200, 0, ImageResizer.FORMAT_PNG));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getGeneratedCount());
+
+		Path notImage = Files.createTempFile("notes", ".txt");
+		try {
+			Files.write(notImage, "not an image".getBytes());
+			assertNull(cache.getVariant("notes", notImage, 200, 0, ImageResizer.FORMAT_PNG));
+		} finally {
+			Files.deleteIfExists(notImage);
+		}
+	}
+
+	@Test
+	public void testCorruptImage() throws IOException
+	{
+		ImageDerivativeCache cache = new ImageDerivativeCache(directory.toFile(), 10 * 1024 * 1024);
+
+		//valid header with the image data cut off
+		Path corrupt = Files.createTempFile("corrupt", ".png");
+		try {
+			byte data[] = Files.readAllBytes(image);
+			Files.write(corrupt, Arrays.copyOf(data, 64));
+			assertNull(cache.getVariant("corrupt", corrupt, 200, 0, ImageResizer.FORMAT_PNG));
+			assertNull(cache.getVariant("corrupt", corrupt, 200, 0, ImageResizer.FORMAT_PNG));
+			assertEquals(0, cache.getGeneratedCount());
+			assertEquals(0, cache.size());
+		} finally {
+			Files.deleteIfExists(corrupt);
+		}
+	}
+
+	@Test
+	public void testSingleFlight() throws Exception
+	{
+		ImageDerivativeCache cache = new ImageDerivativeCache(directory.toFile(), 10 * 1024 * 1024);
+
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Path>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				Callable<Path> request = () -> {
+					start.await();
+					return cache.getVariant("logo", image, 64, 64, ImageResizer.FORMAT_PNG);
+				};
+				futures.add(executor.submit(request));
+			}
+			start.countDown();
+
+			Set<Path> variants = new HashSet<>();
+			for (Future<Path> future : futures) {
+				variants.add(future.get());
+			}
+			assertEquals(1, variants.size());
+			assertEquals(1, cache.getGeneratedCount());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testEvictAndInvalidate() throws IOException
+	{
+		ImageDerivativeCache cache = new ImageDerivativeCache(directory.toFile(), 10 * 1024 * 1024);
+		Path small = cache.getVariant("logo", image, 32, 0, ImageResizer.FORMAT_PNG);
+		Path medium = cache.getVariant("logo", image, 64, 0, ImageResizer.FORMAT_PNG);
+		Path other = cache.getVariant("banner", image, 32, 0, ImageResizer.FORMAT_PNG);
+		assertEquals(3, cache.size());
+		long now = System.currentTimeMillis();
+		Files.setLastModifiedTime(small, FileTime.fromMillis(now - 3000));
+		Files.setLastModifiedTime(medium, FileTime.fromMillis(now - 2000));
+		Files.setLastModifiedTime(other, FileTime.fromMillis(now - 1000));
+
+		//reopened with room for about two; the least recently used goes
+		long limit = Files.size(medium) + Files.size(other);
+		cache = new ImageDerivativeCache(directory.toFile(), limit);
+		assertEquals(2, cache.size());
+		assertFalse(Files.exists(small));
+		assertTrue(cache.getTotalBytes() <= limit);
+
+		cache.invalidate("logo");
+		assertEquals(1, cache.size());
+		assertFalse(Files.exists(medium));
+		assertTrue(Files.exists(other));
+	}
+
+}
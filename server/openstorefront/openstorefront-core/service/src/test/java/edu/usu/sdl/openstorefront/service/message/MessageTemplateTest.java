@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.message;
+
+import edu.usu.sdl.openstorefront.core.entity.UserProfile;
+import java.nio.charset.StandardCharsets;
+import javax.mail.Message;
+import org.codemonkey.simplejavamail.email.Email;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class MessageTemplateTest
+{
+
+	private Email createPrototype()
+	{
+		Email prototype = new Email();
+		prototype.setFromAddress("Storefront", "storefront@example.com");
+		prototype.setSubject("Storefront - Recently Updated");
+		prototype.addAttachment("changes.txt", "changes".getBytes(StandardCharsets.UTF_8), "text/plain");
+		return prototype;
+	}
+
+	@Test
+	public void testSharedBody()
+	{
+		MessageTemplate template = new MessageTemplate(createPrototype(), "Changes since: <b>01/01/2017</b><br><br>2 entries added.<br>");
+
+		UserProfile userProfile = new UserProfile();
+		userProfile.setFirstName("Test");
+		userProfile.setLastName("User");
+		userProfile.setEmail("test@example.com");
+
+		Email first = template.createEmail(userProfile);
+		Email second = template.createEmail("other@example.com");
+
+		assertEquals("Storefront - Recently Updated", first.getSubject());
+		assertEquals("storefront@example.com", first.getFromRecipient().getAddress());
+		assertSame(first.getTextHTML(), second.getTextHTML());
+		assertSame(first.getText(), second.getText());
+		assertTrue(first.getText().contains("2 entries added."));
+		assertFalse(first.getText().contains("<b>"));
+		assertEquals(1, first.getAttachments().size());
+
+		assertEquals(1, first.getRecipients().size());
+		assertEquals("test@example.com", first.getRecipients().get(0).getAddress());
+		assertEquals("Test User", first.getRecipients().get(0).getName());
+		assertEquals(Message.RecipientType.TO, first.getRecipients().get(0).getType());
+		assertEquals("other@example.com", second.getRecipients().get(0).getAddress());
+	}
+
+	@Test
+	public void testUserFields()
+	{
+		MessageTemplate template = new MessageTemplate(createPrototype(), "Hello " + MessageTemplate.FIELD_FIRST_NAME + ",<br>Updates are ready.");
+
+		UserProfile userProfile = new UserProfile();
+		userProfile.setFirstName("<Tom>");
+		userProfile.setEmail("tom@example.com");
+
+		Email email = template.createEmail(userProfile);
+		assertEquals("Hello &lt;Tom&gt;,<br>Updates are ready.", email.getTextHTML());
+		assertTrue(email.getText().startsWith("Hello <Tom>,"));
+
+		Email noUser = template.createEmail("other@example.com");
+		assertTrue(noUser.getTextHTML().startsWith("Hello ,"));
+	}
+
+}
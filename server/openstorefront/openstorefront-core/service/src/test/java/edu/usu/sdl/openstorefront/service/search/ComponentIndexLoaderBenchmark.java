@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import edu.usu.sdl.openstorefront.core.api.PersistenceService;
+import edu.usu.sdl.openstorefront.core.entity.ApprovalStatus;
+import edu.usu.sdl.openstorefront.core.entity.BaseEntity;
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttributePk;
+import edu.usu.sdl.openstorefront.core.entity.ComponentReview;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
+import edu.usu.sdl.openstorefront.service.manager.DBManager;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares loading the sub-entities to index one saved component: the old
+ * full table loads (grouped by component) vs the id-bounded loads. Runs
+ * against an in-memory database seeded with the component count. Run with
+ * main() from the test classpath.
+ *
+ * @author dshurtleff
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComponentIndexLoaderBenchmark
+{
+
+	@Param({"10000"})
+	private int componentCount;
+
+	private OObjectDatabaseTx db;
+	private PersistenceService persistenceService;
+	private List<Component> savedComponent;
+
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		db = new OObjectDatabaseTx("memory:indexbenchmark" + System.nanoTime()).create();
+		db.getEntityManager().registerEntityClasses(Component.class.getPackage().getName(), BaseEntity.class.getClassLoader());
+
+		for (int i = 0; i < componentCount; i++) {
+			String componentId = "C" + i;
+
+			Component component = new Component();
+			component.setComponentId(componentId);
+			component.setName("Component " + i);
+			component.setDescription("Description of component " + i);
+			component.setComponentType("COMP");
+			component.setApprovalState(ApprovalStatus.APPROVED);
+			component.setActiveStatus(Component.ACTIVE_STATUS);
+			db.save(component);
+
+			for (int a = 0; a < 3; a++) {
+				ComponentAttribute attribute = new ComponentAttribute();
+				ComponentAttributePk attributePk = new ComponentAttributePk();
+				attributePk.setComponentId(componentId);
+				attributePk.setAttributeType("TYPE" + a);
+				attributePk.setAttributeCode("CODE" + (i % 10));
+				attribute.setComponentAttributePk(attributePk);
+				attribute.setComponentId(componentId);
+				attribute.setActiveStatus(ComponentAttribute.ACTIVE_STATUS);
+				db.save(attribute);
+			}
+
+			ComponentReview review = new ComponentReview();
+			review.setComponentReviewId("R" + i);
+			review.setComponentId(componentId);
+			review.setTitle("Review " + i);
+			review.setRating(i % 5);
+			review.setActiveStatus(ComponentReview.ACTIVE_STATUS);
+			db.save(review);
+
+			for (int t = 0; t < 2; t++) {
+				ComponentTag tag = new ComponentTag();
+				tag.setTagId("T" + i + "-" + t);
+				tag.setComponentId(componentId);
+				tag.setText("tag" + t);
+				tag.setActiveStatus(ComponentTag.ACTIVE_STATUS);
+				db.save(tag);
+			}
+		}
+
+		DBManager.createIndexes(db);
+
+		//only query() is used by the loader
+		persistenceService = (PersistenceService) Proxy.newProxyInstance(
+				PersistenceService.class.getClassLoader(),
+				new Class<?>[]{PersistenceService.class},
+				(proxy, method, args) -> {
+					if ("query".equals(method.getName()) && args.length == 3) {
+						return db.detachAll(db.query(new OSQLSynchQuery<>((String) args[0]), (Map) args[1]), true);
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+
+		Component component = new Component();
+		component.setComponentId("C" + (componentCount / 2));
+		savedComponent = Arrays.asList(component);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		db.drop();
+	}
+
+	@Benchmark
+	public void fullTableLoad(Blackhole blackhole)
+	{
+		String componentId = savedComponent.get(0).getComponentId();
+
+		Map<String, List<ComponentAttribute>> attributeMap = queryAll(ComponentAttribute.class).stream()
+				.collect(Collectors.groupingBy(ComponentAttribute::getComponentId));
+		Map<String, List<ComponentReview>> reviewMap = queryAll(ComponentReview.class).stream()
+				.collect(Collectors.groupingBy(ComponentReview::getComponentId));
+		Map<String, List<ComponentTag>> tagMap = queryAll(ComponentTag.class).stream()
+				.collect(Collectors.groupingBy(ComponentTag::getComponentId));
+
+		blackhole.consume(attributeMap.getOrDefault(componentId, new ArrayList<>()));
+		blackhole.consume(reviewMap.getOrDefault(componentId, new ArrayList<>()));
+		blackhole.consume(tagMap.getOrDefault(componentId, new ArrayList<>()));
+	}
+
+	private <T> List<T> queryAll(Class<T> entityClass)
+	{
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("activeStatusParam", Component.ACTIVE_STATUS);
+		return persistenceService.query("select from " + entityClass.getSimpleName() + " where activeStatus = :activeStatusParam", parameters, true);
+	}
+
+	@Benchmark
+	public void scopedLoad(Blackhole blackhole)
+	{
+		String componentId = savedComponent.get(0).getComponentId();
+
+		ComponentIndexLoader indexLoader = new ComponentIndexLoader(persistenceService).load(savedComponent);
+		blackhole.consume(indexLoader.getAttributes(componentId));
+		blackhole.consume(indexLoader.getReviews(componentId));
+		blackhole.consume(indexLoader.getTags(componentId));
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+				.include(ComponentIndexLoaderBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+}
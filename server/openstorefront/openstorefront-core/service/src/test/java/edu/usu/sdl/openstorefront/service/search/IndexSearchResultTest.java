@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import edu.usu.sdl.openstorefront.core.entity.SecurityRole;
+import edu.usu.sdl.openstorefront.core.entity.SecurityRoleData;
+import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
+import edu.usu.sdl.openstorefront.security.UserContext;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class IndexSearchResultTest
+{
+
+	private ComponentSearchView createView(String componentId, String dataSource, String dataSensitivity)
+	{
+		ComponentSearchView view = new ComponentSearchView();
+		view.setComponentId(componentId);
+		view.setDataSource(dataSource);
+		view.setDataSensitivity(dataSensitivity);
+		return view;
+	}
+
+	@Test
+	public void testDataFilter()
+	{
+		SecurityRole role = new SecurityRole();
+		role.setRoleName("TEST");
+		role.setAllowUnspecifiedDataSource(true);
+		role.setAllowUnspecifiedDataSensitivity(true);
+		SecurityRoleData roleData = new SecurityRoleData();
+		roleData.setDataSource("DI2E");
+		roleData.setDataSensitivity("PUBLIC");
+		List<SecurityRoleData> dataSecurity = new ArrayList<>();
+		dataSecurity.add(roleData);
+		role.setDataSecurity(dataSecurity);
+
+		UserContext userContext = new UserContext();
+		userContext.getRoles().add(role);
+
+		IndexSearchResult indexSearchResult = new IndexSearchResult();
+		indexSearchResult.getSearchViews().add(createView("A", "DI2E", "PUBLIC"));
+		indexSearchResult.getSearchViews().add(createView("B", "OTHER", "PUBLIC"));
+		indexSearchResult.getSearchViews().add(createView("C", null, null));
+		indexSearchResult.getSearchViews().add(createView("D", "DI2E", "SECRET"));
+		for (ComponentSearchView view : indexSearchResult.getSearchViews()) {
+			indexSearchResult.getResultsList().add(SolrComponentModel.fromComponentSearchView(view));
+		}
+		indexSearchResult.setTotalResults(10);
+
+		indexSearchResult.applyDataFilter(userContext);
+
+		assertEquals(2, indexSearchResult.getSearchViews().size());
+		assertEquals("A", indexSearchResult.getSearchViews().get(0).getComponentId());
+		assertEquals("C", indexSearchResult.getSearchViews().get(1).getComponentId());
+		assertEquals(2, indexSearchResult.getResultsList().size());
+		assertEquals(8, indexSearchResult.getTotalResults());
+	}
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacet;
+import edu.usu.sdl.openstorefront.core.model.search.ResultFacetValue;
+import edu.usu.sdl.openstorefront.core.entity.ApprovalStatus;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
+import edu.usu.sdl.openstorefront.core.entity.SecurityRole;
+import edu.usu.sdl.openstorefront.core.entity.SecurityRoleData;
+import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
+import edu.usu.sdl.openstorefront.security.UserContext;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class LuceneIndexTest
+{
+
+	private LuceneIndex luceneIndex;
+
+	@Before
+	public void setup()
+	{
+		luceneIndex = new LuceneIndex(new RAMDirectory());
+		luceneIndex.index(Arrays.asList(
+				view("A", "Map Viewer", "Geo Org", "Displays <b>map</b> layers", "mapping"),
+				view("B", "Chat Server", "Comms Org", "Secure chat for teams", "messaging"),
+				view("C", "Tile Server", "Geo Org", "Serves map tiles to a map viewer", "mapping")
+		));
+	}
+
+	@After
+	public void tearDown() throws IOException
+	{
+		luceneIndex.close();
+	}
+
+	@Test
+	public void testSearch()
+	{
+		//name match ranks first
+		List<String> ids = ids(luceneIndex.search("viewer", 0, 10, null, null));
+		assertEquals(Arrays.asList("A", "C"), ids);
+
+		assertEquals(Arrays.asList("B"), ids(luceneIndex.search("\"secure chat\"", 0, 10, null, null)));
+		assertEquals(Arrays.asList("B"), ids(luceneIndex.search("*essag*", 0, 10, null, null)));
+		assertEquals(Arrays.asList("B"), ids(luceneIndex.search("chaat", 0, 10, null, null)));
+		assertEquals(3, luceneIndex.search("", 0, 10, null, null).getTotalResults());
+	}
+
+	@Test
+	public void testSortAndPage()
+	{
+		IndexSearchResult result = luceneIndex.search("*", 1, 1, ComponentSearchView.FIELD_NAME, OpenStorefrontConstant.SORT_ASCENDING);
+		assertEquals(3, result.getTotalResults());
+		assertEquals(Arrays.asList("A"), ids(result));
+
+		assertEquals(Arrays.asList("C", "A", "B"), ids(luceneIndex.search("*", 0, 10, ComponentSearchView.FIELD_NAME, OpenStorefrontConstant.SORT_DESCENDING)));
+	}
+
+	@Test
+	public void testUpdateAndDelete()
+	{
+		luceneIndex.index(Arrays.asList(view("B", "Chat Relay", "Comms Org", "Relays chat", "messaging")));
+		assertEquals(3, luceneIndex.size());
+		assertEquals("Chat Relay", luceneIndex.search("relay", 0, 10, null, null).getSearchViews().get(0).getName());
+
+		luceneIndex.deleteById("B");
+		assertTrue(luceneIndex.search("chat", 0, 10, null, null).getSearchViews().isEmpty());
+
+		luceneIndex.deleteAll();
+		assertEquals(0, luceneIndex.search("", 0, 10, null, null).getTotalResults());
+	}
+
+	@Test
+	public void testFacets()
+	{
+		IndexSearchResult result = luceneIndex.search("map", 0, 1, null, null, Arrays.asList(ResultFacet.FIELD_ORGANIZATION, ResultFacet.FIELD_TAGS), null);
+		assertEquals(1, result.getSearchViews().size());
+		assertEquals(2, result.getFacets().size());
+
+		//counts cover all matches, not just the page
+		List<ResultFacetValue> organizations = result.getFacets().get(0).getValues();
+		assertEquals(1, organizations.size());
+		assertEquals("Geo Org", organizations.get(0).getValue());
+		assertEquals(2, organizations.get(0).getCount());
+
+		result = luceneIndex.search("", 0, 0, null, null, Arrays.asList(ResultFacet.FIELD_TAGS), null);
+		assertTrue(result.getSearchViews().isEmpty());
+		List<ResultFacetValue> tags = result.getFacets().get(0).getValues();
+		assertEquals("mapping", tags.get(0).getValue());
+		assertEquals(2, tags.get(0).getCount());
+		assertEquals("messaging", tags.get(1).getValue());
+		assertEquals(1, tags.get(1).getCount());
+	}
+
+	@Test
+	public void testRestriction()
+	{
+		ComponentSearchView secret = view("D", "Map Archive", "Geo Org", "Old map layers", "mapping");
+		secret.setDataSource("DI2E");
+		secret.setDataSensitivity("SECRET");
+		ComponentSearchView pending = view("E", "Map Draft", "Draft Org", "Unapproved map", "mapping");
+		pending.setApprovalState(ApprovalStatus.PENDING);
+		luceneIndex.index(Arrays.asList(secret, pending));
+
+		SecurityRole role = new SecurityRole();
+		role.setRoleName("TEST");
+		role.setAllowUnspecifiedDataSource(true);
+		role.setAllowUnspecifiedDataSensitivity(true);
+		SecurityRoleData roleData = new SecurityRoleData();
+		roleData.setDataSource("DI2E");
+		roleData.setDataSensitivity("PUBLIC");
+		List<SecurityRoleData> dataSecurity = new ArrayList<>();
+		dataSecurity.add(roleData);
+		role.setDataSecurity(dataSecurity);
+		UserContext userContext = new UserContext();
+		userContext.getRoles().add(role);
+
+		//unapproved entries are never counted
+		IndexSearchResult result = luceneIndex.search("map", 0, 10, null, null, Arrays.asList(ResultFacet.FIELD_TAGS), null);
+		assertEquals(3, result.getTotalResults());
+
+		//totals and facets only count what the user can see
+		result = luceneIndex.search("map", 0, 10, null, null, Arrays.asList(ResultFacet.FIELD_ORGANIZATION), userContext.dataRestrictionPredicate());
+		assertEquals(2, result.getTotalResults());
+		assertEquals(Arrays.asList("A", "C"), ids(result));
+		List<ResultFacetValue> organizations = result.getFacets().get(0).getValues();
+		assertEquals(1, organizations.size());
+		assertEquals(2, organizations.get(0).getCount());
+	}
+
+	private List<String> ids(IndexSearchResult result)
+	{
+		return result.getSearchViews().stream()
+				.map(ComponentSearchView::getComponentId)
+				.collect(Collectors.toList());
+	}
+
+	private ComponentSearchView view(String componentId, String name, String organization, String description, String tag)
+	{
+		ComponentSearchView view = new ComponentSearchView();
+		view.setComponentId(componentId);
+		view.setName(name);
+		view.setOrganization(organization);
+		view.setDescription(description);
+		view.setComponentType("COMP");
+		view.setApprovalState(ApprovalStatus.APPROVED);
+
+		ComponentTag componentTag = new ComponentTag();
+		componentTag.setText(tag);
+		List<ComponentTag> tags = new ArrayList<>();
+		tags.add(componentTag);
+		view.setTags(tags);
+		return view;
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ReindexQueueTest
+{
+
+	@Test
+	public void testCoalesce()
+	{
+		ReindexQueue queue = new ReindexQueue(100, 1000);
+		assertEquals(2, queue.mark(Arrays.asList("A", "B"), 0));
+		assertEquals(1, queue.mark(Arrays.asList("A", "C"), 50));
+		assertEquals(3, queue.size());
+		assertEquals(1, queue.getCoalescedCount());
+
+		//A was marked again at 50 so it's still in the window
+		assertEquals(Arrays.asList("B"), queue.takeReady(100, 10, false));
+		assertEquals(new HashSet<>(Arrays.asList("A", "C")), new HashSet<>(queue.takeReady(150, 10, false)));
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testMaxWaitAndFlush()
+	{
+		ReindexQueue queue = new ReindexQueue(100, 1000);
+		for (long now = 0; now < 1000; now += 50) {
+			queue.mark(Arrays.asList("A"), now);
+		}
+		assertEquals(950, queue.getLagMillis(950));
+		assertTrue(queue.takeReady(999, 10, false).isEmpty());
+		assertEquals(Arrays.asList("A"), queue.takeReady(1000, 10, false));
+
+		queue.mark(Arrays.asList("A", "B", "C"), 2000);
+		List<String> batch = queue.takeReady(2000, 2, true);
+		assertEquals(2, batch.size());
+		assertEquals(1, queue.size());
+		assertEquals(0, queue.getLagMillis(2000));
+	}
+
+}
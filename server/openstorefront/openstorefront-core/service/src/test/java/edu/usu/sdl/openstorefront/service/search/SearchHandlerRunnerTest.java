@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import edu.usu.sdl.openstorefront.core.model.search.SearchElement;
+import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.MergeCondition;
+import edu.usu.sdl.openstorefront.validation.ValidationResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class SearchHandlerRunnerTest
+{
+
+	private static ExecutorService executor;
+
+	@BeforeClass
+	public static void setup()
+	{
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterClass
+	public static void tearDown()
+	{
+		executor.shutdown();
+	}
+
+	@Test
+	public void testMergeMatchesListMerge()
+	{
+		List<BaseSearchHandler> handlers = new ArrayList<>();
+		handlers.add(new TestHandler(MergeCondition.AND, "A", "B", "C", "D"));
+		handlers.add(new TestHandler(MergeCondition.OR, "B", "C", "E"));
+		handlers.add(new TestHandler(MergeCondition.NOT, "F"));
+		handlers.add(new TestHandler(MergeCondition.OR, "B", "F", "G"));
+
+		//original sequential list merge
+		List<String> expected = new ArrayList<>();
+		MergeCondition mergeCondition = MergeCondition.OR;
+		for (BaseSearchHandler handler : handlers) {
+			expected = mergeCondition.apply(expected, handler.processSearch());
+			mergeCondition = handler.getNextMergeCondition();
+		}
+
+		assertEquals(new HashSet<>(expected), new HashSet<>(new SearchHandlerRunner(handlers).run(null)));
+		assertEquals(new HashSet<>(expected), new HashSet<>(new SearchHandlerRunner(handlers).run(executor)));
+	}
+
+	@Test
+	public void testShortCircuit()
+	{
+		AtomicInteger calls = new AtomicInteger();
+		List<BaseSearchHandler> handlers = new ArrayList<>();
+		handlers.add(new TestHandler(MergeCondition.AND, calls));
+		handlers.add(new TestHandler(MergeCondition.AND, calls, "A"));
+		handlers.add(new TestHandler(MergeCondition.AND, calls, "A"));
+
+		assertTrue(new SearchHandlerRunner(handlers).run(null).isEmpty());
+		assertEquals(1, calls.get());
+
+		assertTrue(new SearchHandlerRunner(handlers).run(executor).isEmpty());
+	}
+
+	private static class TestHandler
+			extends BaseSearchHandler
+	{
+
+		private final MergeCondition nextMergeCondition;
+		private final List<String> ids;
+		private final AtomicInteger calls;
+
+		public TestHandler(MergeCondition nextMergeCondition, String... ids)
+		{
+			this(nextMergeCondition, new AtomicInteger(), ids);
+		}
+
+		public TestHandler(MergeCondition nextMergeCondition, AtomicInteger calls, String... ids)
+		{
+			super(Collections.<SearchElement>emptyList());
+			this.nextMergeCondition = nextMergeCondition;
+			this.calls = calls;
+			this.ids = Arrays.asList(ids);
+		}
+
+		@Override
+		public MergeCondition getNextMergeCondition()
+		{
+			return nextMergeCondition;
+		}
+
+		@Override
+		protected ValidationResult internalValidate()
+		{
+			return new ValidationResult();
+		}
+
+		@Override
+		public List<String> processSearch()
+		{
+			calls.incrementAndGet();
+			return new ArrayList<>(ids);
+		}
+
+	}
+
+}
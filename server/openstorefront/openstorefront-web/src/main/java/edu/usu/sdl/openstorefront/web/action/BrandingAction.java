@@ -21,8 +21,6 @@ import edu.usu.sdl.openstorefront.core.entity.GeneralMedia;
 import static edu.usu.sdl.openstorefront.web.action.MediaAction.MISSING_IMAGE;
 import static edu.usu.sdl.openstorefront.web.action.MediaAction.MISSING_MEDIA_IMAGE_SIZE;
 import edu.usu.sdl.openstorefront.web.action.resolution.RangeResolutionBuilder;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.text.MessageFormat;
@@ -89,7 +87,7 @@ public class BrandingAction
 	}
 
 	@HandlesEvent("GeneralMedia")
-	public Resolution generalMedia() throws FileNotFoundException
+	public Resolution generalMedia()
 	{
 		GeneralMedia generalMediaExample = new GeneralMedia();
 		generalMediaExample.setName(name);
@@ -120,25 +118,19 @@ public class BrandingAction
 			}.setFilename("MediaNotFound.png");
 		}
 
-		InputStream in;
-		long length;
+		RangeResolutionBuilder rangeResolutionBuilder = new RangeResolutionBuilder()
+				.setContentType(generalMedia.getMimeType())
+				.setRequest(getContext().getRequest())
+				.setFilename(generalMedia.getOriginalFileName());
 		Path path = generalMedia.pathToMedia();
 		if (path != null && path.toFile().exists()) {
-			in = new FileInputStream(path.toFile());
-			length = path.toFile().length();
+			rangeResolutionBuilder.setPath(path);
 		} else {
 			log.log(Level.WARNING, MessageFormat.format("Media not on disk: {0} Check general media record: {1} ", new Object[]{generalMedia.pathToMedia(), generalMedia.getName()}));
-			in = new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE);
-			length = MISSING_MEDIA_IMAGE_SIZE;
+			rangeResolutionBuilder.setInputStream(new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE))
+					.setTotalLength(MISSING_MEDIA_IMAGE_SIZE);
 		}
-
-		return new RangeResolutionBuilder()
-				.setContentType(generalMedia.getMimeType())
-				.setInputStream(in)
-				.setTotalLength(length)
-				.setRequest(getContext().getRequest())
-				.setFilename(generalMedia.getOriginalFileName())
-				.createRangeResolution();
+		return rangeResolutionBuilder.createRangeResolution();
 
 	}
 
@@ -33,13 +33,12 @@ import edu.usu.sdl.openstorefront.core.filter.FilterEngine;
 import edu.usu.sdl.openstorefront.doc.security.LogicOperation;
 import edu.usu.sdl.openstorefront.doc.security.RequireSecurity;
 import edu.usu.sdl.openstorefront.security.SecurityUtil;
+import edu.usu.sdl.openstorefront.service.manager.MediaDerivativeManager;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.validation.ValidationUtil;
 import edu.usu.sdl.openstorefront.web.action.resolution.RangeResolutionBuilder;
 import java.io.ByteArrayInputStream;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
@@ -120,6 +119,11 @@ public class MediaAction
 	@Validate(required = true, on = {"OrganizationLogo", "UploadOrganizationLogo"})
 	private String organizationId;
 
+	//optional; sends a resized copy of images
+	private Integer width;
+	private Integer height;
+	private String format;
+
 	@DefaultHandler
 	public Resolution audioTestPage()
 	{
@@ -128,7 +132,7 @@ public class MediaAction
 	}
 
 	@HandlesEvent("LoadMedia")
-	public Resolution sendMedia() throws FileNotFoundException
+	public Resolution sendMedia()
 	{
 		componentMedia = service.getPersistenceService().findById(ComponentMedia.class, mediaId);
 		componentMedia = FilterEngine.filter(componentMedia, true);
@@ -136,25 +140,20 @@ public class MediaAction
 			throw new OpenStorefrontRuntimeException("Media not Found", "Check media Id");
 		}
 
-		InputStream in;
-		long length;
+		RangeResolutionBuilder rangeResolutionBuilder = new RangeResolutionBuilder()
+				.setContentType(componentMedia.getMimeType())
+				.setRequest(getContext().getRequest())
+				.setFilename(componentMedia.getOriginalName());
 		Path path = componentMedia.pathToMedia();
 		if (path != null && path.toFile().exists()) {
-			in = new FileInputStream(path.toFile());
-			length = path.toFile().length();
+			setMediaPath(rangeResolutionBuilder, MediaDerivativeManager.componentMediaKey(componentMedia.getComponentMediaId()), path, componentMedia.getMimeType(), componentMedia.getOriginalName());
 		} else {
 			Component component = service.getPersistenceService().findById(Component.class, componentMedia.getComponentId());
 			log.log(Level.WARNING, MessageFormat.format("Media not on disk: {0} Check media record: {1} on component {2} ({3}) ", new Object[]{componentMedia.pathToMedia(), mediaId, component.getName(), component.getComponentId()}));
-			in = new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE);
-			length = MISSING_MEDIA_IMAGE_SIZE;
+			rangeResolutionBuilder.setInputStream(new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE))
+					.setTotalLength(MISSING_MEDIA_IMAGE_SIZE);
 		}
-		return new RangeResolutionBuilder()
-				.setContentType(componentMedia.getMimeType())
-				.setInputStream(in)
-				.setTotalLength(length)
-				.setRequest(getContext().getRequest())
-				.setFilename(componentMedia.getOriginalName())
-				.createRangeResolution();
+		return rangeResolutionBuilder.createRangeResolution();
 	}
 
 	@HandlesEvent("UploadMedia")
@@ -229,7 +228,7 @@ public class MediaAction
 	}
 
 	@HandlesEvent("GeneralMedia")
-	public Resolution generalMedia() throws FileNotFoundException
+	public Resolution generalMedia()
 	{
 		GeneralMedia generalMediaExample = new GeneralMedia();
 		generalMediaExample.setName(name);
@@ -250,25 +249,39 @@ public class MediaAction
 			}.setFilename("MediaNotFound.png");
 		}
 
-		InputStream in;
-		long length;
+		RangeResolutionBuilder rangeResolutionBuilder = new RangeResolutionBuilder()
+				.setContentType(generalMedia.getMimeType())
+				.setRequest(getContext().getRequest())
+				.setFilename(generalMedia.getOriginalFileName());
 		Path path = generalMedia.pathToMedia();
 		if (path != null && path.toFile().exists()) {
-			in = new FileInputStream(path.toFile());
-			length = path.toFile().length();
+			setMediaPath(rangeResolutionBuilder, MediaDerivativeManager.generalMediaKey(generalMedia.getName()), path, generalMedia.getMimeType(), generalMedia.getOriginalFileName());
 		} else {
 			log.log(Level.WARNING, MessageFormat.format("Media not on disk: {0} Check general media record: {1} ", new Object[]{generalMedia.pathToMedia(), generalMedia.getName()}));
-			in = new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE);
-			length = MISSING_MEDIA_IMAGE_SIZE;
+			rangeResolutionBuilder.setInputStream(new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE))
+					.setTotalLength(MISSING_MEDIA_IMAGE_SIZE);
 		}
+		return rangeResolutionBuilder.createRangeResolution();
+	}
 
-		return new RangeResolutionBuilder()
-				.setContentType(generalMedia.getMimeType())
-				.setInputStream(in)
-				.setTotalLength(length)
-				.setRequest(getContext().getRequest())
-				.setFilename(generalMedia.getOriginalFileName())
-				.createRangeResolution();
+	private void setMediaPath(RangeResolutionBuilder rangeResolutionBuilder, String mediaKey, Path path, String mimeType, String originalName)
+	{
+		Path derivative = null;
+		if (width != null || height != null) {
+			try {
+				derivative = MediaDerivativeManager.getDerivative(mediaKey, path, mimeType, width, height, format);
+			} catch (OpenStorefrontRuntimeException e) {
+				//the original still works
+				log.log(Level.WARNING, MessageFormat.format("Unable to resize media: {0}; sending the original.", mediaKey), e);
+			}
+		}
+		if (derivative != null) {
+			rangeResolutionBuilder.setPath(derivative)
+					.setContentType(MediaDerivativeManager.mimeType(derivative))
+					.setFilename(MediaDerivativeManager.filename(originalName, derivative));
+		} else {
+			rangeResolutionBuilder.setPath(path);
+		}
 	}
 
 	@RequireSecurity(SecurityPermission.ADMIN_MEDIA)
@@ -307,7 +320,7 @@ public class MediaAction
 	}
 
 	@HandlesEvent("TemporaryMedia")
-	public Resolution temporaryMedia() throws FileNotFoundException
+	public Resolution temporaryMedia()
 	{
 		TemporaryMedia temporaryMediaExample = new TemporaryMedia();
 		temporaryMediaExample.setName(name);
@@ -328,25 +341,19 @@ public class MediaAction
 			}.setFilename("MediaNotFound.png");
 		}
 
-		InputStream in;
-		long length;
+		RangeResolutionBuilder rangeResolutionBuilder = new RangeResolutionBuilder()
+				.setContentType(temporaryMediaFound.getMimeType())
+				.setRequest(getContext().getRequest())
+				.setFilename(temporaryMediaFound.getOriginalFileName());
 		Path path = temporaryMediaFound.pathToMedia();
 		if (path != null && path.toFile().exists()) {
-			in = new FileInputStream(path.toFile());
-			length = path.toFile().length();
+			rangeResolutionBuilder.setPath(path);
 		} else {
 			log.log(Level.WARNING, MessageFormat.format("Media not on disk: {0} Check temporary media record: {1} ", new Object[]{temporaryMediaFound.pathToMedia(), temporaryMediaFound.getName()}));
-			in = new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE);
-			length = MISSING_MEDIA_IMAGE_SIZE;
+			rangeResolutionBuilder.setInputStream(new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE))
+					.setTotalLength(MISSING_MEDIA_IMAGE_SIZE);
 		}
-
-		return new RangeResolutionBuilder()
-				.setContentType(temporaryMediaFound.getMimeType())
-				.setInputStream(in)
-				.setTotalLength(length)
-				.setRequest(getContext().getRequest())
-				.setFilename(temporaryMediaFound.getOriginalFileName())
-				.createRangeResolution();
+		return rangeResolutionBuilder.createRangeResolution();
 	}
 
 	@HandlesEvent("UploadTemporaryMedia")
@@ -426,7 +433,7 @@ public class MediaAction
 	}
 
 	@HandlesEvent("SectionMedia")
-	public Resolution sectionMedia() throws FileNotFoundException
+	public Resolution sectionMedia()
 	{
 		ContentSectionMedia sectionMedia = new ContentSectionMedia();
 		sectionMedia.setContentSectionMediaId(mediaId);
@@ -472,25 +479,19 @@ public class MediaAction
 			}.setFilename("MediaNotFound.png");
 		}
 
-		InputStream in;
-		long length;
+		RangeResolutionBuilder rangeResolutionBuilder = new RangeResolutionBuilder()
+				.setContentType(sectionMedia.getMimeType())
+				.setRequest(getContext().getRequest())
+				.setFilename(sectionMedia.getOriginalName());
 		Path path = sectionMedia.pathToMedia();
 		if (path != null && path.toFile().exists()) {
-			in = new FileInputStream(path.toFile());
-			length = path.toFile().length();
+			rangeResolutionBuilder.setPath(path);
 		} else {
 			log.log(Level.WARNING, MessageFormat.format("Media not on disk: {0} Check section media record: {1} ", new Object[]{sectionMedia.pathToMedia(), sectionMedia.getContentSectionMediaId()}));
-			in = new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE);
-			length = MISSING_MEDIA_IMAGE_SIZE;
+			rangeResolutionBuilder.setInputStream(new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE))
+					.setTotalLength(MISSING_MEDIA_IMAGE_SIZE);
 		}
-
-		return new RangeResolutionBuilder()
-				.setContentType(sectionMedia.getMimeType())
-				.setInputStream(in)
-				.setTotalLength(length)
-				.setRequest(getContext().getRequest())
-				.setFilename(sectionMedia.getOriginalName())
-				.createRangeResolution();
+		return rangeResolutionBuilder.createRangeResolution();
 	}
 
 	@RequireSecurity(SecurityPermission.ADMIN_ORGANIZATION)
@@ -526,32 +527,26 @@ public class MediaAction
 	}
 
 	@HandlesEvent("OrganizationLogo")
-	public Resolution organizationLogo() throws FileNotFoundException
+	public Resolution organizationLogo()
 	{
 		Organization organizationExample = new Organization();
 		organizationExample.setOrganizationId(organizationId);
 		Organization organization = organizationExample.find();
 
 		if (organization != null) {
-			InputStream in;
-			long length;
+			RangeResolutionBuilder rangeResolutionBuilder = new RangeResolutionBuilder()
+					.setContentType(organization.getLogoMimeType())
+					.setRequest(getContext().getRequest())
+					.setFilename(organization.getLogoOriginalFileName());
 			Path path = organization.pathToLogo();
 			if (path != null && path.toFile().exists()) {
-				in = new FileInputStream(path.toFile());
-				length = path.toFile().length();
+				rangeResolutionBuilder.setPath(path);
 			} else {
 				log.log(Level.WARNING, MessageFormat.format("Organization logo not on disk: {0} Check organization media record: {1} ", new Object[]{organization.pathToLogo(), organization.getOrganizationId()}));
-				in = new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE);
-				length = MISSING_MEDIA_IMAGE_SIZE;
+				rangeResolutionBuilder.setInputStream(new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE))
+						.setTotalLength(MISSING_MEDIA_IMAGE_SIZE);
 			}
-
-			return new RangeResolutionBuilder()
-					.setContentType(organization.getLogoMimeType())
-					.setInputStream(in)
-					.setTotalLength(length)
-					.setRequest(getContext().getRequest())
-					.setFilename(organization.getLogoOriginalFileName())
-					.createRangeResolution();
+			return rangeResolutionBuilder.createRangeResolution();
 		} else {
 			log.log(Level.FINE, MessageFormat.format("Organization with id: {0} is not found.", organizationId));
 			return new StreamingResolution("image/png")
@@ -681,4 +676,34 @@ public class MediaAction
 		this.organizationId = organizationId;
 	}
 
+	public Integer getWidth()
+	{
+		return width;
+	}
+
+	public void setWidth(Integer width)
+	{
+		this.width = width;
+	}
+
+	public Integer getHeight()
+	{
+		return height;
+	}
+
+	public void setHeight(Integer height)
+	{
+		this.height = height;
+	}
+
+	public String getFormat()
+	{
+		return format;
+	}
+
+	public void setFormat(String format)
+	{
+		this.format = format;
+	}
+
 }
@@ -31,10 +31,8 @@ import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.validation.ValidationUtil;
 import edu.usu.sdl.openstorefront.web.action.resolution.RangeResolutionBuilder;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Path;
 import java.text.MessageFormat;
 import java.util.HashMap;
@@ -82,7 +80,7 @@ public class ResourceAction
 	}
 
 	@HandlesEvent("LoadResource")
-	public Resolution loadResource() throws FileNotFoundException
+	public Resolution loadResource()
 	{
 		componentResource = service.getPersistenceService().findById(ComponentResource.class, resourceId);
 		componentResource = FilterEngine.filter(componentResource, true);
@@ -90,25 +88,19 @@ public class ResourceAction
 			throw new OpenStorefrontRuntimeException("Resource not Found", "Check resource Id: " + resourceId);
 		}
 
-		InputStream in;
-		long length;
+		RangeResolutionBuilder rangeResolutionBuilder = new RangeResolutionBuilder()
+				.setContentType(componentResource.getMimeType())
+				.setRequest(getContext().getRequest())
+				.setFilename(componentResource.getOriginalName());
 		Path path = getComponentResource().pathToResource();
 		if (path != null && path.toFile().exists()) {
-			in = new FileInputStream(path.toFile());
-			length = path.toFile().length();
+			rangeResolutionBuilder.setPath(path);
 		} else {
 			Component component = service.getPersistenceService().findById(Component.class, getComponentResource().getComponentId());
 			String message = MessageFormat.format("Resource not on disk: {0} Check resource record: {1} on component {2} ({3}) ", new Object[]{getComponentResource().pathToResource(), resourceId, component.getName(), component.getComponentId()});
 			throw new OpenStorefrontRuntimeException(message);
 		}
-
-		return new RangeResolutionBuilder()
-				.setContentType(componentResource.getMimeType())
-				.setInputStream(in)
-				.setTotalLength(length)
-				.setRequest(getContext().getRequest())
-				.setFilename(componentResource.getOriginalName())
-				.createRangeResolution();
+		return rangeResolutionBuilder.createRangeResolution();
 
 	}
 
@@ -209,7 +201,7 @@ public class ResourceAction
 		componentTracking.setRestrictedResouce(componentResource.getRestricted());
 		componentTracking.setTrackEventTypeCode(TrackEventCode.EXTERNAL_LINK_CLICK);
 		componentTracking.setEventDts(TimeUtil.currentDate());
-		service.getComponentService().saveComponentTracking(componentTracking);
+		service.getComponentService().addComponentTracking(componentTracking);
 
 		if (componentResource.getFileName() != null) {
 			return loadResource();
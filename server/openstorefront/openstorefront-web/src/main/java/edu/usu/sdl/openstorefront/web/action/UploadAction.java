@@ -218,6 +218,7 @@ public class UploadAction
 				TaskRequest taskRequest = new TaskRequest();
 				taskRequest.setAllowMultiple(false);
 				taskRequest.setName("Uploading Attribute(s)");
+				taskRequest.setCategory(TaskRequest.CATEGORY_IMPORT);
 				taskRequest.setDetails("File name: " + uploadFile.getFileName());
 				service.getAsyncProxy(service.getAttributeService(), taskRequest).syncAttribute(attributeMap);
 			} catch (IOException ex) {
@@ -316,6 +317,7 @@ public class UploadAction
 				TaskRequest taskRequest = new TaskRequest();
 				taskRequest.setAllowMultiple(false);
 				taskRequest.setName("Uploading Component(s)");
+				taskRequest.setCategory(TaskRequest.CATEGORY_IMPORT);
 				taskRequest.setDetails("Component(s) Processing: " + components.size() + " from Filename: " + uploadFile.getFileName());
 				service.getAsyncProxy(service.getComponentService(), taskRequest).importComponents(components, componentUploadOptions);
 			}
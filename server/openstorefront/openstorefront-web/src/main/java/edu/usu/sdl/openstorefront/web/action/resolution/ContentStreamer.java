@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.web.action.resolution;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Copies file content and checks validators for static content responses.
+ * (No servlet dependencies so it can be tested and benchmarked on its own)
+ *
+ * @author dshurtleff
+ */
+public final class ContentStreamer
+{
+
+	public static final int BUFFER_SIZE = 64 * 1024;
+
+	private ContentStreamer()
+	{
+	}
+
+	/**
+	 * Strong entity tag from the file size and modified time; it changes
+	 * whenever the file is replaced.
+	 *
+	 * @param length
+	 * @param lastModified (millis)
+	 * @return quoted entity tag
+	 */
+	public static String entityTag(long length, long lastModified)
+	{
+		return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+	}
+
+	/**
+	 * Entity tag from a content hash
+	 *
+	 * @param contentHash
+	 * @return quoted entity tag
+	 */
+	public static String entityTag(String contentHash)
+	{
+		return "\"" + contentHash + "\"";
+	}
+
+	/**
+	 * If-None-Match check (weak comparison; see RFC 7232 3.2)
+	 *
+	 * @param ifNoneMatch header value
+	 * @param entityTag current tag
+	 * @return true if the client's copy is current
+	 */
+	public static boolean matchesAny(String ifNoneMatch, String entityTag)
+	{
+		if (ifNoneMatch == null || entityTag == null) {
+			return false;
+		}
+		if ("*".equals(ifNoneMatch.trim())) {
+			return true;
+		}
+		String opaqueTag = stripWeak(entityTag);
+		for (String tag : ifNoneMatch.split(",")) {
+			if (opaqueTag.equals(stripWeak(tag.trim()))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String stripWeak(String tag)
+	{
+		return tag.startsWith("W/") ? tag.substring(2) : tag;
+	}
+
+	/**
+	 * HTTP dates only carry seconds
+	 *
+	 * @param lastModified
+	 * @param since (from the header)
+	 * @return true if not modified after since
+	 */
+	public static boolean notModifiedSince(long lastModified, long since)
+	{
+		return lastModified >= 0 && since >= 0 && lastModified / 1000 <= since / 1000;
+	}
+
+	/**
+	 * Sends part of the file using positional transfers (the file channel
+	 * position is not used so ranges can be sent in any order).
+	 *
+	 * @param channel
+	 * @param position
+	 * @param count
+	 * @param target
+	 * @throws EOFException if the file ends first (it was truncated after the
+	 * length was sent)
+	 * @throws IOException
+	 */
+	public static void transfer(FileChannel channel, long position, long count, WritableByteChannel target) throws IOException
+	{
+		long end = position + count;
+		while (position < end) {
+			long sent = channel.transferTo(position, end - position, target);
+			if (sent <= 0) {
+				throw new EOFException("File ended at " + position + " of " + end + " bytes; it was changed while being sent.");
+			}
+			position += sent;
+		}
+	}
+
+	/**
+	 * Copies part of a stream (for content that isn't a file)
+	 *
+	 * @param in
+	 * @param out
+	 * @param skip bytes to skip first
+	 * @param count bytes to copy
+	 * @return bytes copied
+	 * @throws IOException
+	 */
+	public static long copy(InputStream in, OutputStream out, long skip, long count) throws IOException
+	{
+		while (skip > 0) {
+			long skipped = in.skip(skip);
+			if (skipped <= 0) {
+				//some streams won't skip; read past instead
+				if (in.read() == -1) {
+					return 0;
+				}
+				skipped = 1;
+			}
+			skip -= skipped;
+		}
+
+		byte buffer[] = new byte[(int) Math.min(BUFFER_SIZE, Math.max(count, 1))];
+		long copied = 0;
+		int read;
+		while (copied < count && (read = in.read(buffer, 0, (int) Math.min(buffer.length, count - copied))) != -1) {
+			out.write(buffer, 0, read);
+			copied += read;
+		}
+		return copied;
+	}
+
+}
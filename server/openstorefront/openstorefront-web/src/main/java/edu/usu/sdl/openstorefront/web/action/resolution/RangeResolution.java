@@ -15,9 +15,16 @@
  */
 package edu.usu.sdl.openstorefront.web.action.resolution;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.MessageFormat;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -29,7 +36,9 @@ import net.sourceforge.stripes.util.Range;
 import org.apache.commons.lang3.StringUtils;
 
 /**
- * Handles media streams with client aborts
+ * Handles media streams with client aborts. Files are sent with positional
+ * channel transfers (or handed to the container's sendfile when it supports
+ * it) and carry validators so unchanged content is answered with a 304.
  *
  * @author dshurtleff
  */
@@ -39,11 +48,32 @@ public class RangeResolution
 
 	private static final Logger log = Logger.getLogger(RangeResolution.class.getName());
 
+	/**
+	 * Clients must revalidate (media is access controlled); unchanged content
+	 * costs a 304.
+	 */
+	public static final String DEFAULT_CACHE_CONTROL = "private, no-cache";
+
 	private static final String MULTIPART_BOUNDARY = "BOUNDARY_F7C98B76AEF711DF86D1B4FCDFD72085";
+	private static final String PART_END = "\r\n";
+	private static final String CLOSING_BOUNDARY = "--" + MULTIPART_BOUNDARY + "--\r\n";
+
+	//Tomcat zero-copy support
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
 	private long totalLength = 0;
 	private InputStream in;
+	private Path path;
 	private HttpServletRequest request;
 	private String contentType;
+	private String entityTag;
+	private long lastModified = -1;
+	private String cacheControl;
+	private boolean notModified;
+	private List<Range<Long>> byteRanges;
 
 	public RangeResolution(String contentType, InputStream inputStream, long totalLength, HttpServletRequest request, String filename)
 	{
@@ -51,6 +81,36 @@ public class RangeResolution
 		this.contentType = contentType;
 		in = inputStream;
 		this.totalLength = totalLength;
+		init(request, filename);
+	}
+
+	/**
+	 * Serves a file
+	 *
+	 * @param contentType
+	 * @param path
+	 * @param request
+	 * @param filename (attachment name; null for inline)
+	 * @param entityTag (null to use one from the file size and modified time)
+	 */
+	public RangeResolution(String contentType, Path path, HttpServletRequest request, String filename, String entityTag)
+	{
+		super(contentType);
+		this.contentType = contentType;
+		this.path = path;
+		this.totalLength = path.toFile().length();
+		this.lastModified = path.toFile().lastModified();
+		if (StringUtils.isNotBlank(entityTag)) {
+			this.entityTag = entityTag;
+		} else {
+			this.entityTag = ContentStreamer.entityTag(totalLength, lastModified);
+		}
+		setLastModified(lastModified);
+		init(request, filename);
+	}
+
+	private void init(HttpServletRequest request, String filename)
+	{
 		if (StringUtils.isNotBlank(filename)) {
 			setFilename(filename);
 			setAttachment(true);
@@ -60,67 +120,228 @@ public class RangeResolution
 		setRangeSupport(true);
 		setLength(totalLength);
 		this.request = request;
+		cacheControl = DEFAULT_CACHE_CONTROL;
 	}
 
+	public RangeResolution setCacheControl(String cacheControl)
+	{
+		this.cacheControl = cacheControl;
+		return this;
+	}
+
+	public String getEntityTag()
+	{
+		return entityTag;
+	}
+
+	/**
+	 * Ranges are ignored when If-Range no longer matches (the client's
+	 * partial copy is out of date; send everything)
+	 *
+	 * @param value
+	 * @return sorted and merged ranges; null to send everything; empty when
+	 * none of the ranges can be satisfied
+	 */
 	@Override
-	protected void stream(HttpServletResponse response) throws Exception
+	protected List<Range<Long>> parseRangeHeader(String value)
 	{
-		int bufferLength;
-		if (in != null && totalLength >= 0) {
-			byte[] buffer = new byte[512];
-			long count = 0;
+		String ifRange = request.getHeader("If-Range");
+		if (ifRange != null) {
+			boolean current;
+			if (ifRange.trim().startsWith("\"")) {
+				//strong comparison only
+				current = ifRange.trim().equals(entityTag);
+			} else {
+				long since = -1;
+				try {
+					since = request.getDateHeader("If-Range");
+				} catch (IllegalArgumentException ex) {
+					log.log(Level.FINEST, "Bad If-Range date", ex);
+				}
+				current = lastModified >= 0 && since >= 0 && lastModified / 1000 == since / 1000;
+			}
+			if (current == false) {
+				return null;
+			}
+		}
+		return parseByteRanges(value, totalLength);
+	}
 
-			try {
-				ServletOutputStream out = response.getOutputStream();
+	/**
+	 * See RFC 7233 section 2.1; the base resolution drops ranges that run
+	 * past the end instead of trimming them.
+	 *
+	 * @param value
+	 * @param totalLength
+	 * @return sorted and merged ranges; null when the header is not a valid
+	 * byte range (ignored); empty when none of the ranges can be satisfied
+	 */
+	static List<Range<Long>> parseByteRanges(String value, long totalLength)
+	{
+		if (value == null || value.trim().startsWith("bytes=") == false) {
+			return null;
+		}
 
-				List<Range<Long>> byteRanges = parseRangeHeader(request.getHeader("Range"));
-				if (byteRanges == null) {
-					while ((bufferLength = in.read(buffer)) != -1) {
-						out.write(buffer, 0, bufferLength);
+		List<Range<Long>> ranges = new ArrayList<>();
+		for (String spec : value.trim().substring("bytes=".length()).split(",")) {
+			String parts[] = spec.trim().split("-", -1);
+			if (parts.length != 2) {
+				return null;
+			}
+			long start;
+			long end;
+			try {
+				if (parts[0].trim().isEmpty()) {
+					//suffix: the last n bytes
+					long suffix = Long.parseLong(parts[1].trim());
+					if (suffix <= 0) {
+						continue;
 					}
+					start = Math.max(0, totalLength - suffix);
+					end = totalLength - 1;
 				} else {
-					for (Range<Long> byteRange : byteRanges) {
-						// See RFC 2616 section 14.16
-						if (byteRanges.size() > 1) {
-							out.print("--" + MULTIPART_BOUNDARY + "\r\n");
-							out.print("Content-Type: " + contentType + "\r\n");
-							out.print("Content-Range: bytes " + byteRange.getStart() + "-"
-									+ byteRange.getEnd() + "/" + totalLength + "\r\n");
-							out.print("\r\n");
-						}
-						if (count < byteRange.getStart()) {
-							long skip;
-
-							skip = byteRange.getStart() - count;
-							long actualbytesSkiped = in.skip(skip);
-							log.log(Level.FINEST, MessageFormat.format("Actual Bytes Skipped from range: {0}", actualbytesSkiped));
-							count += skip;
-						}
-						while ((bufferLength = in.read(buffer, 0, (int) Math.min(
-								buffer.length, byteRange.getEnd() + 1 - count))) != -1) {
-							try {
-								out.write(buffer, 0, bufferLength);
-							} catch (IOException io) {
-								//Client Abort
-								break;
-							}
-							count += bufferLength;
-							if (byteRange.getEnd() + 1 == count) {
-								break;
-							}
-						}
-						if (byteRanges.size() > 1) {
-							out.print("\r\n");
-						}
-					}
-					if (byteRanges.size() > 1) {
-						out.print("--" + MULTIPART_BOUNDARY + "--\r\n");
+					start = Long.parseLong(parts[0].trim());
+					end = parts[1].trim().isEmpty() ? totalLength - 1 : Long.parseLong(parts[1].trim());
+					if (end < start) {
+						return null;
 					}
+					end = Math.min(end, totalLength - 1);
+				}
+			} catch (NumberFormatException ex) {
+				log.log(Level.FINEST, "Bad Range header", ex);
+				return null;
+			}
+			if (start < totalLength && start <= end) {
+				ranges.add(new Range<>(start, end));
+			}
+		}
+
+		Collections.sort(ranges);
+		List<Range<Long>> merged = new ArrayList<>();
+		for (Range<Long> range : ranges) {
+			Range<Long> last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+			if (last != null && range.getStart() <= last.getEnd() + 1) {
+				last.setEnd(Math.max(last.getEnd(), range.getEnd()));
+			} else {
+				merged.add(range);
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * The base resolution only sets the range headers when it was given an
+	 * input stream, so they are all set here.
+	 */
+	@Override
+	protected void applyHeaders(HttpServletResponse response)
+	{
+		if (entityTag != null) {
+			response.setHeader("ETag", entityTag);
+		}
+		if (cacheControl != null) {
+			response.setHeader("Cache-Control", cacheControl);
+		}
+
+		notModified = checkNotModified();
+		if (notModified) {
+			if (lastModified >= 0) {
+				response.setDateHeader("Last-Modified", lastModified);
+			}
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		String rangeHeader = request.getHeader("Range");
+		if (totalLength >= 0 && rangeHeader != null) {
+			byteRanges = parseRangeHeader(rangeHeader);
+		}
+		if (byteRanges != null && byteRanges.isEmpty()) {
+			response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			response.setHeader("Content-Range", "bytes */" + totalLength);
+			response.setHeader("Content-Length", "0");
+			return;
+		}
+		super.applyHeaders(response);
+
+		if (byteRanges == null) {
+			//the base resolution sets the length as an int
+			if (totalLength > Integer.MAX_VALUE) {
+				response.setHeader("Content-Length", Long.toString(totalLength));
+			}
+		} else {
+			response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			if (byteRanges.size() == 1) {
+				Range<Long> byteRange = byteRanges.get(0);
+				response.setContentType(contentType);
+				response.setHeader("Content-Range", contentRange(byteRange));
+				response.setHeader("Content-Length", Long.toString(byteRange.getEnd() - byteRange.getStart() + 1));
+			} else {
+				response.setContentType("multipart/byteranges; boundary=" + MULTIPART_BOUNDARY);
+				response.setHeader("Content-Length", Long.toString(multipartLength()));
+			}
+		}
+	}
+
+	private String contentRange(Range<Long> byteRange)
+	{
+		return "bytes " + byteRange.getStart() + "-" + byteRange.getEnd() + "/" + totalLength;
+	}
+
+	private long multipartLength()
+	{
+		long length = 0;
+		for (Range<Long> byteRange : byteRanges) {
+			length += partHeader(byteRange).length();
+			length += byteRange.getEnd() - byteRange.getStart() + 1;
+			length += PART_END.length();
+		}
+		return length + CLOSING_BOUNDARY.length();
+	}
+
+	private boolean checkNotModified()
+	{
+		String method = request.getMethod();
+		if ("GET".equals(method) == false && "HEAD".equals(method) == false) {
+			return false;
+		}
+
+		String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			//If-Modified-Since is ignored when this is present
+			return ContentStreamer.matchesAny(ifNoneMatch, entityTag);
+		}
+
+		long since = -1;
+		try {
+			since = request.getDateHeader("If-Modified-Since");
+		} catch (IllegalArgumentException ex) {
+			log.log(Level.FINEST, "Bad If-Modified-Since date", ex);
+		}
+		return ContentStreamer.notModifiedSince(lastModified, since);
+	}
+
+	@Override
+	protected void stream(HttpServletResponse response) throws Exception
+	{
+		try {
+			boolean unsatisfiable = byteRanges != null && byteRanges.isEmpty();
+			if (notModified == false && unsatisfiable == false && totalLength >= 0) {
+				if (path != null) {
+					streamFile(response);
+				} else if (in != null) {
+					streamInput(response);
 				}
-			} catch (IOException io) {
-				//Ignore Client Abort
-				log.log(Level.FINEST, "Range Resolution Error ", io);
-			} finally {
+			}
+		} catch (EOFException eof) {
+			//the length is already sent; fail the response so the client doesn't keep a short copy
+			log.log(Level.WARNING, "Content ended before the sent length; aborting the response.", eof);
+			throw eof;
+		} catch (IOException io) {
+			//Ignore Client Abort
+			log.log(Level.FINEST, "Range Resolution Error ", io);
+		} finally {
+			if (in != null) {
 				try {
 					in.close();
 				} catch (Exception e) {
@@ -128,7 +349,91 @@ public class RangeResolution
 				}
 			}
 		}
+	}
+
+	private void streamFile(HttpServletResponse response) throws IOException
+	{
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+				&& (byteRanges == null || byteRanges.size() == 1)) {
+			//the container writes the file after we return (the length header is already set)
+			long start = byteRanges == null ? 0 : byteRanges.get(0).getStart();
+			long end = byteRanges == null ? totalLength : byteRanges.get(0).getEnd() + 1;
+			request.setAttribute(SENDFILE_FILENAME, path.toFile().getCanonicalPath());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, end);
+			return;
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ServletOutputStream out = response.getOutputStream();
+			WritableByteChannel target = Channels.newChannel(out);
+			if (byteRanges == null) {
+				ContentStreamer.transfer(channel, 0, totalLength, target);
+			} else {
+				for (Range<Long> byteRange : byteRanges) {
+					writePartHeader(out, byteRange);
+					ContentStreamer.transfer(channel, byteRange.getStart(), byteRange.getEnd() - byteRange.getStart() + 1, target);
+					writePartEnd(out);
+				}
+				writeClosingBoundary(out);
+			}
+		}
+	}
+
+	private void streamInput(HttpServletResponse response) throws IOException
+	{
+		ServletOutputStream out = response.getOutputStream();
+		if (byteRanges == null) {
+			checkCopied(ContentStreamer.copy(in, out, 0, totalLength), totalLength);
+		} else {
+			//ranges are sorted and merged so the stream only moves forward
+			long position = 0;
+			for (Range<Long> byteRange : byteRanges) {
+				writePartHeader(out, byteRange);
+				long count = byteRange.getEnd() - byteRange.getStart() + 1;
+				checkCopied(ContentStreamer.copy(in, out, byteRange.getStart() - position, count), count);
+				position = byteRange.getEnd() + 1;
+				writePartEnd(out);
+			}
+			writeClosingBoundary(out);
+		}
+	}
+
+	private void checkCopied(long copied, long count) throws EOFException
+	{
+		if (copied < count) {
+			throw new EOFException("Stream ended after " + copied + " of " + count + " bytes.");
+		}
+	}
 
+	// See RFC 7233 section 4.1
+	private String partHeader(Range<Long> byteRange)
+	{
+		return "--" + MULTIPART_BOUNDARY + "\r\n"
+				+ "Content-Type: " + contentType + "\r\n"
+				+ "Content-Range: " + contentRange(byteRange) + "\r\n"
+				+ "\r\n";
+	}
+
+	private void writePartHeader(ServletOutputStream out, Range<Long> byteRange) throws IOException
+	{
+		if (byteRanges.size() > 1) {
+			out.print(partHeader(byteRange));
+		}
+	}
+
+	private void writePartEnd(ServletOutputStream out) throws IOException
+	{
+		if (byteRanges.size() > 1) {
+			out.print(PART_END);
+		}
+	}
+
+	private void writeClosingBoundary(ServletOutputStream out) throws IOException
+	{
+		if (byteRanges.size() > 1) {
+			out.print(CLOSING_BOUNDARY);
+		}
 	}
 
 }
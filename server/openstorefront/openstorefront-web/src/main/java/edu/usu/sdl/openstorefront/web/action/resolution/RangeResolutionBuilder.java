@@ -16,6 +16,7 @@
 package edu.usu.sdl.openstorefront.web.action.resolution;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 import javax.servlet.http.HttpServletRequest;
 
 public class RangeResolutionBuilder
@@ -26,6 +27,9 @@ public class RangeResolutionBuilder
 	private long totalLength;
 	private HttpServletRequest request;
 	private String filename = null;
+	private Path path;
+	private String entityTag;
+	private String cacheControl = RangeResolution.DEFAULT_CACHE_CONTROL;
 
 	public RangeResolutionBuilder()
 	{
@@ -61,9 +65,47 @@ public class RangeResolutionBuilder
 		return this;
 	}
 
+	/**
+	 * Serve a file (preferred over an input stream; supports validators and
+	 * positional range reads). The length comes from the file.
+	 *
+	 * @param path
+	 * @return
+	 */
+	public RangeResolutionBuilder setPath(Path path)
+	{
+		this.path = path;
+		return this;
+	}
+
+	/**
+	 * Optional; Eg. from a stored content hash. Defaults to one from the file
+	 * size and modified time.
+	 *
+	 * @param entityTag (quoted)
+	 * @return
+	 */
+	public RangeResolutionBuilder setEntityTag(String entityTag)
+	{
+		this.entityTag = entityTag;
+		return this;
+	}
+
+	public RangeResolutionBuilder setCacheControl(String cacheControl)
+	{
+		this.cacheControl = cacheControl;
+		return this;
+	}
+
 	public RangeResolution createRangeResolution()
 	{
-		return new RangeResolution(contentType, inputStream, totalLength, request, filename);
+		RangeResolution rangeResolution;
+		if (path != null) {
+			rangeResolution = new RangeResolution(contentType, path, request, filename, entityTag);
+		} else {
+			rangeResolution = new RangeResolution(contentType, inputStream, totalLength, request, filename);
+		}
+		return rangeResolution.setCacheControl(cacheControl);
 	}
 
 }
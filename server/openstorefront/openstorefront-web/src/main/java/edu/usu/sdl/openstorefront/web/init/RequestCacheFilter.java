@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.web.init;
+
+import edu.usu.sdl.openstorefront.core.api.RequestCache;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Scopes the request entity cache to the http request
+ *
+ * @author dshurtleff
+ */
+@WebFilter(filterName = "RequestCache", urlPatterns = {"/*"}, dispatcherTypes = {DispatcherType.REQUEST})
+public class RequestCacheFilter
+		implements Filter
+{
+
+	private static final Logger LOG = Logger.getLogger(RequestCacheFilter.class.getName());
+
+	@Override
+	public void init(FilterConfig filterConfig) throws ServletException
+	{
+		//Do Nothing
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException
+	{
+		boolean owner = RequestCache.begin();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			if (owner) {
+				RequestCache requestCache = RequestCache.end();
+				if (LOG.isLoggable(Level.FINE) && request instanceof HttpServletRequest) {
+					LOG.log(Level.FINE, MessageFormat.format("Request cache for {0}: hits {1} misses {2}",
+							((HttpServletRequest) request).getRequestURI(),
+							requestCache.getHits(),
+							requestCache.getMisses()));
+				}
+			}
+		}
+	}
+
+	@Override
+	public void destroy()
+	{
+		//Do Nothing
+	}
+
+}
@@ -676,6 +676,7 @@ public class AttributeResource
 			taskRequest.setAllowMultiple(false);
 			taskRequest.setQueueable(true);
 			taskRequest.setName("Inactivating Attribute Type");
+			taskRequest.setCategory(TaskRequest.CATEGORY_BULK);
 			taskRequest.setDetails("Attribute Type: " + type);
 			taskRequest.getTaskData().put("Type", type);
 			taskRequest.getTaskData().put("Status", attributeType.getActiveStatus());
@@ -716,6 +717,7 @@ public class AttributeResource
 			taskRequest.setAllowMultiple(false);
 			taskRequest.setQueueable(true);
 			taskRequest.setName("Deleting Attribute Type");
+			taskRequest.setCategory(TaskRequest.CATEGORY_BULK);
 			taskRequest.setDetails("Attribute Type: " + type);
 			taskRequest.getTaskData().put("Type", type);
 			taskRequest.getTaskData().put("Status", attributeType.getActiveStatus());
@@ -756,6 +758,7 @@ public class AttributeResource
 			taskRequest.setAllowMultiple(false);
 			taskRequest.setQueueable(true);
 			taskRequest.setName("Activating Attribute Type");
+			taskRequest.setCategory(TaskRequest.CATEGORY_BULK);
 			taskRequest.setDetails("Attribute Type: " + type);
 			taskRequest.getTaskData().put("Type", type);
 			taskRequest.getTaskData().put("Status", attributeType.getActiveStatus());
@@ -939,6 +942,7 @@ public class AttributeResource
 			TaskRequest taskRequest = new TaskRequest();
 			taskRequest.setAllowMultiple(false);
 			taskRequest.setName("Inactivating Attribute Code");
+			taskRequest.setCategory(TaskRequest.CATEGORY_BULK);
 			taskRequest.setDetails("Type: " + type + " Code: " + code);
 			taskRequest.getTaskData().put("Type", type);
 			taskRequest.getTaskData().put("Code", code);
@@ -990,6 +994,7 @@ public class AttributeResource
 			TaskRequest taskRequest = new TaskRequest();
 			taskRequest.setAllowMultiple(false);
 			taskRequest.setName("Deleting Attribute Code");
+			taskRequest.setCategory(TaskRequest.CATEGORY_BULK);
 			taskRequest.setDetails("Type: " + type + " Code: " + code);
 			taskRequest.getTaskData().put("Type", type);
 			taskRequest.getTaskData().put("Code", code);
@@ -1097,6 +1102,7 @@ public class AttributeResource
 			TaskRequest taskRequest = new TaskRequest();
 			taskRequest.setAllowMultiple(false);
 			taskRequest.setName("Activating Attribute Code");
+			taskRequest.setCategory(TaskRequest.CATEGORY_BULK);
 			taskRequest.setDetails("Type: " + type + " Code: " + code);
 			taskRequest.getTaskData().put("Type", type);
 			taskRequest.getTaskData().put("Code", code);
@@ -22,7 +22,7 @@ import edu.usu.sdl.openstorefront.core.annotation.APIDescription;
 import edu.usu.sdl.openstorefront.core.annotation.DataType;
 import edu.usu.sdl.openstorefront.core.entity.ChangeLog;
 import edu.usu.sdl.openstorefront.core.entity.StandardEntity;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.view.ChangeLogView;
 import java.util.List;
 import javax.ws.rs.GET;
@@ -58,7 +58,7 @@ public class ChangeLogResource
 		List<ChangeLog> changeLogs = service.getChangeLogService().getChangeLogs(entity, entityId, includeChildren);
 
 		List<ChangeLogView> views = ChangeLogView.toView(changeLogs);
-		views.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_DESCENDING, StandardEntity.FIELD_CREATE_DTS));
+		views.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_DESCENDING, StandardEntity.FIELD_CREATE_DTS));
 
 		GenericEntity<List<ChangeLogView>> returnEntity = new GenericEntity<List<ChangeLogView>>(views)
 		{
@@ -66,7 +66,7 @@ import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
 import edu.usu.sdl.openstorefront.core.filter.FilterEngine;
 import edu.usu.sdl.openstorefront.core.model.ComponentAll;
 import edu.usu.sdl.openstorefront.core.model.ComponentRestoreOptions;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.sort.SortUtil;
 import edu.usu.sdl.openstorefront.core.view.ComponentAdminView;
 import edu.usu.sdl.openstorefront.core.view.ComponentAdminWrapper;
@@ -890,7 +890,7 @@ public class ComponentRESTResource
 			componentTracking.setActiveStatus(ComponentTracking.ACTIVE_STATUS);
 			componentTracking.setCreateUser(SecurityUtil.getCurrentUserName());
 			componentTracking.setUpdateUser(SecurityUtil.getCurrentUserName());
-			service.getComponentService().saveComponentTracking(componentTracking);
+			service.getComponentService().addComponentTracking(componentTracking);
 		}
 		service.getComponentService().setLastViewDts(componentId, SecurityUtil.getCurrentUserName());
 		if (componentDetail != null) {
@@ -1738,7 +1738,7 @@ public class ComponentRESTResource
 	{
 		List<ComponentEvaluationSection> sections = service.getComponentService().getBaseComponent(ComponentEvaluationSection.class, componentId);
 		List<ComponentEvaluationSectionView> views = ComponentEvaluationSectionView.toViewList(sections);
-		views.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_DESCENDING, ComponentEvaluationSectionView.NAME_FIELD));
+		views.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_DESCENDING, ComponentEvaluationSectionView.NAME_FIELD));
 		return views;
 	}
 	
@@ -2531,7 +2531,7 @@ public class ComponentRESTResource
 			componentQuestions.addAll(service.getPersistenceService().queryByExample(pendingQuestionExample));
 		}
 		componentQuestions = filterQueryParams.filter(componentQuestions);
-		componentQuestions.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, ComponentQuestion.FIELD_CREATE_DTS));
+		componentQuestions.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, ComponentQuestion.FIELD_CREATE_DTS));
 		
 		ComponentQuestionResponse responseExample = new ComponentQuestionResponse();
 		responseExample.setComponentId(componentId);
@@ -3003,7 +3003,7 @@ public class ComponentRESTResource
 		}
 		componentReviews = filterQueryParams.filter(componentReviews);
 		List<ComponentReviewView> views = ComponentReviewView.toViewList(componentReviews);
-		views.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_DESCENDING, ComponentReviewView.UPDATE_DATE_FIELD));
+		views.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_DESCENDING, ComponentReviewView.UPDATE_DATE_FIELD));
 		
 		GenericEntity<List<ComponentReviewView>> entity = new GenericEntity<List<ComponentReviewView>>(views)
 		{
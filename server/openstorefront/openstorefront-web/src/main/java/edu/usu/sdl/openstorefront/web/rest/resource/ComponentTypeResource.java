@@ -21,7 +21,7 @@ import edu.usu.sdl.openstorefront.core.annotation.DataType;
 import edu.usu.sdl.openstorefront.core.entity.ComponentType;
 import edu.usu.sdl.openstorefront.core.entity.SecurityPermission;
 import edu.usu.sdl.openstorefront.core.entity.StandardEntity;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.view.ComponentTypeView;
 import edu.usu.sdl.openstorefront.core.view.LookupModel;
 import edu.usu.sdl.openstorefront.doc.security.RequireSecurity;
@@ -77,7 +77,7 @@ public class ComponentTypeResource
 		}
 
 		List<ComponentType> componentTypes = componentType.findByExample();
-		componentTypes.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, ComponentType.FIELD_LABEL));		
+		componentTypes.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, ComponentType.FIELD_LABEL));		
 		GenericEntity<List<ComponentTypeView>> entity = new GenericEntity<List<ComponentTypeView>>(ComponentTypeView.toTemplateView(componentTypes))
 		{
 		};
@@ -99,7 +99,7 @@ public class ComponentTypeResource
 		componentType.setAllowOnSubmission(Boolean.TRUE);
 
 		List<ComponentType> componentTypes = componentType.findByExample();
-		componentTypes.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, ComponentType.FIELD_LABEL));
+		componentTypes.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, ComponentType.FIELD_LABEL));
 		GenericEntity<List<ComponentType>> entity = new GenericEntity<List<ComponentType>>(componentTypes)
 		{
 		};
@@ -25,7 +25,7 @@ import edu.usu.sdl.openstorefront.core.api.query.SpecialOperatorModel;
 import edu.usu.sdl.openstorefront.core.entity.Contact;
 import edu.usu.sdl.openstorefront.core.entity.SecurityPermission;
 import edu.usu.sdl.openstorefront.core.model.ContactReference;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.view.ContactViewWrapper;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.doc.security.RequireSecurity;
@@ -69,7 +69,7 @@ public class ContactResource
 		contact.setActiveStatus(Contact.ACTIVE_STATUS);
 		List<Contact> contacts = contact.findByExample();
 		
-		contacts.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, Contact.FIELD_FIRSTNAME));
+		contacts.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, Contact.FIELD_FIRSTNAME));
 
 		return contacts;
 	}
@@ -38,7 +38,7 @@ import edu.usu.sdl.openstorefront.core.entity.WorkflowStatus;
 import edu.usu.sdl.openstorefront.core.filter.FilterEngine;
 import edu.usu.sdl.openstorefront.core.model.ContentSectionAll;
 import edu.usu.sdl.openstorefront.core.model.EvaluationAll;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.view.ChecklistResponseView;
 import edu.usu.sdl.openstorefront.core.view.ContentSectionMediaView;
 import edu.usu.sdl.openstorefront.core.view.EvaluationChecklistRecommendationView;
@@ -220,7 +220,7 @@ public class EvaluationResource
 		}
 
 		evaluationStatistic.getStatusStats().addAll(statusMap.values());
-		evaluationStatistic.getStatusStats().sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, WorkflowStats.FIELD_STATUSORDER));
+		evaluationStatistic.getStatusStats().sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, WorkflowStats.FIELD_STATUSORDER));
 
 		return sendSingleEntityResponse(evaluationStatistic);
 	}
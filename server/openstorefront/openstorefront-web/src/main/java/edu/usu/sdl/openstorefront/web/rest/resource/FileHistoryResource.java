@@ -32,7 +32,7 @@ import edu.usu.sdl.openstorefront.core.entity.FileHistoryError;
 import edu.usu.sdl.openstorefront.core.entity.FileHistoryErrorType;
 import edu.usu.sdl.openstorefront.core.entity.SecurityPermission;
 import edu.usu.sdl.openstorefront.core.model.DataMapModel;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.view.FileHistoryView;
 import edu.usu.sdl.openstorefront.core.view.FileHistoryViewWrapper;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
@@ -276,7 +276,7 @@ public class FileHistoryResource
 						
 			mappings.add(lookupModel);
 		}
-		mappings.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, LookupModel.DESCRIPTION_FIELD));			
+		mappings.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, LookupModel.DESCRIPTION_FIELD));			
 		
 		return mappings;
 	}
@@ -29,7 +29,7 @@ import edu.usu.sdl.openstorefront.core.entity.ReportDataId;
 import edu.usu.sdl.openstorefront.core.entity.ReportFormat;
 import edu.usu.sdl.openstorefront.core.entity.ReportType;
 import edu.usu.sdl.openstorefront.core.entity.SecurityPermission;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.core.view.LookupModel;
@@ -213,7 +213,7 @@ public class ReportResource
 		}
 
 		reportTypes = reportTypes.stream().filter(r -> r.getRequiredPermission() == null || SecurityUtil.hasPermission(r.getRequiredPermission())).collect(Collectors.toList());
-		reportTypes.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_DESCENDING, LookupEntity.FIELD_DESCRIPTION));
+		reportTypes.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_DESCENDING, LookupEntity.FIELD_DESCRIPTION));
 
 		GenericEntity<List<ReportType>> entity = new GenericEntity<List<ReportType>>(reportTypes)
 		{
@@ -241,7 +241,7 @@ public class ReportResource
 			lookupModel.setDescription(TranslateUtil.translate(ReportFormat.class, format));
 			formats.add(lookupModel);
 		}
-		formats.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_DESCENDING, LookupModel.DESCRIPTION_FIELD));
+		formats.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_DESCENDING, LookupModel.DESCRIPTION_FIELD));
 
 		GenericEntity<List<LookupModel>> entity = new GenericEntity<List<LookupModel>>(formats)
 		{
@@ -286,6 +286,8 @@ public class ReportResource
 				TaskRequest taskRequest = new TaskRequest();
 				taskRequest.setAllowMultiple(true);
 				taskRequest.setName(TaskRequest.TASKNAME_REPORT);
+				taskRequest.setCategory(TaskRequest.CATEGORY_REPORT);
+				taskRequest.setPriority(TaskRequest.PRIORITY_HIGH);
 				taskRequest.setDetails("Report: " + report.getReportType() + " Report id: " + report.getReportId() + " for user: " + SecurityUtil.getCurrentUserName());
 				taskRequest.getTaskData().put(TaskRequest.DATAKEY_REPORT_ID, report.getReportId());
 				service.getAsyncProxy(service.getReportService(), taskRequest).generateReport(report);
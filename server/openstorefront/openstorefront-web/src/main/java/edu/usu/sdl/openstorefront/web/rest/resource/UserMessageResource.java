@@ -142,6 +142,7 @@ public class UserMessageResource
 		TaskRequest taskRequest = new TaskRequest();
 		taskRequest.setAllowMultiple(false);
 		taskRequest.setName("Process All User Messages Now");
+		taskRequest.setCategory(TaskRequest.CATEGORY_BULK);
 
 		UserMessage userMessageExample = new UserMessage();
 		userMessageExample.setActiveStatus(UserMessage.ACTIVE_STATUS);
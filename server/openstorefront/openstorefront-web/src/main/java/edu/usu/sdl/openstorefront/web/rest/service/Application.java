@@ -45,7 +45,9 @@ import edu.usu.sdl.openstorefront.core.view.SystemStatusView;
 import edu.usu.sdl.openstorefront.core.view.ThreadStatus;
 import edu.usu.sdl.openstorefront.doc.annotation.RequiredParam;
 import edu.usu.sdl.openstorefront.doc.security.RequireSecurity;
+import edu.usu.sdl.openstorefront.service.manager.DBLogManager;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
+import edu.usu.sdl.openstorefront.service.manager.resource.DBLogHandler;
 import edu.usu.sdl.openstorefront.validation.CleanKeySanitizer;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
@@ -167,6 +169,16 @@ public class Application
 			applicationStatus.getMemoryPools().add(memoryPoolStatus);
 		}
 
+		DBLogHandler logHandler = DBLogManager.getLogHandler();
+		if (logHandler != null) {
+			applicationStatus.setDbLogActive(true);
+			applicationStatus.setDbLogQueueCapacity(logHandler.getQueueCapacity());
+			applicationStatus.setDbLogQueueDepth(logHandler.getQueueDepth());
+			applicationStatus.setDbLogDroppedCount(logHandler.getDroppedCount());
+			applicationStatus.setDbLogWrittenCount(logHandler.getWrittenCount());
+			applicationStatus.setDbLogFailedCount(logHandler.getFailedCount());
+		}
+
 		return sendSingleEntityResponse(applicationStatus);
 	}
 
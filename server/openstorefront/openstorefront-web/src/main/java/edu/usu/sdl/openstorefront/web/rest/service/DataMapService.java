@@ -30,7 +30,7 @@ import edu.usu.sdl.openstorefront.core.entity.ComponentReviewConPk;
 import edu.usu.sdl.openstorefront.core.entity.ComponentReviewProPk;
 import edu.usu.sdl.openstorefront.core.entity.SecurityPermission;
 import edu.usu.sdl.openstorefront.core.model.ComponentAll;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.StringTransforms;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.TypeTransforms;
 import edu.usu.sdl.openstorefront.core.view.LookupModel;
@@ -84,7 +84,7 @@ public class DataMapService
 			lookupModel.setDescription(typeTransforms.getDescription());
 			transforms.add(lookupModel);
 		}	
-		transforms.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, LookupModel.DESCRIPTION_FIELD));
+		transforms.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, LookupModel.DESCRIPTION_FIELD));
 		
 		return transforms;
 	}
@@ -158,7 +158,7 @@ public class DataMapService
 		entities.add(lookupModel);
 				
 		
-		entities.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, LookupModel.DESCRIPTION_FIELD));
+		entities.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, LookupModel.DESCRIPTION_FIELD));
 		
 		return entities;
 	}	
@@ -25,8 +25,12 @@ import edu.usu.sdl.openstorefront.doc.annotation.RequiredParam;
 import edu.usu.sdl.openstorefront.doc.security.RequireSecurity;
 import edu.usu.sdl.openstorefront.service.manager.AsyncTaskManager;
 import edu.usu.sdl.openstorefront.service.manager.JobManager;
+import edu.usu.sdl.openstorefront.service.manager.ReindexManager;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
 import edu.usu.sdl.openstorefront.service.manager.model.JobModel;
+import edu.usu.sdl.openstorefront.service.manager.model.ReindexQueueStatus;
 import edu.usu.sdl.openstorefront.service.manager.model.TaskManagerStatus;
+import edu.usu.sdl.openstorefront.service.manager.model.TrackingQueueStatus;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.web.rest.resource.BaseResource;
 import java.util.List;
@@ -177,6 +181,30 @@ public class JobService
 		return sendSingleEntityResponse(taskManagerStatus);
 	}
 
+	@GET
+	@RequireSecurity(SecurityPermission.ADMIN_JOB_MANAGEMENT)
+	@APIDescription("Retrieves tracking queue status (backpressure and dropped records)")
+	@Produces({MediaType.APPLICATION_JSON})
+	@DataType(TrackingQueueStatus.class)
+	@Path("/tracking/status")
+	public Response getTrackingQueueStatus()
+	{
+		TrackingQueueStatus trackingQueueStatus = TrackingManager.managerStatus();
+		return sendSingleEntityResponse(trackingQueueStatus);
+	}
+
+	@GET
+	@RequireSecurity(SecurityPermission.ADMIN_JOB_MANAGEMENT)
+	@APIDescription("Retrieves search reindex queue status (backlog and lag)")
+	@Produces({MediaType.APPLICATION_JSON})
+	@DataType(ReindexQueueStatus.class)
+	@Path("/reindex/status")
+	public Response getReindexQueueStatus()
+	{
+		ReindexQueueStatus reindexQueueStatus = ReindexManager.managerStatus();
+		return sendSingleEntityResponse(reindexQueueStatus);
+	}
+
 	@GET
 	@RequireSecurity(SecurityPermission.ADMIN_JOB_MANAGEMENT)
 	@APIDescription("Retrieves task")
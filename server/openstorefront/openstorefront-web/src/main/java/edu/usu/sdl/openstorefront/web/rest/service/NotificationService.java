@@ -69,6 +69,7 @@ public class NotificationService
 			TaskRequest taskRequest = new TaskRequest();
 			taskRequest.setAllowMultiple(true);
 			taskRequest.setName("Sending Admin Message");
+			taskRequest.setCategory(TaskRequest.CATEGORY_BULK);
 			taskRequest.setDetails("Emailing: " + Arrays.toString(adminMessage.getUsersToEmail().toArray(new String[0])));
 			service.getAsyncProxy(service.getUserService(), taskRequest).sendAdminMessage(adminMessage);
 			return Response.ok().build();
@@ -105,6 +106,7 @@ public class NotificationService
 			TaskRequest taskRequest = new TaskRequest();
 			taskRequest.setAllowMultiple(true);
 			taskRequest.setName("Send Recent Change Email");
+			taskRequest.setCategory(TaskRequest.CATEGORY_BULK);
 			String email = "";
 			if (StringUtils.isNotBlank(emailAddress)) {
 				email = " Email: " + emailAddress;
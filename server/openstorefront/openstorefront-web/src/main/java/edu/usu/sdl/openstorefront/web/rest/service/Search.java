@@ -181,6 +181,7 @@ public class Search
 		TaskRequest taskRequest = new TaskRequest();
 		taskRequest.setAllowMultiple(false);
 		taskRequest.setName("Resetting Indexer");
+		taskRequest.setCategory(TaskRequest.CATEGORY_INDEX);
 		taskRequest.setDetails("Reindexing components and articles");
 		service.getAsyncProxy(service.getSearchService(), taskRequest).resetIndexer();
 		return Response.ok().build();
@@ -43,10 +43,12 @@ import edu.usu.sdl.openstorefront.core.view.statistic.UserRecordStatistic;
 import edu.usu.sdl.openstorefront.core.view.statistic.UserStatisticView;
 import edu.usu.sdl.openstorefront.doc.security.RequireSecurity;
 import edu.usu.sdl.openstorefront.service.manager.AsyncTaskManager;
+import edu.usu.sdl.openstorefront.service.manager.ComponentStatisticManager;
 import edu.usu.sdl.openstorefront.web.rest.resource.BaseResource;
 import java.util.List;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
@@ -122,6 +124,16 @@ public class StatisticService
 		return sendSingleEntityResponse(componentStatisticView);
 	}
 
+	@POST
+	@RequireSecurity(SecurityPermission.ADMIN_ENTRY_MANAGEMENT)
+	@APIDescription("Recounts component view/resource click statistics from the tracking records (runs in the background)")
+	@Path("/component/rebuild")
+	public Response rebuildComponentStatistic()
+	{
+		ComponentStatisticManager.requestRebuild();
+		return Response.ok().build();
+	}
+
 	@GET
 	@RequireSecurity("ADMIN-USER-MANAGEMENT")
 	@APIDescription("Gets user statistics")
@@ -2,7 +2,7 @@ package edu.usu.sdl.openstorefront.web.test;
 
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
 import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
-import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
+import edu.usu.sdl.openstorefront.core.sort.ComparatorFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
@@ -43,7 +43,7 @@ public class TestSuiteModel
 				throw new OpenStorefrontRuntimeException(ex);
 			}
 		}
-		tests.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, "description"));
+		tests.sort(ComparatorFactory.build(OpenStorefrontConstant.SORT_ASCENDING, "description"));
 	}
 
 	public String statString()
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.web.test.component;
+
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
+import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
+import edu.usu.sdl.openstorefront.core.model.ComponentAll;
+import edu.usu.sdl.openstorefront.service.manager.ComponentStatisticManager;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
+import edu.usu.sdl.openstorefront.service.manager.model.TrackingQueueStatus;
+import edu.usu.sdl.openstorefront.web.test.BaseTestCase;
+
+/**
+ * Checks queued tracking records are written (and counted) on flush
+ *
+ * @author dshurtleff
+ */
+public class ComponentTrackingQueueTest
+		extends BaseTestCase
+{
+
+	private static final int RECORDS = 3;
+
+	@Override
+	protected void runInternalTest()
+	{
+		ComponentAll componentAll = getTestComponent();
+		String componentId = componentAll.getComponent().getComponentId();
+		cleanTestDataList.add(() -> {
+			ComponentTracking deleteExample = new ComponentTracking();
+			deleteExample.setComponentId(componentId);
+			service.getPersistenceService().deleteByExample(deleteExample);
+		});
+
+		TrackingQueueStatus before = TrackingManager.managerStatus();
+		for (int i = 0; i < RECORDS; i++) {
+			ComponentTracking componentTracking = new ComponentTracking();
+			componentTracking.setClientIp("127.0.0.1");
+			componentTracking.setComponentId(componentId);
+			componentTracking.setComponentType(componentAll.getComponent().getComponentType());
+			componentTracking.setEventDts(TimeUtil.currentDate());
+			componentTracking.setTrackEventTypeCode(TrackEventCode.VIEW);
+			service.getComponentService().addComponentTracking(componentTracking);
+		}
+		TrackingManager.flush();
+		TrackingQueueStatus after = TrackingManager.managerStatus();
+		addResultsLines("Accepted: " + (after.getAcceptedCount() - before.getAcceptedCount()),
+				"Written: " + (after.getWrittenCount() - before.getWrittenCount()),
+				"Dropped: " + after.getDroppedCount());
+
+		ComponentTracking componentTrackingExample = new ComponentTracking();
+		componentTrackingExample.setComponentId(componentId);
+		long saved = service.getPersistenceService().countByExample(new QueryByExample(componentTrackingExample));
+		results.append("Saved: ").append(saved).append("<br>");
+		if (saved != RECORDS) {
+			failureReason.append("Expected ").append(RECORDS).append(" tracking records after flush");
+		}
+
+		long views = ComponentStatisticManager.getViews(componentId);
+		results.append("Counted views: ").append(views).append("<br>");
+		if (views != RECORDS) {
+			failureReason.append("Expected ").append(RECORDS).append(" counted views after flush");
+		}
+	}
+
+	@Override
+	public String getDescription()
+	{
+		return "Component Tracking Queue Test";
+	}
+
+}
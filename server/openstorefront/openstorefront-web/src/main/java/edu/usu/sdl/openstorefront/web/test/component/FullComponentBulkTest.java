@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.web.test.component;
+
+import edu.usu.sdl.openstorefront.core.model.ComponentAll;
+import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
+import edu.usu.sdl.openstorefront.web.test.BaseTestCase;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the bulk load matches the single component load
+ *
+ * @author dshurtleff
+ */
+public class FullComponentBulkTest
+		extends BaseTestCase
+{
+
+	@Override
+	protected void runInternalTest()
+	{
+		ComponentAll first = getTestComponent();
+		ComponentAll second = getTestComponent();
+
+		List<String> componentIds = new ArrayList<>();
+		componentIds.add(second.getComponent().getComponentId());
+		componentIds.add("MISSING-COMPONENT");
+		componentIds.add(first.getComponent().getComponentId());
+
+		OSFCacheManager.getComponentCache().removeAll();
+		List<ComponentAll> componentAlls = service.getComponentService().getFullComponents(componentIds);
+		results.append("Loaded: ").append(componentAlls.size()).append("<br>");
+
+		if (componentAlls.size() != 2) {
+			failureReason.append("Expected 2 components (missing should be skipped)");
+			return;
+		}
+		if (componentAlls.get(0).getComponent().getComponentId().equals(second.getComponent().getComponentId()) == false) {
+			failureReason.append("Components should be returned in the requested order");
+		}
+
+		OSFCacheManager.getComponentCache().removeAll();
+		ComponentAll single = service.getComponentService().getFullComponent(first.getComponent().getComponentId());
+		ComponentAll bulk = componentAlls.get(1);
+		if (single.getAttributes().size() != bulk.getAttributes().size()) {
+			failureReason.append("Attribute count doesn't match single load");
+		}
+		addResultsLines("Single attributes: " + single.getAttributes().size(), "Bulk attributes: " + bulk.getAttributes().size());
+	}
+
+	@Override
+	public String getDescription()
+	{
+		return "Full Component Bulk Load Test";
+	}
+
+}
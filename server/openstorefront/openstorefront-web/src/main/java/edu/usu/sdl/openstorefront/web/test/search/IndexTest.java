@@ -40,6 +40,9 @@ public class IndexTest
 		List<Component> componentsToIndex = new ArrayList<>();
 		componentsToIndex.add(componentAll.getComponent());
 		service.getSearchService().indexComponents(componentsToIndex);
+		if (service.getSearchService().flushIndexQueue(30000) == false) {
+			failureReason.append("Index queue did not flush<br>");
+		}
 
 		results.append("Searching Component Index...<br>");
 		SearchQuery query = new SearchQuery();
@@ -846,7 +846,7 @@
 				Ext.Array.each(data, function(result){
 					//check entry logo first
 					if (result.componentIconId) {
-						result.logo = 'Media.action?LoadMedia&mediaId=' + result.componentIconId;
+						result.logo = 'Media.action?LoadMedia&width=200&mediaId=' + result.componentIconId;
 					} else if (result.componentTypeIconUrl) {
 						result.logo = result.componentTypeIconUrl;
 					}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.web.action.resolution;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ContentStreamerTest
+{
+
+	@Test
+	public void testMatchesAny()
+	{
+		String entityTag = ContentStreamer.entityTag(1024, 1500000000000L);
+		assertTrue(ContentStreamer.matchesAny(entityTag, entityTag));
+		assertTrue(ContentStreamer.matchesAny("\"other\", W/" + entityTag, entityTag));
+		assertTrue(ContentStreamer.matchesAny("*", entityTag));
+		assertFalse(ContentStreamer.matchesAny(ContentStreamer.entityTag(1024, 1500000001000L), entityTag));
+		assertFalse(ContentStreamer.matchesAny(null, entityTag));
+	}
+
+	@Test
+	public void testNotModifiedSince()
+	{
+		//header dates drop the millis
+		assertTrue(ContentStreamer.notModifiedSince(1500000000999L, 1500000000000L));
+		assertFalse(ContentStreamer.notModifiedSince(1500000001000L, 1500000000000L));
+		assertFalse(ContentStreamer.notModifiedSince(1500000000000L, -1));
+	}
+
+	@Test
+	public void testTransfer() throws IOException
+	{
+		Path file = Files.createTempFile("content", ".txt");
+		try {
+			Files.write(file, "0123456789".getBytes(StandardCharsets.UTF_8));
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				//out of order ranges read from their own positions
+				ContentStreamer.transfer(channel, 7, 3, Channels.newChannel(out));
+				ContentStreamer.transfer(channel, 0, 2, Channels.newChannel(out));
+			}
+			assertEquals("78901", out.toString("UTF-8"));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test(expected = EOFException.class)
+	public void testTransferTruncated() throws IOException
+	{
+		Path file = Files.createTempFile("content", ".txt");
+		try {
+			Files.write(file, "01234".getBytes(StandardCharsets.UTF_8));
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				ContentStreamer.transfer(channel, 0, 10, Channels.newChannel(out));
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testCopy() throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long copied = ContentStreamer.copy(new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8)), out, 2, 3);
+		assertEquals(3, copied);
+		assertEquals("234", out.toString("UTF-8"));
+	}
+
+}
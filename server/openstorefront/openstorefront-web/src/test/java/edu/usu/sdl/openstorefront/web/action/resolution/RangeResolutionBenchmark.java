@@ -0,0 +1,175 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.web.action.resolution;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares sending a media file the old way (512 byte buffer, skip to the
+ * range start) vs the channel transfers. Uses a video sized temp file and
+ * writes to a discarding stream (like the servlet output stream). Run with
+ * main() from the test classpath.
+ *
+ * @author dshurtleff
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RangeResolutionBenchmark
+{
+
+	@Param({"104857600"})
+	private long fileSize;
+
+	private Path file;
+	private long rangeStart;
+	private long rangeEnd;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException
+	{
+		file = Files.createTempFile("media", ".mp4");
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+			byte data[] = new byte[1024 * 1024];
+			for (int i = 0; i < data.length; i++) {
+				data[i] = (byte) i;
+			}
+			for (long written = 0; written < fileSize; written += data.length) {
+				randomAccessFile.write(data, 0, (int) Math.min(data.length, fileSize - written));
+			}
+		}
+
+		//seek near the end of the video
+		rangeStart = fileSize - fileSize / 10;
+		rangeEnd = fileSize - 1;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException
+	{
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public long legacyFull() throws IOException
+	{
+		DiscardOutputStream out = new DiscardOutputStream();
+		try (InputStream in = new FileInputStream(file.toFile())) {
+			byte[] buffer = new byte[512];
+			int bufferLength;
+			while ((bufferLength = in.read(buffer)) != -1) {
+				out.write(buffer, 0, bufferLength);
+			}
+		}
+		return out.count;
+	}
+
+	@Benchmark
+	public long legacyRange() throws IOException
+	{
+		DiscardOutputStream out = new DiscardOutputStream();
+		try (InputStream in = new FileInputStream(file.toFile())) {
+			byte[] buffer = new byte[512];
+			int bufferLength;
+			long count = in.skip(rangeStart);
+			while ((bufferLength = in.read(buffer, 0, (int) Math.min(buffer.length, rangeEnd + 1 - count))) != -1) {
+				out.write(buffer, 0, bufferLength);
+				count += bufferLength;
+				if (rangeEnd + 1 == count) {
+					break;
+				}
+			}
+		}
+		return out.count;
+	}
+
+	@Benchmark
+	public long transferFull() throws IOException
+	{
+		DiscardOutputStream out = new DiscardOutputStream();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ContentStreamer.transfer(channel, 0, fileSize, Channels.newChannel(out));
+		}
+		return out.count;
+	}
+
+	@Benchmark
+	public long transferRange() throws IOException
+	{
+		DiscardOutputStream out = new DiscardOutputStream();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ContentStreamer.transfer(channel, rangeStart, rangeEnd - rangeStart + 1, Channels.newChannel(out));
+		}
+		return out.count;
+	}
+
+	private static class DiscardOutputStream
+			extends OutputStream
+	{
+
+		private long count;
+
+		@Override
+		public void write(int b)
+		{
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len)
+		{
+			count += len;
+		}
+
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+				.include(RangeResolutionBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.web.action.resolution;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import net.sourceforge.stripes.util.Range;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class RangeResolutionTest
+{
+
+	private Path file;
+	private int status;
+	private Map<String, String> headers;
+	private ByteArrayOutputStream body;
+
+	@Before
+	public void setup() throws IOException
+	{
+		file = Files.createTempFile("range", ".txt");
+		Files.write(file, "0123456789".getBytes(StandardCharsets.UTF_8));
+		status = HttpServletResponse.SC_OK;
+		headers = new HashMap<>();
+		body = new ByteArrayOutputStream();
+	}
+
+	@After
+	public void tearDown() throws IOException
+	{
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void testSingleRange() throws Exception
+	{
+		execute("bytes=2-4");
+
+		assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, status);
+		assertEquals("bytes 2-4/10", headers.get("Content-Range"));
+		assertEquals("3", headers.get("Content-Length"));
+		assertEquals("text/plain", headers.get("Content-Type"));
+		assertEquals("234", body.toString("UTF-8"));
+	}
+
+	@Test
+	public void testMultipleRanges() throws Exception
+	{
+		execute("bytes=0-1,5-6");
+
+		assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, status);
+		assertTrue(headers.get("Content-Type").startsWith("multipart/byteranges; boundary="));
+		assertNull(headers.get("Content-Range"));
+		assertEquals(Integer.toString(body.size()), headers.get("Content-Length"));
+
+		String content = body.toString("UTF-8");
+		assertTrue(content.contains("Content-Range: bytes 0-1/10\r\n\r\n01\r\n"));
+		assertTrue(content.contains("Content-Range: bytes 5-6/10\r\n\r\n56\r\n"));
+		assertTrue(content.endsWith("--\r\n"));
+	}
+
+	@Test
+	public void testUnsatisfiableRange() throws Exception
+	{
+		execute("bytes=20-30");
+
+		assertEquals(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, status);
+		assertEquals("bytes */10", headers.get("Content-Range"));
+		assertEquals(0, body.size());
+	}
+
+	@Test
+	public void testNoRange() throws Exception
+	{
+		execute(null);
+
+		assertEquals(HttpServletResponse.SC_OK, status);
+		assertEquals("10", headers.get("Content-Length"));
+		assertEquals("0123456789", body.toString("UTF-8"));
+	}
+
+	@Test
+	public void testParseByteRanges()
+	{
+		//suffix and past the end are trimmed to the content
+		assertRanges(RangeResolution.parseByteRanges("bytes=-3", 10), 7L, 9L);
+		assertRanges(RangeResolution.parseByteRanges("bytes=8-100", 10), 8L, 9L);
+		assertRanges(RangeResolution.parseByteRanges("bytes=6-", 10), 6L, 9L);
+
+		//sorted and merged
+		assertRanges(RangeResolution.parseByteRanges("bytes=5-6,0-2,1-4", 10), 0L, 6L);
+		assertRanges(RangeResolution.parseByteRanges("bytes=7-8,0-1", 10), 0L, 1L, 7L, 8L);
+
+		assertTrue(RangeResolution.parseByteRanges("bytes=10-12", 10).isEmpty());
+		assertNull(RangeResolution.parseByteRanges("items=0-1", 10));
+		assertNull(RangeResolution.parseByteRanges("bytes=4-2", 10));
+		assertNull(RangeResolution.parseByteRanges("bytes=a-b", 10));
+	}
+
+	private void assertRanges(List<Range<Long>> ranges, Long... bounds)
+	{
+		assertEquals(bounds.length / 2, ranges.size());
+		for (int i = 0; i < ranges.size(); i++) {
+			assertEquals(bounds[i * 2], ranges.get(i).getStart());
+			assertEquals(bounds[i * 2 + 1], ranges.get(i).getEnd());
+		}
+	}
+
+	private void execute(String range) throws Exception
+	{
+		Map<String, String> requestHeaders = new HashMap<>();
+		if (range != null) {
+			requestHeaders.put("Range", range);
+		}
+		HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "getHeader":
+					return requestHeaders.get((String) args[0]);
+				case "getDateHeader":
+					return -1L;
+				case "getMethod":
+					return "GET";
+				default:
+					return null;
+			}
+		});
+
+		ServletOutputStream out = new ServletOutputStream()
+		{
+
+			@Override
+			public void write(int b) throws IOException
+			{
+				body.write(b);
+			}
+
+		};
+		HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "setStatus":
+					status = (Integer) args[0];
+					break;
+				case "setHeader":
+				case "addHeader":
+					headers.put((String) args[0], (String) args[1]);
+					break;
+				case "setContentType":
+					headers.put("Content-Type", (String) args[0]);
+					break;
+				case "getOutputStream":
+					return out;
+				default:
+					break;
+			}
+			return null;
+		});
+
+		new RangeResolution("text/plain", file, request, null, null).execute(request, response);
+	}
+
+}